@@ -0,0 +1,82 @@
+plugins {
+    // Apply tha java plugin to add support for Java
+    java
+
+    // Apply the application plugin to add support for building a CLI application in Java.
+    application
+
+    // Using SpotBugs to help streamline development
+    id("com.github.spotbugs")
+    // Using spotless for code formatting
+    id("com.diffplug.spotless")
+
+    /*
+     * Add tasks to create a fat jar
+     * To create it, run on a terminal "./gradlew shadowJar
+     * The runnable jar will be found in client/build/libs/client-all.jar
+     */
+    id("com.gradleup.shadow")
+
+    // JavaFX plugin to streamline JavaFX setup
+    id("org.openjfx.javafxplugin")
+}
+
+repositories {
+    // Use Maven Central to resolve dependencies.
+    mavenCentral()
+}
+
+dependencies {
+    // The simulation itself lives in the engine module
+    implementation(project(":engine"))
+
+    // Use JUnit Jupiter frameowrk for unit testing.
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.12.1")
+    testImplementation("org.junit.jupiter:junit-jupiter-params:5.12.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.12.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // This dependency is used by the application.
+    implementation("com.google.guava:guava:33.4.6-jre")
+}
+
+// Apply a specific Java toolchain to ease working on different environments.
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+    }
+}
+
+// Spotless configuration to use Google Formatting for Java
+spotless {
+    java {
+        googleJavaFormat()
+    }
+}
+
+application {
+    // Define the main class for the application.
+    mainClass.set("github.zekecode.cowboybebop.Main")
+    // Lets the engine pick its SIMD movement kernel
+    applicationDefaultJvmArgs = listOf("--add-modules=jdk.incubator.vector")
+}
+
+// Setting up JavaFX versions and needed modules
+javafx {
+    version = "17.0.14"
+    modules = listOf(
+        "javafx.controls",
+        "javafx.base",
+        "javafx.fxml",
+        "javafx.swing",
+        "javafx.graphics"
+    )
+}
+
+tasks.named<Test>("test") {
+    // Use JUnit Platform for unit tests.
+    useJUnitPlatform()
+    testLogging {
+        events("passed", "skipped", "failed")
+    }
+}
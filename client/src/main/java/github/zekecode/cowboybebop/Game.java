@@ -0,0 +1,311 @@
+package github.zekecode.cowboybebop;
+
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.core.WorldMetrics;
+import github.zekecode.cowboybebop.net.GameClient;
+import github.zekecode.cowboybebop.replay.ReplayWriter;
+import github.zekecode.cowboybebop.systems.RenderSystem;
+import github.zekecode.cowboybebop.ui.HUD;
+import github.zekecode.cowboybebop.util.FixedTimestep;
+import github.zekecode.cowboybebop.util.InputManager;
+import github.zekecode.cowboybebop.util.RollingHistogram;
+import github.zekecode.cowboybebop.util.SpriteCache;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+public class Game extends Application {
+  private static final double WIDTH = 800;
+  private static final double HEIGHT = 600;
+
+  // The simulation runs at a fixed rate, whatever the refresh rate of the display
+  private static final double TICK_RATE = 60;
+  private static final int MAX_TICKS_PER_FRAME = 5;
+
+  private final FixedTimestep timestep = new FixedTimestep(1.0 / TICK_RATE, MAX_TICKS_PER_FRAME);
+
+  // Profiling overlay, toggled with F3. Nothing is measured while it is hidden
+  private static final KeyCode METRICS_KEY = KeyCode.F3;
+  private final RollingHistogram frameTimes = new RollingHistogram(WorldMetrics.WINDOW);
+  private final RollingHistogram renderTimes = new RollingHistogram(WorldMetrics.WINDOW);
+  private boolean metricsVisible = false;
+  private boolean metricsKeyDown = false;
+
+  /**
+   * Directory where every session is recorded, when set with -Dcowboybebop.replays. A recording
+   * replays headless with {@code Simulation --replay <file>}.
+   */
+  private static final String REPLAYS_PROPERTY = "cowboybebop.replays";
+
+  /**
+   * Address of a game server to play on, as host:port, when set with -Dcowboybebop.server. The
+   * server simulates the game and this window only sends the input and draws what it receives.
+   */
+  private static final String SERVER_PROPERTY = "cowboybebop.server";
+
+  private Simulation simulation;
+  private GameClient client;
+  private ReplayWriter recording;
+  private InputManager inputManager;
+  private HUD hud;
+  private Canvas canvas;
+  private RenderSystem renderSystem;
+
+  // Kept across restarts, so that sprites are only rasterized once per run
+  private final SpriteCache spriteCache =
+      new SpriteCache(SpriteCache.DEFAULT_ROTATIONS, SpriteCache.DEFAULT_BUDGET);
+
+  private Entity player;
+  private boolean gameOver = false;
+
+  @Override
+  public void start(Stage primaryStage) {
+    // Create the canvas and get the graphics context
+    canvas = new Canvas(WIDTH, HEIGHT);
+    GraphicsContext gc = canvas.getGraphicsContext2D();
+
+    // Create HUD, which draws on its own layer above the game
+    hud = new HUD(gc, WIDTH, HEIGHT);
+
+    StackPane root = new StackPane(canvas, hud.getLayer());
+    Scene scene = new Scene(root, WIDTH, HEIGHT);
+
+    inputManager = new InputManager(scene);
+
+    if (!connect()) {
+      initGame();
+    }
+
+    // Game loop
+    AnimationTimer gameLoop =
+        new AnimationTimer() {
+          private long lastUpdate = 0;
+
+          @Override
+          public void handle(long now) {
+            // Calculate delta time
+            if (lastUpdate == 0) {
+              lastUpdate = now;
+              return;
+            }
+
+            double deltaTime = (now - lastUpdate) / 1_000_000_000.0; // Convert to seconds
+            if (metricsVisible) {
+              frameTimes.record(now - lastUpdate);
+            }
+            lastUpdate = now;
+            handleMetricsToggle();
+
+            // Clear the screen, the only clear of the frame
+            gc.setFill(Color.BLACK);
+            gc.fillRect(0, 0, WIDTH, HEIGHT);
+
+            if (client != null) {
+              renderRemote(deltaTime);
+            } else if (!gameOver) {
+              // Run as many fixed ticks as the elapsed time allows
+              int ticks = timestep.advance(deltaTime);
+              for (int i = 0; i < ticks && !gameOver; i++) {
+                simulation.tick(timestep.getStep());
+
+                // Check for game over
+                gameOver = simulation.isGameOver();
+              }
+              if (gameOver) {
+                stopRecording();
+              }
+
+              // Draw the world between the last two ticks
+              long renderStart = metricsVisible ? java.lang.System.nanoTime() : 0;
+              renderSystem.render(timestep.getAlpha());
+              if (metricsVisible) {
+                renderTimes.record(java.lang.System.nanoTime() - renderStart);
+              }
+
+              // Render HUD
+              hud.render(player);
+              if (metricsVisible) {
+                hud.renderMetrics(simulation.getWorld().getMetrics(), frameTimes, renderTimes);
+              }
+            } else {
+              // Get final score
+              int finalScore = 0;
+              if (player != null && player.hasComponent(PlayerComponent.class)) {
+                finalScore = player.getComponent(PlayerComponent.class).getScore();
+              }
+
+              // Render game over screen
+              hud.renderGameOver(finalScore);
+
+              // Check for restart
+              if (inputManager.isKeyPressed(KeyCode.SPACE)) {
+                initGame();
+              }
+            }
+          }
+        };
+
+    gameLoop.start();
+
+    // Setup window
+    primaryStage.setTitle("Cowboy Bebop");
+    primaryStage.setResizable(false);
+    primaryStage.setScene(scene);
+    primaryStage.show();
+  }
+
+  @Override
+  public void stop() {
+    stopRecording();
+    disconnect();
+  }
+
+  private void initGame() {
+    // Reset game state, the simulation itself comes from the engine module
+    stopRecording();
+    simulation = new Simulation(WIDTH, HEIGHT, inputManager);
+    startRecording();
+    simulation.getWorld().getMetrics().setEnabled(metricsVisible);
+    player = simulation.getPlayer();
+    gameOver = false;
+    timestep.reset();
+
+    // Rendering happens once per displayed frame rather than once per tick
+    renderSystem =
+        new RenderSystem(simulation.getWorld(), canvas.getGraphicsContext2D(), spriteCache);
+  }
+
+  /**
+   * Joins the game server if one is set. Restarts are then up to the server, which starts a new
+   * game when space is held after the player died.
+   *
+   * @return true if the game is played on a server
+   */
+  private boolean connect() {
+    String server = java.lang.System.getProperty(SERVER_PROPERTY);
+    if (server == null) {
+      return false;
+    }
+    int colon = server.lastIndexOf(':');
+    try {
+      client =
+          new GameClient(
+              new InetSocketAddress(
+                  server.substring(0, colon), Integer.parseInt(server.substring(colon + 1))));
+    } catch (IOException | RuntimeException e) {
+      java.lang.System.err.println("Playing locally, could not join " + server + ": " + e);
+      return false;
+    }
+    client.getWorld().getMetrics().setEnabled(metricsVisible);
+    renderSystem = new RenderSystem(client.getWorld(), canvas.getGraphicsContext2D(), spriteCache);
+    return true;
+  }
+
+  private void disconnect() {
+    if (client == null) {
+      return;
+    }
+    try {
+      client.close();
+    } catch (IOException e) {
+      java.lang.System.err.println("Could not leave the server: " + e);
+    }
+    client = null;
+  }
+
+  /** Runs a frame of a game simulated by the server: sends the input and draws the snapshots. */
+  private void renderRemote(double deltaTime) {
+    try {
+      client.update(deltaTime, inputManager);
+    } catch (IOException e) {
+      java.lang.System.err.println("Lost the server, playing locally: " + e);
+      disconnect();
+      initGame();
+      return;
+    }
+
+    long renderStart = metricsVisible ? java.lang.System.nanoTime() : 0;
+    renderSystem.render(client.getAlpha());
+    if (metricsVisible) {
+      renderTimes.record(java.lang.System.nanoTime() - renderStart);
+    }
+
+    Entity remotePlayer = client.getPlayer();
+    if (client.isGameOver()) {
+      PlayerComponent playerComponent =
+          remotePlayer != null ? remotePlayer.getComponent(PlayerComponent.class) : null;
+      hud.renderGameOver(playerComponent != null ? playerComponent.getScore() : 0);
+    } else {
+      hud.render(remotePlayer);
+    }
+    if (metricsVisible) {
+      hud.renderMetrics(client.getWorld().getMetrics(), frameTimes, renderTimes);
+    }
+  }
+
+  /** The world being drawn, simulated locally or mirrored from the server. */
+  private World world() {
+    return client != null ? client.getWorld() : simulation.getWorld();
+  }
+
+  /** Records the new session if a replay directory is set. */
+  private void startRecording() {
+    String directory = java.lang.System.getProperty(REPLAYS_PROPERTY);
+    if (directory == null) {
+      return;
+    }
+    Path file =
+        Paths.get(directory)
+            .resolve(
+                String.format(
+                    "session-%d-%016x.replay",
+                    java.lang.System.currentTimeMillis(), simulation.getSeed()));
+    try {
+      Files.createDirectories(file.getParent());
+      recording = simulation.record(Files.newOutputStream(file));
+    } catch (IOException e) {
+      java.lang.System.err.println("Not recording the session: " + e);
+    }
+  }
+
+  private void stopRecording() {
+    if (recording == null) {
+      return;
+    }
+    try {
+      recording.close();
+    } catch (IOException e) {
+      java.lang.System.err.println("Could not finish the recording: " + e);
+    }
+    recording = null;
+  }
+
+  /** Shows or hides the metrics overlay when its key goes down. */
+  private void handleMetricsToggle() {
+    boolean keyDown = inputManager.isKeyPressed(METRICS_KEY);
+    if (keyDown && !metricsKeyDown) {
+      metricsVisible = !metricsVisible;
+      frameTimes.clear();
+      renderTimes.clear();
+      world().getMetrics().setEnabled(metricsVisible);
+    }
+    metricsKeyDown = keyDown;
+  }
+
+  public static void main(String[] args) {
+    launch(args);
+  }
+}
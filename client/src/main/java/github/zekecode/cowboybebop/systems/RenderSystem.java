@@ -0,0 +1,188 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.util.SpriteBatch;
+import github.zekecode.cowboybebop.util.SpriteCache;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws every sprite on a canvas.
+ *
+ * <p>By default each sprite is copied from a {@link SpriteCache}, which rasterizes every look once
+ * with a set of pre-rotated images, so a sprite costs a single {@code drawImage}.
+ *
+ * <p>Without a cache, sprites are drawn as vectors, one batch per color. They are first collected
+ * into a {@link SpriteBatch} straight from the archetype arrays, with their rotated corners
+ * computed there. Each color then takes a single fill change and a single fill of a path holding
+ * all of its rectangles, instead of a save, transform, fill and restore per sprite. Sprites of one
+ * color are drawn in the order they were found, but colors are drawn one after the other, so
+ * overlapping sprites of different colors may swap depth.
+ */
+public class RenderSystem implements System {
+  private final Query renderables;
+  private final GraphicsContext gc;
+  private final SpriteCache spriteCache;
+  private final SpriteBatch batch = new SpriteBatch();
+
+  // JavaFX colors of the sprite colors met so far, the game only uses a handful of them
+  private final Map<Integer, Color> colors = new HashMap<>();
+
+  public RenderSystem(World world, GraphicsContext gc) {
+    this(world, gc, new SpriteCache(SpriteCache.DEFAULT_ROTATIONS, SpriteCache.DEFAULT_BUDGET));
+  }
+
+  /**
+   * Creates the system.
+   *
+   * @param world the world to draw
+   * @param gc where to draw it
+   * @param spriteCache the images of the sprites, or null to draw them as vectors
+   */
+  public RenderSystem(World world, GraphicsContext gc, SpriteCache spriteCache) {
+    this.renderables = world.query(TransformComponent.class, SpriteComponent.class);
+    this.gc = gc;
+    this.spriteCache = spriteCache;
+  }
+
+  /** Drawing must happen on the JavaFX thread, so this system always runs alone. */
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ComponentAccess.EXCLUSIVE;
+  }
+
+  /** Draws the current simulation state, without interpolation. */
+  @Override
+  public void update(double deltaTime) {
+    render(1.0);
+  }
+
+  /**
+   * Draws every entity at its position blended between the last two simulation ticks. The canvas
+   * is not cleared, which is up to the caller.
+   *
+   * @param alpha how far the frame is between the previous tick (0) and the current one (1)
+   */
+  public void render(double alpha) {
+    if (spriteCache != null) {
+      drawImages(alpha);
+    } else {
+      drawBatches(alpha);
+    }
+  }
+
+  /** Copies the cached image of every visible sprite. */
+  private void drawImages(double alpha) {
+    double width = gc.getCanvas().getWidth();
+    double height = gc.getCanvas().getHeight();
+
+    List<Archetype> archetypes = renderables.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      if (archetype.size() == 0) {
+        continue;
+      }
+
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn sprites = archetype.column(SpriteComponent.class);
+      double[] x = transforms.values(TransformComponent.X);
+      double[] y = transforms.values(TransformComponent.Y);
+      double[] rotation = transforms.values(TransformComponent.ROTATION);
+      double[] previousX = transforms.values(TransformComponent.PREVIOUS_X);
+      double[] previousY = transforms.values(TransformComponent.PREVIOUS_Y);
+      double[] previousRotation = transforms.values(TransformComponent.PREVIOUS_ROTATION);
+
+      for (int i = 0; i < archetype.size(); i++) {
+        SpriteComponent sprite = (SpriteComponent) sprites.get(i);
+        if (sprite.getShape() == null) {
+          continue;
+        }
+        Image image =
+            spriteCache.get(
+                sprite,
+                TransformComponent.interpolateAngle(previousRotation[i], rotation[i], alpha));
+
+        // Images are centered on the sprite
+        double imageWidth = image.getWidth();
+        double imageHeight = image.getHeight();
+        double left = TransformComponent.interpolate(previousX[i], x[i], alpha) - imageWidth / 2;
+        double top = TransformComponent.interpolate(previousY[i], y[i], alpha) - imageHeight / 2;
+        if (left < width && top < height && left + imageWidth > 0 && top + imageHeight > 0) {
+          gc.drawImage(image, left, top);
+        }
+      }
+    }
+  }
+
+  /** Fills one path of rectangles per sprite color. */
+  private void drawBatches(double alpha) {
+    collect(alpha);
+    batch.sort();
+
+    double[] cornerX = batch.getCornerX();
+    double[] cornerY = batch.getCornerY();
+    for (int b = 0; b < batch.getBatchCount(); b++) {
+      gc.setFill(colors.computeIfAbsent(batch.getBatchColor(b), SpriteCache::toFxColor));
+
+      // All the rectangles of a color go into one path, filled at once
+      gc.beginPath();
+      for (int s = batch.getBatchStart(b); s < batch.getBatchEnd(b); s++) {
+        int c = s * 4;
+        gc.moveTo(cornerX[c], cornerY[c]);
+        gc.lineTo(cornerX[c + 1], cornerY[c + 1]);
+        gc.lineTo(cornerX[c + 2], cornerY[c + 2]);
+        gc.lineTo(cornerX[c + 3], cornerY[c + 3]);
+        gc.closePath();
+      }
+      gc.fill();
+    }
+  }
+
+  /** Fills the batch with the visible sprites, reading the transforms as arrays. */
+  private void collect(double alpha) {
+    batch.clear();
+    batch.setBounds(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+
+    List<Archetype> archetypes = renderables.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      if (archetype.size() == 0) {
+        continue;
+      }
+
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn sprites = archetype.column(SpriteComponent.class);
+      double[] x = transforms.values(TransformComponent.X);
+      double[] y = transforms.values(TransformComponent.Y);
+      double[] rotation = transforms.values(TransformComponent.ROTATION);
+      double[] previousX = transforms.values(TransformComponent.PREVIOUS_X);
+      double[] previousY = transforms.values(TransformComponent.PREVIOUS_Y);
+      double[] previousRotation = transforms.values(TransformComponent.PREVIOUS_ROTATION);
+
+      for (int i = 0; i < archetype.size(); i++) {
+        SpriteComponent sprite = (SpriteComponent) sprites.get(i);
+        if (sprite.getShape() == null) {
+          continue;
+        }
+        batch.add(
+            TransformComponent.interpolate(previousX[i], x[i], alpha),
+            TransformComponent.interpolate(previousY[i], y[i], alpha),
+            TransformComponent.interpolateAngle(previousRotation[i], rotation[i], alpha),
+            sprite.getWidth(),
+            sprite.getHeight(),
+            sprite.getColor());
+      }
+    }
+  }
+}
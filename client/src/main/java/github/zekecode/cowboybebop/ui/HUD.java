@@ -0,0 +1,264 @@
+package github.zekecode.cowboybebop.ui;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.WorldMetrics;
+import github.zekecode.cowboybebop.util.RollingHistogram;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Draws the player's health and score, the game over screen and the profiling overlay.
+ *
+ * <p>Health, score and the game over screen go on a layer of their own, laid over the game canvas,
+ * which is only redrawn when what it shows changes. Fonts are created once, and the texts are only
+ * built when the layer is redrawn. The profiling overlay changes every frame, so it is drawn
+ * straight on the game canvas.
+ */
+public class HUD {
+  // Metrics overlay layout
+  private static final double OVERLAY_WIDTH = 300;
+  private static final double LINE_HEIGHT = 14;
+  private static final double GRAPH_HEIGHT = 60;
+  private static final double GRAPH_SCALE_MS = 33.3; // Frame time drawn at the top of the graph
+  private static final double NANOS_PER_MS = 1_000_000.0;
+
+  // Health bar layout
+  private static final double BAR_WIDTH = 200;
+  private static final double BAR_HEIGHT = 20;
+  private static final double BAR_X = 20;
+  private static final double BAR_Y = 20;
+
+  /** Stands for a value the layer doesn't show, such as the health of a player without any */
+  private static final int NOT_SHOWN = Integer.MIN_VALUE;
+
+  private final GraphicsContext gc;
+  private final double screenWidth;
+  private final double screenHeight;
+
+  private final Canvas layer;
+  private final GraphicsContext layerGc;
+
+  private final Font healthFont = new Font(14);
+  private final Font scoreFont = new Font(18);
+  private final Font titleFont = new Font(48);
+  private final Font finalScoreFont = new Font(24);
+  private final Color gameOverBackground = new Color(0, 0, 0, 0.7);
+
+  // What the layer currently shows
+  private boolean layerDrawn;
+  private boolean showingGameOver;
+  private int shownHealth;
+  private int shownMaxHealth;
+  private int shownScore;
+
+  private final Font metricsFont = Font.font("Monospaced", 11);
+  private final Color overlayBackground = new Color(0, 0, 0, 0.6);
+  private final List<GarbageCollectorMXBean> garbageCollectors =
+      ManagementFactory.getGarbageCollectorMXBeans();
+
+  public HUD(GraphicsContext gc, double screenWidth, double screenHeight) {
+    this.gc = gc;
+    this.screenWidth = screenWidth;
+    this.screenHeight = screenHeight;
+
+    layer = new Canvas(screenWidth, screenHeight);
+    layer.setMouseTransparent(true);
+    layerGc = layer.getGraphicsContext2D();
+  }
+
+  /**
+   * Returns the layer holding the health, score and game over screen, to be stacked over the game.
+   *
+   * @return the canvas of the layer
+   */
+  public Canvas getLayer() {
+    return layer;
+  }
+
+  /**
+   * Shows the health and score of a player, redrawing the layer only if either changed.
+   *
+   * @param player the player, or null to show nothing
+   */
+  public void render(Entity player) {
+    int health = NOT_SHOWN;
+    int maxHealth = NOT_SHOWN;
+    int score = NOT_SHOWN;
+    if (player != null) {
+      HealthComponent healthComponent = player.getComponent(HealthComponent.class);
+      if (healthComponent != null) {
+        health = healthComponent.getCurrentHealth();
+        maxHealth = healthComponent.getMaxHealth();
+      }
+      PlayerComponent playerComponent = player.getComponent(PlayerComponent.class);
+      if (playerComponent != null) {
+        score = playerComponent.getScore();
+      }
+    }
+
+    if (layerDrawn
+        && !showingGameOver
+        && health == shownHealth
+        && maxHealth == shownMaxHealth
+        && score == shownScore) {
+      return;
+    }
+    layerGc.clearRect(0, 0, screenWidth, screenHeight);
+
+    // Draw health bar
+    if (health != NOT_SHOWN) {
+      // Background
+      layerGc.setFill(Color.DARKGRAY);
+      layerGc.fillRect(BAR_X, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+
+      // Health amount
+      double healthPercentage = (double) health / maxHealth;
+      layerGc.setFill(
+          healthPercentage > 0.5
+              ? Color.GREEN
+              : healthPercentage > 0.25 ? Color.ORANGE : Color.RED);
+      layerGc.fillRect(BAR_X, BAR_Y, BAR_WIDTH * healthPercentage, BAR_HEIGHT);
+
+      // Border
+      layerGc.setStroke(Color.BLACK);
+      layerGc.strokeRect(BAR_X, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+
+      // Text
+      layerGc.setFill(Color.WHITE);
+      layerGc.setFont(healthFont);
+      layerGc.fillText("Health: " + health + "/" + maxHealth, BAR_X + 10, BAR_Y + 15);
+    }
+
+    // Draw score
+    if (score != NOT_SHOWN) {
+      layerGc.setFill(Color.WHITE);
+      layerGc.setFont(scoreFont);
+      layerGc.fillText("Score: " + score, 20, 60);
+    }
+
+    layerDrawn = true;
+    showingGameOver = false;
+    shownHealth = health;
+    shownMaxHealth = maxHealth;
+    shownScore = score;
+  }
+
+  /**
+   * Shows the game over screen, redrawing the layer only if it wasn't showing it already.
+   *
+   * @param finalScore the score to show
+   */
+  public void renderGameOver(int finalScore) {
+    if (showingGameOver && finalScore == shownScore) {
+      return;
+    }
+    layerGc.clearRect(0, 0, screenWidth, screenHeight);
+
+    layerGc.setFill(gameOverBackground);
+    layerGc.fillRect(0, 0, screenWidth, screenHeight);
+
+    layerGc.setFill(Color.RED);
+    layerGc.setFont(titleFont);
+    layerGc.fillText("GAME OVER", screenWidth / 2 - 140, screenHeight / 2 - 24);
+
+    layerGc.setFill(Color.WHITE);
+    layerGc.setFont(finalScoreFont);
+    layerGc.fillText("Final Score: " + finalScore, screenWidth / 2 - 80, screenHeight / 2 + 20);
+
+    layerGc.setFont(scoreFont);
+    layerGc.fillText("Press SPACE to restart", screenWidth / 2 - 90, screenHeight / 2 + 60);
+
+    layerDrawn = true;
+    showingGameOver = true;
+    shownScore = finalScore;
+  }
+
+  /**
+   * Draws the profiling overlay: frame, tick and render times, the time of each system, garbage
+   * collections, entity counts per component type and a graph of the recent frame times.
+   *
+   * @param metrics the metrics of the running world
+   * @param frameTimes the time between displayed frames, in nanoseconds
+   * @param renderTimes the time spent drawing the world, in nanoseconds
+   */
+  public void renderMetrics(
+      WorldMetrics metrics, RollingHistogram frameTimes, RollingHistogram renderTimes) {
+    int lines = 6 + metrics.getSystemCount() + metrics.getComponentTypeCount();
+    double x = screenWidth - OVERLAY_WIDTH - 10;
+    double y = 10;
+    gc.setFill(overlayBackground);
+    gc.fillRect(x, y, OVERLAY_WIDTH, lines * LINE_HEIGHT + GRAPH_HEIGHT + 20);
+
+    gc.setFont(metricsFont);
+    gc.setFill(Color.WHITE);
+    double textX = x + 8;
+    double line = y + LINE_HEIGHT;
+    gc.fillText(String.format("%-16s %6s %6s %6s", "ms", "p50", "p99", "max"), textX, line);
+    line = drawTimes("frame", frameTimes, textX, line + LINE_HEIGHT);
+    line = drawTimes("tick", metrics.getTickTimes(), textX, line);
+    line = drawTimes("render", renderTimes, textX, line);
+    for (int i = 0; i < metrics.getSystemCount(); i++) {
+      line = drawTimes("  " + metrics.getSystemName(i), metrics.getSystemTimes(i), textX, line);
+    }
+
+    long collections = 0;
+    long collectionTime = 0;
+    for (GarbageCollectorMXBean collector : garbageCollectors) {
+      collections += Math.max(0, collector.getCollectionCount());
+      collectionTime += Math.max(0, collector.getCollectionTime());
+    }
+    gc.fillText(
+        String.format("gc %d collections, %d ms", collections, collectionTime), textX, line);
+    line += LINE_HEIGHT;
+
+    gc.fillText("entities per component", textX, line);
+    line += LINE_HEIGHT;
+    for (int i = 0; i < metrics.getComponentTypeCount(); i++) {
+      gc.fillText(
+          String.format(
+              "  %-22s %6d",
+              metrics.getComponentType(i).getSimpleName(), metrics.getComponentCount(i)),
+          textX,
+          line);
+      line += LINE_HEIGHT;
+    }
+
+    drawFrameGraph(frameTimes, textX, line, OVERLAY_WIDTH - 16);
+  }
+
+  private double drawTimes(String label, RollingHistogram times, double x, double y) {
+    gc.fillText(
+        String.format(
+            "%-16.16s %6.2f %6.2f %6.2f",
+            label,
+            times.percentile(0.5) / NANOS_PER_MS,
+            times.percentile(0.99) / NANOS_PER_MS,
+            times.max() / NANOS_PER_MS),
+        x,
+        y);
+    return y + LINE_HEIGHT;
+  }
+
+  /** Draws one bar per recent frame, with a line at the 60 FPS budget. */
+  private void drawFrameGraph(RollingHistogram frameTimes, double x, double y, double width) {
+    double barWidth = width / frameTimes.capacity();
+    double bottom = y + GRAPH_HEIGHT;
+    for (int i = 0; i < frameTimes.size(); i++) {
+      double ms = frameTimes.get(i) / NANOS_PER_MS;
+      double height = Math.min(GRAPH_HEIGHT, ms / GRAPH_SCALE_MS * GRAPH_HEIGHT);
+      gc.setFill(ms > 1000 / 60.0 + 1 ? Color.ORANGE : Color.LIMEGREEN);
+      gc.fillRect(x + i * barWidth, bottom - height, Math.max(1, barWidth), height);
+    }
+
+    double budget = bottom - (1000 / 60.0) / GRAPH_SCALE_MS * GRAPH_HEIGHT;
+    gc.setStroke(Color.WHITE);
+    gc.strokeLine(x, budget, x + width, budget);
+  }
+}
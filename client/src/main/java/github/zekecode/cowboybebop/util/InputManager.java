@@ -0,0 +1,101 @@
+package github.zekecode.cowboybebop.util;
+
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+
+/**
+ * Tracks the keyboard and mouse state of a JavaFX scene for the simulation.
+ *
+ * <p>Events are recorded into an {@link InputBuffer} indexed by {@link KeyCode} ordinal, so they
+ * don't allocate, and the simulation reads a {@link #snapshot()} per tick without locking. The
+ * other methods give the live state, for the JavaFX thread itself.
+ */
+public class InputManager implements InputSource {
+  private static final KeyCode[] KEY_CODES = KeyCode.values();
+
+  private final InputBuffer buffer = new InputBuffer(names());
+
+  public InputManager(Scene scene) {
+    // Key press handlers
+    scene.setOnKeyPressed(
+        e -> {
+          buffer.press(e.getCode().ordinal());
+        });
+
+    scene.setOnKeyReleased(
+        e -> {
+          buffer.release(e.getCode().ordinal());
+        });
+
+    // Mouse press handlers
+    scene.setOnMousePressed(
+        e -> {
+          if (e.getButton() == MouseButton.PRIMARY) {
+            buffer.setMousePressed(true);
+          }
+        });
+
+    scene.setOnMouseReleased(
+        e -> {
+          if (e.getButton() == MouseButton.PRIMARY) {
+            buffer.setMousePressed(false);
+          }
+        });
+
+    // Mouse move handler
+    scene.setOnMouseMoved(
+        e -> {
+          buffer.moveMouse(e.getX(), e.getY());
+        });
+
+    scene.setOnMouseDragged(
+        e -> {
+          buffer.moveMouse(e.getX(), e.getY());
+        });
+  }
+
+  /** Names of the key codes, by ordinal, which is how the buffer indexes them. */
+  private static String[] names() {
+    String[] names = new String[KEY_CODES.length];
+    for (KeyCode code : KEY_CODES) {
+      names[code.ordinal()] = code.toString();
+    }
+    return names;
+  }
+
+  /**
+   * Tells whether a key is held right now.
+   *
+   * @param keyCode the key
+   * @return true if the key is pressed
+   */
+  public boolean isKeyPressed(KeyCode keyCode) {
+    return buffer.isKeyPressed(keyCode.ordinal());
+  }
+
+  @Override
+  public boolean isKeyPressed(String keyCode) {
+    return buffer.isKeyPressed(keyCode);
+  }
+
+  @Override
+  public boolean isMousePressed() {
+    return buffer.isMousePressed();
+  }
+
+  @Override
+  public double getMouseX() {
+    return buffer.getMouseX();
+  }
+
+  @Override
+  public double getMouseY() {
+    return buffer.getMouseY();
+  }
+
+  @Override
+  public InputState snapshot() {
+    return buffer.snapshot();
+  }
+}
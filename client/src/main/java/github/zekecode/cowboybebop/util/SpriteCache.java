@@ -0,0 +1,173 @@
+package github.zekecode.cowboybebop.util;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Rasterizes every distinct sprite look (shape, size, color) once into images, so that drawing a
+ * sprite is a single image copy.
+ *
+ * <p>Each look is rendered into a fixed number of pre-rotated images, evenly spread over a full
+ * turn; a sprite is drawn with the image closest to its rotation. The images are kept in an {@link
+ * LruCache} weighted by their size in bytes, so looks that are no longer on screen are dropped once
+ * the memory budget is reached.
+ *
+ * <p>Rasterizing takes snapshots of a canvas, so the cache must only be used on the JavaFX thread.
+ */
+public class SpriteCache {
+  /** Rotations rendered for every look by default, a variant every 11.25 degrees */
+  public static final int DEFAULT_ROTATIONS = 32;
+
+  /** Memory kept for the images by default, in bytes */
+  public static final long DEFAULT_BUDGET = 16L * 1024 * 1024;
+
+  /** Bytes per pixel of the rasterized images */
+  private static final int PIXEL_BYTES = 4;
+
+  private final int rotations;
+  private final LruCache<Look, Image[]> images;
+
+  /** Reused to look images up without allocating */
+  private final Look probe = new Look();
+
+  private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param rotations the number of pre-rotated images of each look
+   * @param budget the maximum memory taken by the images, in bytes
+   */
+  public SpriteCache(int rotations, long budget) {
+    if (rotations < 1) {
+      throw new IllegalArgumentException("At least one rotation is needed: " + rotations);
+    }
+    this.rotations = rotations;
+    this.images = new LruCache<>(budget, SpriteCache::weigh);
+    snapshotParameters.setFill(Color.TRANSPARENT);
+  }
+
+  /**
+   * Returns the image of a sprite, rasterizing its look on first use.
+   *
+   * @param sprite the sprite to draw
+   * @param rotation the rotation of the sprite, in radians
+   * @return the pre-rotated image closest to the rotation, centered on the sprite
+   */
+  public Image get(SpriteComponent sprite, double rotation) {
+    probe.set(sprite.getShape(), sprite.getWidth(), sprite.getHeight(), sprite.getColor());
+    Image[] variants = images.get(probe);
+    if (variants == null) {
+      variants = rasterize(probe);
+      images.put(probe.copy(), variants);
+    }
+
+    int bucket = (int) Math.round(rotation * rotations / (2 * Math.PI));
+    return variants[Math.floorMod(bucket, rotations)];
+  }
+
+  private Image[] rasterize(Look look) {
+    // Every variant is a square fitting the sprite at any angle, with a pixel of margin
+    int size = (int) Math.ceil(Math.hypot(look.width, look.height)) + 2;
+    Color color = toFxColor(look.color);
+
+    Image[] variants = new Image[rotations];
+    for (int i = 0; i < rotations; i++) {
+      Canvas canvas = new Canvas(size, size);
+      GraphicsContext gc = canvas.getGraphicsContext2D();
+      gc.translate(size / 2.0, size / 2.0);
+      gc.rotate(360.0 * i / rotations);
+      gc.setFill(color);
+      switch (look.shape) {
+        case RECTANGLE:
+        default:
+          gc.fillRect(-look.width / 2, -look.height / 2, look.width, look.height);
+      }
+      variants[i] = canvas.snapshot(snapshotParameters, new WritableImage(size, size));
+    }
+    return variants;
+  }
+
+  private static long weigh(Image[] variants) {
+    long bytes = 0;
+    for (Image image : variants) {
+      bytes += (long) image.getWidth() * (long) image.getHeight() * PIXEL_BYTES;
+    }
+    return bytes;
+  }
+
+  public int getRotations() {
+    return rotations;
+  }
+
+  /**
+   * Returns the underlying cache, for its memory use and hit statistics.
+   *
+   * @return the images of every cached look
+   */
+  public LruCache<Look, Image[]> getImages() {
+    return images;
+  }
+
+  /**
+   * Converts a 0xAARRGGBB sprite color into a JavaFX color.
+   *
+   * @param argb the sprite color
+   * @return the JavaFX color
+   */
+  public static Color toFxColor(int argb) {
+    return Color.rgb(
+        (argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF, ((argb >>> 24) & 0xFF) / 255.0);
+  }
+
+  /** What a sprite looks like, the key of its images. */
+  public static final class Look {
+    private SpriteComponent.Shape shape;
+    private double width;
+    private double height;
+    private int color;
+
+    private void set(SpriteComponent.Shape shape, double width, double height, int color) {
+      this.shape = shape;
+      this.width = width;
+      this.height = height;
+      this.color = color;
+    }
+
+    private Look copy() {
+      Look copy = new Look();
+      copy.set(shape, width, height, color);
+      return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Look)) {
+        return false;
+      }
+      Look other = (Look) o;
+      return shape == other.shape
+          && Double.compare(width, other.width) == 0
+          && Double.compare(height, other.height) == 0
+          && color == other.color;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = shape == null ? 0 : shape.hashCode();
+      hash = 31 * hash + Double.hashCode(width);
+      hash = 31 * hash + Double.hashCode(height);
+      return 31 * hash + color;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s %.0fx%.0f #%08X", shape, width, height, color);
+    }
+  }
+}
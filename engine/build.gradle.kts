@@ -0,0 +1,87 @@
+plugins {
+    // The engine is a library used by the client, and can also run headless on its own
+    `java-library`
+    application
+
+    // Using SpotBugs to help streamline development
+    id("com.github.spotbugs")
+    // Using spotless for code formatting
+    id("com.diffplug.spotless")
+
+    /*
+     * Benchmarks of the ECS hot paths, in src/jmh/java
+     * To run them, run on a terminal "./gradlew :engine:jmh"
+     * The results will be found in engine/build/results/jmh/results.json
+     */
+    id("me.champeau.jmh")
+}
+
+repositories {
+    // Use Maven Central to resolve dependencies.
+    mavenCentral()
+}
+
+dependencies {
+    // Use JUnit Jupiter frameowrk for unit testing.
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.12.1")
+    testImplementation("org.junit.jupiter:junit-jupiter-params:5.12.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.12.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+// Apply a specific Java toolchain to ease working on different environments.
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+    }
+}
+
+/*
+ * The SIMD movement kernel, in systems/vector, uses the incubating Vector API.
+ * Without this module at run time, the engine falls back to the scalar kernel.
+ */
+val vectorModule = "--add-modules=jdk.incubator.vector"
+
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.add(vectorModule)
+}
+
+// Spotless configuration to use Google Formatting for Java
+spotless {
+    java {
+        googleJavaFormat()
+    }
+}
+
+application {
+    // Headless simulation, prints the number of ticks simulated per second
+    mainClass.set("github.zekecode.cowboybebop.Simulation")
+    applicationDefaultJvmArgs = listOf(vectorModule)
+}
+
+// Authoritative game server on the loopback address, for clients started with
+// -Dcowboybebop.server=localhost:7777. Run with "./gradlew :engine:runServer"
+tasks.register<JavaExec>("runServer") {
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("github.zekecode.cowboybebop.net.GameServer")
+    jvmArgs(vectorModule)
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // Report the allocation rate next to the throughput
+    profilers.add("gc")
+    // JSON results can be compared between commits, for instance with jmh.morethan.io
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    jvmArgsAppend.add(vectorModule)
+}
+
+tasks.named<Test>("test") {
+    // Use JUnit Platform for unit tests.
+    useJUnitPlatform()
+    jvmArgs(vectorModule)
+    testLogging {
+        events("passed", "skipped", "failed")
+    }
+}
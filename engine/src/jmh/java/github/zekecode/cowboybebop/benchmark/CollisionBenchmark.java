@@ -0,0 +1,76 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.components.CollisionComponent;
+import github.zekecode.cowboybebop.components.CollisionLayers;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.systems.CollisionSystem;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one collision pass (broadphase and narrowphase) over static colliders spread at various
+ * densities. The colliders use layers that collide with each other but have no response, so the
+ * world doesn't change between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+  private static final double RADIUS = 10;
+
+  @Param({"1000", "10000"})
+  public int colliderCount;
+
+  /** Average number of colliders in a 100x100 area */
+  @Param({"0.5", "2", "8"})
+  public double density;
+
+  private World world;
+  private CollisionSystem collisionSystem;
+
+  @Setup
+  public void setUp() {
+    world = new World();
+    collisionSystem = new CollisionSystem(world);
+
+    int first = CollisionLayers.layerOf("benchmark-a");
+    int second = CollisionLayers.layerOf("benchmark-b");
+    collisionSystem.setCollides(first, second, true);
+    collisionSystem.setCollides(first, first, true);
+
+    double arenaSize = Math.sqrt(colliderCount / density) * 100;
+    Random random = new Random(42);
+    for (int i = 0; i < colliderCount; i++) {
+      Entity entity = world.createEntity();
+      entity.addComponent(
+          new TransformComponent(random.nextDouble() * arenaSize, random.nextDouble() * arenaSize));
+      entity.addComponent(
+          new CollisionComponent(RADIUS, true, i % 2 == 0 ? "benchmark-a" : "benchmark-b"));
+    }
+  }
+
+  @Benchmark
+  public void collide() {
+    collisionSystem.update(Simulation.TICK);
+
+    // The collision events are not dispatched outside World.update, drop them
+    world.getEvents().clear();
+  }
+}
@@ -0,0 +1,65 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of creating entities, attaching their components, and removing them again. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityLifecycleBenchmark {
+  /** Entities created and removed by each invocation, scores are per entity */
+  private static final int BATCH = 1000;
+
+  private World world;
+  private final Entity[] entities = new Entity[BATCH];
+
+  @Setup
+  public void setUp() {
+    world = new World();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void createAndRemoveEmpty() {
+    for (int i = 0; i < BATCH; i++) {
+      entities[i] = world.createEntity();
+    }
+    for (int i = 0; i < BATCH; i++) {
+      world.removeEntity(entities[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void createAndRemoveWithComponents() {
+    for (int i = 0; i < BATCH; i++) {
+      Entity entity = world.createEntity();
+      entity.addComponent(new TransformComponent(i, i));
+      entity.addComponent(new VelocityComponent(100));
+      entity.addComponent(new HealthComponent(20));
+      entities[i] = entity;
+    }
+    for (int i = 0; i < BATCH; i++) {
+      world.removeEntity(entities[i]);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.systems.MovementKernel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of moving every entity once, with the scalar kernel and with the best kernel of the JVM,
+ * which is the SIMD one when the benchmarks run with the Vector API module (the build adds it).
+ * The kernel actually used is printed at setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+  @Param({"10000", "100000"})
+  public int entityCount;
+
+  @Param({"scalar", "best"})
+  public String kernelName;
+
+  private MovementKernel kernel;
+  private double[] x;
+  private double[] y;
+  private double[] rotation;
+  private double[] vx;
+  private double[] vy;
+  private double[] maxSpeed;
+
+  @Setup
+  public void setUp() {
+    kernel = kernelName.equals("scalar") ? MovementKernel.scalar() : MovementKernel.best();
+    System.out.println("Movement kernel: " + kernel.getName());
+
+    // A third of the entities go past their max speed, a fifth stand still
+    Random random = new Random(42);
+    x = new double[entityCount];
+    y = new double[entityCount];
+    rotation = new double[entityCount];
+    vx = new double[entityCount];
+    vy = new double[entityCount];
+    maxSpeed = new double[entityCount];
+    for (int i = 0; i < entityCount; i++) {
+      x[i] = random.nextDouble() * 800;
+      y[i] = random.nextDouble() * 600;
+      maxSpeed[i] = 100;
+      if (i % 5 != 0) {
+        double speed = i % 3 == 0 ? 150 : 80;
+        double angle = random.nextDouble() * Math.PI * 2;
+        vx[i] = Math.cos(angle) * speed;
+        vy[i] = Math.sin(angle) * speed;
+      }
+    }
+  }
+
+  @Benchmark
+  public void integrate() {
+    // Entities pile up on the screen edges over time, as they do in the game
+    kernel.integrate(x, y, rotation, vx, vy, maxSpeed, entityCount, 1.0 / 60, 800, 600);
+  }
+}
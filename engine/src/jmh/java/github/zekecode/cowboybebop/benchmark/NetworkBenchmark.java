@@ -0,0 +1,95 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.net.GameServer;
+import github.zekecode.cowboybebop.net.InterestManager;
+import github.zekecode.cowboybebop.net.NetSnapshot;
+import github.zekecode.cowboybebop.net.SnapshotEncoder;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of streaming a world of enemies to clients: the shared gathering the server does once per
+ * tick, then the area of interest query and the delta encoding it does for every client. Only the
+ * gathering should grow with the number of entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+  @Param({"1000", "10000"})
+  public int entityCount;
+
+  private InterestManager interest;
+  private final SnapshotEncoder encoder = new SnapshotEncoder();
+  private final ByteBuffer packet = ByteBuffer.allocate(16 * 1024);
+
+  // Two consecutive ticks, encoded alternately against each other
+  private final NetSnapshot[] ticks = {new NetSnapshot(), new NetSnapshot()};
+  private final NetSnapshot view = new NetSnapshot();
+  private int tick;
+
+  @Setup
+  public void setUp() {
+    World world = new World();
+    EntityFactory entityFactory = new EntityFactory(world);
+    Random random = new Random(42);
+    Entity[] entities = new Entity[entityCount];
+    for (int i = 0; i < entityCount; i++) {
+      entities[i] =
+          entityFactory.createEnemy(random.nextDouble() * 800, random.nextDouble() * 600, "basic");
+    }
+    interest = new InterestManager(world, GameServer.INTEREST_RADIUS, GameServer.MAX_ENTITIES);
+
+    for (NetSnapshot snapshot : ticks) {
+      interest.update();
+      interest.collect(400, 300, snapshot);
+      for (Entity entity : entities) {
+        TransformComponent transform = entity.getComponent(TransformComponent.class);
+        transform.setX(transform.getX() + random.nextDouble() * 4 - 2);
+        transform.setY(transform.getY() + random.nextDouble() * 4 - 2);
+      }
+    }
+  }
+
+  @Benchmark
+  public InterestManager gather() {
+    interest.update();
+    return interest;
+  }
+
+  @Benchmark
+  public NetSnapshot collect() {
+    interest.collect(400, 300, view);
+    return view;
+  }
+
+  /** Encodes a tick against the previous one, as for a client acknowledging every snapshot. */
+  @Benchmark
+  public int encode() {
+    NetSnapshot snapshot = ticks[tick & 1];
+    snapshot.setTick(1, ++tick);
+    encoder.acknowledge(tick - 1);
+    packet.clear();
+    encoder.encode(snapshot, packet);
+    return packet.position();
+  }
+}
@@ -0,0 +1,93 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.World;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of finding the entities having a component, through the copying {@code
+ * getEntitiesWithComponent} and through a cached query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+  @Param({"1000", "10000", "100000"})
+  public int entityCount;
+
+  private World world;
+  private Query transforms;
+
+  @Setup
+  public void setUp() {
+    world = new World();
+
+    // Half moving entities, a quarter of static ones, a quarter without a transform
+    for (int i = 0; i < entityCount; i++) {
+      Entity entity = world.createEntity();
+      switch (i % 4) {
+        case 0:
+        case 1:
+          entity.addComponent(new TransformComponent(i, i));
+          entity.addComponent(new VelocityComponent(100));
+          break;
+        case 2:
+          entity.addComponent(new TransformComponent(i, i));
+          break;
+        default:
+          entity.addComponent(new HealthComponent(20));
+          break;
+      }
+    }
+    transforms = world.query(TransformComponent.class);
+  }
+
+  @Benchmark
+  public void getEntitiesWithComponent(Blackhole blackhole) {
+    blackhole.consume(world.getEntitiesWithComponent(TransformComponent.class));
+  }
+
+  @Benchmark
+  public double iterateQuery() {
+    double sum = 0;
+    for (Entity entity : transforms) {
+      sum += entity.getComponent(TransformComponent.class).getX();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double iterateQueryColumns() {
+    double sum = 0;
+    List<Archetype> archetypes = transforms.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      double[] xs = archetype.column(TransformComponent.class).values(TransformComponent.X);
+      for (int row = 0; row < archetype.size(); row++) {
+        sum += xs[row];
+      }
+    }
+    return sum;
+  }
+}
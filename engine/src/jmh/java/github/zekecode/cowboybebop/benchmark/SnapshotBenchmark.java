@@ -0,0 +1,87 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.SnapshotCodecs;
+import github.zekecode.cowboybebop.core.ComponentCodecs;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.core.WorldSnapshot;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of saving and loading a world of enemies: the capture the game loop pays for, writing the
+ * capture to a file on the writer thread, and loading the file into a new world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+  private static final String[] ENEMY_TYPES = {"basic", "speedy", "tank"};
+
+  @Param({"10000", "100000"})
+  public int entityCount;
+
+  private final ComponentCodecs codecs = SnapshotCodecs.create();
+  private World world;
+  private WorldSnapshot snapshot;
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    world = new World();
+    EntityFactory entityFactory = new EntityFactory(world);
+    Random random = new Random(42);
+    for (int i = 0; i < entityCount; i++) {
+      entityFactory.createEnemy(
+          random.nextDouble() * 800,
+          random.nextDouble() * 600,
+          ENEMY_TYPES[random.nextInt(ENEMY_TYPES.length)]);
+    }
+
+    file = Files.createTempFile("benchmark", ".snapshot");
+    snapshot = WorldSnapshot.capture(world, codecs);
+    snapshot.writeTo(file);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /** The only part run on the game thread, between two ticks: it must stay well below a frame. */
+  @Benchmark
+  public WorldSnapshot capture() {
+    return WorldSnapshot.capture(world, codecs);
+  }
+
+  /** Encoding the components and writing the file, off the game thread. */
+  @Benchmark
+  public void write() throws IOException {
+    snapshot.writeTo(file);
+  }
+
+  @Benchmark
+  public World load() throws IOException {
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+    return loaded;
+  }
+}
@@ -0,0 +1,94 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EnemyPrefab;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of spawning a group of enemies and clearing them all again: one entity and one component
+ * at a time, one pooled entity at a time, and as a single batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnBenchmark {
+  @Param({"8", "100", "1000"})
+  public int count;
+
+  private World world;
+  private EntityFactory entityFactory;
+  private EnemyPrefab tank;
+  private Query enemies;
+  private Entity[] entities;
+
+  /** Places the enemies of a batch in a row */
+  private final ObjIntConsumer<Entity> placer =
+      (enemy, i) -> EntityFactory.place(enemy, i * 0.5, 100);
+
+  @Setup
+  public void setUp() {
+    world = new World();
+    entityFactory = new EntityFactory(world);
+    tank = entityFactory.getPrefabs().get("tank");
+    // Every removed enemy is kept, so that the pooled runs never allocate
+    entityFactory.getPool(tank.getName()).setCapacity(count);
+    entityFactory.getPool(tank.getName()).prewarm(count);
+    enemies = world.query(EnemyComponent.class);
+    entities = new Entity[count];
+  }
+
+  @Benchmark
+  public World createEntitiesAndComponents() {
+    for (int i = 0; i < count; i++) {
+      Entity enemy = world.createEntity();
+      enemy.addComponent(new TransformComponent(i * 0.5, 100));
+      enemy.addComponent(new VelocityComponent(tank.getMaxSpeed()));
+      enemy.addComponent(tank.getSprite());
+      enemy.addComponent(new CollisionComponent(tank.getSize() / 2, true, "enemy"));
+      enemy.addComponent(new HealthComponent(tank.getHealth()));
+      enemy.addComponent(tank.getStats());
+      entities[i] = enemy;
+    }
+    for (int i = 0; i < count; i++) {
+      world.removeEntity(entities[i]);
+    }
+    return world;
+  }
+
+  @Benchmark
+  public World spawnPooledOneByOne() {
+    for (int i = 0; i < count; i++) {
+      entities[i] = entityFactory.createEnemy(i * 0.5, 100, tank);
+    }
+    for (int i = 0; i < count; i++) {
+      world.removeEntity(entities[i]);
+    }
+    return world;
+  }
+
+  @Benchmark
+  public World spawnBatch() {
+    entityFactory.createEnemies(tank, count, placer);
+    world.destroyAll(enemies);
+    return world;
+  }
+}
@@ -0,0 +1,68 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.util.SpriteBatch;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of preparing a frame for the renderer: computing the corners of every sprite and grouping
+ * them by color. Drawing itself needs a JavaFX canvas and is not measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteBatchBenchmark {
+  private static final int[] COLORS = {
+    SpriteComponent.RED, SpriteComponent.ORANGE, SpriteComponent.DARK_RED, SpriteComponent.YELLOW
+  };
+
+  @Param({"1000", "10000", "100000"})
+  public int spriteCount;
+
+  private final SpriteBatch batch = new SpriteBatch();
+  private double[] x;
+  private double[] y;
+  private double[] rotation;
+  private int[] color;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    x = new double[spriteCount];
+    y = new double[spriteCount];
+    rotation = new double[spriteCount];
+    color = new int[spriteCount];
+    for (int i = 0; i < spriteCount; i++) {
+      x[i] = random.nextDouble() * 800;
+      y[i] = random.nextDouble() * 600;
+      rotation[i] = random.nextDouble() * Math.PI * 2;
+      color[i] = COLORS[random.nextInt(COLORS.length)];
+    }
+    batch.setBounds(0, 0, 800, 600);
+  }
+
+  @Benchmark
+  public int collectAndSort() {
+    batch.clear();
+    for (int i = 0; i < spriteCount; i++) {
+      batch.add(x[i], y[i], rotation[i], 20, 20, color[i]);
+    }
+    batch.sort();
+    return batch.getBatchCount();
+  }
+}
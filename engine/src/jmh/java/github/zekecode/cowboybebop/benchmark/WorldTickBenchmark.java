@@ -0,0 +1,105 @@
+package github.zekecode.cowboybebop.benchmark;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.components.EnemyComponent;
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a full simulation tick with every gameplay system, on a realistic mix of entities built
+ * by the {@link EntityFactory}: a player shooting non-stop and a crowd of enemies of every type
+ * chasing it. Enemies killed during the run are replaced so that the population stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldTickBenchmark {
+  private static final String[] ENEMY_TYPES = {"basic", "basic", "speedy", "tank"};
+
+  @Param({"100", "1000", "10000"})
+  public int enemyCount;
+
+  private final Random random = new Random(42);
+  private Simulation simulation;
+  private EntityFactory entityFactory;
+  private Query enemies;
+  private double arenaSize;
+
+  @Setup
+  public void setUp() {
+    // Grow the arena with the crowd, so that the density stays close to the game's
+    arenaSize = Math.max(800, Math.sqrt(enemyCount) * 60);
+    simulation = new Simulation(arenaSize, arenaSize, new ShootingInput(arenaSize));
+    entityFactory = simulation.getEntityFactory();
+    enemies = simulation.getWorld().query(EnemyComponent.class);
+
+    // The player must survive the whole run
+    HealthComponent health = simulation.getPlayer().getComponent(HealthComponent.class);
+    health.setMaxHealth(Integer.MAX_VALUE);
+    health.setCurrentHealth(Integer.MAX_VALUE);
+
+    topUpEnemies();
+  }
+
+  @Benchmark
+  public void tick() {
+    topUpEnemies();
+    simulation.tick(Simulation.TICK);
+  }
+
+  private void topUpEnemies() {
+    for (int missing = enemyCount - enemies.size(); missing > 0; missing--) {
+      entityFactory.createEnemy(
+          random.nextDouble() * arenaSize,
+          random.nextDouble() * arenaSize,
+          ENEMY_TYPES[random.nextInt(ENEMY_TYPES.length)]);
+    }
+  }
+
+  /** Keeps the mouse button down, aiming at the top left corner of the arena. */
+  private static final class ShootingInput implements InputSource {
+    private final double arenaSize;
+
+    ShootingInput(double arenaSize) {
+      this.arenaSize = arenaSize;
+    }
+
+    @Override
+    public boolean isKeyPressed(String keyCode) {
+      return false;
+    }
+
+    @Override
+    public boolean isMousePressed() {
+      return true;
+    }
+
+    @Override
+    public double getMouseX() {
+      return arenaSize / 4;
+    }
+
+    @Override
+    public double getMouseY() {
+      return arenaSize / 4;
+    }
+  }
+}
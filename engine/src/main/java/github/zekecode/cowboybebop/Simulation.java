@@ -0,0 +1,245 @@
+package github.zekecode.cowboybebop;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EntityPool;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EnemyPrefab;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.replay.InputFrame;
+import github.zekecode.cowboybebop.replay.ReplayRunner;
+import github.zekecode.cowboybebop.replay.ReplayWriter;
+import github.zekecode.cowboybebop.systems.*;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * One game session without any display: the world, the player and every gameplay system, advanced
+ * one fixed tick at a time.
+ *
+ * <p>The JavaFX client wraps a simulation and draws it, but the simulation itself only needs the
+ * engine module, so it can also run headless on servers and in CI. Running this class directly
+ * does just that and reports how many ticks per second the machine can simulate.
+ *
+ * <p>A session is deterministic: every random draw comes from one generator seeded at creation,
+ * and the input is captured once at the start of each tick. Given the same seed, movement kernel,
+ * tick durations and input, two sessions go through the same states, which is what lets a session
+ * be recorded with {@link #record} and replayed headless by a {@link ReplayRunner}. Systems declare
+ * the commands and events they record in their access, so the scheduler never lets two of them
+ * fill the command buffer or an event queue at the same time.
+ */
+public class Simulation {
+  /** Default duration of a tick, in seconds */
+  public static final double TICK = 1.0 / 60;
+
+  /** Projectiles built ahead of time; at 4 shots per second with a 2 s lifetime, 8 are alive */
+  private static final int PREWARMED_PROJECTILES = 16;
+
+  /** Enemies of each type built ahead of time */
+  private static final int PREWARMED_ENEMIES = 16;
+
+  private final World world;
+  private final EntityFactory entityFactory;
+  private final Entity player;
+
+  private final double width;
+  private final double height;
+  private final long seed;
+  private final MovementKernel movementKernel;
+
+  /** Live input, captured into the frame the systems read at the start of every tick */
+  private final InputSource input;
+
+  private final InputFrame frame = new InputFrame();
+
+  private ReplayWriter recorder;
+  private long ticks;
+
+  /**
+   * Creates a new session with the player in the middle of the arena and a random seed.
+   *
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @param input the player's input
+   */
+  public Simulation(double width, double height, InputSource input) {
+    this(width, height, input, new Random().nextLong());
+  }
+
+  /**
+   * Creates a new session with the player in the middle of the arena, moving entities with the
+   * fastest kernel of the JVM.
+   *
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @param input the player's input
+   * @param seed the seed of every random draw of the session
+   */
+  public Simulation(double width, double height, InputSource input, long seed) {
+    this(width, height, input, seed, MovementKernel.best());
+  }
+
+  /**
+   * Creates a new session with the player in the middle of the arena.
+   *
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @param input the player's input
+   * @param seed the seed of every random draw of the session
+   * @param movementKernel the kernel moving the entities
+   */
+  public Simulation(
+      double width, double height, InputSource input, long seed, MovementKernel movementKernel) {
+    this.width = width;
+    this.height = height;
+    this.input = input;
+    this.seed = seed;
+    this.movementKernel = movementKernel;
+
+    // Enemy stats and spawns come from the same seeded generator
+    Random random = new Random(seed);
+    world = new World();
+    entityFactory = new EntityFactory(world);
+    player = entityFactory.createPlayer(width / 2, height / 2);
+    prewarmPools();
+
+    // The transform history must be saved before anything moves
+    world.addSystem(new TransformHistorySystem(world));
+    world.addSystem(new MovementSystem(world, width, height, movementKernel));
+    world.addSystem(new PlayerControlSystem(world, frame, entityFactory));
+    world.addSystem(new EnemySystem(world, entityFactory, width, height, random));
+    world.addSystem(new ProjectileSystem(world));
+    world.addSystem(new CollisionSystem(world));
+
+    // Consequences of the collisions, handled between stages
+    DamageHandler.subscribe(world);
+    ScoreHandler.subscribe(world);
+  }
+
+  /** Builds the entities of the early game up front, so that spawning them doesn't allocate. */
+  private void prewarmPools() {
+    entityFactory.getPool(EntityFactory.PROJECTILE).prewarm(PREWARMED_PROJECTILES);
+    for (EnemyPrefab prefab : entityFactory.getPrefabs().getAll()) {
+      entityFactory.getPool(prefab.getName()).prewarm(PREWARMED_ENEMIES);
+    }
+  }
+
+  /**
+   * Advances the simulation by one tick.
+   *
+   * @param step the duration of the tick in seconds
+   */
+  public void tick(double step) {
+    frame.capture(input.snapshot());
+    world.update(step);
+    ticks++;
+    if (recorder != null) {
+      try {
+        recorder.write(frame, step, checksum());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not record tick " + ticks, e);
+      }
+    }
+  }
+
+  /**
+   * Starts recording the session, which must not have ticked yet. Every tick then appends its
+   * input and the checksum of the world to the replay.
+   *
+   * @param out where to write the replay
+   * @return the writer of the replay, to close once the session is over
+   * @throws IOException if the header of the replay can't be written
+   */
+  public ReplayWriter record(OutputStream out) throws IOException {
+    if (ticks > 0) {
+      throw new IllegalStateException("A session can only be recorded from its first tick");
+    }
+    recorder = new ReplayWriter(out, seed, width, height, movementKernel.getName());
+    return recorder;
+  }
+
+  /**
+   * Computes a hash of the state of the session, see {@link World#checksum()}.
+   *
+   * @return the checksum of the world and the player's score
+   */
+  public long checksum() {
+    PlayerComponent playerComponent = player.getComponent(PlayerComponent.class);
+    int score = playerComponent != null ? playerComponent.getScore() : 0;
+    return world.checksum() * 31 + score;
+  }
+
+  /**
+   * Tells whether the player has been killed.
+   *
+   * @return true once the player is dead
+   */
+  public boolean isGameOver() {
+    HealthComponent health = player.getComponent(HealthComponent.class);
+    return health == null || health.isDead();
+  }
+
+  public World getWorld() {
+    return world;
+  }
+
+  public EntityFactory getEntityFactory() {
+    return entityFactory;
+  }
+
+  public Entity getPlayer() {
+    return player;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns the number of ticks run so far.
+   *
+   * @return the number of ticks
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Runs a headless session and prints the tick rate.
+   *
+   * @param args optionally, the number of ticks to run, or {@code --replay} and a replay file to
+   *     run instead
+   * @throws IOException if the replay can't be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 2 && args[0].equals("--replay")) {
+      ReplayRunner.Result result = ReplayRunner.run(Paths.get(args[1]));
+      java.lang.System.out.println(result);
+      if (result.isDiverged()) {
+        java.lang.System.exit(1);
+      }
+      return;
+    }
+
+    int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    Simulation simulation = new Simulation(800, 600, InputSource.NONE);
+
+    long start = java.lang.System.nanoTime();
+    for (int i = 0; i < ticks; i++) {
+      simulation.tick(TICK);
+    }
+    double seconds = (java.lang.System.nanoTime() - start) / 1_000_000_000.0;
+
+    java.lang.System.out.printf(
+        "Simulated %d ticks in %.3f s (%.0f ticks/s), %d entities alive%n",
+        ticks, seconds, ticks / seconds, simulation.getWorld().getEntities().size());
+    for (EntityPool pool : simulation.getEntityFactory().getPools().values()) {
+      java.lang.System.out.println(pool);
+    }
+  }
+}
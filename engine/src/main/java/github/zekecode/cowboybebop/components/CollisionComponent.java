@@ -0,0 +1,66 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.PackedComponent;
+
+public class CollisionComponent extends PackedComponent {
+  // Field indices inside the archetype storage, the solid flag is stored as 0 or 1 and the
+  // collision group as its interned layer id (see CollisionLayers)
+  public static final int RADIUS = 0;
+  public static final int SOLID = 1;
+  public static final int LAYER = 2;
+  public static final int FIELD_COUNT = 3;
+
+  public CollisionComponent(double radius, boolean isSolid) {
+    this(radius, isSolid, "default");
+  }
+
+  public CollisionComponent(double radius, boolean isSolid, String collisionGroup) {
+    this(radius, isSolid, CollisionLayers.layerOf(collisionGroup));
+  }
+
+  /**
+   * Creates a collision component in an already interned layer, without looking its name up.
+   *
+   * @param radius the radius of the collision circle
+   * @param isSolid whether the entity blocks others
+   * @param layer the layer id, see {@link CollisionLayers}
+   */
+  public CollisionComponent(double radius, boolean isSolid, int layer) {
+    super(FIELD_COUNT);
+    set(RADIUS, radius);
+    set(SOLID, isSolid ? 1 : 0);
+    set(LAYER, layer);
+  }
+
+  public double getRadius() {
+    return get(RADIUS);
+  }
+
+  public void setRadius(double radius) {
+    set(RADIUS, radius);
+  }
+
+  public boolean isSolid() {
+    return get(SOLID) != 0;
+  }
+
+  public void setSolid(boolean solid) {
+    set(SOLID, solid ? 1 : 0);
+  }
+
+  public String getCollisionGroup() {
+    return CollisionLayers.nameOf(getLayer());
+  }
+
+  public void setCollisionGroup(String collisionGroup) {
+    set(LAYER, CollisionLayers.layerOf(collisionGroup));
+  }
+
+  public int getLayer() {
+    return (int) get(LAYER);
+  }
+
+  public void setLayer(int layer) {
+    set(LAYER, layer);
+  }
+}
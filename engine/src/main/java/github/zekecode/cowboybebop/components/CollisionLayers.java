@@ -0,0 +1,68 @@
+package github.zekecode.cowboybebop.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns collision group names into small integer layers.
+ *
+ * <p>Collision groups such as "player" or "enemy" are convenient to write but slow to compare on
+ * every colliding pair. Each distinct name is therefore mapped once to a layer id between 0 and
+ * {@link #MAX_LAYERS} - 1, so that collision filtering can be done with bit masks and response
+ * lookups with plain array indexing. Layer ids are also used to identify the owner of a
+ * projectile.
+ */
+public final class CollisionLayers {
+  /** Maximum number of distinct layers, so that a set of layers fits in an int mask */
+  public static final int MAX_LAYERS = 32;
+
+  /** Layer id standing for "no layer", used for null group names */
+  public static final int NONE = -1;
+
+  private static final Map<String, Integer> LAYERS_BY_NAME = new HashMap<>();
+  private static final List<String> NAMES = new ArrayList<>();
+
+  public static final int DEFAULT = layerOf("default");
+  public static final int PLAYER = layerOf("player");
+  public static final int ENEMY = layerOf("enemy");
+  public static final int PROJECTILE = layerOf("projectile");
+
+  private CollisionLayers() {
+    // Static registry only
+  }
+
+  /**
+   * Returns the layer id of a group name, assigning a new one the first time the name is seen.
+   *
+   * @param name the collision group name, may be null
+   * @return the layer id, or {@link #NONE} for a null name
+   * @throws IllegalStateException if more than {@link #MAX_LAYERS} distinct names are used
+   */
+  public static synchronized int layerOf(String name) {
+    if (name == null) {
+      return NONE;
+    }
+    Integer layer = LAYERS_BY_NAME.get(name);
+    if (layer == null) {
+      if (NAMES.size() == MAX_LAYERS) {
+        throw new IllegalStateException("Too many collision layers, cannot add: " + name);
+      }
+      layer = NAMES.size();
+      NAMES.add(name);
+      LAYERS_BY_NAME.put(name, layer);
+    }
+    return layer;
+  }
+
+  /**
+   * Returns the group name a layer id was assigned to.
+   *
+   * @param layer the layer id
+   * @return the group name, or null for {@link #NONE}
+   */
+  public static synchronized String nameOf(int layer) {
+    return layer == NONE ? null : NAMES.get(layer);
+  }
+}
@@ -0,0 +1,72 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.Component;
+
+public class EnemyComponent implements Component {
+  private double speedFactor;
+  private int damage;
+  private int points;
+
+  /** Whether the stats are shared by many enemies, and so can't be changed */
+  private final boolean readOnly;
+
+  public EnemyComponent(double speedFactor, int damage, int points) {
+    this(speedFactor, damage, points, false);
+  }
+
+  private EnemyComponent(double speedFactor, int damage, int points, boolean readOnly) {
+    this.speedFactor = speedFactor;
+    this.damage = damage;
+    this.points = points;
+    this.readOnly = readOnly;
+  }
+
+  /**
+   * Creates stats whose setters throw, fit for sharing among every enemy of a type.
+   *
+   * @param speedFactor the fraction of the top speed the enemies move at
+   * @param damage the health taken from the player on contact
+   * @param points the score given for a kill
+   * @return the read-only stats
+   */
+  public static EnemyComponent readOnly(double speedFactor, int damage, int points) {
+    return new EnemyComponent(speedFactor, damage, points, true);
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  private void checkWritable() {
+    if (readOnly) {
+      throw new UnsupportedOperationException("These stats are shared and can't be changed");
+    }
+  }
+
+  public double getSpeedFactor() {
+    return speedFactor;
+  }
+
+  public void setSpeedFactor(double speedFactor) {
+    checkWritable();
+    this.speedFactor = speedFactor;
+  }
+
+  public int getDamage() {
+    return damage;
+  }
+
+  public void setDamage(int damage) {
+    checkWritable();
+    this.damage = damage;
+  }
+
+  public int getPoints() {
+    return points;
+  }
+
+  public void setPoints(int points) {
+    checkWritable();
+    this.points = points;
+  }
+}
@@ -0,0 +1,44 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.PackedComponent;
+
+public class HealthComponent extends PackedComponent {
+  // Field indices inside the archetype storage, health values are whole numbers stored as doubles
+  public static final int MAX_HEALTH = 0;
+  public static final int CURRENT_HEALTH = 1;
+  public static final int FIELD_COUNT = 2;
+
+  public HealthComponent(int maxHealth) {
+    super(FIELD_COUNT);
+    set(MAX_HEALTH, maxHealth);
+    set(CURRENT_HEALTH, maxHealth);
+  }
+
+  public int getMaxHealth() {
+    return (int) get(MAX_HEALTH);
+  }
+
+  public void setMaxHealth(int maxHealth) {
+    set(MAX_HEALTH, maxHealth);
+  }
+
+  public int getCurrentHealth() {
+    return (int) get(CURRENT_HEALTH);
+  }
+
+  public void setCurrentHealth(int currentHealth) {
+    set(CURRENT_HEALTH, Math.min(getMaxHealth(), Math.max(0, currentHealth)));
+  }
+
+  public void damage(int amount) {
+    set(CURRENT_HEALTH, Math.max(0, getCurrentHealth() - amount));
+  }
+
+  public void heal(int amount) {
+    set(CURRENT_HEALTH, Math.min(getMaxHealth(), getCurrentHealth() + amount));
+  }
+
+  public boolean isDead() {
+    return getCurrentHealth() <= 0;
+  }
+}
@@ -6,13 +6,13 @@ public class ProjectileComponent implements Component {
   private int damage;
   private double lifetime;
   private double timeAlive;
-  private String owner;
+  private int ownerLayer; // interned owner group, see CollisionLayers
 
   public ProjectileComponent(int damage, double lifetime, String owner) {
     this.damage = damage;
     this.lifetime = lifetime;
     this.timeAlive = 0;
-    this.owner = owner;
+    this.ownerLayer = CollisionLayers.layerOf(owner);
   }
 
   public int getDamage() {
@@ -39,15 +39,27 @@ public class ProjectileComponent implements Component {
     timeAlive += time;
   }
 
+  public void resetTimeAlive() {
+    timeAlive = 0;
+  }
+
   public boolean shouldDespawn() {
     return timeAlive >= lifetime;
   }
 
   public String getOwner() {
-    return owner;
+    return CollisionLayers.nameOf(ownerLayer);
   }
 
   public void setOwner(String owner) {
-    this.owner = owner;
+    this.ownerLayer = CollisionLayers.layerOf(owner);
+  }
+
+  public int getOwnerLayer() {
+    return ownerLayer;
+  }
+
+  public void setOwnerLayer(int ownerLayer) {
+    this.ownerLayer = ownerLayer;
   }
 }
@@ -0,0 +1,117 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.ComponentCodec;
+import github.zekecode.cowboybebop.core.ComponentCodecs;
+import java.nio.ByteBuffer;
+
+/**
+ * The codecs saving the game's components in world snapshots.
+ *
+ * <p>Collision layers are saved as their ids, which only match between processes for the layers
+ * of {@link CollisionLayers}; groups interned at run time are saved by name by projectiles, but
+ * not by collision components.
+ */
+public final class SnapshotCodecs {
+  private SnapshotCodecs() {}
+
+  /**
+   * Returns the codecs of every component of the game.
+   *
+   * @return a new registry holding them
+   */
+  public static ComponentCodecs create() {
+    return new ComponentCodecs()
+        .register(
+            TransformComponent.class, ComponentCodec.packed(() -> new TransformComponent(0, 0)))
+        .register(VelocityComponent.class, ComponentCodec.packed(() -> new VelocityComponent(0)))
+        .register(HealthComponent.class, ComponentCodec.packed(() -> new HealthComponent(0)))
+        .register(
+            CollisionComponent.class,
+            ComponentCodec.packed(() -> new CollisionComponent(0, false, CollisionLayers.NONE)))
+        .register(SpriteComponent.class, new SpriteCodec())
+        .register(PlayerComponent.class, new PlayerCodec())
+        .register(EnemyComponent.class, new EnemyCodec())
+        .register(ProjectileComponent.class, new ProjectileCodec());
+  }
+
+  private static final class SpriteCodec implements ComponentCodec<SpriteComponent> {
+    private static final SpriteComponent.Shape[] SHAPES = SpriteComponent.Shape.values();
+
+    @Override
+    public void write(SpriteComponent sprite, ByteBuffer out) {
+      out.put((byte) (sprite.getShape() == null ? -1 : sprite.getShape().ordinal()));
+      out.putDouble(sprite.getWidth());
+      out.putDouble(sprite.getHeight());
+      out.putInt(sprite.getColor());
+    }
+
+    @Override
+    public SpriteComponent read(ByteBuffer in) {
+      byte shape = in.get();
+      return new SpriteComponent(
+          shape < 0 ? null : SHAPES[shape], in.getDouble(), in.getDouble(), in.getInt());
+    }
+
+    @Override
+    public SpriteComponent detach(SpriteComponent sprite) {
+      // Shared sprites are read-only, so most of them are saved without a copy
+      return sprite.isReadOnly() ? sprite : ComponentCodec.super.detach(sprite);
+    }
+  }
+
+  private static final class PlayerCodec implements ComponentCodec<PlayerComponent> {
+    @Override
+    public void write(PlayerComponent player, ByteBuffer out) {
+      out.putDouble(player.getShootCooldown());
+      out.putDouble(player.getShootSpeed());
+      out.putDouble(player.getTimeSinceLastShot());
+      out.putInt(player.getScore());
+    }
+
+    @Override
+    public PlayerComponent read(ByteBuffer in) {
+      PlayerComponent player = new PlayerComponent(in.getDouble(), in.getDouble());
+      player.setTimeSinceLastShot(in.getDouble());
+      player.addScore(in.getInt());
+      return player;
+    }
+  }
+
+  private static final class EnemyCodec implements ComponentCodec<EnemyComponent> {
+    @Override
+    public void write(EnemyComponent enemy, ByteBuffer out) {
+      out.putDouble(enemy.getSpeedFactor());
+      out.putInt(enemy.getDamage());
+      out.putInt(enemy.getPoints());
+    }
+
+    @Override
+    public EnemyComponent read(ByteBuffer in) {
+      return new EnemyComponent(in.getDouble(), in.getInt(), in.getInt());
+    }
+
+    @Override
+    public EnemyComponent detach(EnemyComponent enemy) {
+      return enemy.isReadOnly() ? enemy : ComponentCodec.super.detach(enemy);
+    }
+  }
+
+  private static final class ProjectileCodec implements ComponentCodec<ProjectileComponent> {
+    @Override
+    public void write(ProjectileComponent projectile, ByteBuffer out) {
+      out.putInt(projectile.getDamage());
+      out.putDouble(projectile.getLifetime());
+      out.putDouble(projectile.getTimeAlive());
+      ComponentCodec.putString(out, projectile.getOwner());
+    }
+
+    @Override
+    public ProjectileComponent read(ByteBuffer in) {
+      ProjectileComponent projectile = new ProjectileComponent(in.getInt(), in.getDouble(), null);
+      double timeAlive = in.getDouble();
+      projectile.setOwner(ComponentCodec.getString(in));
+      projectile.addTimeAlive(timeAlive);
+      return projectile;
+    }
+  }
+}
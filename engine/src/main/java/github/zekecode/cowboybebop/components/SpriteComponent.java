@@ -0,0 +1,97 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.Component;
+
+/**
+ * Describes how an entity looks, independently of the toolkit used to draw it. Colors are stored
+ * as 0xAARRGGBB integers so that the engine doesn't depend on any UI library; the client turns
+ * them into toolkit colors when rendering.
+ */
+public class SpriteComponent implements Component {
+  /** Shapes the renderer knows how to draw */
+  public enum Shape {
+    RECTANGLE
+  }
+
+  // Colors used by the game, matching the JavaFX named colors of the same name
+  public static final int BLUE = 0xFF0000FF;
+  public static final int RED = 0xFFFF0000;
+  public static final int ORANGE = 0xFFFFA500;
+  public static final int DARK_RED = 0xFF8B0000;
+  public static final int YELLOW = 0xFFFFFF00;
+
+  private Shape shape;
+  private int color;
+  private double width;
+  private double height;
+
+  /** Whether the sprite is shared by many entities, and so can't be changed */
+  private final boolean readOnly;
+
+  public SpriteComponent(Shape shape, double width, double height, int color) {
+    this(shape, width, height, color, false);
+  }
+
+  private SpriteComponent(Shape shape, double width, double height, int color, boolean readOnly) {
+    this.shape = shape;
+    this.width = width;
+    this.height = height;
+    this.color = color;
+    this.readOnly = readOnly;
+  }
+
+  /**
+   * Creates a sprite whose setters throw, fit for sharing among many entities.
+   *
+   * @param shape the shape to draw
+   * @param width the width of the sprite
+   * @param height the height of the sprite
+   * @param color the color, as 0xAARRGGBB
+   * @return the read-only sprite
+   */
+  public static SpriteComponent readOnly(Shape shape, double width, double height, int color) {
+    return new SpriteComponent(shape, width, height, color, true);
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  private void checkWritable() {
+    if (readOnly) {
+      throw new UnsupportedOperationException("This sprite is shared and can't be changed");
+    }
+  }
+
+  public Shape getShape() {
+    return shape;
+  }
+
+  public void setShape(Shape shape) {
+    checkWritable();
+    this.shape = shape;
+  }
+
+  public int getColor() {
+    return color;
+  }
+
+  public void setColor(int color) {
+    checkWritable();
+    this.color = color;
+  }
+
+  public double getWidth() {
+    return width;
+  }
+
+  public double getHeight() {
+    return height;
+  }
+
+  public void setSize(double width, double height) {
+    checkWritable();
+    this.width = width;
+    this.height = height;
+  }
+}
@@ -0,0 +1,112 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.PackedComponent;
+
+public class TransformComponent extends PackedComponent {
+  // Field indices inside the archetype storage
+  public static final int X = 0;
+  public static final int Y = 1;
+  public static final int ROTATION = 2; // in radians
+
+  // State at the end of the previous simulation tick, used to interpolate rendering
+  public static final int PREVIOUS_X = 3;
+  public static final int PREVIOUS_Y = 4;
+  public static final int PREVIOUS_ROTATION = 5;
+  public static final int FIELD_COUNT = 6;
+
+  public TransformComponent(double x, double y) {
+    this(x, y, 0);
+  }
+
+  public TransformComponent(double x, double y, double rotation) {
+    super(FIELD_COUNT);
+    set(X, x);
+    set(Y, y);
+    set(ROTATION, rotation);
+    savePrevious();
+  }
+
+  public double getX() {
+    return get(X);
+  }
+
+  public void setX(double x) {
+    set(X, x);
+  }
+
+  public double getY() {
+    return get(Y);
+  }
+
+  public void setY(double y) {
+    set(Y, y);
+  }
+
+  public double getRotation() {
+    return get(ROTATION);
+  }
+
+  public void setRotation(double rotation) {
+    set(ROTATION, rotation);
+  }
+
+  /** Remembers the current state as the previous tick's state. */
+  public void savePrevious() {
+    set(PREVIOUS_X, get(X));
+    set(PREVIOUS_Y, get(Y));
+    set(PREVIOUS_ROTATION, get(ROTATION));
+  }
+
+  public double getPreviousX() {
+    return get(PREVIOUS_X);
+  }
+
+  public double getPreviousY() {
+    return get(PREVIOUS_Y);
+  }
+
+  public double getPreviousRotation() {
+    return get(PREVIOUS_ROTATION);
+  }
+
+  /**
+   * Blends the previous and current x position.
+   *
+   * @param alpha 0 for the previous tick, 1 for the current one
+   * @return the interpolated x position
+   */
+  public double getInterpolatedX(double alpha) {
+    return interpolate(get(PREVIOUS_X), get(X), alpha);
+  }
+
+  /**
+   * Blends the previous and current y position.
+   *
+   * @param alpha 0 for the previous tick, 1 for the current one
+   * @return the interpolated y position
+   */
+  public double getInterpolatedY(double alpha) {
+    return interpolate(get(PREVIOUS_Y), get(Y), alpha);
+  }
+
+  /**
+   * Blends the previous and current rotation, turning the short way around the circle.
+   *
+   * @param alpha 0 for the previous tick, 1 for the current one
+   * @return the interpolated rotation in radians
+   */
+  public double getInterpolatedRotation(double alpha) {
+    return interpolateAngle(get(PREVIOUS_ROTATION), get(ROTATION), alpha);
+  }
+
+  public static double interpolate(double previous, double current, double alpha) {
+    return previous + (current - previous) * alpha;
+  }
+
+  public static double interpolateAngle(double previous, double current, double alpha) {
+    double delta = current - previous;
+    // Bring the difference into [-PI, PI] so that the rotation never spins the long way
+    delta -= Math.floor((delta + Math.PI) / (2 * Math.PI)) * (2 * Math.PI);
+    return previous + delta * alpha;
+  }
+}
@@ -0,0 +1,51 @@
+package github.zekecode.cowboybebop.components;
+
+import github.zekecode.cowboybebop.core.PackedComponent;
+
+public class VelocityComponent extends PackedComponent {
+  // Field indices inside the archetype storage
+  public static final int VX = 0;
+  public static final int VY = 1;
+  public static final int MAX_SPEED = 2;
+  public static final int FIELD_COUNT = 3;
+
+  public VelocityComponent(double maxSpeed) {
+    super(FIELD_COUNT);
+    set(MAX_SPEED, maxSpeed);
+  }
+
+  public double getVx() {
+    return get(VX);
+  }
+
+  public void setVx(double vx) {
+    set(VX, vx);
+  }
+
+  public double getVy() {
+    return get(VY);
+  }
+
+  public void setVy(double vy) {
+    set(VY, vy);
+  }
+
+  public double getMaxSpeed() {
+    return get(MAX_SPEED);
+  }
+
+  public void setMaxSpeed(double maxSpeed) {
+    set(MAX_SPEED, maxSpeed);
+  }
+
+  public void normalize() {
+    double vx = get(VX);
+    double vy = get(VY);
+    double maxSpeed = get(MAX_SPEED);
+    double magnitude = Math.sqrt(vx * vx + vy * vy);
+    if (magnitude > maxSpeed) {
+      set(VX, (vx / magnitude) * maxSpeed);
+      set(VY, (vy / magnitude) * maxSpeed);
+    }
+  }
+}
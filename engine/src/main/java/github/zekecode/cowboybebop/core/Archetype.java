@@ -0,0 +1,245 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An archetype groups together every entity of a {@link World} that has exactly the same set of
+ * component types (its signature).
+ *
+ * <p>Entities of an archetype are stored densely in rows: row {@code i} of every {@link
+ * ComponentColumn} belongs to the entity returned by {@link #getEntity(int)}. Systems that need a
+ * given combination of components can therefore skip whole archetypes that don't match, and walk
+ * the matching ones as flat arrays. Removing an entity moves the last row into the hole, so the
+ * storage never has gaps.
+ *
+ * <p>The signature is kept as a bitset of {@link ComponentType} ids and the columns are indexed by
+ * those ids, so checking for a type or finding its column never hashes a class.
+ *
+ * <p>Archetypes are created and owned by the world; they are never exposed for modification.
+ */
+public final class Archetype {
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The component types shared by every entity in this archetype */
+  private final Set<Class<? extends Component>> types;
+
+  /** The ids of the component types, matched against queries */
+  final Signature signature;
+
+  /** Columns indexed by component type id, null for the types missing from the signature */
+  private final ComponentColumn[] columnsById;
+
+  /** Columns in signature order */
+  private final ComponentColumn[] columns;
+
+  /** Entities stored in this archetype, indexed by row */
+  private Entity[] entities;
+
+  /** Number of rows currently in use */
+  private int size;
+
+  /** Cached transitions to the archetype obtained by adding a component type, by type id */
+  private Archetype[] addEdges = new Archetype[0];
+
+  /** Cached transitions to the archetype obtained by removing a component type, by type id */
+  private Archetype[] removeEdges = new Archetype[0];
+
+  /**
+   * Creates an empty archetype.
+   *
+   * @param fieldCounts the component types of the signature, in column order, mapped to their
+   *     number of packed fields (0 for plain object components)
+   */
+  Archetype(Map<Class<? extends Component>, Integer> fieldCounts) {
+    this.types = Collections.unmodifiableSet(new LinkedHashSet<>(fieldCounts.keySet()));
+    this.signature = Signature.of(types);
+    this.columns = new ComponentColumn[fieldCounts.size()];
+    int maxId = -1;
+    for (Class<? extends Component> type : types) {
+      maxId = Math.max(maxId, ComponentType.idOf(type));
+    }
+    this.columnsById = new ComponentColumn[maxId + 1];
+    int index = 0;
+    for (Map.Entry<Class<? extends Component>, Integer> entry : fieldCounts.entrySet()) {
+      ComponentType<?> type = ComponentType.of(entry.getKey());
+      ComponentColumn column =
+          new ComponentColumn(type, index, entry.getValue(), INITIAL_CAPACITY);
+      columns[index++] = column;
+      columnsById[type.getId()] = column;
+    }
+    this.entities = new Entity[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Returns the number of entities currently stored in this archetype.
+   *
+   * @return the number of rows in use
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the entity stored at the given row.
+   *
+   * @param row a row between 0 (inclusive) and {@link #size()} (exclusive)
+   * @return the entity at that row
+   */
+  public Entity getEntity(int row) {
+    return entities[row];
+  }
+
+  /**
+   * Checks whether the entities of this archetype have a component of the given type.
+   *
+   * @param componentClass the component type to check for
+   * @return true if the type is part of this archetype's signature
+   */
+  public boolean has(Class<? extends Component> componentClass) {
+    return signature.has(ComponentType.idOf(componentClass));
+  }
+
+  /**
+   * Checks whether the entities of this archetype have a component of the given type.
+   *
+   * @param type the component type to check for
+   * @return true if the type is part of this archetype's signature
+   */
+  public boolean has(ComponentType<?> type) {
+    return signature.has(type.getId());
+  }
+
+  /**
+   * Returns the column storing the components of the given type.
+   *
+   * @param componentClass the component type
+   * @return the column, or null if the type is not part of this archetype's signature
+   */
+  public ComponentColumn column(Class<? extends Component> componentClass) {
+    return column(ComponentType.of(componentClass));
+  }
+
+  /**
+   * Returns the column storing the components of the given type.
+   *
+   * @param type the component type
+   * @return the column, or null if the type is not part of this archetype's signature
+   */
+  public ComponentColumn column(ComponentType<?> type) {
+    int id = type.getId();
+    return id < columnsById.length ? columnsById[id] : null;
+  }
+
+  /**
+   * Returns the component types making up this archetype's signature.
+   *
+   * @return an unmodifiable set of component classes
+   */
+  public Set<Class<? extends Component>> getTypes() {
+    return types;
+  }
+
+  int columnCount() {
+    return columns.length;
+  }
+
+  ComponentColumn column(int index) {
+    return columns[index];
+  }
+
+  /** Returns the archetype reached by adding the type of that id, or null if not known yet. */
+  Archetype addEdge(int id) {
+    return id < addEdges.length ? addEdges[id] : null;
+  }
+
+  /** Returns the archetype reached by removing the type of that id, or null if not known yet. */
+  Archetype removeEdge(int id) {
+    return id < removeEdges.length ? removeEdges[id] : null;
+  }
+
+  /** Records the archetypes on both ends of adding the type of the given id to this one. */
+  void linkAdd(int id, Archetype target) {
+    addEdges = edgesWith(addEdges, id, target);
+    target.removeEdges = edgesWith(target.removeEdges, id, this);
+  }
+
+  private static Archetype[] edgesWith(Archetype[] edges, int id, Archetype target) {
+    if (id >= edges.length) {
+      edges = Arrays.copyOf(edges, id + 1);
+    }
+    edges[id] = target;
+    return edges;
+  }
+
+  /** Returns the entities by row, valid up to {@link #size()}. */
+  Entity[] entities() {
+    return entities;
+  }
+
+  /**
+   * Appends an entity at the end of the archetype. Component slots of the new row are left empty
+   * and must be filled by the caller.
+   *
+   * @return the row assigned to the entity
+   */
+  int add(Entity entity) {
+    if (size == entities.length) {
+      reserve(entities.length * 2);
+    }
+    entities[size] = entity;
+    entity.archetype = this;
+    entity.row = size;
+    return size++;
+  }
+
+  /**
+   * Grows the storage to hold at least the given number of entities, so that adding that many
+   * doesn't reallocate the columns along the way.
+   *
+   * @param capacity the number of rows needed
+   */
+  void reserve(int capacity) {
+    if (capacity <= entities.length) {
+      return;
+    }
+    entities = Arrays.copyOf(entities, capacity);
+    for (ComponentColumn column : columns) {
+      column.grow(capacity);
+    }
+  }
+
+  /**
+   * Removes the given row, moving the last entity of the archetype into the hole so that storage
+   * stays dense.
+   */
+  void remove(int row) {
+    int last = size - 1;
+    if (row != last) {
+      for (ComponentColumn column : columns) {
+        column.move(last, row);
+      }
+      Entity moved = entities[last];
+      entities[row] = moved;
+      moved.row = row;
+    } else {
+      for (ComponentColumn column : columns) {
+        column.clear(row);
+      }
+    }
+    entities[last] = null;
+    size--;
+  }
+
+  /** Removes every entity at once: nothing has to be moved to keep the storage dense. */
+  void clear() {
+    for (ComponentColumn column : columns) {
+      column.clear(0, size);
+    }
+    Arrays.fill(entities, 0, size, null);
+    size = 0;
+  }
+}
@@ -0,0 +1,224 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Records structural changes to a {@link World} so they can be applied later, all at once, at a
+ * safe point of the frame.
+ *
+ * <p>Systems iterating a {@link Query} are not allowed to create or remove entities, or to add or
+ * remove components, because that would reshuffle the archetype storage under their feet. Instead
+ * they record those operations into the world's command buffer (see {@link
+ * World#getCommandBuffer()}), and {@link World#update} plays the buffer back after each system has
+ * run. Operations are applied in the order they were recorded.
+ *
+ * <p>Recording is thread-safe, so systems running in parallel can share the world's buffer.
+ *
+ * <p>The buffer keeps its storage between frames, so recording commands doesn't allocate once the
+ * buffer has grown to the usual number of commands per frame.
+ */
+public final class CommandBuffer {
+  private static final byte CREATE = 0;
+  private static final byte DESTROY = 1;
+  private static final byte ADD_COMPONENT = 2;
+  private static final byte REMOVE_COMPONENT = 3;
+  private static final byte SPAWN_BATCH = 4;
+  private static final byte DESTROY_ALL = 5;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** World the commands are applied to */
+  private final World world;
+
+  /** Kind of each recorded command */
+  private byte[] ops = new byte[INITIAL_CAPACITY];
+
+  /** Entity targeted by each command */
+  private Entity[] targets = new Entity[INITIAL_CAPACITY];
+
+  /** Component added by each ADD_COMPONENT command */
+  private Component[] components = new Component[INITIAL_CAPACITY];
+
+  /** A batch of entities to spawn from a prefab. */
+  private static final class Batch {
+    private final Prefab prefab;
+    private final int count;
+    private final ObjIntConsumer<Entity> initializer;
+
+    private Batch(Prefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+      this.prefab = prefab;
+      this.count = count;
+      this.initializer = initializer;
+    }
+  }
+
+  /** Component type removed by each REMOVE_COMPONENT command */
+  private Class<?>[] types = new Class<?>[INITIAL_CAPACITY];
+
+  /** Batch spawned by each SPAWN_BATCH command, or query emptied by each DESTROY_ALL command */
+  private Object[] arguments = new Object[INITIAL_CAPACITY];
+
+  /** Number of recorded commands */
+  private int size;
+
+  CommandBuffer(World world) {
+    this.world = world;
+  }
+
+  /**
+   * Creates an entity that will join the world when the buffer is played back. Components can be
+   * added to the returned entity right away, and they come along when it is spawned. Until then,
+   * the entity is not alive, systems don't see it and its id is {@link EntityHandle#NONE}.
+   *
+   * @return the pending entity
+   */
+  public synchronized Entity createEntity() {
+    Entity entity = world.createPendingEntity();
+    record(CREATE, entity, null, null, null);
+    return entity;
+  }
+
+  /**
+   * Schedules an entity that is not in the world, such as one acquired from an {@link EntityPool},
+   * to be spawned with the components it carries.
+   *
+   * @param entity the entity to spawn
+   */
+  public synchronized void spawn(Entity entity) {
+    record(CREATE, entity, null, null, null);
+  }
+
+  /**
+   * Schedules a batch of entities to be spawned from a prefab, see {@link World#spawnBatch}. The
+   * entities only exist once the buffer is played back, which is also when the initializer runs.
+   *
+   * @param prefab the template of the entities
+   * @param count the number of entities to spawn
+   * @param initializer sets up each new entity given its index in the batch, or null
+   */
+  public synchronized void spawnBatch(
+      Prefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+    record(SPAWN_BATCH, null, null, null, new Batch(prefab, count, initializer));
+  }
+
+  /**
+   * Schedules the removal of every entity matching a query when the buffer is played back, see
+   * {@link World#destroyAll}.
+   *
+   * @param query the query whose entities to remove
+   */
+  public synchronized void destroyAll(Query query) {
+    record(DESTROY_ALL, null, null, null, query);
+  }
+
+  /**
+   * Schedules an entity for removal. Scheduling the same entity several times is harmless.
+   *
+   * @param entity the entity to remove
+   */
+  public synchronized void destroy(Entity entity) {
+    if (entity.destroyPending) {
+      return;
+    }
+    entity.destroyPending = true;
+    record(DESTROY, entity, null, null, null);
+  }
+
+  /**
+   * Tells whether an entity has been scheduled for removal and the buffer hasn't been played back
+   * yet, so that systems can ignore entities that are already on their way out.
+   *
+   * @param entity the entity to check
+   * @return true if a removal of the entity is pending
+   */
+  public boolean isDestroyed(Entity entity) {
+    return entity.destroyPending;
+  }
+
+  /**
+   * Schedules a component to be added to an entity.
+   *
+   * @param entity the target entity
+   * @param component the component to add
+   */
+  public synchronized void addComponent(Entity entity, Component component) {
+    record(ADD_COMPONENT, entity, component, null, null);
+  }
+
+  /**
+   * Schedules a component type to be removed from an entity.
+   *
+   * @param entity the target entity
+   * @param componentClass the component type to remove
+   */
+  public synchronized void removeComponent(
+      Entity entity, Class<? extends Component> componentClass) {
+    record(REMOVE_COMPONENT, entity, null, componentClass, null);
+  }
+
+  /**
+   * Returns the number of commands waiting to be played back.
+   *
+   * @return the number of recorded commands
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Applies every recorded command to the world, in order, and empties the buffer. This is called
+   * by {@link World#update} between systems; calling it while iterating a query is not allowed.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void playback() {
+    for (int i = 0; i < size; i++) {
+      Entity entity = targets[i];
+      switch (ops[i]) {
+        case CREATE:
+          world.spawnPendingEntity(entity);
+          break;
+        case DESTROY:
+          entity.destroyPending = false;
+          world.removeEntity(entity);
+          break;
+        case ADD_COMPONENT:
+          entity.addComponent(components[i]);
+          break;
+        case REMOVE_COMPONENT:
+          entity.removeComponent((Class<? extends Component>) types[i]);
+          break;
+        case SPAWN_BATCH:
+          Batch batch = (Batch) arguments[i];
+          world.spawnPendingBatch(batch.prefab, batch.count, batch.initializer);
+          break;
+        default:
+          world.destroyAll((Query) arguments[i]);
+          break;
+      }
+    }
+    Arrays.fill(targets, 0, size, null);
+    Arrays.fill(components, 0, size, null);
+    Arrays.fill(types, 0, size, null);
+    Arrays.fill(arguments, 0, size, null);
+    size = 0;
+  }
+
+  private void record(
+      byte op, Entity entity, Component component, Class<?> type, Object argument) {
+    if (size == ops.length) {
+      int capacity = size * 2;
+      ops = Arrays.copyOf(ops, capacity);
+      targets = Arrays.copyOf(targets, capacity);
+      components = Arrays.copyOf(components, capacity);
+      types = Arrays.copyOf(types, capacity);
+      arguments = Arrays.copyOf(arguments, capacity);
+    }
+    ops[size] = op;
+    targets[size] = entity;
+    components[size] = component;
+    types[size] = type;
+    arguments[size] = argument;
+    size++;
+  }
+}
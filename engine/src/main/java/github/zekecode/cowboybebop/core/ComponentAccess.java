@@ -0,0 +1,158 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes which component types a {@link System} reads and writes during its update, and what it
+ * records for later.
+ *
+ * <p>The world uses these declarations to find systems that can safely run at the same time: two
+ * systems conflict when one of them writes a component type the other one reads or writes. A
+ * system that doesn't declare its access is treated as {@link #EXCLUSIVE}, meaning it conflicts
+ * with every other system and always runs alone, on the thread calling {@link World#update}.
+ *
+ * <p>Systems that may run in parallel must record structural changes (creating or removing
+ * entities, adding or removing components) through the world's {@link CommandBuffer}, and declare
+ * it with {@link #recordsCommands()}. They declare the events they publish with {@link
+ * #publishes}. Two systems recording commands conflict, and so do two systems publishing the same
+ * event type: the buffer and each event queue are then always filled by one system at a time, in
+ * registration order, which keeps runs, and so replays, deterministic.
+ *
+ * <p>Instances are immutable, and are usually built once in a system's constructor:
+ *
+ * <pre>{@code
+ * ComponentAccess.none().reads(TransformComponent.class).writes(VelocityComponent.class)
+ * }</pre>
+ */
+public final class ComponentAccess {
+  /** Access of systems that must run alone, such as those touching the JavaFX scene */
+  public static final ComponentAccess EXCLUSIVE =
+      new ComponentAccess(
+          Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), false, true);
+
+  private static final ComponentAccess NONE =
+      new ComponentAccess(
+          Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), false, false);
+
+  private final Set<Class<? extends Component>> reads;
+  private final Set<Class<? extends Component>> writes;
+  private final Set<Class<?>> publishes;
+  private final boolean recordsCommands;
+  private final boolean exclusive;
+
+  private ComponentAccess(
+      Set<Class<? extends Component>> reads,
+      Set<Class<? extends Component>> writes,
+      Set<Class<?>> publishes,
+      boolean recordsCommands,
+      boolean exclusive) {
+    this.reads = reads;
+    this.writes = writes;
+    this.publishes = publishes;
+    this.recordsCommands = recordsCommands;
+    this.exclusive = exclusive;
+  }
+
+  /**
+   * Returns an access declaration that touches no component at all.
+   *
+   * @return the empty declaration
+   */
+  public static ComponentAccess none() {
+    return NONE;
+  }
+
+  /**
+   * Returns a copy of this declaration that also reads the given component types.
+   *
+   * @param componentClasses the component types read by the system
+   * @return the extended declaration
+   */
+  @SafeVarargs
+  public final ComponentAccess reads(Class<? extends Component>... componentClasses) {
+    Set<Class<? extends Component>> read = new HashSet<>(reads);
+    // Copied one by one: handing the generic array on could pollute the heap
+    for (Class<? extends Component> type : componentClasses) {
+      read.add(type);
+    }
+    return new ComponentAccess(
+        Collections.unmodifiableSet(read), writes, publishes, recordsCommands, exclusive);
+  }
+
+  /**
+   * Returns a copy of this declaration that also writes the given component types.
+   *
+   * @param componentClasses the component types written by the system
+   * @return the extended declaration
+   */
+  @SafeVarargs
+  public final ComponentAccess writes(Class<? extends Component>... componentClasses) {
+    Set<Class<? extends Component>> written = new HashSet<>(writes);
+    for (Class<? extends Component> type : componentClasses) {
+      written.add(type);
+    }
+    return new ComponentAccess(
+        reads, Collections.unmodifiableSet(written), publishes, recordsCommands, exclusive);
+  }
+
+  /**
+   * Returns a copy of this declaration that also records structural changes in the world's {@link
+   * CommandBuffer}, directly or through a deferred factory.
+   *
+   * @return the extended declaration
+   */
+  public ComponentAccess recordsCommands() {
+    return new ComponentAccess(reads, writes, publishes, true, exclusive);
+  }
+
+  /**
+   * Returns a copy of this declaration that also publishes the given event types.
+   *
+   * @param eventTypes the types of the events published by the system
+   * @return the extended declaration
+   */
+  public ComponentAccess publishes(Class<?>... eventTypes) {
+    Set<Class<?>> published = new HashSet<>(publishes);
+    Collections.addAll(published, eventTypes);
+    return new ComponentAccess(
+        reads, writes, Collections.unmodifiableSet(published), recordsCommands, exclusive);
+  }
+
+  /**
+   * Tells whether the system must run alone.
+   *
+   * @return true for exclusive access
+   */
+  public boolean isExclusive() {
+    return exclusive;
+  }
+
+  /**
+   * Checks whether a system with this access and one with the other access can't run at the same
+   * time.
+   *
+   * @param other the access of the other system
+   * @return true if the two accesses conflict
+   */
+  public boolean conflictsWith(ComponentAccess other) {
+    if (exclusive || other.exclusive) {
+      return true;
+    }
+    return (recordsCommands && other.recordsCommands)
+        || intersects(publishes, other.publishes)
+        || intersects(writes, other.reads)
+        || intersects(writes, other.writes)
+        || intersects(other.writes, reads);
+  }
+
+  private static <T> boolean intersects(Set<? extends T> first, Set<? extends T> second) {
+    for (T type : first) {
+      if (second.contains(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,98 @@
+package github.zekecode.cowboybebop.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Saves and restores the components of one type in a {@link WorldSnapshot}.
+ *
+ * <p>The packed fields of a {@link PackedComponent} are saved by the snapshot itself, a whole
+ * column at a time, so the codec of a packed type only has to create an instance (see {@link
+ * #packed}). Plain components write their state into the snapshot one by one, in at most {@link
+ * #MAX_SIZE} bytes.
+ *
+ * <p>A snapshot is captured between ticks but encoded later, on the thread saving it, so it first
+ * {@link #detach detaches} the components it holds from the running world.
+ *
+ * @param <T> the type of the components
+ */
+public interface ComponentCodec<T extends Component> {
+  /** Maximum number of bytes written for one component */
+  int MAX_SIZE = 1024;
+
+  /**
+   * Writes the state of a component that isn't held in packed fields.
+   *
+   * @param component the component to save
+   * @param out where to write it, with at least {@link #MAX_SIZE} bytes remaining
+   */
+  void write(T component, ByteBuffer out);
+
+  /**
+   * Creates a component from what {@link #write} wrote. Its packed fields, if any, are restored
+   * afterwards.
+   *
+   * @param in where to read the component from
+   * @return the restored component
+   */
+  T read(ByteBuffer in);
+
+  /**
+   * Returns a component with the state of the given one that the running world won't change
+   * anymore, to be encoded on another thread. The default copies it through {@link #write} and
+   * {@link #read}; codecs of components that never change can return them as they are.
+   *
+   * @param component a component of the world
+   * @return the component itself if it can't change, or a copy
+   */
+  default T detach(T component) {
+    ByteBuffer buffer = ByteBuffer.allocate(MAX_SIZE);
+    write(component, buffer);
+    buffer.flip();
+    return read(buffer);
+  }
+
+  /**
+   * Returns the codec of a packed component type whose whole state is in its packed fields.
+   *
+   * @param <T> the type of the components
+   * @param factory creates a component, with any field values
+   * @return a codec writing nothing and creating components with the factory
+   */
+  static <T extends PackedComponent> ComponentCodec<T> packed(Supplier<T> factory) {
+    return new PackedCodec<>(factory);
+  }
+
+  /**
+   * Writes a string as its length in bytes followed by its UTF-8 bytes.
+   *
+   * @param out where to write the string
+   * @param value the string, or null
+   */
+  static void putString(ByteBuffer out, String value) {
+    if (value == null) {
+      out.putShort((short) -1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.putShort((short) bytes.length);
+    out.put(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #putString}.
+   *
+   * @param in where to read the string from
+   * @return the string, or null
+   */
+  static String getString(ByteBuffer in) {
+    int length = in.getShort();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,59 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The codecs a {@link WorldSnapshot} saves and restores components with, one per component type.
+ * Types are saved by class name, so a snapshot can be loaded in another process as long as the
+ * same types are registered there.
+ */
+public final class ComponentCodecs {
+  private final Map<Class<? extends Component>, ComponentCodec<?>> codecsByType = new HashMap<>();
+  private final Map<String, Class<? extends Component>> typesByName = new HashMap<>();
+
+  /**
+   * Registers the codec of a component type, replacing any previous one.
+   *
+   * @param <T> the type of the components
+   * @param type the component class
+   * @param codec the codec of its components
+   * @return this registry, to chain registrations
+   */
+  public <T extends Component> ComponentCodecs register(Class<T> type, ComponentCodec<T> codec) {
+    codecsByType.put(type, codec);
+    typesByName.put(type.getName(), type);
+    return this;
+  }
+
+  /**
+   * Returns the codec of a component type.
+   *
+   * @param type the component class
+   * @return the codec
+   * @throws IllegalArgumentException if no codec is registered for the type
+   */
+  @SuppressWarnings("unchecked")
+  <T extends Component> ComponentCodec<T> get(Class<T> type) {
+    ComponentCodec<?> codec = codecsByType.get(type);
+    if (codec == null) {
+      throw new IllegalArgumentException("No codec registered for " + type.getName());
+    }
+    return (ComponentCodec<T>) codec;
+  }
+
+  /**
+   * Returns the component type registered under a class name.
+   *
+   * @param name the class name
+   * @return the component class
+   * @throws IllegalArgumentException if no codec is registered for a type of that name
+   */
+  Class<? extends Component> typeNamed(String name) {
+    Class<? extends Component> type = typesByName.get(name);
+    if (type == null) {
+      throw new IllegalArgumentException("No codec registered for " + name);
+    }
+    return type;
+  }
+}
@@ -0,0 +1,144 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Arrays;
+
+/**
+ * Storage for every component of one type inside an {@link Archetype}.
+ *
+ * <p>A column always keeps the component objects, so that {@link Entity#getComponent} keeps
+ * returning the very same instance that was added. For {@link PackedComponent} types the column
+ * also keeps one dense {@code double[]} per field, indexed by the entity's row in the archetype.
+ * These arrays are what systems should iterate on the hot path.
+ *
+ * <p>A column of {@link TagComponent}s stores nothing per row: tags have no state, so the column
+ * keeps the first instance it was given and hands it out for every entity.
+ */
+public final class ComponentColumn {
+  /** The component type stored in this column */
+  final ComponentType<?> type;
+
+  /** Position of this column inside the owning archetype */
+  final int index;
+
+  /** Component instances, one per row, or null for a tag column */
+  private Component[] components;
+
+  /** The instance standing for every row of a tag column */
+  private Component tag;
+
+  /** Packed field values laid out as values[field][row], empty for plain components */
+  private final double[][] values;
+
+  /**
+   * Creates an empty column.
+   *
+   * @param type the component type stored in this column
+   * @param index the position of the column inside the owning archetype
+   * @param fieldCount the number of packed fields, or 0 for plain object components
+   * @param capacity the initial number of rows
+   */
+  ComponentColumn(ComponentType<?> type, int index, int fieldCount, int capacity) {
+    this.type = type;
+    this.index = index;
+    this.components = type.isTag() ? null : new Component[capacity];
+    this.values = new double[fieldCount][capacity];
+  }
+
+  /**
+   * Returns the component type stored in this column.
+   *
+   * @return the component class
+   */
+  public Class<? extends Component> getType() {
+    return type.getType();
+  }
+
+  /**
+   * Returns the component instance stored at the given row.
+   *
+   * @param row the row inside the owning archetype
+   * @return the component instance
+   */
+  public Component get(int row) {
+    return components != null ? components[row] : tag;
+  }
+
+  /**
+   * Returns the dense array backing one packed field. The array is only valid until the next
+   * structural change of the world (entities created, removed or changing components), because the
+   * archetype may grow and reallocate it.
+   *
+   * @param field the field index, as declared by the packed component type
+   * @return the array of values for that field, indexed by row
+   */
+  public double[] values(int field) {
+    return values[field];
+  }
+
+  /**
+   * Tells whether this column stores packed primitive fields.
+   *
+   * @return true if the column type is a {@link PackedComponent}
+   */
+  public boolean isPacked() {
+    return values.length > 0;
+  }
+
+  int fieldCount() {
+    return values.length;
+  }
+
+  /** Copies the components of the first rows, the instance of a tag column standing for each. */
+  Component[] copyComponents(int size) {
+    if (components != null) {
+      return Arrays.copyOf(components, size);
+    }
+    Component[] copy = new Component[size];
+    Arrays.fill(copy, tag);
+    return copy;
+  }
+
+  void set(int row, Component component) {
+    if (components != null) {
+      components[row] = component;
+    } else if (tag == null) {
+      tag = component;
+    }
+  }
+
+  void grow(int capacity) {
+    if (components != null) {
+      components = Arrays.copyOf(components, capacity);
+    }
+    for (int field = 0; field < values.length; field++) {
+      values[field] = Arrays.copyOf(values[field], capacity);
+    }
+  }
+
+  /**
+   * Moves the row {@code from} into the row {@code to}, used when the archetype fills a hole left
+   * by a removed entity.
+   */
+  void move(int from, int to) {
+    if (components != null) {
+      components[to] = components[from];
+      components[from] = null;
+    }
+    for (double[] field : values) {
+      field[to] = field[from];
+    }
+  }
+
+  void clear(int row) {
+    if (components != null) {
+      components[row] = null;
+    }
+  }
+
+  /** Drops the components of a range of rows, from (inclusive) to (exclusive). */
+  void clear(int from, int to) {
+    if (components != null) {
+      Arrays.fill(components, from, to, null);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The registered identity of a {@link Component} class: a small, dense int id given the first
+ * time the class is seen, and shared by every {@link World}.
+ *
+ * <p>Archetypes index their columns by this id, and signatures and queries are bitsets of ids, so
+ * finding a component of an entity is an array access instead of a hash lookup on its class.
+ * Systems on the hot path can keep the type in a constant and pass it to {@link
+ * Entity#getComponent(ComponentType)}; the class-based methods look the type up through a {@link
+ * ClassValue}, which is cheap but not free.
+ *
+ * @param <T> the component class
+ */
+public final class ComponentType<T extends Component> {
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+  private static final ClassValue<ComponentType<?>> TYPES =
+      new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ComponentType<?> computeValue(Class<?> type) {
+          if (!Component.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(type.getName() + " is not a component");
+          }
+          return new ComponentType(type);
+        }
+      };
+
+  private final Class<T> type;
+  private final int id;
+  private final boolean tag;
+
+  private ComponentType(Class<T> type) {
+    this.type = type;
+    // ClassValue may compute a value twice under contention but publishes a single one, so a
+    // racing loser only burns an id
+    this.id = NEXT_ID.getAndIncrement();
+    this.tag = TagComponent.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Returns the type of a component class, registering it on first use.
+   *
+   * @param <T> the component class
+   * @param type the component class
+   * @return the type, always the same instance for a given class
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Component> ComponentType<T> of(Class<T> type) {
+    return (ComponentType<T>) TYPES.get(type);
+  }
+
+  /**
+   * Returns the id of a component class, registering it on first use.
+   *
+   * @param type the component class
+   * @return the dense id of the class
+   */
+  public static int idOf(Class<? extends Component> type) {
+    return TYPES.get(type).id;
+  }
+
+  public Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the id of this type, small and dense: ids are handed out from 0 in registration order.
+   *
+   * @return the id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Tells whether this type is a {@link TagComponent}, stored without any per-entity slot.
+   *
+   * @return true for tags
+   */
+  public boolean isTag() {
+    return tag;
+  }
+
+  @Override
+  public String toString() {
+    return type.getSimpleName() + "#" + id;
+  }
+}
@@ -0,0 +1,158 @@
+package github.zekecode.cowboybebop.core;
+
+/**
+ * The Entity class represents a single game object in the Entity-Component-System architecture.
+ *
+ * <p>Entities are lightweight containers that exist primarily as identifiers and holders for
+ * components. They have no behavior of their own - all game logic related to entities is
+ * implemented in Systems that operate on their components. An entity's identity and behavior is
+ * defined entirely by its unique combination of components.
+ *
+ * <p>Each entity is assigned a unique identifier upon creation and provides methods for adding,
+ * checking, retrieving, and removing components. The identifier is a generational {@link
+ * EntityHandle}: once the entity is removed, its handle becomes stale and {@link
+ * World#getEntity(long)} no longer resolves it, even after the world recycles its slot.
+ *
+ * <p>The handle isn't the identity of the object though: entities still waiting in a {@link
+ * CommandBuffer} don't have one yet, and pooled entities get a new one each time they respawn. An
+ * entity object is only ever equal to itself, so it keeps its place in sets and maps through all
+ * of that.
+ *
+ * <p>The entity doesn't store its components itself: they live in the {@link Archetype} of its
+ * {@link World}, and the methods of this class are just a convenient facade over that storage.
+ * Once an entity is removed from the world its components are copied out of the archetype, so they
+ * can still be inspected afterwards.
+ */
+public class Entity {
+  /** Unique identifier for this Entity, a packed slot index and generation */
+  private long id;
+
+  /** World owning the storage of this entity's components */
+  final World world;
+
+  /** Archetype matching this entity's current set of components */
+  Archetype archetype;
+
+  /** Row of this entity inside its archetype, or -1 once removed from the world */
+  int row = -1;
+
+  /** Components kept by the entity while outside the world, indexed like the archetype columns */
+  Component[] detached;
+
+  /** Whether a command buffer has scheduled this entity for removal */
+  boolean destroyPending;
+
+  /** Pool this entity returns to when removed, or null if it isn't pooled */
+  EntityPool pool;
+
+  /**
+   * Creates a new entity with the given handle and no components. Entities are created through
+   * {@link World#createEntity()}, and components must be added using the {@link #addComponent}
+   * method.
+   *
+   * @param world the world storing this entity's components
+   * @param id the handle assigned by the world
+   */
+  Entity(World world, long id) {
+    this.id = id;
+    this.world = world;
+  }
+
+  /**
+   * Returns the ID for this entity.
+   *
+   * @return the entity's handle, see {@link EntityHandle}
+   */
+  public long getId() {
+    return id;
+  }
+
+  void setId(long id) {
+    this.id = id;
+  }
+
+  /**
+   * Tells whether this entity still exists in its world. Components of a dead entity can still be
+   * read, but systems no longer see it and its handle is stale.
+   *
+   * @return true until the entity is removed from the world
+   */
+  public boolean isAlive() {
+    return row >= 0;
+  }
+
+  /**
+   * Adds a component to this entity. If a component of the same type already exists, it will be
+   * replaced by the new component.
+   *
+   * @param <T> the component type
+   * @param component the component instance to add
+   * @return this entity instance for method chaining
+   */
+  public <T extends Component> Entity addComponent(T component) {
+    world.addComponent(this, component);
+    return this;
+  }
+
+  /**
+   * Checks if this entity has a component of the specified type.
+   *
+   * @param <T> the component type to check for
+   * @param componentClass the class object representing the component type
+   * @return true if the entity has the component, false otherwise
+   */
+  public <T extends Component> boolean hasComponent(Class<T> componentClass) {
+    return archetype.has(componentClass);
+  }
+
+  /**
+   * Checks if this entity has a component of the specified type, without looking up its class.
+   *
+   * @param type the registered component type
+   * @return true if the entity has the component, false otherwise
+   */
+  public boolean hasComponent(ComponentType<?> type) {
+    return archetype.has(type);
+  }
+
+  /**
+   * Retrieves a component of the specified type from this entity.
+   *
+   * <p>Note: This method assumes the component exists. It's recommended to check with {@link
+   * #hasComponent} before calling this method to avoid null returns.
+   *
+   * @param <T> the component type to retrieve
+   * @param componentClass the class object representing the component type
+   * @return the component instance, or null if the entity doesn't have this component
+   */
+  public <T extends Component> T getComponent(Class<T> componentClass) {
+    return getComponent(ComponentType.of(componentClass));
+  }
+
+  /**
+   * Retrieves a component of the specified type from this entity. Systems keeping the type in a
+   * constant skip the lookup of its class, leaving a single array access.
+   *
+   * @param <T> the component type to retrieve
+   * @param type the registered component type
+   * @return the component instance, or null if the entity doesn't have this component
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Component> T getComponent(ComponentType<T> type) {
+    ComponentColumn column = archetype.column(type);
+    if (column == null) {
+      return null;
+    }
+    return (T) (row >= 0 ? column.get(row) : detached[column.index]);
+  }
+
+  /**
+   * Removes a component of the specified type from this entity
+   *
+   * @param <T> the component type to remove
+   * @param componentClass the class object representing the component type
+   */
+  public <T extends Component> void removeComponent(Class<T> componentClass) {
+    world.removeComponent(this, componentClass);
+  }
+}
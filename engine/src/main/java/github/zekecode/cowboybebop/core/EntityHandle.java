@@ -0,0 +1,51 @@
+package github.zekecode.cowboybebop.core;
+
+/**
+ * Helpers to pack and unpack entity handles.
+ *
+ * <p>An entity handle is a single {@code long} made of two parts: the low 32 bits are the index of
+ * the entity's slot inside its {@link World}, and the high 32 bits are the generation of that
+ * slot. Every time an entity is removed, the world bumps the generation of its slot before handing
+ * the index out again, so a handle kept around after its entity died never matches the new
+ * occupant of the slot. This makes handles cheap to create, compare and hash, while still catching
+ * stale references.
+ */
+public final class EntityHandle {
+  /** A handle value that never refers to any entity */
+  public static final long NONE = -1L;
+
+  private EntityHandle() {
+    // Static helpers only
+  }
+
+  /**
+   * Packs a slot index and a generation into a handle.
+   *
+   * @param index the slot index, must not be negative
+   * @param generation the generation of the slot
+   * @return the packed handle
+   */
+  public static long of(int index, int generation) {
+    return ((long) generation << 32) | (index & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Extracts the slot index from a handle.
+   *
+   * @param handle the entity handle
+   * @return the slot index
+   */
+  public static int index(long handle) {
+    return (int) handle;
+  }
+
+  /**
+   * Extracts the slot generation from a handle.
+   *
+   * @param handle the entity handle
+   * @return the generation
+   */
+  public static int generation(long handle) {
+    return (int) (handle >>> 32);
+  }
+}
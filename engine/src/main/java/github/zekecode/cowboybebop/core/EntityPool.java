@@ -0,0 +1,212 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Recycles the entities of one kind (a projectile, an enemy type) instead of building new ones on
+ * every spawn.
+ *
+ * <p>{@link #acquire()} hands out an entity that is not in the world yet, with every component of
+ * its kind already attached. The caller resets the per-instance state (position, velocity, health)
+ * and spawns it with {@link World#spawn} or {@link CommandBuffer#spawn}. When the entity is later
+ * removed from the world, whatever removed it, it goes straight back to its pool with its
+ * components, ready for the next spawn. Entities released while the pool is full are left to the
+ * garbage collector.
+ *
+ * <p>Acquiring and releasing are thread-safe, so systems running in parallel can share pools.
+ */
+public final class EntityPool {
+  /** Number of entities kept for reuse by the pools the world creates for prefabs */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final World world;
+  private final String kind;
+  private final Consumer<Entity> builder;
+
+  /** Entities waiting to be reused, used as a stack */
+  private Entity[] free;
+
+  private int size;
+  private int capacity;
+
+  private long hits;
+  private long misses;
+  private long discarded;
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param world the world the pooled entities belong to
+   * @param kind the name of the kind of entity, for statistics
+   * @param capacity the maximum number of entities kept for reuse
+   * @param builder adds the components of the kind to a new, empty entity
+   */
+  public EntityPool(World world, String kind, int capacity, Consumer<Entity> builder) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Pool capacity cannot be negative: " + capacity);
+    }
+    this.world = world;
+    this.kind = kind;
+    this.capacity = capacity;
+    this.builder = builder;
+    this.free = new Entity[Math.min(capacity, 16)];
+  }
+
+  /**
+   * Returns an entity of this pool's kind that is not in the world yet, reusing a released one when
+   * available.
+   *
+   * @return an entity ready to be reset and spawned
+   */
+  public synchronized Entity acquire() {
+    Entity entity;
+    if (size > 0) {
+      entity = free[--size];
+      free[size] = null;
+      hits++;
+    } else {
+      entity = build();
+      misses++;
+    }
+    entity.pool = this;
+    return entity;
+  }
+
+  /**
+   * Takes pooled entities for {@link World#spawnBatch}, which builds the missing ones itself.
+   *
+   * @param out where to put the entities, from index 0
+   * @param count the number of entities wanted
+   * @return the number of entities taken, the others count as misses
+   */
+  synchronized int poll(Entity[] out, int count) {
+    int taken = Math.min(count, size);
+    java.lang.System.arraycopy(free, size - taken, out, 0, taken);
+    Arrays.fill(free, size - taken, size, null);
+    size -= taken;
+    hits += taken;
+    misses += count - taken;
+    return taken;
+  }
+
+  /**
+   * Builds entities until the pool holds the given number of them, so that the first spawns don't
+   * allocate.
+   *
+   * @param count the number of entities to have ready, capped by the capacity
+   */
+  public synchronized void prewarm(int count) {
+    while (size < Math.min(count, capacity)) {
+      push(build());
+    }
+  }
+
+  /** Takes back an entity removed from the world, called by {@link World#removeEntity}. */
+  synchronized void release(Entity entity) {
+    entity.pool = null;
+    if (size < capacity) {
+      push(entity);
+    } else {
+      discarded++;
+    }
+  }
+
+  /**
+   * Takes back a run of entities removed from the world, called by {@link World#destroyAll}.
+   *
+   * @param entities the removed entities, all from this pool
+   * @param from the index of the first entity to release
+   * @param to the index after the last entity to release
+   */
+  synchronized void release(Entity[] entities, int from, int to) {
+    for (int i = from; i < to; i++) {
+      Entity entity = entities[i];
+      entity.pool = null;
+      if (size < capacity) {
+        push(entity);
+      } else {
+        discarded++;
+      }
+    }
+  }
+
+  private Entity build() {
+    Entity entity = world.createPendingEntity();
+    builder.accept(entity);
+    return entity;
+  }
+
+  private void push(Entity entity) {
+    if (size == free.length) {
+      free = Arrays.copyOf(free, Math.min(capacity, Math.max(16, size * 2)));
+    }
+    free[size++] = entity;
+  }
+
+  public String getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the number of entities waiting to be reused.
+   *
+   * @return the number of pooled entities
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Changes the maximum number of entities kept for reuse, dropping the extra ones if needed.
+   *
+   * @param capacity the new capacity
+   */
+  public synchronized void setCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Pool capacity cannot be negative: " + capacity);
+    }
+    while (size > capacity) {
+      free[--size] = null;
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns how many acquisitions reused a pooled entity.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns how many acquisitions had to build a new entity.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns how many released entities were dropped because the pool was full.
+   *
+   * @return the number of discarded entities
+   */
+  public synchronized long getDiscarded() {
+    return discarded;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%s pool: %d/%d pooled, %d hits, %d misses, %d discarded",
+        kind, size, capacity, hits, misses, discarded);
+  }
+}
@@ -0,0 +1,92 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Carries typed events from the systems publishing them to the handlers reacting to them, so that
+ * detecting something (two entities overlapping) is kept apart from its consequences (damage,
+ * death, score).
+ *
+ * <p>Every event type has its own {@link EventQueue}, obtained once through {@link #queue} and
+ * reused. Systems publish into the queues while they run; nothing is handled right away. At the
+ * end of every stage of systems, before the command buffer is played back, {@link World#update}
+ * dispatches the pending events queue by queue, in the order the queues were created, each queue
+ * handing its whole batch to its subscribers. Handlers may publish further events, which are
+ * dispatched in the same pass, until every queue is empty. As the command buffer has not been
+ * played back yet, the entities named by the events are still in the world when they are handled.
+ *
+ * <p>Handlers run on the thread updating the world, one at a time, so they may touch any
+ * component; structural changes still go through the {@link CommandBuffer}. Events without
+ * subscribers are dropped.
+ */
+public final class EventBus {
+  /** Reacts to the events of one type. */
+  @FunctionalInterface
+  public interface Handler<E> {
+    /**
+     * Called once per dispatched event. The event object is reused afterwards and must not be
+     * kept.
+     *
+     * @param event the event
+     */
+    void handle(E event);
+  }
+
+  private final Map<Class<?>, EventQueue<?>> queuesByType = new HashMap<>();
+
+  /** Queues in creation order, which is also the dispatch order */
+  private final List<EventQueue<?>> queues = new ArrayList<>();
+
+  EventBus() {}
+
+  /**
+   * Returns the queue of an event type, creating it on first use.
+   *
+   * @param type the event type
+   * @param factory creates empty events to fill the queue's ring buffer
+   * @return the queue of the type
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <E> EventQueue<E> queue(Class<E> type, Supplier<E> factory) {
+    EventQueue<E> queue = (EventQueue<E>) queuesByType.get(type);
+    if (queue == null) {
+      queue = new EventQueue<>(type, factory);
+      queuesByType.put(type, queue);
+      queues.add(queue);
+    }
+    return queue;
+  }
+
+  /**
+   * Registers a handler for an event type. Handlers of a type are called in subscription order.
+   *
+   * @param type the event type
+   * @param factory creates empty events, in case the queue doesn't exist yet
+   * @param handler the handler
+   */
+  public <E> void subscribe(Class<E> type, Supplier<E> factory, Handler<? super E> handler) {
+    queue(type, factory).subscribe(handler);
+  }
+
+  /** Dispatches pending events until every queue is empty. */
+  void dispatch() {
+    boolean dispatched = true;
+    while (dispatched) {
+      dispatched = false;
+      for (int i = 0; i < queues.size(); i++) {
+        dispatched |= queues.get(i).dispatch();
+      }
+    }
+  }
+
+  /** Drops every pending event without dispatching it. */
+  public void clear() {
+    for (int i = 0; i < queues.size(); i++) {
+      queues.get(i).clear();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The pending events of one type, kept in a ring buffer of reusable event objects.
+ *
+ * <p>Publishing hands out the next free slot of the ring, which the publisher fills in place, so
+ * publishing doesn't allocate once the ring has grown to the usual number of events per stage.
+ * Events stay in the queue until the {@link EventBus} dispatches them to the subscribers, oldest
+ * first; after that the slot is reused and the event must not be kept.
+ *
+ * <p>Publishing is thread-safe, so systems running in parallel can share a queue. Dispatching only
+ * happens between stages, never while a system runs.
+ *
+ * @param <E> the type of the events
+ */
+public final class EventQueue<E> {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Class<E> type;
+  private final Supplier<E> factory;
+  private final List<EventBus.Handler<? super E>> handlers = new ArrayList<>();
+
+  /** Event objects, the pending ones starting at head; the length is a power of two */
+  private Object[] events;
+
+  private int head;
+  private int size;
+
+  EventQueue(Class<E> type, Supplier<E> factory) {
+    this.type = type;
+    this.factory = factory;
+    this.events = new Object[INITIAL_CAPACITY];
+    for (int i = 0; i < events.length; i++) {
+      events[i] = factory.get();
+    }
+  }
+
+  /**
+   * Adds an event to the queue. The returned object is recycled from an event already dispatched
+   * and must be filled in before the system publishing it returns.
+   *
+   * @return the event to fill
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E publish() {
+    if (size == events.length) {
+      grow();
+    }
+    return (E) events[(head + size++) & (events.length - 1)];
+  }
+
+  /** Doubles the ring, unrolling the pending events to its start. */
+  private void grow() {
+    Object[] grown = new Object[events.length * 2];
+    for (int i = 0; i < events.length; i++) {
+      grown[i] = events[(head + i) & (events.length - 1)];
+    }
+    for (int i = events.length; i < grown.length; i++) {
+      grown[i] = factory.get();
+    }
+    events = grown;
+    head = 0;
+  }
+
+  void subscribe(EventBus.Handler<? super E> handler) {
+    handlers.add(handler);
+  }
+
+  /**
+   * Hands every pending event to the subscribers, including the events they publish on this queue
+   * while doing so.
+   *
+   * @return true if there was any event
+   */
+  @SuppressWarnings("unchecked")
+  boolean dispatch() {
+    if (size == 0) {
+      return false;
+    }
+    while (size > 0) {
+      E event = (E) events[head];
+      for (int i = 0; i < handlers.size(); i++) {
+        handlers.get(i).handle(event);
+      }
+      // The slot is only freed once handled, so publishing from a handler can't overwrite it
+      head = (head + 1) & (events.length - 1);
+      size--;
+    }
+    return true;
+  }
+
+  /** Drops every pending event without dispatching it. */
+  public synchronized void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  public Class<E> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the number of events waiting to be dispatched.
+   *
+   * @return the number of pending events
+   */
+  public synchronized int size() {
+    return size;
+  }
+}
@@ -0,0 +1,30 @@
+package github.zekecode.cowboybebop.core;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * Codec of a packed component type whose whole state is in its packed fields, returned by {@link
+ * ComponentCodec#packed}. A {@link WorldSnapshot} skips its columns entirely when capturing the
+ * components, as there is nothing to encode.
+ */
+final class PackedCodec<T extends PackedComponent> implements ComponentCodec<T> {
+  private final Supplier<T> factory;
+
+  PackedCodec(Supplier<T> factory) {
+    this.factory = factory;
+  }
+
+  @Override
+  public void write(T component, ByteBuffer out) {}
+
+  @Override
+  public T read(ByteBuffer in) {
+    return factory.get();
+  }
+
+  @Override
+  public T detach(T component) {
+    return component;
+  }
+}
@@ -0,0 +1,107 @@
+package github.zekecode.cowboybebop.core;
+
+/**
+ * Base class for the small, numeric "hot" components that systems touch on every frame.
+ *
+ * <p>A packed component is made of a fixed number of double fields. As long as it is not attached
+ * to an entity the values live inside the component itself. Once the component is added to an
+ * entity of a {@link World}, its values are moved into the dense, primitive arrays of the entity's
+ * {@link Archetype}, so that systems can walk contiguous memory instead of chasing one object per
+ * entity. The component object stays around as a facade: its getters and setters simply read and
+ * write the archetype arrays at the owning entity's row.
+ *
+ * <p>Subclasses expose their field indices as constants so that systems can fetch the raw arrays
+ * through {@link ComponentColumn#values(int)}.
+ */
+public abstract class PackedComponent implements Component {
+  /** Field values used while the component is not attached to any entity */
+  private final double[] values;
+
+  /** Column holding the values while attached, or null when detached */
+  private ComponentColumn column;
+
+  /** Entity this component is attached to, used to find the row inside the column */
+  private Entity owner;
+
+  /**
+   * Creates a detached packed component with the given number of fields, all set to zero.
+   *
+   * @param fieldCount the number of double fields this component type stores
+   */
+  protected PackedComponent(int fieldCount) {
+    this.values = new double[fieldCount];
+  }
+
+  /**
+   * Reads one of the component's fields.
+   *
+   * @param field the field index
+   * @return the current value of the field
+   */
+  protected final double get(int field) {
+    if (column == null) {
+      return values[field];
+    }
+    return column.values(field)[owner.row];
+  }
+
+  /**
+   * Writes one of the component's fields.
+   *
+   * @param field the field index
+   * @param value the new value of the field
+   */
+  protected final void set(int field, double value) {
+    if (column == null) {
+      values[field] = value;
+    } else {
+      column.values(field)[owner.row] = value;
+    }
+  }
+
+  /**
+   * Returns the number of double fields stored by this component type.
+   *
+   * @return the field count
+   */
+  final int fieldCount() {
+    return values.length;
+  }
+
+  /**
+   * Moves the component values into the given column, at the row currently held by the owner.
+   *
+   * @param column the column that will store the values from now on
+   * @param owner the entity the component belongs to
+   */
+  final void attach(ComponentColumn column, Entity owner) {
+    bind(column, owner);
+    for (int field = 0; field < values.length; field++) {
+      column.values(field)[owner.row] = values[field];
+    }
+  }
+
+  /**
+   * Points the component at the given column without copying its values, for callers that fill
+   * the column arrays themselves, several rows at a time.
+   *
+   * @param column the column that stores the values from now on
+   * @param owner the entity the component belongs to
+   */
+  final void bind(ComponentColumn column, Entity owner) {
+    this.column = column;
+    this.owner = owner;
+  }
+
+  /** Copies the values back out of the archetype storage and detaches the component from it. */
+  final void detach() {
+    if (column == null) {
+      return;
+    }
+    for (int field = 0; field < values.length; field++) {
+      values[field] = column.values(field)[owner.row];
+    }
+    column = null;
+    owner = null;
+  }
+}
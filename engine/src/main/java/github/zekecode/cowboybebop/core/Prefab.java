@@ -0,0 +1,186 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * An immutable template of entity, from which a {@link World} spawns many entities at once with
+ * {@link World#spawnBatch}.
+ *
+ * <p>A prefab lists components of two sorts. Shared components are flyweights: the same instance
+ * is attached to every entity of the prefab, so they must never be modified through an entity.
+ * Per-instance components are made by a supplier, called once when the prefab is built to learn
+ * the initial values of the packed ones. Spawning a batch copies those values into the archetype
+ * columns of all the new entities at once, field by field, instead of one component at a time.
+ *
+ * <p>Entities spawned from a prefab come from, and return to, the {@link EntityPool} the world
+ * keeps for it, see {@link World#getPool(Prefab)}.
+ */
+public final class Prefab {
+  private final String name;
+
+  /** Component types, in the order they are added to an entity */
+  private final List<Class<? extends Component>> types;
+
+  /** Component types mapped to their packed field count, the signature of the archetype */
+  private final Map<Class<? extends Component>, Integer> fieldCounts;
+
+  /** Instance attached to every entity, or null for per-instance components */
+  private final Component[] shared;
+
+  /** Maker of the per-instance components, or null for shared ones */
+  private final List<Supplier<? extends Component>> suppliers;
+
+  /** Initial field values of the per-instance packed components, null for the others */
+  private final double[][] values;
+
+  private Prefab(Builder builder) {
+    int count = builder.types.size();
+    this.name = builder.name;
+    this.types = Collections.unmodifiableList(new ArrayList<>(builder.types));
+    this.fieldCounts = Collections.unmodifiableMap(new LinkedHashMap<>(builder.fieldCounts));
+    this.shared = builder.shared.toArray(new Component[count]);
+    this.suppliers = new ArrayList<>(builder.suppliers);
+    this.values = builder.values.toArray(new double[count][]);
+  }
+
+  /**
+   * Starts building a prefab.
+   *
+   * @param name the name of the prefab, also the kind of its pool
+   * @return the builder
+   */
+  public static Builder builder(String name) {
+    return new Builder(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the component types of the prefab, in the order they are added to an entity.
+   *
+   * @return the component types
+   */
+  public List<Class<? extends Component>> getTypes() {
+    return types;
+  }
+
+  /**
+   * Adds the components of the prefab to an entity, one at a time. This is how the pool of the
+   * prefab builds entities ahead of time, see {@link EntityPool#prewarm}.
+   *
+   * @param entity an entity without any of the prefab's components
+   */
+  public void build(Entity entity) {
+    for (int i = 0; i < types.size(); i++) {
+      entity.addComponent(instantiate(i));
+    }
+  }
+
+  int size() {
+    return types.size();
+  }
+
+  Map<Class<? extends Component>, Integer> fieldCounts() {
+    return fieldCounts;
+  }
+
+  /** Returns the shared instance of a component, or a new one if it is made per instance. */
+  Component instantiate(int component) {
+    return shared[component] != null ? shared[component] : suppliers.get(component).get();
+  }
+
+  /**
+   * Returns the initial values of a per-instance packed component.
+   *
+   * @return the values by field, or null if the component isn't packed or is shared
+   */
+  double[] values(int component) {
+    return values[component];
+  }
+
+  @Override
+  public String toString() {
+    return name + " prefab " + types;
+  }
+
+  /** Lists the components of a {@link Prefab}. */
+  public static final class Builder {
+    private final String name;
+    private final List<Class<? extends Component>> types = new ArrayList<>();
+    private final Map<Class<? extends Component>, Integer> fieldCounts = new LinkedHashMap<>();
+    private final List<Component> shared = new ArrayList<>();
+    private final List<Supplier<? extends Component>> suppliers = new ArrayList<>();
+    private final List<double[]> values = new ArrayList<>();
+
+    private Builder(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Adds a component every entity gets its own instance of.
+     *
+     * @param supplier makes a new component with the initial state of the entities
+     * @return this builder
+     * @throws IllegalArgumentException if the prefab already has a component of that type
+     */
+    public Builder with(Supplier<? extends Component> supplier) {
+      Component template = supplier.get();
+      double[] initial = null;
+      if (template instanceof PackedComponent) {
+        PackedComponent packed = (PackedComponent) template;
+        initial = new double[packed.fieldCount()];
+        for (int field = 0; field < initial.length; field++) {
+          initial[field] = packed.get(field);
+        }
+      }
+      add(template, null, supplier, initial);
+      return this;
+    }
+
+    /**
+     * Adds a component whose single instance is shared by every entity of the prefab.
+     *
+     * @param component the flyweight, which must not be modified afterwards
+     * @return this builder
+     * @throws IllegalArgumentException if the component is packed, or if the prefab already has a
+     *     component of that type
+     */
+    public Builder shared(Component component) {
+      if (component instanceof PackedComponent) {
+        // Its values live in the row of a single entity
+        throw new IllegalArgumentException("Packed components can't be shared: " + component);
+      }
+      add(component, component, null, null);
+      return this;
+    }
+
+    private void add(
+        Component template,
+        Component flyweight,
+        Supplier<? extends Component> supplier,
+        double[] initial) {
+      Class<? extends Component> type = template.getClass();
+      if (fieldCounts.containsKey(type)) {
+        throw new IllegalArgumentException(name + " already has a " + type.getSimpleName());
+      }
+      types.add(type);
+      fieldCounts.put(
+          type,
+          template instanceof PackedComponent ? ((PackedComponent) template).fieldCount() : 0);
+      shared.add(flyweight);
+      suppliers.add(supplier);
+      values.add(initial);
+    }
+
+    public Prefab build() {
+      return new Prefab(this);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A cached, live view over every entity of a {@link World} that has all the required component
+ * types and none of the excluded ones.
+ *
+ * <p>Queries are obtained through {@link World#query} and are meant to be created once (for
+ * instance in a system's constructor) and reused on every frame. A query doesn't store entities:
+ * it keeps the list of matching {@link Archetype}s, which the world updates whenever a new
+ * archetype appears. Entities being created, removed, or changing components are therefore
+ * reflected right away, without ever scanning the whole world.
+ *
+ * <p>Iterating a query doesn't allocate in the common case, and fails fast with a {@link
+ * ConcurrentModificationException} if the world is structurally modified during the iteration.
+ * Systems that need to create or remove entities while iterating must defer those changes until
+ * the loop is over.
+ */
+public final class Query implements Iterable<Entity> {
+  /** World this query belongs to */
+  private final World world;
+
+  /** Component types every matching entity must have */
+  private final Set<Class<? extends Component>> required;
+
+  /** Component types no matching entity may have */
+  private final Set<Class<? extends Component>> excluded;
+
+  /** Ids of the required types, a subset of the signature of every matching archetype */
+  private final Signature requiredMask;
+
+  /** Ids of the excluded types, disjoint from the signature of every matching archetype */
+  private final Signature excludedMask;
+
+  /** Archetypes matching this query, kept up to date by the world */
+  private final List<Archetype> archetypes = new ArrayList<>();
+
+  /** Read-only view of the matching archetypes */
+  private final List<Archetype> archetypesView = Collections.unmodifiableList(archetypes);
+
+  /** Iterator handed out by {@link #iterator()} when it isn't already in use */
+  private final Cursor cursor = new Cursor();
+
+  Query(
+      World world,
+      Set<Class<? extends Component>> required,
+      Set<Class<? extends Component>> excluded) {
+    this.world = world;
+    this.required = required;
+    this.excluded = excluded;
+    this.requiredMask = Signature.of(required);
+    this.excludedMask = Signature.of(excluded);
+  }
+
+  /**
+   * Returns a query matching the same entities as this one, minus those having any of the given
+   * component types. The returned query is cached by the world like any other.
+   *
+   * @param componentClasses the component types to exclude
+   * @return the narrowed query
+   */
+  @SafeVarargs
+  public final Query without(Class<? extends Component>... componentClasses) {
+    Set<Class<? extends Component>> narrowed = new HashSet<>(excluded);
+    for (Class<? extends Component> type : componentClasses) {
+      narrowed.add(type);
+    }
+    return world.query(required, narrowed);
+  }
+
+  /**
+   * Returns the archetypes whose entities match this query. Systems can walk them to access the
+   * component columns directly. Some of them may currently be empty.
+   *
+   * @return a read-only, live list of matching archetypes
+   */
+  public List<Archetype> getArchetypes() {
+    return archetypesView;
+  }
+
+  /**
+   * Counts the entities currently matching this query.
+   *
+   * @return the number of matching entities
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < archetypes.size(); i++) {
+      size += archetypes.get(i).size();
+    }
+    return size;
+  }
+
+  /**
+   * Tells whether no entity currently matches this query.
+   *
+   * @return true if there are no matching entities
+   */
+  public boolean isEmpty() {
+    return first() == null;
+  }
+
+  /**
+   * Returns any one of the matching entities, handy for singletons such as the player.
+   *
+   * @return a matching entity, or null if there is none
+   */
+  public Entity first() {
+    for (int i = 0; i < archetypes.size(); i++) {
+      Archetype archetype = archetypes.get(i);
+      if (archetype.size() > 0) {
+        return archetype.getEntity(0);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns an iterator over the matching entities. The query reuses a single iterator instance,
+   * so nothing is allocated unless the query is iterated again while a previous loop over it is
+   * still running. Systems running in parallel may iterate the same query safely.
+   *
+   * <p>A loop left early, by a break, a return or an exception, never gives the shared iterator
+   * back. No loop outlives the {@link World#update} it started in though, so the shared iterator
+   * is reclaimed on the next update.
+   *
+   * @return an iterator over the matching entities
+   */
+  @Override
+  public synchronized Iterator<Entity> iterator() {
+    Cursor result = cursor.active && cursor.update == world.updates ? new Cursor() : cursor;
+    result.reset();
+    return result;
+  }
+
+  /** Adds the archetype to this query's view if its signature matches. */
+  void offer(Archetype archetype) {
+    if (archetype.signature.containsAll(requiredMask)
+        && !archetype.signature.intersects(excludedMask)) {
+      archetypes.add(archetype);
+    }
+  }
+
+  /** Iterator walking the rows of every matching archetype in turn. */
+  private final class Cursor implements Iterator<Entity> {
+    private int archetypeIndex;
+    private int row;
+    private int expectedModCount;
+    private boolean active;
+
+    /** World update during which the loop started */
+    private int update;
+
+    void reset() {
+      archetypeIndex = 0;
+      row = 0;
+      expectedModCount = world.modCount;
+      update = world.updates;
+      active = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (archetypeIndex < archetypes.size()) {
+        if (row < archetypes.get(archetypeIndex).size()) {
+          return true;
+        }
+        archetypeIndex++;
+        row = 0;
+      }
+      active = false;
+      return false;
+    }
+
+    @Override
+    public Entity next() {
+      if (world.modCount != expectedModCount) {
+        active = false;
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return archetypes.get(archetypeIndex).getEntity(row++);
+    }
+  }
+}
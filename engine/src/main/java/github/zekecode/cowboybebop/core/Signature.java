@@ -0,0 +1,79 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable bitset of {@link ComponentType} ids: the component types of an archetype, or those
+ * a query requires or excludes. Matching an archetype against a query is a few mask tests over
+ * words, whatever the number of types.
+ */
+final class Signature {
+  static final Signature EMPTY = new Signature(new long[0]);
+
+  /** Bit {@code id % 64} of word {@code id / 64} is set when the type of that id is present */
+  private final long[] words;
+
+  private Signature(long[] words) {
+    this.words = words;
+  }
+
+  /** Returns the signature of the given component types. */
+  static Signature of(Collection<Class<? extends Component>> types) {
+    Signature signature = EMPTY;
+    for (Class<? extends Component> type : types) {
+      signature = signature.with(ComponentType.idOf(type));
+    }
+    return signature;
+  }
+
+  boolean has(int id) {
+    int word = id >>> 6;
+    return word < words.length && (words[word] & (1L << id)) != 0;
+  }
+
+  /** Returns a signature with the type of the given id, this one if it already has it. */
+  Signature with(int id) {
+    if (has(id)) {
+      return this;
+    }
+    long[] added = Arrays.copyOf(words, Math.max(words.length, (id >>> 6) + 1));
+    added[id >>> 6] |= 1L << id;
+    return new Signature(added);
+  }
+
+  /** Tells whether every type of the other signature is also in this one. */
+  boolean containsAll(Signature other) {
+    if (other.words.length > words.length) {
+      // Words are trimmed, so the last one of the other signature has a type missing here
+      return false;
+    }
+    for (int i = 0; i < other.words.length; i++) {
+      if ((other.words[i] & ~words[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Tells whether both signatures have at least one type in common. */
+  boolean intersects(Signature other) {
+    int length = Math.min(words.length, other.words.length);
+    for (int i = 0; i < length; i++) {
+      if ((words[i] & other.words[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof Signature && Arrays.equals(words, ((Signature) obj).words);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(words);
+  }
+}
@@ -10,10 +10,26 @@ package github.zekecode.cowboybebop.core;
  * cycle and process all relevant entities based on their components.
  *
  * <p>Systems are registered with the {@link World} class and are automatically invoked during the
- * world's update cycle in the order they were added.
+ * world's update cycle in the order they were added. Systems that declare which components they
+ * touch through {@link #getComponentAccess()} may run at the same time as other systems they don't
+ * conflict with; the registration order is kept between any two conflicting systems.
  */
 public interface System {
 
+  /**
+   * Declares the component types this system reads and writes, so that the world can run it in
+   * parallel with systems it doesn't conflict with.
+   *
+   * <p>Systems returning anything but {@link ComponentAccess#EXCLUSIVE} may be updated from a
+   * worker thread, and must then only touch the declared components of the entities they iterate,
+   * recording any structural change through the world's {@link CommandBuffer}.
+   *
+   * @return the component access of this system, {@link ComponentAccess#EXCLUSIVE} by default
+   */
+  default ComponentAccess getComponentAccess() {
+    return ComponentAccess.EXCLUSIVE;
+  }
+
   /**
    * Executes this system's logic for the current frame.
    *
@@ -0,0 +1,184 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the systems of a {@link World}, in parallel wherever their declared {@link ComponentAccess}
+ * allows it.
+ *
+ * <p>Systems are split into stages. A system goes into the stage right after the last earlier
+ * system it conflicts with, so two conflicting systems always run in registration order, while the
+ * systems of a stage share no written component, command buffer or event queue and can run at the
+ * same time on a {@link ForkJoinPool}. Exclusive systems always end up alone in their stage and
+ * run on the calling thread. The world's command buffer is played back after each stage.
+ *
+ * <p>The stages are only recomputed when systems are added or removed. When the world's {@link
+ * WorldMetrics} are enabled, every system is timed on the thread running it.
+ */
+final class SystemScheduler {
+  private final World world;
+
+  private final WorldMetrics metrics;
+
+  /** The world's systems, in registration order */
+  private final List<System> systems;
+
+  /** Pool running the systems of parallel stages */
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /** One task per system, grouped by stage and in registration order within a stage */
+  private SystemTask[] tasks = new SystemTask[0];
+
+  /** Index of the first task of every stage, plus the number of tasks as a last entry */
+  private int[] stageStarts = {0};
+
+  /** Set when systems changed since the stages were computed */
+  private boolean dirty = true;
+
+  SystemScheduler(World world, List<System> systems, WorldMetrics metrics) {
+    this.world = world;
+    this.systems = systems;
+    this.metrics = metrics;
+  }
+
+  void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /** Asks for the stages to be recomputed before the next run. */
+  void invalidate() {
+    dirty = true;
+  }
+
+  /** Updates every system once, stage by stage, playing back the command buffer in between. */
+  void run(double deltaTime) {
+    if (dirty) {
+      buildStages();
+    }
+    boolean timed = metrics.isEnabled();
+    for (int stage = 0; stage < stageStarts.length - 1; stage++) {
+      int start = stageStarts[stage];
+      int end = stageStarts[stage + 1];
+      if (end - start == 1) {
+        tasks[start].run(deltaTime, timed);
+      } else {
+        runParallel(start, end, deltaTime, timed);
+      }
+      if (timed) {
+        for (int i = start; i < end; i++) {
+          metrics.recordSystem(tasks[i].index, tasks[i].elapsed);
+        }
+      }
+      world.endStage();
+    }
+  }
+
+  /** Forks all the systems of a stage but the first, which runs on the calling thread. */
+  private void runParallel(int start, int end, double deltaTime, boolean timed) {
+    world.parallel = true;
+    for (int i = start + 1; i < end; i++) {
+      SystemTask task = tasks[i];
+      task.reinitialize();
+      task.deltaTime = deltaTime;
+      task.timed = timed;
+      pool.execute(task);
+    }
+
+    RuntimeException failure = null;
+    try {
+      tasks[start].run(deltaTime, timed);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+
+    // Wait for every forked system, even when one failed, before touching the world again
+    for (int i = start + 1; i < end; i++) {
+      try {
+        tasks[i].join();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    world.parallel = false;
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void buildStages() {
+    int count = systems.size();
+    ComponentAccess[] accesses = new ComponentAccess[count];
+    int[] stages = new int[count];
+    int stageCount = 0;
+    for (int i = 0; i < count; i++) {
+      accesses[i] = systems.get(i).getComponentAccess();
+      int stage = 0;
+      for (int j = 0; j < i; j++) {
+        if (stages[j] >= stage && accesses[i].conflictsWith(accesses[j])) {
+          stage = stages[j] + 1;
+        }
+      }
+      stages[i] = stage;
+      stageCount = Math.max(stageCount, stage + 1);
+    }
+
+    // Lay the tasks out stage after stage, keeping registration order inside a stage
+    tasks = new SystemTask[count];
+    stageStarts = new int[stageCount + 1];
+    int next = 0;
+    for (int stage = 0; stage < stageCount; stage++) {
+      stageStarts[stage] = next;
+      for (int i = 0; i < count; i++) {
+        if (stages[i] == stage) {
+          tasks[next++] = new SystemTask(systems.get(i), i);
+        }
+      }
+    }
+    stageStarts[stageCount] = next;
+    metrics.setSystems(systems);
+    dirty = false;
+  }
+
+  /** Reusable fork/join task updating a single system. */
+  private static final class SystemTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    // Tasks are never serialized, the fields are transient to keep RecursiveAction's contract
+    private final transient System system;
+
+    /** Position of the system in registration order */
+    private final int index;
+
+    private transient double deltaTime;
+    private transient boolean timed;
+
+    /** Duration of the last update in nanoseconds, when timed */
+    private transient long elapsed;
+
+    SystemTask(System system, int index) {
+      this.system = system;
+      this.index = index;
+    }
+
+    void run(double deltaTime, boolean timed) {
+      if (!timed) {
+        system.update(deltaTime);
+        return;
+      }
+      long start = java.lang.System.nanoTime();
+      system.update(deltaTime);
+      elapsed = java.lang.System.nanoTime() - start;
+    }
+
+    @Override
+    protected void compute() {
+      run(deltaTime, timed);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package github.zekecode.cowboybebop.core;
+
+/**
+ * A component without any state, whose only meaning is being there: queries can require or
+ * exclude it, like any other component.
+ *
+ * <p>Tags take no storage in an {@link Archetype}. Their column keeps a single instance instead of
+ * one per entity, so {@link Entity#getComponent} may return another instance of the same class
+ * than the one added. Implementations must therefore have no fields, and are best used as
+ * singletons.
+ */
+public interface TagComponent extends Component {}
@@ -0,0 +1,935 @@
+package github.zekecode.cowboybebop.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * This class is essential as it acts as a central repository for my game, keeping track of all
+ * entites and systems that will be in place.
+ *
+ * <p>Entities are stored grouped by their component signature, in {@link Archetype}s. Systems that
+ * care about performance can walk {@link #getArchetypes()} and read the dense columns of the
+ * matching archetypes directly, instead of going through {@link Entity#getComponent} for every
+ * entity.
+ *
+ * <p>The preferred way for systems to find their entities is a {@link Query}, obtained once through
+ * {@link #query} and reused on every frame: queries are cached and kept up to date incrementally
+ * by the world, so they never need to scan or copy the entity set.
+ *
+ * <p>Systems run in registration order, except that systems declaring disjoint {@link
+ * ComponentAccess} may run at the same time on a {@link ForkJoinPool}. While they do, the world
+ * only accepts structural changes recorded through its {@link CommandBuffer}. Systems report what
+ * happened through the {@link EventBus}, whose events are handled between stages.
+ */
+public class World {
+  private static final int INITIAL_SLOTS = 64;
+
+  private static final Entity[] NO_ENTITIES = new Entity[0];
+
+  /** All archetypes created so far, indexed by their signature */
+  private final Map<Signature, Archetype> archetypesBySignature;
+
+  /** All archetypes created so far, in creation order */
+  private final List<Archetype> archetypes;
+
+  /** Read-only view of the archetype list handed out to systems */
+  private final List<Archetype> archetypesView;
+
+  /** The archetype of entities without any component */
+  private final Archetype emptyArchetype;
+
+  /** Live entities indexed by the slot index of their handle, null for free slots */
+  private Entity[] slots;
+
+  /** Current generation of every slot, bumped each time the slot is freed */
+  private int[] generations;
+
+  /** Stack of freed slot indices ready to be recycled */
+  private int[] freeSlots;
+
+  /** Number of entries in use in {@link #freeSlots} */
+  private int freeSlotCount;
+
+  /** Number of slots handed out so far, free or not */
+  private int slotCount;
+
+  /** Cached queries, indexed by their required and excluded component types */
+  private final Map<List<Set<Class<? extends Component>>>, Query> queries;
+
+  /**
+   * Counter bumped on every structural change (entities created or removed, components added or
+   * removed), used by query iterators to detect concurrent modifications
+   */
+  int modCount;
+
+  /** Number of updates started, which query iterators use to tell abandoned loops */
+  int updates;
+
+  /** Structural changes recorded by systems, played back between stages of systems */
+  private final CommandBuffer commandBuffer;
+
+  /** Events published by systems, dispatched between stages of systems */
+  private final EventBus events;
+
+  /** Pools and storage of the prefabs, the pools being shared with systems running in parallel */
+  private final Map<Prefab, PrefabStorage> prefabs = new ConcurrentHashMap<>();
+
+  /** Scratch buffer holding the entities of a batch until they are all initialized */
+  private Entity[] batch = NO_ENTITIES;
+
+  /** Scratch buffer used to carry components over when an entity changes archetype */
+  private Component[] moveBuffer = new Component[8];
+
+  /**
+   * Guards the archetype graph, which pending entities of systems running in parallel may extend
+   */
+  private final Object structureLock = new Object();
+
+  /**
+   * Archetypes created while systems were running in parallel, handed to queries at the end of the
+   * stage so that no query changes under a running system
+   */
+  private final List<Archetype> pendingArchetypes = new ArrayList<>();
+
+  /** Set while the systems of a parallel stage are running */
+  boolean parallel;
+
+  /** Ordered list of game systems that are executed during each update cycle */
+  private final List<System> gameSystems;
+
+  /** Splits the systems into stages and runs them */
+  private final SystemScheduler scheduler;
+
+  /** Timings and entity counts, recorded only while enabled */
+  private final WorldMetrics metrics;
+
+  /**
+   * Creates a new empty game world. Initializes the entity storage and system list with no initial
+   * entities or systems.
+   */
+  public World() {
+    archetypesBySignature = new HashMap<>();
+    archetypes = new ArrayList<>();
+    archetypesView = Collections.unmodifiableList(archetypes);
+    queries = new HashMap<>();
+    slots = new Entity[INITIAL_SLOTS];
+    generations = new int[INITIAL_SLOTS];
+    freeSlots = new int[INITIAL_SLOTS];
+    commandBuffer = new CommandBuffer(this);
+    events = new EventBus();
+    emptyArchetype = registerArchetype(new LinkedHashMap<>());
+    gameSystems = new ArrayList<>();
+    metrics = new WorldMetrics();
+    scheduler = new SystemScheduler(this, gameSystems, metrics);
+  }
+
+  /**
+   * Creates and registers a new entity in the world.
+   *
+   * @return a new Entity instance ready to have components added
+   */
+  public Entity createEntity() {
+    checkNotParallel();
+    Entity entity = new Entity(this, EntityHandle.NONE);
+    entity.setId(allocateSlot(entity));
+    emptyArchetype.add(entity);
+    modCount++;
+    return entity;
+  }
+
+  /**
+   * Returns the command buffer systems should use to create or remove entities, or change their
+   * components, while iterating. The buffer is played back between systems during {@link
+   * #update}.
+   *
+   * @return the world's command buffer
+   */
+  public CommandBuffer getCommandBuffer() {
+    return commandBuffer;
+  }
+
+  /**
+   * Returns the event bus systems publish their events on. Pending events are dispatched at the end
+   * of every stage of systems during {@link #update}, right before the command buffer is played
+   * back.
+   *
+   * @return the world's event bus
+   */
+  public EventBus getEvents() {
+    return events;
+  }
+
+  /** Creates an entity that is not part of the world yet, for {@link CommandBuffer}. */
+  Entity createPendingEntity() {
+    Entity entity = new Entity(this, EntityHandle.NONE);
+    entity.archetype = emptyArchetype;
+    entity.detached = new Component[0];
+    return entity;
+  }
+
+  /**
+   * Brings an entity back into the world with the components it carries, under a new handle. This
+   * is how entities acquired from an {@link EntityPool} are spawned; an entity removed earlier can
+   * be brought back the same way. Entities already in the world are left alone.
+   *
+   * @param entity the entity to spawn
+   */
+  public void spawn(Entity entity) {
+    if (entity.world != this || entity.row >= 0) {
+      return;
+    }
+    checkNotParallel();
+    spawnPendingEntity(entity);
+  }
+
+  /**
+   * Brings a pending or removed entity into the world with the components it carries, under a new
+   * handle. The entity is inserted straight into the archetype matching its components.
+   */
+  void spawnPendingEntity(Entity entity) {
+    if (entity.world != this || entity.row >= 0) {
+      return;
+    }
+    entity.setId(allocateSlot(entity));
+    Archetype archetype = entity.archetype;
+    Component[] detached = entity.detached;
+    archetype.add(entity);
+    // The emptied array is kept, so that removing the entity again doesn't allocate
+    for (int i = 0; i < detached.length; i++) {
+      putComponent(archetype.column(i), entity, detached[i]);
+      detached[i] = null;
+    }
+    modCount++;
+  }
+
+  /**
+   * Spawns many entities of one prefab at once. Storage for the whole batch is reserved up front,
+   * entities are taken from the prefab's pool when possible, and the initial values of the packed
+   * components are written to the archetype columns in one pass per field. Queries see the new
+   * entities right away, as they all land in the one archetype matching the prefab.
+   *
+   * <p>The initializer is then called for every entity, with its index in the batch, to set the
+   * state that differs from one to the next, such as the position. Object components of an entity
+   * taken from the pool are handed back as they were left, so the initializer must also reset
+   * whatever state they carry.
+   *
+   * @param prefab the template of the entities
+   * @param count the number of entities to spawn
+   * @param initializer sets up each new entity given its index in the batch, or null
+   */
+  public void spawnBatch(Prefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+    checkNotParallel();
+    spawnPendingBatch(prefab, count, initializer);
+  }
+
+  /** Spawns a batch of entities, see {@link #spawnBatch}; also used by {@link CommandBuffer}. */
+  void spawnPendingBatch(Prefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+    if (count <= 0) {
+      return;
+    }
+    PrefabStorage storage = storageOf(prefab);
+    Archetype archetype = storage.archetype();
+    ComponentColumn[] columns = storage.columns;
+
+    int start = archetype.size();
+    archetype.reserve(start + count);
+    reserveSlots(count);
+    // An initializer spawning another batch gets a buffer of its own
+    Entity[] spawned = batch.length >= count ? batch : new Entity[count];
+    batch = NO_ENTITIES;
+
+    int reused = storage.pool.poll(spawned, count);
+    for (int i = 0; i < count; i++) {
+      Entity entity = spawned[i];
+      Component[] detached = i < reused ? entity.detached : null;
+      if (detached != null && entity.archetype != archetype) {
+        // Changed while in the pool, it can't share the prefab's storage anymore
+        detached = null;
+      }
+      if (detached == null) {
+        entity = new Entity(this, EntityHandle.NONE);
+        spawned[i] = entity;
+      }
+      entity.setId(allocateSlot(entity));
+      archetype.add(entity);
+      entity.pool = storage.pool;
+      for (int c = 0; c < columns.length; c++) {
+        ComponentColumn column = columns[c];
+        Component component;
+        if (detached != null) {
+          component = detached[column.index];
+          detached[column.index] = null;
+        } else {
+          component = prefab.instantiate(c);
+        }
+        column.set(entity.row, component);
+        if (component instanceof PackedComponent) {
+          ((PackedComponent) component).bind(column, entity);
+        }
+      }
+    }
+
+    for (int c = 0; c < columns.length; c++) {
+      double[] values = prefab.values(c);
+      if (values == null) {
+        continue;
+      }
+      for (int field = 0; field < values.length; field++) {
+        Arrays.fill(columns[c].values(field), start, start + count, values[field]);
+      }
+    }
+    modCount++;
+
+    if (initializer != null) {
+      for (int i = 0; i < count; i++) {
+        initializer.accept(spawned[i], i);
+      }
+    }
+    Arrays.fill(spawned, 0, count, null);
+    if (spawned.length > batch.length) {
+      batch = spawned;
+    }
+  }
+
+  /**
+   * Returns the pool of the entities spawned from a prefab, creating it on first use. The pool
+   * builds its entities with {@link Prefab#build}.
+   *
+   * @param prefab the prefab
+   * @return the pool of the prefab
+   */
+  public EntityPool getPool(Prefab prefab) {
+    return storageOf(prefab).pool;
+  }
+
+  private PrefabStorage storageOf(Prefab prefab) {
+    return prefabs.computeIfAbsent(prefab, PrefabStorage::new);
+  }
+
+  /** What the world keeps for a prefab: its pool, and where its entities are stored. */
+  private final class PrefabStorage {
+    private final Prefab prefab;
+    private final EntityPool pool;
+
+    /** Archetype of the prefab's entities, found on the first batch */
+    private Archetype archetype;
+
+    /** Column of each component of the prefab, in the prefab's order */
+    private ComponentColumn[] columns;
+
+    private PrefabStorage(Prefab prefab) {
+      this.prefab = prefab;
+      this.pool =
+          new EntityPool(
+              World.this, prefab.getName(), EntityPool.DEFAULT_CAPACITY, prefab::build);
+    }
+
+    private Archetype archetype() {
+      if (archetype == null) {
+        synchronized (structureLock) {
+          archetype = archetypeFor(new LinkedHashMap<>(prefab.fieldCounts()));
+        }
+        columns = new ComponentColumn[prefab.size()];
+        for (int i = 0; i < columns.length; i++) {
+          columns[i] = archetype.column(prefab.getTypes().get(i));
+        }
+      }
+      return archetype;
+    }
+  }
+
+  /** Grows the slot arrays so that the given number of entities can be added without growing. */
+  private void reserveSlots(int count) {
+    int needed = slotCount + Math.max(0, count - freeSlotCount);
+    if (needed > slots.length) {
+      int capacity = Math.max(needed, slots.length * 2);
+      slots = Arrays.copyOf(slots, capacity);
+      generations = Arrays.copyOf(generations, capacity);
+    }
+  }
+
+  /** Finds a free slot for the entity and returns its handle. */
+  private long allocateSlot(Entity entity) {
+    int index;
+    if (freeSlotCount > 0) {
+      index = freeSlots[--freeSlotCount];
+    } else {
+      if (slotCount == slots.length) {
+        slots = Arrays.copyOf(slots, slotCount * 2);
+        generations = Arrays.copyOf(generations, slotCount * 2);
+      }
+      index = slotCount++;
+    }
+    slots[index] = entity;
+    return EntityHandle.of(index, generations[index]);
+  }
+
+  /**
+   * Removes an entity from the world. The entity keeps its components, which can still be read but
+   * are no longer seen by systems. Pooled entities go back to their {@link EntityPool}.
+   *
+   * @param entity the entity to be removed
+   */
+  public void removeEntity(Entity entity) {
+    if (entity.world != this || entity.row < 0) {
+      return;
+    }
+    checkNotParallel();
+    Archetype archetype = entity.archetype;
+    Component[] detached = entity.detached;
+    if (detached == null || detached.length != archetype.columnCount()) {
+      detached = new Component[archetype.columnCount()];
+    }
+    for (int i = 0; i < detached.length; i++) {
+      detached[i] = takeComponent(archetype.column(i), entity.row);
+    }
+    archetype.remove(entity.row);
+    entity.detached = detached;
+    entity.row = -1;
+    releaseSlot(EntityHandle.index(entity.getId()));
+    modCount++;
+    if (entity.pool != null) {
+      entity.pool.release(entity);
+    }
+  }
+
+  /**
+   * Removes every entity matching a query at once. Each matching archetype is emptied in one go,
+   * without moving rows around to fill the holes one removal at a time. Like {@link
+   * #removeEntity}, the entities keep their components and pooled ones go back to their pool.
+   *
+   * @param query a query of this world
+   * @return the number of entities removed
+   */
+  public int destroyAll(Query query) {
+    checkNotParallel();
+    int destroyed = 0;
+    List<Archetype> matching = query.getArchetypes();
+    for (int a = 0; a < matching.size(); a++) {
+      Archetype archetype = matching.get(a);
+      int size = archetype.size();
+      int columnCount = archetype.columnCount();
+      Entity[] entities = archetype.entities();
+      for (int row = 0; row < size; row++) {
+        Entity entity = entities[row];
+        if (entity.detached == null || entity.detached.length != columnCount) {
+          entity.detached = new Component[columnCount];
+        }
+      }
+      // Column by column, each one's arrays are walked once
+      for (int i = 0; i < columnCount; i++) {
+        ComponentColumn column = archetype.column(i);
+        for (int row = 0; row < size; row++) {
+          entities[row].detached[i] = takeComponent(column, row);
+        }
+      }
+      for (int row = 0; row < size; row++) {
+        Entity entity = entities[row];
+        entity.row = -1;
+        releaseSlot(EntityHandle.index(entity.getId()));
+      }
+
+      // Entities of a batch share their pool, so they are released in runs
+      int run = 0;
+      for (int row = 1; row <= size; row++) {
+        if (row == size || entities[row].pool != entities[run].pool) {
+          if (entities[run].pool != null) {
+            entities[run].pool.release(entities, run, row);
+          }
+          run = row;
+        }
+      }
+      archetype.clear();
+      destroyed += size;
+    }
+    if (destroyed > 0) {
+      modCount++;
+    }
+    return destroyed;
+  }
+
+  /**
+   * Resolves an entity handle in constant time.
+   *
+   * @param handle a handle obtained from {@link Entity#getId()}
+   * @return the entity, or null if the handle is stale (its entity was removed) or invalid
+   */
+  public Entity getEntity(long handle) {
+    int index = EntityHandle.index(handle);
+    if (index < 0 || index >= slotCount) {
+      return null;
+    }
+    Entity entity = slots[index];
+    return entity != null && entity.getId() == handle ? entity : null;
+  }
+
+  /**
+   * Checks whether a handle still refers to a live entity of this world.
+   *
+   * @param handle a handle obtained from {@link Entity#getId()}
+   * @return true if the entity exists, false if the handle is stale or invalid
+   */
+  public boolean isAlive(long handle) {
+    return getEntity(handle) != null;
+  }
+
+  /**
+   * Frees a slot, bumping its generation so that handles to its previous occupant become stale.
+   */
+  private void releaseSlot(int index) {
+    slots[index] = null;
+    generations[index]++;
+    if (freeSlotCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+    }
+    freeSlots[freeSlotCount++] = index;
+  }
+
+  /** Tells whether no entity was ever created, so that a {@link WorldSnapshot} can be loaded. */
+  boolean isPristine() {
+    return slotCount == 0;
+  }
+
+  /**
+   * Returns the generation of every slot handed out so far, for {@link WorldSnapshot}.
+   *
+   * @return a copy of the generations, indexed by slot
+   */
+  int[] copyGenerations() {
+    return Arrays.copyOf(generations, slotCount);
+  }
+
+  /**
+   * Returns the free slots, for {@link WorldSnapshot}.
+   *
+   * @return a copy of the free slot stack, the next slot handed out last
+   */
+  int[] copyFreeSlots() {
+    return Arrays.copyOf(freeSlots, freeSlotCount);
+  }
+
+  /**
+   * Restores the slot allocator of a saved world, so that restored entities keep their handles
+   * and the entities created afterwards get the same handles they would have had in the saved
+   * world.
+   *
+   * @param generations the generation of every slot handed out
+   * @param freeSlots the free slot stack
+   */
+  void restoreSlots(int[] generations, int[] freeSlots) {
+    int capacity = Math.max(INITIAL_SLOTS, generations.length);
+    this.slots = new Entity[capacity];
+    this.generations = Arrays.copyOf(generations, capacity);
+    this.slotCount = generations.length;
+    this.freeSlots = Arrays.copyOf(freeSlots, Math.max(INITIAL_SLOTS, freeSlots.length));
+    this.freeSlotCount = freeSlots.length;
+  }
+
+  /**
+   * Returns the archetype of a signature, creating it with the given column order if needed.
+   *
+   * @param fieldCounts the component types in column order, mapped to their packed field count
+   * @return the archetype
+   */
+  Archetype restoreArchetype(Map<Class<? extends Component>, Integer> fieldCounts) {
+    return archetypeFor(fieldCounts);
+  }
+
+  /**
+   * Appends a saved entity to an archetype in the slot it had, its components are put by the
+   * caller with {@link #restoreComponent}.
+   *
+   * @param archetype the archetype of the entity
+   * @param slot the slot of the entity, whose generation was restored by {@link #restoreSlots}
+   * @return the entity
+   */
+  Entity restoreEntity(Archetype archetype, int slot) {
+    Entity entity = new Entity(this, EntityHandle.of(slot, generations[slot]));
+    slots[slot] = entity;
+    archetype.add(entity);
+    modCount++;
+    return entity;
+  }
+
+  void restoreComponent(ComponentColumn column, Entity entity, Component component) {
+    putComponent(column, entity, component);
+  }
+
+  /**
+   * Returns the archetypes currently known to the world, including empty ones. Systems may iterate
+   * them and their columns directly, but must not create or remove entities, or add or remove
+   * components, while doing so.
+   *
+   * @return a read-only list of archetypes
+   */
+  public List<Archetype> getArchetypes() {
+    return archetypesView;
+  }
+
+  /**
+   * Returns the cached query matching every entity that has all the given component types. The
+   * same query instance is returned for the same set of types, so calling this method repeatedly is
+   * cheap, but systems should still keep the query in a field rather than asking for it on every
+   * frame. Use {@link Query#without} to also exclude some component types.
+   *
+   * @param componentClasses the component types matching entities must have
+   * @return the live query
+   */
+  @SafeVarargs
+  public final Query query(Class<? extends Component>... componentClasses) {
+    Set<Class<? extends Component>> required = new HashSet<>();
+    // Copied one by one: handing the generic array on could pollute the heap
+    for (Class<? extends Component> type : componentClasses) {
+      required.add(type);
+    }
+    return query(required, Collections.emptySet());
+  }
+
+  /** Returns the cached query for the given required and excluded types, creating it if needed. */
+  Query query(
+      Set<Class<? extends Component>> required, Set<Class<? extends Component>> excluded) {
+    Set<Class<? extends Component>> requiredTypes = Set.copyOf(required);
+    Set<Class<? extends Component>> excludedTypes = Set.copyOf(excluded);
+    List<Set<Class<? extends Component>>> key = List.of(requiredTypes, excludedTypes);
+    Query query = queries.get(key);
+    if (query == null) {
+      query = new Query(this, requiredTypes, excludedTypes);
+      for (Archetype archetype : archetypes) {
+        query.offer(archetype);
+      }
+      queries.put(key, query);
+    }
+    return query;
+  }
+
+  /**
+   * Adds a system to the world to be executed during updates.
+   *
+   * @param gameSystem the system to be added
+   */
+  public void addSystem(System gameSystem) {
+    gameSystems.add(gameSystem);
+    scheduler.invalidate();
+  }
+
+  /**
+   * Removes a system from the world's update cycle.
+   *
+   * @param <T> the specific type of System being removed, extending the base System interface
+   * @param system the system instance to be removed from the world
+   * @return true if the system was found and removed, false if the system wasn't in the world
+   */
+  public <T extends System> void removeSystem(T system) {
+    gameSystems.remove(system);
+    scheduler.invalidate();
+  }
+
+  /**
+   * Sets the pool running systems that can execute in parallel. The common pool is used by
+   * default.
+   *
+   * @param pool the pool to fork systems on
+   */
+  public void setSystemPool(ForkJoinPool pool) {
+    scheduler.setPool(pool);
+  }
+
+  /**
+   * Executes the update cycle for all systems registered in the world. This is a core method of the
+   * game loop that advances the game state by the specified amount of time. Systems that don't
+   * conflict with each other may run at the same time; the command buffer is played back after each
+   * group of such systems, so every system sees the changes recorded by the systems it conflicts
+   * with and that were registered before it.
+   *
+   * @param deltaTime the time elapsed between consecutive frames in seconds, used to ensure
+   *     frame-rate independent behavior
+   */
+  public void update(double deltaTime) {
+    updates++;
+    if (!metrics.isEnabled()) {
+      commandBuffer.playback();
+      scheduler.run(deltaTime);
+      return;
+    }
+    long start = java.lang.System.nanoTime();
+    commandBuffer.playback();
+    scheduler.run(deltaTime);
+    metrics.recordTick(java.lang.System.nanoTime() - start);
+    metrics.countComponents(archetypes);
+  }
+
+  /**
+   * Returns the timing and population metrics of this world. They are disabled by default, see
+   * {@link WorldMetrics#setEnabled}.
+   *
+   * @return the world's metrics
+   */
+  public WorldMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Publishes the archetypes created during a stage, dispatches the events published by its
+   * systems and plays back the command buffer.
+   */
+  void endStage() {
+    for (int i = 0; i < pendingArchetypes.size(); i++) {
+      publishArchetype(pendingArchetypes.get(i));
+    }
+    pendingArchetypes.clear();
+    events.dispatch();
+    commandBuffer.playback();
+  }
+
+  /**
+   * Rejects changes to live entities while systems run in parallel, as other systems may be
+   * iterating the same archetypes.
+   */
+  private void checkNotParallel() {
+    if (parallel) {
+      throw new IllegalStateException(
+          "Structural changes must go through the command buffer while systems run in parallel");
+    }
+  }
+
+  /**
+   * Computes a hash of the state of the world: the handle of every entity and the packed fields of
+   * its components. Worlds holding the same entities with bit for bit the same values have the same
+   * checksum, which lets a replay find the first tick where it diverges from its recording. Plain
+   * object components are not covered, but whatever they change ends up in packed fields.
+   *
+   * @return the checksum of the world
+   */
+  public long checksum() {
+    long hash = 0;
+    for (Archetype archetype : archetypes) {
+      int size = archetype.size();
+      if (size == 0) {
+        continue;
+      }
+
+      long archetypeHash = size;
+      for (int row = 0; row < size; row++) {
+        archetypeHash = mix(archetypeHash, archetype.getEntity(row).getId());
+      }
+      // Columns follow the order their components were added in, so they are summed
+      for (int c = 0; c < archetype.columnCount(); c++) {
+        ComponentColumn column = archetype.column(c);
+        long columnHash = column.getType().getName().hashCode();
+        for (int field = 0; field < column.fieldCount(); field++) {
+          double[] values = column.values(field);
+          for (int row = 0; row < size; row++) {
+            columnHash = mix(columnHash, Double.doubleToLongBits(values[row]));
+          }
+        }
+        archetypeHash += columnHash;
+      }
+      hash = mix(hash, archetypeHash);
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    hash = (hash + value) * 0x9E3779B97F4A7C15L;
+    return hash ^ (hash >>> 32);
+  }
+
+  /**
+   * Returns the set of entities that are currently present and tracked in the world. The set
+   * returned by this function is a defensive copy of all entities currently in the world. Any
+   * modifications to the returned set won't affect the actual game state.
+   *
+   * @return a new HashSet containing all entities in the world
+   */
+  public Set<Entity> getEntities() {
+    Set<Entity> result = new HashSet<>();
+    for (Archetype archetype : archetypes) {
+      for (int row = 0; row < archetype.size(); row++) {
+        result.add(archetype.getEntity(row));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Filters and returns entities that have a specific component type. Prefer {@link #query} in
+   * per-frame code, as this method copies every matching entity into a new set.
+   *
+   * @param <T> the type of component to filter entities by
+   * @param componentClass the class object representing the component type
+   * @return a new HashSet containing only entities that possess the specified component
+   */
+  public <T extends Component> Set<Entity> getEntitiesWithComponent(Class<T> componentClass) {
+    Set<Entity> result = new HashSet<>();
+    for (Entity entity : query(componentClass)) {
+      result.add(entity);
+    }
+    return result;
+  }
+
+  /**
+   * Attaches a component to an entity, moving the entity to the archetype matching its new
+   * signature. A component of the same type already attached is replaced in place.
+   */
+  void addComponent(Entity entity, Component component) {
+    if (entity.row >= 0) {
+      checkNotParallel();
+    }
+    synchronized (structureLock) {
+      attachComponent(entity, component);
+    }
+  }
+
+  private void attachComponent(Entity entity, Component component) {
+    ComponentType<?> type = ComponentType.of(component.getClass());
+    Archetype source = entity.archetype;
+    ComponentColumn existing = source.column(type);
+    if (existing != null) {
+      if (entity.row < 0) {
+        entity.detached[existing.index] = component;
+      } else {
+        takeComponent(existing, entity.row);
+        putComponent(existing, entity, component);
+      }
+      return;
+    }
+
+    Archetype target = source.addEdge(type.getId());
+    if (target == null) {
+      Map<Class<? extends Component>, Integer> fieldCounts = fieldCountsOf(source);
+      fieldCounts.put(
+          type.getType(),
+          component instanceof PackedComponent ? ((PackedComponent) component).fieldCount() : 0);
+      target = archetypeFor(fieldCounts);
+      source.linkAdd(type.getId(), target);
+    }
+    moveEntity(entity, target, component);
+  }
+
+  /** Detaches a component from an entity, moving the entity to the matching archetype. */
+  void removeComponent(Entity entity, Class<? extends Component> type) {
+    if (entity.row >= 0) {
+      checkNotParallel();
+    }
+    synchronized (structureLock) {
+      detachComponent(entity, type);
+    }
+  }
+
+  private void detachComponent(Entity entity, Class<? extends Component> type) {
+    Archetype source = entity.archetype;
+    int id = ComponentType.idOf(type);
+    if (!source.signature.has(id)) {
+      return;
+    }
+
+    Archetype target = source.removeEdge(id);
+    if (target == null) {
+      Map<Class<? extends Component>, Integer> fieldCounts = fieldCountsOf(source);
+      fieldCounts.remove(type);
+      target = archetypeFor(fieldCounts);
+      target.linkAdd(id, source);
+    }
+    moveEntity(entity, target, null);
+  }
+
+  /**
+   * Moves an entity from its current archetype to the target one, carrying over every component
+   * whose type is part of both signatures.
+   *
+   * @param added the component being added by this move, or null when removing one
+   */
+  private void moveEntity(Entity entity, Archetype target, Component added) {
+    Archetype source = entity.archetype;
+    if (moveBuffer.length < source.columnCount()) {
+      moveBuffer = new Component[source.columnCount() * 2];
+    }
+
+    boolean alive = entity.row >= 0;
+    for (int i = 0; i < source.columnCount(); i++) {
+      moveBuffer[i] = alive ? takeComponent(source.column(i), entity.row) : entity.detached[i];
+    }
+
+    Component[] detached = null;
+    if (alive) {
+      source.remove(entity.row);
+      target.add(entity);
+      modCount++;
+    } else {
+      detached = new Component[target.columnCount()];
+      entity.archetype = target;
+    }
+
+    for (int i = 0; i < target.columnCount(); i++) {
+      ComponentColumn column = target.column(i);
+      ComponentColumn previous = source.column(column.type);
+      Component component = previous != null ? moveBuffer[previous.index] : added;
+      if (alive) {
+        putComponent(column, entity, component);
+      } else {
+        detached[i] = component;
+      }
+    }
+    entity.detached = detached;
+    Arrays.fill(moveBuffer, 0, source.columnCount(), null);
+  }
+
+  /** Reads the component stored at a row, pulling packed values back into the component object. */
+  private Component takeComponent(ComponentColumn column, int row) {
+    Component component = column.get(row);
+    if (component instanceof PackedComponent) {
+      ((PackedComponent) component).detach();
+    }
+    return component;
+  }
+
+  /** Stores a component at the entity's row, pushing packed values into the column arrays. */
+  private void putComponent(ComponentColumn column, Entity entity, Component component) {
+    column.set(entity.row, component);
+    if (component instanceof PackedComponent) {
+      ((PackedComponent) component).attach(column, entity);
+    }
+  }
+
+  private Map<Class<? extends Component>, Integer> fieldCountsOf(Archetype archetype) {
+    Map<Class<? extends Component>, Integer> fieldCounts = new LinkedHashMap<>();
+    for (int i = 0; i < archetype.columnCount(); i++) {
+      ComponentColumn column = archetype.column(i);
+      fieldCounts.put(column.getType(), column.fieldCount());
+    }
+    return fieldCounts;
+  }
+
+  private Archetype archetypeFor(Map<Class<? extends Component>, Integer> fieldCounts) {
+    Archetype archetype = archetypesBySignature.get(Signature.of(fieldCounts.keySet()));
+    return archetype != null ? archetype : registerArchetype(fieldCounts);
+  }
+
+  private Archetype registerArchetype(Map<Class<? extends Component>, Integer> fieldCounts) {
+    Archetype archetype = new Archetype(fieldCounts);
+    archetypesBySignature.put(archetype.signature, archetype);
+    if (parallel) {
+      pendingArchetypes.add(archetype);
+    } else {
+      publishArchetype(archetype);
+    }
+    return archetype;
+  }
+
+  private void publishArchetype(Archetype archetype) {
+    archetypes.add(archetype);
+    for (Query query : queries.values()) {
+      query.offer(archetype);
+    }
+  }
+}
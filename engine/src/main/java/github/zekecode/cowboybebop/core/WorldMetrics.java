@@ -0,0 +1,145 @@
+package github.zekecode.cowboybebop.core;
+
+import github.zekecode.cowboybebop.util.RollingHistogram;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frame timing and population figures of a {@link World}, for profiling overlays.
+ *
+ * <p>When enabled, the world times every system and every whole tick into {@link
+ * RollingHistogram}s, and counts the entities of each component type at the end of the tick.
+ * Recording only writes into preallocated arrays, which grow when a new system or component type
+ * shows up. When disabled, which is the default, the world skips all of it.
+ */
+public final class WorldMetrics {
+  /** Number of ticks kept in the rolling windows */
+  public static final int WINDOW = 240;
+
+  private boolean enabled;
+
+  /** Duration of whole ticks, in nanoseconds */
+  private final RollingHistogram tickTimes = new RollingHistogram(WINDOW);
+
+  /** Duration of every system, in registration order */
+  private RollingHistogram[] systemTimes = new RollingHistogram[0];
+
+  private String[] systemNames = new String[0];
+
+  /** Component types counted so far, in the order they were first seen */
+  private Class<?>[] componentTypes = new Class<?>[0];
+
+  private final Map<Class<?>, Integer> componentIndices = new HashMap<>();
+
+  /** Number of entities having each component type at the end of the last tick */
+  private int[] componentCounts = new int[0];
+
+  WorldMetrics() {}
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turns recording on or off. Turning it on starts from empty windows.
+   *
+   * @param enabled true to record metrics on every tick
+   */
+  public void setEnabled(boolean enabled) {
+    if (enabled && !this.enabled) {
+      tickTimes.clear();
+      for (RollingHistogram times : systemTimes) {
+        times.clear();
+      }
+    }
+    this.enabled = enabled;
+  }
+
+  public RollingHistogram getTickTimes() {
+    return tickTimes;
+  }
+
+  public int getSystemCount() {
+    return systemTimes.length;
+  }
+
+  public String getSystemName(int index) {
+    return systemNames[index];
+  }
+
+  /**
+   * Returns the durations of a system.
+   *
+   * @param index the position of the system in registration order
+   * @return the rolling window of its update times, in nanoseconds
+   */
+  public RollingHistogram getSystemTimes(int index) {
+    return systemTimes[index];
+  }
+
+  public int getComponentTypeCount() {
+    return componentTypes.length;
+  }
+
+  public Class<?> getComponentType(int index) {
+    return componentTypes[index];
+  }
+
+  /**
+   * Returns how many entities had a component type at the end of the last recorded tick.
+   *
+   * @param index the index of the component type, see {@link #getComponentType(int)}
+   * @return the entity count
+   */
+  public int getComponentCount(int index) {
+    return componentCounts[index];
+  }
+
+  /** Resizes the per-system windows when the systems of the world change. */
+  void setSystems(List<System> systems) {
+    RollingHistogram[] times = new RollingHistogram[systems.size()];
+    String[] names = new String[systems.size()];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = new RollingHistogram(WINDOW);
+      Class<?> type = systems.get(i).getClass();
+      names[i] = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
+    systemTimes = times;
+    systemNames = names;
+  }
+
+  void recordSystem(int index, long nanos) {
+    systemTimes[index].record(nanos);
+  }
+
+  void recordTick(long nanos) {
+    tickTimes.record(nanos);
+  }
+
+  /** Counts the entities of every component type, walking the archetypes once. */
+  void countComponents(List<Archetype> archetypes) {
+    Arrays.fill(componentCounts, 0);
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      for (int c = 0; c < archetype.columnCount(); c++) {
+        // Resolve the index first, as it may grow the counts array
+        int index = indexOf(archetype.column(c).getType());
+        componentCounts[index] += archetype.size();
+      }
+    }
+  }
+
+  private int indexOf(Class<?> type) {
+    Integer index = componentIndices.get(type);
+    if (index == null) {
+      index = componentTypes.length;
+      componentTypes = Arrays.copyOf(componentTypes, index + 1);
+      componentCounts = Arrays.copyOf(componentCounts, index + 1);
+      componentTypes[index] = type;
+      componentIndices.put(type, index);
+    }
+    return index;
+  }
+}
@@ -0,0 +1,553 @@
+package github.zekecode.cowboybebop.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A copy of every entity of a {@link World} and its components, which can be saved to a file and
+ * loaded back into a new world.
+ *
+ * <p>{@link #capture} copies the world between ticks: the packed fields and the component
+ * references of each archetype column are copied as whole arrays, so the game loop only pays for a
+ * few array copies. Components the world may still change are {@link ComponentCodec#detach
+ * detached} by their codec, which only copies the few that aren't shared and read-only. The
+ * capture is then independent of the world, which can keep running while {@link #writeAsync}
+ * encodes the components and saves them on a background thread.
+ *
+ * <p>The file is little-endian and laid out archetype by archetype, mirroring the archetype
+ * storage: the slot of every entity, the encoded plain components, then every packed field as a
+ * run of doubles. It is written and read through a {@link FileChannel} and a direct buffer reused
+ * by the thread, the runs of doubles going in bulk between the buffer and the column arrays. The
+ * file is never mapped: a mapping lives until it is garbage collected, and on Windows a mapped
+ * file can't be replaced, so saving over a loaded checkpoint would fail. The slot allocator is
+ * saved too, so loaded entities keep their {@link EntityHandle handles} and the entities created
+ * after loading get the handles they would have had in the saved world. Pools are not saved:
+ * loaded entities return to no {@link EntityPool}.
+ */
+public final class WorldSnapshot {
+  /** Leading bytes of every snapshot, "CBSN" */
+  private static final int MAGIC = 0x4342534E;
+
+  private static final int VERSION = 1;
+
+  /** Size of the buffers files go through */
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  /** Direct buffer of each thread saving or loading snapshots, mostly the writer's */
+  private static final ThreadLocal<ByteBuffer> BUFFERS =
+      ThreadLocal.withInitial(
+          () -> ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+
+  /** Saves snapshots one at a time, in the order they were requested */
+  private static final ExecutorService WRITER =
+      Executors.newSingleThreadExecutor(
+          task -> {
+            Thread thread = new Thread(task, "world-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final int[] generations;
+  private final int[] freeSlots;
+
+  /** Every component type of the snapshot, in the order of their ids in the file */
+  private final List<Class<? extends Component>> types;
+
+  /** The codec of every type, by id */
+  private final List<ComponentCodec<Component>> codecs;
+
+  private final List<ArchetypeState> archetypes;
+
+  /** The entities of one archetype */
+  private static final class ArchetypeState {
+    /** Id of the component type of every column */
+    final int[] typeIds;
+
+    final int[] fieldCounts;
+    final int[] slots;
+
+    /** Packed fields, by column then field, null for plain columns */
+    final double[][][] values;
+
+    /** Components to encode, by column then row, null for columns with nothing to encode */
+    final Component[][] components;
+
+    ArchetypeState(
+        int[] typeIds,
+        int[] fieldCounts,
+        int[] slots,
+        double[][][] values,
+        Component[][] components) {
+      this.typeIds = typeIds;
+      this.fieldCounts = fieldCounts;
+      this.slots = slots;
+      this.values = values;
+      this.components = components;
+    }
+  }
+
+  private WorldSnapshot(
+      int[] generations,
+      int[] freeSlots,
+      List<Class<? extends Component>> types,
+      List<ComponentCodec<Component>> codecs,
+      List<ArchetypeState> archetypes) {
+    this.generations = generations;
+    this.freeSlots = freeSlots;
+    this.types = types;
+    this.codecs = codecs;
+    this.archetypes = archetypes;
+  }
+
+  /**
+   * Copies the state of a world. It must be called between ticks, as it reads every archetype. The
+   * components are only encoded when the snapshot is saved.
+   *
+   * @param world the world to copy
+   * @param codecs the codecs of every component type of the world
+   * @return the snapshot
+   * @throws IllegalArgumentException if a component type has no codec
+   */
+  public static WorldSnapshot capture(World world, ComponentCodecs codecs) {
+    Map<Class<? extends Component>, Integer> typeIds = new LinkedHashMap<>();
+    List<ComponentCodec<Component>> typeCodecs = new ArrayList<>();
+    List<ArchetypeState> archetypes = new ArrayList<>();
+
+    for (Archetype archetype : world.getArchetypes()) {
+      int size = archetype.size();
+      if (size == 0) {
+        continue;
+      }
+
+      int columnCount = archetype.columnCount();
+      int[] columnTypes = new int[columnCount];
+      int[] fieldCounts = new int[columnCount];
+      double[][][] values = new double[columnCount][][];
+      Component[][] components = new Component[columnCount][];
+      for (int c = 0; c < columnCount; c++) {
+        ComponentColumn column = archetype.column(c);
+        Integer id = typeIds.get(column.getType());
+        if (id == null) {
+          id = typeIds.size();
+          typeIds.put(column.getType(), id);
+          typeCodecs.add(codecOf(codecs, column.getType()));
+        }
+        columnTypes[c] = id;
+        fieldCounts[c] = column.fieldCount();
+
+        if (column.isPacked()) {
+          values[c] = new double[column.fieldCount()][];
+          for (int field = 0; field < column.fieldCount(); field++) {
+            values[c][field] = Arrays.copyOf(column.values(field), size);
+          }
+        }
+        ComponentCodec<Component> codec = typeCodecs.get(id);
+        if (!(codec instanceof PackedCodec)) {
+          Component[] copy = column.copyComponents(size);
+          for (int row = 0; row < size; row++) {
+            copy[row] = codec.detach(copy[row]);
+          }
+          components[c] = copy;
+        }
+      }
+
+      int[] slots = new int[size];
+      for (int row = 0; row < size; row++) {
+        slots[row] = EntityHandle.index(archetype.getEntity(row).getId());
+      }
+      archetypes.add(new ArchetypeState(columnTypes, fieldCounts, slots, values, components));
+    }
+
+    return new WorldSnapshot(
+        world.copyGenerations(),
+        world.copyFreeSlots(),
+        new ArrayList<>(typeIds.keySet()),
+        typeCodecs,
+        archetypes);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ComponentCodec<Component> codecOf(
+      ComponentCodecs codecs, Class<? extends Component> type) {
+    return (ComponentCodec<Component>) codecs.get(type);
+  }
+
+  private static ByteBuffer grow(ByteBuffer buffer) {
+    ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.flip();
+    return grown.put(buffer);
+  }
+
+  /**
+   * Returns the number of entities in the snapshot.
+   *
+   * @return the number of entities
+   */
+  public int getEntityCount() {
+    int count = 0;
+    for (ArchetypeState archetype : archetypes) {
+      count += archetype.slots.length;
+    }
+    return count;
+  }
+
+  /**
+   * Saves the snapshot on a background thread. Snapshots are saved one at a time, in the order
+   * this method is called.
+   *
+   * @param file the file to write
+   * @return completed with the file once it is written, or exceptionally with an {@link
+   *     UncheckedIOException}
+   */
+  public CompletableFuture<Path> writeAsync(Path file) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            writeTo(file);
+            return file;
+          } catch (IOException e) {
+            throw new UncheckedIOException("Could not save the snapshot to " + file, e);
+          }
+        },
+        WRITER);
+  }
+
+  /**
+   * Saves the snapshot. The file is written next to its destination first and then moved over
+   * it, so a crash while saving leaves the previous file untouched.
+   *
+   * @param file the file to write
+   * @throws IOException if the file can't be written
+   */
+  public void writeTo(Path file) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      Output out = new Output(channel, BUFFERS.get());
+      write(out);
+      out.flush();
+      channel.force(false);
+    }
+    try {
+      Files.move(
+          temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Encodes the components of an archetype with their codecs, column after column.
+   *
+   * @param archetype the archetype to encode
+   * @param scratch where to encode them, cleared first
+   * @return the buffer holding the encoded components, the given one or a larger copy of it
+   */
+  private ByteBuffer encode(ArchetypeState archetype, ByteBuffer scratch) {
+    scratch.clear();
+    for (int c = 0; c < archetype.components.length; c++) {
+      Component[] components = archetype.components[c];
+      if (components == null) {
+        continue;
+      }
+      ComponentCodec<Component> codec = codecs.get(archetype.typeIds[c]);
+      for (Component component : components) {
+        if (scratch.remaining() < ComponentCodec.MAX_SIZE) {
+          scratch = grow(scratch);
+        }
+        codec.write(component, scratch);
+      }
+    }
+    return scratch;
+  }
+
+  private void write(Output out) throws IOException {
+    out.require(12).putInt(MAGIC).putInt(VERSION).putInt(generations.length);
+    out.putInts(generations, generations.length);
+    out.require(4).putInt(freeSlots.length);
+    out.putInts(freeSlots, freeSlots.length);
+
+    out.require(4).putInt(types.size());
+    for (Class<? extends Component> type : types) {
+      byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+      out.require(2).putShort((short) name.length);
+      out.put(name, name.length);
+    }
+
+    ByteBuffer plain = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    out.require(4).putInt(archetypes.size());
+    for (ArchetypeState archetype : archetypes) {
+      int size = archetype.slots.length;
+      plain = encode(archetype, plain);
+      out.require(12).putInt(archetype.typeIds.length).putInt(size).putInt(plain.position());
+      out.putInts(archetype.typeIds, archetype.typeIds.length);
+      out.putInts(archetype.fieldCounts, archetype.fieldCounts.length);
+      out.putInts(archetype.slots, size);
+      out.put(plain.array(), plain.position());
+      out.align();
+
+      // Doubles are aligned, so the runs copy at memory speed
+      for (double[][] fields : archetype.values) {
+        if (fields == null) {
+          continue;
+        }
+        for (double[] field : fields) {
+          out.putDoubles(field, 0, size);
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads a snapshot into a world that never had any entity, typically a new one. Its systems can
+   * be added before or after.
+   *
+   * @param file the snapshot
+   * @param world the world to fill
+   * @param codecs the codecs of every component type of the snapshot
+   * @throws IOException if the file can't be read or is not a snapshot
+   * @throws IllegalStateException if the world already had entities
+   * @throws IllegalArgumentException if a component type of the snapshot has no codec
+   */
+  public static void load(Path file, World world, ComponentCodecs codecs) throws IOException {
+    if (!world.isPristine()) {
+      throw new IllegalStateException("Snapshots can only be loaded into a world without entities");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      read(new Input(channel, BUFFERS.get()), world, codecs);
+    }
+  }
+
+  private static void read(Input in, World world, ComponentCodecs codecs) throws IOException {
+    if (in.require(8).getInt() != MAGIC) {
+      throw new IOException("Not a world snapshot");
+    }
+    int version = in.buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported world snapshot version: " + version);
+    }
+    int[] generations = new int[in.require(4).getInt()];
+    in.getInts(generations);
+    int[] freeSlots = new int[in.require(4).getInt()];
+    in.getInts(freeSlots);
+    world.restoreSlots(generations, freeSlots);
+
+    List<Class<? extends Component>> types = new ArrayList<>();
+    int typeCount = in.require(4).getInt();
+    for (int i = 0; i < typeCount; i++) {
+      byte[] name = new byte[in.require(2).getShort()];
+      in.require(name.length).get(name);
+      types.add(codecs.typeNamed(new String(name, StandardCharsets.UTF_8)));
+    }
+
+    int archetypeCount = in.require(4).getInt();
+    for (int a = 0; a < archetypeCount; a++) {
+      int columnCount = in.require(12).getInt();
+      int size = in.buffer.getInt();
+      int plainLength = in.buffer.getInt();
+      int[] typeIds = new int[columnCount];
+      in.getInts(typeIds);
+      int[] counts = new int[columnCount];
+      in.getInts(counts);
+      Map<Class<? extends Component>, Integer> fieldCounts = new LinkedHashMap<>();
+      for (int c = 0; c < columnCount; c++) {
+        fieldCounts.put(types.get(typeIds[c]), counts[c]);
+      }
+      Archetype archetype = world.restoreArchetype(fieldCounts);
+      int first = archetype.size();
+      archetype.reserve(first + size);
+
+      int[] slots = new int[size];
+      in.getInts(slots);
+      Entity[] entities = new Entity[size];
+      for (int row = 0; row < size; row++) {
+        entities[row] = world.restoreEntity(archetype, slots[row]);
+      }
+      ByteBuffer plain = in.getBytes(plainLength);
+      for (Class<? extends Component> type : fieldCounts.keySet()) {
+        ComponentColumn column = archetype.column(type);
+        ComponentCodec<Component> codec = codecOf(codecs, type);
+        for (int row = 0; row < size; row++) {
+          world.restoreComponent(column, entities[row], codec.read(plain));
+        }
+      }
+      in.align();
+
+      // The packed fields go straight into the columns, over the values of the new components
+      for (Class<? extends Component> type : fieldCounts.keySet()) {
+        ComponentColumn column = archetype.column(type);
+        for (int field = 0; field < column.fieldCount(); field++) {
+          in.getDoubles(column.values(field), first, size);
+        }
+      }
+    }
+  }
+
+  private static long align(long position) {
+    return (position + 7) & ~7L;
+  }
+
+  /** Writes a file through a buffer, handed to the channel whenever it fills up. */
+  private static final class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /** Bytes already handed to the channel */
+    private long written;
+
+    Output(FileChannel channel, ByteBuffer buffer) {
+      this.channel = channel;
+      this.buffer = buffer;
+      buffer.clear();
+    }
+
+    /** Returns the buffer, with room for at least the given number of bytes. */
+    ByteBuffer require(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+      return buffer;
+    }
+
+    void flush() throws IOException {
+      written += buffer.position();
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    void put(byte[] bytes, int length) throws IOException {
+      for (int offset = 0; offset < length; ) {
+        int count = Math.min(length - offset, require(1).remaining());
+        buffer.put(bytes, offset, count);
+        offset += count;
+      }
+    }
+
+    void putInts(int[] values, int length) throws IOException {
+      for (int offset = 0; offset < length; ) {
+        int count = Math.min(length - offset, require(4).remaining() / 4);
+        buffer.asIntBuffer().put(values, offset, count);
+        skip(buffer, 4 * count);
+        offset += count;
+      }
+    }
+
+    void putDoubles(double[] values, int offset, int length) throws IOException {
+      for (int end = offset + length; offset < end; ) {
+        int count = Math.min(end - offset, require(8).remaining() / 8);
+        buffer.asDoubleBuffer().put(values, offset, count);
+        skip(buffer, 8 * count);
+        offset += count;
+      }
+    }
+
+    /** Pads the file with zeros up to the next multiple of 8 bytes. */
+    void align() throws IOException {
+      long position = written + buffer.position();
+      require(8);
+      for (long padding = WorldSnapshot.align(position) - position; padding > 0; padding--) {
+        buffer.put((byte) 0);
+      }
+    }
+  }
+
+  /** Reads a file through a buffer, refilled from the channel whenever it runs out. */
+  private static final class Input {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /** Bytes of the file before the start of the buffer */
+    private long consumed;
+
+    Input(FileChannel channel, ByteBuffer buffer) {
+      this.channel = channel;
+      this.buffer = buffer;
+      buffer.clear().flip();
+    }
+
+    /**
+     * Returns the buffer, with at least the given number of bytes remaining.
+     *
+     * @throws EOFException if the file ends before
+     */
+    ByteBuffer require(int bytes) throws IOException {
+      if (buffer.remaining() >= bytes) {
+        return buffer;
+      }
+      consumed += buffer.position();
+      buffer.compact();
+      while (buffer.position() < bytes) {
+        if (channel.read(buffer) < 0) {
+          throw new EOFException("Truncated world snapshot");
+        }
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    /** Copies the next bytes into a buffer of their own, for the codecs to read at will. */
+    ByteBuffer getBytes(int length) throws IOException {
+      byte[] bytes = new byte[length];
+      for (int offset = 0; offset < length; ) {
+        int count = Math.min(length - offset, require(1).remaining());
+        buffer.get(bytes, offset, count);
+        offset += count;
+      }
+      return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    void getInts(int[] values) throws IOException {
+      for (int offset = 0; offset < values.length; ) {
+        int count = Math.min(values.length - offset, require(4).remaining() / 4);
+        buffer.asIntBuffer().get(values, offset, count);
+        skip(buffer, 4 * count);
+        offset += count;
+      }
+    }
+
+    void getDoubles(double[] values, int offset, int length) throws IOException {
+      for (int end = offset + length; offset < end; ) {
+        int count = Math.min(end - offset, require(8).remaining() / 8);
+        buffer.asDoubleBuffer().get(values, offset, count);
+        skip(buffer, 8 * count);
+        offset += count;
+      }
+    }
+
+    /** Skips the padding up to the next multiple of 8 bytes. */
+    void align() throws IOException {
+      long position = consumed + buffer.position();
+      int padding = (int) (WorldSnapshot.align(position) - position);
+      skip(require(padding), padding);
+    }
+  }
+
+  private static void skip(ByteBuffer buffer, int bytes) {
+    buffer.position(buffer.position() + bytes);
+  }
+}
@@ -0,0 +1,42 @@
+package github.zekecode.cowboybebop.events;
+
+import github.zekecode.cowboybebop.core.Entity;
+
+/** Two colliders on interacting layers overlap. */
+public class CollisionEvent {
+  private Entity first;
+  private Entity second;
+  private int firstLayer;
+  private int secondLayer;
+
+  /**
+   * Fills the event.
+   *
+   * @param first the first entity
+   * @param firstLayer the collision layer of the first entity
+   * @param second the second entity
+   * @param secondLayer the collision layer of the second entity
+   */
+  public void set(Entity first, int firstLayer, Entity second, int secondLayer) {
+    this.first = first;
+    this.firstLayer = firstLayer;
+    this.second = second;
+    this.secondLayer = secondLayer;
+  }
+
+  public Entity getFirst() {
+    return first;
+  }
+
+  public int getFirstLayer() {
+    return firstLayer;
+  }
+
+  public Entity getSecond() {
+    return second;
+  }
+
+  public int getSecondLayer() {
+    return secondLayer;
+  }
+}
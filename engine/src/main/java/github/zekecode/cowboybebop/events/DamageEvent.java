@@ -0,0 +1,35 @@
+package github.zekecode.cowboybebop.events;
+
+import github.zekecode.cowboybebop.core.Entity;
+
+/** An entity is to lose health. */
+public class DamageEvent {
+  private Entity target;
+  private Entity source;
+  private int amount;
+
+  /**
+   * Fills the event.
+   *
+   * @param target the entity taking the damage
+   * @param source the entity dealing it, such as a projectile
+   * @param amount the health to remove
+   */
+  public void set(Entity target, Entity source, int amount) {
+    this.target = target;
+    this.source = source;
+    this.amount = amount;
+  }
+
+  public Entity getTarget() {
+    return target;
+  }
+
+  public Entity getSource() {
+    return source;
+  }
+
+  public int getAmount() {
+    return amount;
+  }
+}
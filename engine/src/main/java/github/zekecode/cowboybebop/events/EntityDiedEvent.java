@@ -0,0 +1,28 @@
+package github.zekecode.cowboybebop.events;
+
+import github.zekecode.cowboybebop.core.Entity;
+
+/** An entity ran out of health and is being removed from the world. */
+public class EntityDiedEvent {
+  private Entity entity;
+  private Entity killer;
+
+  /**
+   * Fills the event.
+   *
+   * @param entity the dead entity
+   * @param killer the entity that dealt the last damage
+   */
+  public void set(Entity entity, Entity killer) {
+    this.entity = entity;
+    this.killer = killer;
+  }
+
+  public Entity getEntity() {
+    return entity;
+  }
+
+  public Entity getKiller() {
+    return killer;
+  }
+}
@@ -0,0 +1,130 @@
+package github.zekecode.cowboybebop.factory;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Prefab;
+
+/**
+ * The immutable template of an enemy type, as read from the data file by {@link EnemyPrefabs}.
+ *
+ * <p>What every enemy of a type has in common is built once, here: its look and its stats are
+ * flyweights, a single {@link SpriteComponent} and a single {@link EnemyComponent} shared by all
+ * the enemies of the type, in every world. Both are read-only, their setters throw, so changing
+ * one enemy can't change the others. Only the state
+ * that differs from one enemy to the next (position, velocity, collision shape, health) gets its
+ * own components, which live in the archetype columns of the world once spawned and are reset by
+ * {@link EntityFactory#createEnemy(double, double, EnemyPrefab)} when a pooled enemy is reused.
+ *
+ * <p>The components are listed in a {@link Prefab}, so that whole groups of enemies can be spawned
+ * at once with {@link EntityFactory#createEnemies}.
+ */
+public final class EnemyPrefab {
+  private final String name;
+  private final int id;
+  private final double weight;
+  private final double maxSpeed;
+  private final double size;
+  private final int health;
+
+  // Flyweights shared by every enemy of the type
+  private final SpriteComponent sprite;
+  private final EnemyComponent stats;
+
+  private final Prefab prefab;
+
+  EnemyPrefab(
+      String name,
+      int id,
+      double weight,
+      double maxSpeed,
+      double speedFactor,
+      int damage,
+      int points,
+      int health,
+      double size,
+      int color) {
+    this.name = name;
+    this.id = id;
+    this.weight = weight;
+    this.maxSpeed = maxSpeed;
+    this.size = size;
+    this.health = health;
+    this.sprite = SpriteComponent.readOnly(SpriteComponent.Shape.RECTANGLE, size, size, color);
+    this.stats = EnemyComponent.readOnly(speedFactor, damage, points);
+    this.prefab =
+        Prefab.builder(name)
+            .with(() -> new TransformComponent(0, 0))
+            .with(() -> new VelocityComponent(maxSpeed))
+            .shared(sprite)
+            .with(() -> new CollisionComponent(size / 2, true, "enemy"))
+            .with(() -> new HealthComponent(health))
+            .shared(stats)
+            .build();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the position of the type in the data file, which is also its index in {@link
+   * EnemyPrefabs#getAll()}.
+   *
+   * @return the id of the type
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns how likely the spawner is to pick this type, relative to the other types.
+   *
+   * @return the spawn weight
+   */
+  public double getWeight() {
+    return weight;
+  }
+
+  public double getMaxSpeed() {
+    return maxSpeed;
+  }
+
+  public double getSize() {
+    return size;
+  }
+
+  public int getHealth() {
+    return health;
+  }
+
+  /**
+   * Returns the components of this type, as a template the world spawns enemies from.
+   *
+   * @return the prefab of the type
+   */
+  public Prefab getPrefab() {
+    return prefab;
+  }
+
+  /**
+   * Returns the sprite shared by every enemy of this type.
+   *
+   * @return the shared, read-only sprite
+   */
+  public SpriteComponent getSprite() {
+    return sprite;
+  }
+
+  /**
+   * Returns the stats shared by every enemy of this type.
+   *
+   * @return the shared, read-only stats
+   */
+  public EnemyComponent getStats() {
+    return stats;
+  }
+
+  @Override
+  public String toString() {
+    return name + " prefab";
+  }
+}
@@ -0,0 +1,210 @@
+package github.zekecode.cowboybebop.factory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The enemy types of the game, read once from a properties file into immutable {@link
+ * EnemyPrefab}s.
+ *
+ * <p>The file lists the types under {@code types}, in order, and gives the stats of each type as
+ * {@code <type>.<stat>} entries; see {@code prefabs/enemies.properties} for the stats and their
+ * meaning. Adding an enemy type is a change to that file only: the factory pools and spawns any
+ * type it finds here, and the spawner picks among them by their weights.
+ */
+public final class EnemyPrefabs {
+  /** Classpath resource holding the enemy types of the game */
+  public static final String RESOURCE = "/prefabs/enemies.properties";
+
+  private final EnemyPrefab[] prefabs;
+  private final List<EnemyPrefab> all;
+  private final Map<String, EnemyPrefab> byName = new HashMap<>();
+
+  /** Upper bound of the roll picking each type, the last one is always 1 */
+  private final double[] thresholds;
+
+  /** Loaded on first use, so the file is read once however many games are started */
+  private static final class Defaults {
+    private static final EnemyPrefabs INSTANCE = loadDefaults();
+  }
+
+  private EnemyPrefabs(EnemyPrefab[] prefabs) {
+    this.prefabs = prefabs;
+    this.all = Collections.unmodifiableList(Arrays.asList(prefabs));
+    double total = 0;
+    for (EnemyPrefab prefab : prefabs) {
+      byName.put(prefab.getName(), prefab);
+      total += prefab.getWeight();
+    }
+    if (!(total > 0)) {
+      throw new IllegalArgumentException("Enemy weights must add up to more than zero");
+    }
+
+    // Dividing the running sums keeps thresholds such as 70 / 100 exactly equal to 0.7
+    thresholds = new double[prefabs.length];
+    double sum = 0;
+    for (int i = 0; i < prefabs.length; i++) {
+      sum += prefabs[i].getWeight();
+      thresholds[i] = sum / total;
+    }
+    thresholds[prefabs.length - 1] = 1;
+  }
+
+  /**
+   * Returns the enemy types of the game, read from {@link #RESOURCE} the first time.
+   *
+   * @return the default enemy types
+   * @throws IllegalStateException if the resource is missing or invalid
+   */
+  public static EnemyPrefabs defaults() {
+    return Defaults.INSTANCE;
+  }
+
+  private static EnemyPrefabs loadDefaults() {
+    try (InputStream in = EnemyPrefabs.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing enemy prefabs: " + RESOURCE);
+      }
+      return load(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + RESOURCE, e);
+    }
+  }
+
+  /**
+   * Reads enemy types from a properties file.
+   *
+   * @param in the contents of the file, left open
+   * @return the enemy types
+   * @throws IOException if the stream can't be read
+   * @throws IllegalArgumentException if a type is missing a stat or a stat isn't a number
+   */
+  public static EnemyPrefabs load(InputStream in) throws IOException {
+    Properties properties = new Properties();
+    properties.load(in);
+    return of(properties);
+  }
+
+  /**
+   * Builds enemy types from already loaded properties.
+   *
+   * @param properties the types and their stats
+   * @return the enemy types
+   * @throws IllegalArgumentException if a type is missing a stat or a stat isn't a number
+   */
+  public static EnemyPrefabs of(Properties properties) {
+    String types = properties.getProperty("types", "").trim();
+    if (types.isEmpty()) {
+      throw new IllegalArgumentException("No enemy types listed");
+    }
+    String[] names = types.split("\\s*,\\s*");
+    EnemyPrefab[] prefabs = new EnemyPrefab[names.length];
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      prefabs[i] =
+          new EnemyPrefab(
+              name,
+              i,
+              number(properties, name, "weight"),
+              number(properties, name, "maxSpeed"),
+              number(properties, name, "speedFactor"),
+              (int) number(properties, name, "damage"),
+              (int) number(properties, name, "points"),
+              (int) number(properties, name, "health"),
+              number(properties, name, "size"),
+              color(properties, name));
+    }
+    return new EnemyPrefabs(prefabs);
+  }
+
+  private static String stat(Properties properties, String type, String stat) {
+    String value = properties.getProperty(type + "." + stat);
+    if (value == null) {
+      throw new IllegalArgumentException("Enemy type " + type + " has no " + stat);
+    }
+    return value.trim();
+  }
+
+  private static double number(Properties properties, String type, String stat) {
+    String value = stat(properties, type, stat);
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(type + "." + stat + " is not a number: " + value, e);
+    }
+  }
+
+  private static int color(Properties properties, String type) {
+    String value = stat(properties, type, "color");
+    try {
+      return (int) Long.decode(value).longValue();
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(type + ".color is not a color: " + value, e);
+    }
+  }
+
+  /**
+   * Returns the enemy type with the given name.
+   *
+   * @param name the name of the type
+   * @return the type, or null if there is none of that name
+   */
+  public EnemyPrefab find(String name) {
+    return byName.get(name);
+  }
+
+  /**
+   * Returns the enemy type with the given name, or the default type if there is none.
+   *
+   * @param name the name of the type
+   * @return the type
+   */
+  public EnemyPrefab get(String name) {
+    EnemyPrefab prefab = byName.get(name);
+    return prefab != null ? prefab : prefabs[0];
+  }
+
+  /**
+   * Returns the type unknown names fall back to, the first one of the file.
+   *
+   * @return the default type
+   */
+  public EnemyPrefab getDefault() {
+    return prefabs[0];
+  }
+
+  /**
+   * Picks a type by weight. Spreading the rolls evenly over [0, 1) picks each type in proportion
+   * to its weight.
+   *
+   * @param roll a number between 0 (inclusive) and 1 (exclusive), typically a random one
+   * @return the type picked
+   */
+  public EnemyPrefab pick(double roll) {
+    int i = 0;
+    while (i < thresholds.length - 1 && roll >= thresholds[i]) {
+      i++;
+    }
+    return prefabs[i];
+  }
+
+  /**
+   * Returns every type, in the order of the file.
+   *
+   * @return the types, indexed by {@link EnemyPrefab#getId()}
+   */
+  public List<EnemyPrefab> getAll() {
+    return all;
+  }
+
+  public int size() {
+    return prefabs.length;
+  }
+}
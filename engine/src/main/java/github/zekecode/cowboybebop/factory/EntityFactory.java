@@ -0,0 +1,261 @@
+package github.zekecode.cowboybebop.factory;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.CommandBuffer;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EntityPool;
+import github.zekecode.cowboybebop.core.Prefab;
+import github.zekecode.cowboybebop.core.World;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+public class EntityFactory {
+  /** Number of entities of each kind kept for reuse, unless changed on the pool */
+  public static final int DEFAULT_POOL_CAPACITY = EntityPool.DEFAULT_CAPACITY;
+
+  /** Pool kind of the player's projectiles */
+  public static final String PROJECTILE = "projectile";
+
+  /** The player's projectiles, whose sprite is shared by all of them */
+  private static final Prefab PROJECTILE_PREFAB =
+      Prefab.builder(PROJECTILE)
+          .with(() -> new TransformComponent(0, 0))
+          .with(() -> new VelocityComponent(500))
+          .shared(
+              SpriteComponent.readOnly(
+                  SpriteComponent.Shape.RECTANGLE, 10, 4, SpriteComponent.YELLOW))
+          .with(() -> new CollisionComponent(5, false, "projectile"))
+          .with(() -> new ProjectileComponent(10, 2.0, "player"))
+          .build();
+
+  private final World world;
+  private final CommandBuffer commands;
+  private final EnemyPrefabs prefabs;
+
+  /** Pools by kind, shared with deferred factories, which may use them from parallel systems */
+  private final Map<String, EntityPool> pools;
+
+  public EntityFactory(World world) {
+    this(world, EnemyPrefabs.defaults());
+  }
+
+  /**
+   * Creates a factory spawning the given enemy types instead of the game's.
+   *
+   * @param world the world the entities join
+   * @param prefabs the enemy types the factory knows
+   */
+  public EntityFactory(World world, EnemyPrefabs prefabs) {
+    this(world, null, prefabs, new ConcurrentHashMap<>());
+  }
+
+  private EntityFactory(
+      World world, CommandBuffer commands, EnemyPrefabs prefabs, Map<String, EntityPool> pools) {
+    this.world = world;
+    this.commands = commands;
+    this.prefabs = prefabs;
+    this.pools = pools;
+  }
+
+  /**
+   * Returns a factory whose entities join the world only when its command buffer is played back.
+   * Systems that may run in parallel with others must create entities this way.
+   *
+   * @return a factory creating pending entities through the world's command buffer
+   */
+  public EntityFactory deferred() {
+    return new EntityFactory(world, world.getCommandBuffer(), prefabs, pools);
+  }
+
+  private Entity newEntity() {
+    return commands != null ? commands.createEntity() : world.createEntity();
+  }
+
+  public Entity createPlayer(double x, double y) {
+    Entity player = newEntity();
+
+    // Transform component
+    player.addComponent(new TransformComponent(x, y));
+
+    // Velocity component (movement speed)
+    player.addComponent(new VelocityComponent(200));
+
+    // Sprite component
+    player.addComponent(
+        new SpriteComponent(SpriteComponent.Shape.RECTANGLE, 30, 30, SpriteComponent.BLUE));
+
+    // Collision component
+    player.addComponent(new CollisionComponent(15, true, "player"));
+
+    // Health component
+    player.addComponent(new HealthComponent(100));
+
+    // Player component
+    player.addComponent(new PlayerComponent(0.25, 400)); // 0.25s cooldown, 400 projectile speed
+
+    return player;
+  }
+
+  /**
+   * Spawns an enemy of the default type, reusing one from its pool when possible.
+   *
+   * @param x the x coordinate of the enemy
+   * @param y the y coordinate of the enemy
+   * @return the enemy
+   */
+  public Entity createEnemy(double x, double y) {
+    return createEnemy(x, y, prefabs.getDefault());
+  }
+
+  /**
+   * Spawns an enemy of the given type, reusing one from the type's pool when possible.
+   *
+   * @param x the x coordinate of the enemy
+   * @param y the y coordinate of the enemy
+   * @param type the name of an enemy type, such as "basic", "speedy" or "tank"; unknown names make
+   *     an enemy of the default type
+   * @return the enemy
+   */
+  public Entity createEnemy(double x, double y, String type) {
+    return createEnemy(x, y, prefabs.get(type));
+  }
+
+  /**
+   * Spawns an enemy from its prefab, reusing one from the type's pool when possible. Only the
+   * per-instance state of the enemy is reset, its sprite and stats are the prefab's.
+   *
+   * @param x the x coordinate of the enemy
+   * @param y the y coordinate of the enemy
+   * @param prefab the type of the enemy, one of {@link #getPrefabs()}
+   * @return the enemy
+   */
+  public Entity createEnemy(double x, double y, EnemyPrefab prefab) {
+    Entity enemy = getPool(prefab.getName()).acquire();
+    resetTransform(enemy, x, y);
+    resetVelocity(enemy, 0, 0);
+    HealthComponent health = enemy.getComponent(HealthComponent.class);
+    health.setCurrentHealth(health.getMaxHealth());
+    spawn(enemy);
+
+    return enemy;
+  }
+
+  /**
+   * Spawns a group of enemies of one type at once, reusing pooled ones when possible. The enemies
+   * start with the prefab's velocity and health; the initializer places each of them.
+   *
+   * @param prefab the type of the enemies, one of {@link #getPrefabs()}
+   * @param count the number of enemies
+   * @param initializer sets up each enemy given its index in the group, typically its position
+   *     with {@link #place}
+   */
+  public void createEnemies(EnemyPrefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+    spawnBatch(prefab.getPrefab(), count, initializer);
+  }
+
+  /**
+   * Moves a new entity to its spawn position, with no motion to interpolate from.
+   *
+   * @param entity an entity being spawned
+   * @param x the x coordinate of the entity
+   * @param y the y coordinate of the entity
+   */
+  public static void place(Entity entity, double x, double y) {
+    resetTransform(entity, x, y);
+  }
+
+  /**
+   * Spawns a player projectile, reusing one from the projectile pool when possible.
+   *
+   * @param x the x coordinate of the projectile
+   * @param y the y coordinate of the projectile
+   * @param vx the horizontal speed of the projectile
+   * @param vy the vertical speed of the projectile
+   * @return the projectile
+   */
+  public Entity createProjectile(double x, double y, double vx, double vy) {
+    Entity projectile = getPool(PROJECTILE).acquire();
+    resetTransform(projectile, x, y);
+    resetVelocity(projectile, vx, vy);
+    projectile.getComponent(ProjectileComponent.class).resetTimeAlive();
+    spawn(projectile);
+
+    return projectile;
+  }
+
+  /**
+   * Returns the enemy types this factory spawns.
+   *
+   * @return the enemy prefabs
+   */
+  public EnemyPrefabs getPrefabs() {
+    return prefabs;
+  }
+
+  /**
+   * Returns the pool of a kind of entity, creating it on first use. The kinds are "projectile" and
+   * the names of the enemy prefabs; pools are shared with the {@link #deferred()} factories.
+   *
+   * @param kind the kind of entity
+   * @return the pool of that kind
+   * @throws IllegalArgumentException if the factory doesn't know the kind
+   */
+  public EntityPool getPool(String kind) {
+    return pools.computeIfAbsent(kind, k -> world.getPool(prefabOf(k)));
+  }
+
+  /**
+   * Returns every pool created so far.
+   *
+   * @return the pools, by kind
+   */
+  public Map<String, EntityPool> getPools() {
+    return Collections.unmodifiableMap(pools);
+  }
+
+  private Prefab prefabOf(String kind) {
+    if (kind.equals(PROJECTILE)) {
+      return PROJECTILE_PREFAB;
+    }
+    EnemyPrefab prefab = prefabs.find(kind);
+    if (prefab == null) {
+      throw new IllegalArgumentException("Unknown entity kind: " + kind);
+    }
+    return prefab.getPrefab();
+  }
+
+  private static void resetTransform(Entity entity, double x, double y) {
+    TransformComponent transform = entity.getComponent(TransformComponent.class);
+    transform.setX(x);
+    transform.setY(y);
+    transform.setRotation(0);
+    // A reused entity must not be interpolated from where it died
+    transform.savePrevious();
+  }
+
+  private static void resetVelocity(Entity entity, double vx, double vy) {
+    VelocityComponent velocity = entity.getComponent(VelocityComponent.class);
+    velocity.setVx(vx);
+    velocity.setVy(vy);
+  }
+
+  private void spawnBatch(Prefab prefab, int count, ObjIntConsumer<Entity> initializer) {
+    // Lists the pool among the factory's, the world takes the entities from it
+    getPool(prefab.getName());
+    if (commands != null) {
+      commands.spawnBatch(prefab, count, initializer);
+    } else {
+      world.spawnBatch(prefab, count, initializer);
+    }
+  }
+
+  private void spawn(Entity entity) {
+    if (commands != null) {
+      commands.spawn(entity);
+    } else {
+      world.spawn(entity);
+    }
+  }
+}
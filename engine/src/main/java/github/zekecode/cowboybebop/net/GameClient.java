@@ -0,0 +1,321 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EntityHandle;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.replay.InputFrame;
+import github.zekecode.cowboybebop.util.FixedTimestep;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.PortUnreachableException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A thin client of a {@link GameServer}: sends the player's input and mirrors the entities the
+ * server streams back into a local world, which only holds transforms and sprites to draw.
+ *
+ * <p>Snapshots are not shown as soon as they arrive. They wait in a small buffer and are played
+ * out one per tick, {@link #PLAYOUT_DELAY} ticks behind the server, which absorbs the jitter of
+ * the network. Each played snapshot becomes the current state of the mirrored transforms and the
+ * state it replaces becomes their previous state, so drawing with {@link #getAlpha()} blends
+ * between the last two snapshots exactly as a local game blends between its last two ticks. When
+ * the buffer runs dry, entities keep moving at their last known velocity for a few ticks.
+ */
+public final class GameClient implements Closeable {
+  /** Snapshots held back before being shown, enough to ride out a late or lost packet */
+  public static final int PLAYOUT_DELAY = 2;
+
+  /** Buffered snapshots beyond which the client skips ahead to catch up with the server */
+  static final int MAX_BUFFERED = PLAYOUT_DELAY + 4;
+
+  /** Ticks entities keep moving on their own when snapshots stop coming */
+  static final int MAX_EXTRAPOLATED_TICKS = 6;
+
+  private final DatagramChannel channel;
+  private final ByteBuffer packet = ByteBuffer.allocate(NetProtocol.MAX_PACKET_SIZE);
+  private final SnapshotDecoder decoder = new SnapshotDecoder();
+  private final ArrayDeque<NetSnapshot> buffered = new ArrayDeque<>();
+  private final FixedTimestep timestep = new FixedTimestep(Simulation.TICK, MAX_BUFFERED);
+  private final InputFrame frame = new InputFrame();
+
+  // The mirror: the snapshot shown, and the entity standing for each of its entries
+  private final World world = new World();
+  private final NetSnapshot shown = new NetSnapshot();
+  private Entity[] mirrors = new Entity[16];
+  private Entity[] nextMirrors = new Entity[16];
+  private Entity player;
+
+  private boolean playing;
+  private int extrapolatedTicks;
+
+  /**
+   * Connects to a server. Nothing is sent until the first {@link #update}.
+   *
+   * @param server the address of the server
+   * @throws IOException if the socket can't be opened
+   */
+  public GameClient(SocketAddress server) throws IOException {
+    channel = DatagramChannel.open();
+    channel.connect(server);
+    channel.configureBlocking(false);
+  }
+
+  /**
+   * Reads the snapshots that arrived and, for every tick elapsed, sends the input and plays out
+   * the next snapshot.
+   *
+   * @param frameTime the time elapsed since the previous update, in seconds
+   * @param input the player's input
+   * @throws IOException if the socket fails
+   */
+  public void update(double frameTime, InputSource input) throws IOException {
+    receive();
+    int ticks = timestep.advance(frameTime);
+    for (int i = 0; i < ticks; i++) {
+      sendInput(input);
+      playOut();
+    }
+  }
+
+  private void receive() throws IOException {
+    while (true) {
+      packet.clear();
+      try {
+        if (channel.receive(packet) == null) {
+          return;
+        }
+      } catch (PortUnreachableException e) {
+        // Nobody is listening yet, keep saying hello
+        return;
+      }
+      packet.flip();
+      try {
+        NetSnapshot snapshot = decoder.decode(packet);
+        if (snapshot != null) {
+          buffered.add(snapshot);
+        }
+      } catch (BufferUnderflowException | IllegalArgumentException e) {
+        // Truncated or foreign datagram, the next snapshot will do
+      }
+    }
+  }
+
+  /** Says hello until the server streams, then sends the input with the latest received tick. */
+  private void sendInput(InputSource input) throws IOException {
+    packet.clear();
+    if (decoder.getLatestTick() < 0) {
+      packet.put(NetProtocol.HELLO);
+    } else {
+      frame.capture(input.snapshot());
+      packet.put(NetProtocol.INPUT);
+      packet.putInt(decoder.getLatestTick());
+      packet.put((byte) frame.getKeys());
+      packet.put((byte) (frame.isMousePressed() ? 1 : 0));
+      packet.putFloat((float) frame.getMouseX());
+      packet.putFloat((float) frame.getMouseY());
+    }
+    packet.flip();
+    try {
+      channel.write(packet);
+    } catch (PortUnreachableException e) {
+      // The server is not up yet
+    }
+  }
+
+  /** Shows the next buffered snapshot, or extrapolates when there is none. */
+  private void playOut() {
+    if (buffered.size() > MAX_BUFFERED) {
+      // Far behind the server, for instance after a stall: skip to the playout delay
+      while (buffered.size() > PLAYOUT_DELAY + 1) {
+        buffered.poll();
+      }
+    }
+    if (!playing) {
+      if (buffered.size() <= PLAYOUT_DELAY) {
+        return;
+      }
+      playing = true;
+    }
+
+    NetSnapshot next = buffered.poll();
+    if (next != null) {
+      show(next);
+      extrapolatedTicks = 0;
+    } else if (extrapolatedTicks < MAX_EXTRAPOLATED_TICKS) {
+      extrapolate();
+      extrapolatedTicks++;
+    } else {
+      // Give up guessing and hold still until snapshots come back
+      for (int i = 0; i < shown.count; i++) {
+        mirrors[i].getComponent(TransformComponent.class).savePrevious();
+      }
+    }
+  }
+
+  /** Makes a snapshot the current state of the mirror, by a merge walk with the shown one. */
+  private void show(NetSnapshot snapshot) {
+    if (snapshot.session != shown.session) {
+      // A new game: none of the handles of the previous one mean anything anymore
+      for (int i = 0; i < shown.count; i++) {
+        world.removeEntity(mirrors[i]);
+      }
+      shown.clear();
+      player = null;
+    }
+    if (nextMirrors.length < snapshot.count) {
+      nextMirrors = new Entity[Math.max(snapshot.count, nextMirrors.length * 2)];
+    }
+
+    int j = 0;
+    for (int i = 0; i < snapshot.count; i++) {
+      long handle = snapshot.handles[i];
+      int index = EntityHandle.index(handle);
+      while (j < shown.count && EntityHandle.index(shown.handles[j]) < index) {
+        world.removeEntity(mirrors[j++]);
+      }
+
+      Entity mirror = null;
+      if (j < shown.count && EntityHandle.index(shown.handles[j]) == index) {
+        if (shown.handles[j] == handle && snapshot.sameLook(i, shown, j)) {
+          mirror = mirrors[j];
+        } else {
+          world.removeEntity(mirrors[j]);
+        }
+        j++;
+      }
+
+      if (mirror == null) {
+        mirror = world.createEntity();
+        mirror.addComponent(
+            new TransformComponent(snapshot.getX(i), snapshot.getY(i), snapshot.getRotation(i)));
+        mirror.addComponent(
+            new SpriteComponent(
+                snapshot.getShape(i),
+                snapshot.getWidth(i),
+                snapshot.getHeight(i),
+                snapshot.getColor(i)));
+      } else {
+        TransformComponent transform = mirror.getComponent(TransformComponent.class);
+        transform.savePrevious();
+        transform.setX(snapshot.getX(i));
+        transform.setY(snapshot.getY(i));
+        transform.setRotation(snapshot.getRotation(i));
+      }
+      nextMirrors[i] = mirror;
+    }
+    while (j < shown.count) {
+      world.removeEntity(mirrors[j++]);
+    }
+
+    Entity[] swap = mirrors;
+    mirrors = nextMirrors;
+    nextMirrors = swap;
+    Arrays.fill(nextMirrors, null);
+    shown.copyFrom(snapshot);
+    updatePlayer();
+  }
+
+  /** Gives the mirror of the player its health and score, for the HUD. */
+  private void updatePlayer() {
+    int i = shown.indexOf(shown.player);
+    if (i >= 0) {
+      player = mirrors[i];
+    }
+    if (player == null) {
+      return;
+    }
+
+    // A player removed from the snapshot, for instance once dead, keeps its last mirror
+    HealthComponent health = player.getComponent(HealthComponent.class);
+    if (health == null) {
+      health = new HealthComponent(shown.maxHealth);
+      player.addComponent(health);
+      player.addComponent(new PlayerComponent(0, 0));
+      health = player.getComponent(HealthComponent.class);
+    }
+    health.setMaxHealth(shown.maxHealth);
+    health.setCurrentHealth(shown.health);
+    PlayerComponent stats = player.getComponent(PlayerComponent.class);
+    stats.addScore(shown.score - stats.getScore());
+  }
+
+  /** Moves every mirrored entity by its last known velocity for one tick. */
+  private void extrapolate() {
+    double step = timestep.getStep();
+    for (int i = 0; i < shown.count; i++) {
+      TransformComponent transform = mirrors[i].getComponent(TransformComponent.class);
+      transform.savePrevious();
+      transform.setX(transform.getX() + shown.getVx(i) * step);
+      transform.setY(transform.getY() + shown.getVy(i) * step);
+    }
+  }
+
+  /**
+   * Returns the mirror of the server's world, to draw with {@link #getAlpha()}.
+   *
+   * @return the local world holding the entities the server sent
+   */
+  public World getWorld() {
+    return world;
+  }
+
+  /**
+   * Returns the mirror of the player, with its health and score.
+   *
+   * @return the player, or null until it has been seen in a snapshot
+   */
+  public Entity getPlayer() {
+    return player;
+  }
+
+  /**
+   * Returns how far the current frame is between the last two snapshots shown.
+   *
+   * @return the interpolation factor, between 0 (previous snapshot) and 1 (current one)
+   */
+  public double getAlpha() {
+    return timestep.getAlpha();
+  }
+
+  /**
+   * Tells whether the player of the current game is dead.
+   *
+   * @return true once the server reports the player has no health left
+   */
+  public boolean isGameOver() {
+    return shown.tick >= 0 && shown.health <= 0;
+  }
+
+  /**
+   * Returns the tick of the snapshot shown.
+   *
+   * @return the server tick, or -1 before the first snapshot
+   */
+  public int getShownTick() {
+    return shown.tick;
+  }
+
+  /** Tells the server the client leaves, then closes the socket. */
+  @Override
+  public void close() throws IOException {
+    try {
+      packet.clear();
+      packet.put(NetProtocol.BYE).flip();
+      channel.write(packet);
+    } catch (IOException e) {
+      // Leaving anyway, the server drops silent clients after a while
+    }
+    channel.close();
+  }
+}
@@ -0,0 +1,318 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.replay.InputFrame;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the authoritative simulation and streams it to thin clients over UDP.
+ *
+ * <p>Every tick, the server reads the datagrams of its clients, advances the simulation, and sends
+ * each client a snapshot of the entities around the player, delta-encoded against the last
+ * snapshot that client acknowledged. The client that joined first controls the player, the others
+ * watch; when the game is over, the controlling client starts a new one by holding space.
+ *
+ * <p>Which entities are sent is decided once per tick by an {@link InterestManager}, so a snapshot
+ * holds at most {@link #MAX_ENTITIES} entities whatever the size of the world, and only the
+ * encoding against each client's baseline is done per client. Clients that stay silent for {@link
+ * #CLIENT_TIMEOUT} ticks are dropped.
+ */
+public final class GameServer implements Closeable {
+  public static final int DEFAULT_PORT = 7777;
+
+  /** Distance around the player within which entities are sent, most of the default arena */
+  public static final double INTEREST_RADIUS = 600;
+
+  /** Maximum number of entities in a snapshot */
+  public static final int MAX_ENTITIES = 128;
+
+  /** Ticks without a datagram after which a client is dropped, 5 seconds */
+  public static final int CLIENT_TIMEOUT = 300;
+
+  private static final long TICK_NANOS = (long) (Simulation.TICK * 1_000_000_000L);
+
+  /** Ticks the server may fall behind before it stops trying to catch up */
+  private static final int MAX_LATE_TICKS = 5;
+
+  private final DatagramChannel channel;
+  private final double width;
+  private final double height;
+
+  /** Input of the controlling client, as of its latest datagram */
+  private final InputFrame input = new InputFrame();
+
+  /** Connected clients by address, in the order they joined */
+  private final Map<SocketAddress, Connection> connections = new LinkedHashMap<>();
+
+  private final ByteBuffer packet = ByteBuffer.allocate(NetProtocol.MAX_PACKET_SIZE);
+  private final NetSnapshot view = new NetSnapshot();
+  private Connection controlling;
+
+  private Simulation simulation;
+  private InterestManager interest;
+  private long player;
+  private int session;
+  private int tick;
+  private long bytesSent;
+
+  /** A client and the state of its stream. */
+  private static final class Connection {
+    private final SocketAddress address;
+    private final SnapshotEncoder encoder = new SnapshotEncoder();
+    private int lastHeard;
+
+    /** Acknowledged tick of the latest input applied, older inputs arriving late are ignored */
+    private int inputTick = -1;
+
+    private Connection(SocketAddress address) {
+      this.address = address;
+    }
+  }
+
+  /**
+   * Starts a server with a random first session.
+   *
+   * @param address the address to listen on, for instance the loopback address and a port
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @throws IOException if the address can't be bound
+   */
+  public GameServer(SocketAddress address, double width, double height) throws IOException {
+    this(address, width, height, new Random().nextLong());
+  }
+
+  /**
+   * Starts a server.
+   *
+   * @param address the address to listen on, for instance the loopback address and a port
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @param seed the seed of the first session
+   * @throws IOException if the address can't be bound
+   */
+  public GameServer(SocketAddress address, double width, double height, long seed)
+      throws IOException {
+    this.width = width;
+    this.height = height;
+    channel = DatagramChannel.open();
+    channel.bind(address);
+    channel.configureBlocking(false);
+    startSession(new Simulation(width, height, input, seed));
+  }
+
+  private void startSession(Simulation simulation) {
+    this.simulation = simulation;
+    interest = new InterestManager(simulation.getWorld(), INTEREST_RADIUS, MAX_ENTITIES);
+    player = simulation.getPlayer().getId();
+    session = (session + 1) & 0xFF;
+    for (Connection connection : connections.values()) {
+      connection.encoder.reset();
+    }
+  }
+
+  /**
+   * Runs one tick: reads the datagrams of the clients, advances the simulation and sends the
+   * snapshots.
+   *
+   * @throws IOException if the socket fails
+   */
+  public void tick() throws IOException {
+    receive();
+    dropSilentClients();
+    Connection controller = controller();
+    if (controller != controlling) {
+      // Keys held by a client that left must not stay pressed
+      if (controlling != null) {
+        input.set(0, false, input.getMouseX(), input.getMouseY());
+      }
+      controlling = controller;
+    }
+
+    if (!simulation.isGameOver()) {
+      simulation.tick(Simulation.TICK);
+    } else if (input.isKeyPressed(InputFrame.SPACE)) {
+      startSession(new Simulation(width, height, input));
+    }
+    tick++;
+    send();
+  }
+
+  /** Handles every datagram waiting on the socket. */
+  private void receive() throws IOException {
+    while (true) {
+      packet.clear();
+      SocketAddress from = channel.receive(packet);
+      if (from == null) {
+        return;
+      }
+      packet.flip();
+      try {
+        handle(from, packet);
+      } catch (BufferUnderflowException e) {
+        // Truncated datagram, UDP gives no guarantee about what reaches the port
+      }
+    }
+  }
+
+  private void handle(SocketAddress from, ByteBuffer in) {
+    byte type = in.get();
+    if (type == NetProtocol.HELLO) {
+      connections.computeIfAbsent(from, Connection::new).lastHeard = tick;
+      return;
+    }
+
+    Connection connection = connections.get(from);
+    if (connection == null) {
+      return;
+    }
+    if (type == NetProtocol.BYE) {
+      connections.remove(from);
+    } else if (type == NetProtocol.INPUT) {
+      connection.lastHeard = tick;
+      int acknowledged = in.getInt();
+      int keys = in.get();
+      boolean mousePressed = in.get() != 0;
+      float mouseX = in.getFloat();
+      float mouseY = in.getFloat();
+      if (acknowledged <= tick) {
+        connection.encoder.acknowledge(acknowledged);
+      }
+      if (connection == controller() && acknowledged >= connection.inputTick) {
+        connection.inputTick = acknowledged;
+        input.set(keys, mousePressed, mouseX, mouseY);
+      }
+    }
+  }
+
+  /** Returns the client controlling the player, the one that joined first. */
+  private Connection controller() {
+    Iterator<Connection> iterator = connections.values().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  private void dropSilentClients() {
+    connections.values().removeIf(connection -> tick - connection.lastHeard > CLIENT_TIMEOUT);
+  }
+
+  /** Sends every client the entities around the player. */
+  private void send() throws IOException {
+    if (connections.isEmpty()) {
+      return;
+    }
+
+    Entity playerEntity = simulation.getPlayer();
+    TransformComponent transform = playerEntity.getComponent(TransformComponent.class);
+    HealthComponent health = playerEntity.getComponent(HealthComponent.class);
+    PlayerComponent stats = playerEntity.getComponent(PlayerComponent.class);
+    view.setTick(session, tick);
+    view.setPlayer(
+        player,
+        health != null ? health.getCurrentHealth() : 0,
+        health != null ? health.getMaxHealth() : 0,
+        stats != null ? stats.getScore() : 0);
+
+    // Every client follows the same player, so they all get the same entities
+    interest.update();
+    interest.collect(transform.getX(), transform.getY(), view);
+
+    for (Connection connection : connections.values()) {
+      packet.clear();
+      connection.encoder.encode(view, packet);
+      packet.flip();
+      // A full socket buffer drops the datagram, which the next snapshot makes up for
+      bytesSent += channel.send(packet, connection.address);
+    }
+  }
+
+  /**
+   * Runs ticks at the rate of the simulation until the server is closed.
+   *
+   * @throws IOException if the socket fails
+   */
+  public void run() throws IOException {
+    long next = System.nanoTime();
+    while (channel.isOpen()) {
+      tick();
+      next += TICK_NANOS;
+      long wait = next - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      } else if (wait < -MAX_LATE_TICKS * TICK_NANOS) {
+        // Too far behind, drop the backlog rather than running ticks back to back
+        next = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * Returns the address the server listens on, with the actual port if it was bound to port 0.
+   *
+   * @return the local address of the socket
+   * @throws IOException if the socket is closed
+   */
+  public SocketAddress getAddress() throws IOException {
+    return channel.getLocalAddress();
+  }
+
+  public Simulation getSimulation() {
+    return simulation;
+  }
+
+  /**
+   * Returns the number of ticks run so far, across sessions. Snapshots are numbered by this tick.
+   *
+   * @return the number of ticks
+   */
+  public int getTick() {
+    return tick;
+  }
+
+  public int getClientCount() {
+    return connections.size();
+  }
+
+  /**
+   * Returns the number of bytes of every snapshot sent so far, to every client.
+   *
+   * @return the number of bytes
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Runs a server on the loopback address until the process is stopped.
+   *
+   * @param args optionally, the port to listen on
+   * @throws IOException if the port can't be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    try (GameServer server =
+        new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 800, 600)) {
+      System.out.println("Serving on " + server.getAddress());
+      server.run();
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.EntityHandle;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.util.SpatialHashGrid;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decides which entities each client hears about: the ones closest to its player, within a radius
+ * and up to a maximum count.
+ *
+ * <p>Once per tick, {@link #update} quantizes every drawn entity of the world into flat arrays and
+ * buckets them into a {@link SpatialHashGrid} with cells the size of the radius. Each client then
+ * only looks at the nine cells around its player and keeps the nearest entities in a bounded
+ * heap. The entities sent to a client, and so the size of its snapshots and the cost of encoding
+ * them, are bounded by the maximum count however many entities the world holds; only the shared
+ * update grows with the world, by a few array writes per entity.
+ */
+public final class InterestManager {
+  private final Query networked;
+  private final double radius;
+  private final int limit;
+  private final SpatialHashGrid grid = new SpatialHashGrid();
+
+  // Every networked entity of the last update, quantized
+  private int count;
+  private long[] handles = new long[0];
+  private int[] x = new int[0];
+  private int[] y = new int[0];
+  private int[] vx = new int[0];
+  private int[] vy = new int[0];
+  private int[] rotation = new int[0];
+  private int[] shape = new int[0];
+  private int[] width = new int[0];
+  private int[] height = new int[0];
+  private int[] color = new int[0];
+  private double[] xs = new double[0];
+  private double[] ys = new double[0];
+
+  // Nearest entities of the current collect, as a max-heap on the distance
+  private final long[] nearest;
+  private int nearestCount;
+  private double centerX;
+  private double centerY;
+  private final SpatialHashGrid.PointVisitor offer = this::offer;
+
+  /**
+   * Creates the manager of a world.
+   *
+   * @param world the world whose entities are sent, every entity with a transform and a sprite
+   * @param radius the distance around a player within which entities are sent
+   * @param limit the maximum number of entities sent to one client
+   */
+  public InterestManager(World world, double radius, int limit) {
+    if (radius <= 0 || limit < 1) {
+      throw new IllegalArgumentException("Radius and limit must be positive");
+    }
+    this.networked = world.query(TransformComponent.class, SpriteComponent.class);
+    this.radius = radius;
+    this.limit = limit;
+    this.nearest = new long[limit];
+  }
+
+  /** Gathers the entities of the world as they are at the end of the tick. */
+  public void update() {
+    ensureCapacity(networked.size());
+    count = 0;
+    List<Archetype> archetypes = networked.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      if (archetype.size() == 0) {
+        continue;
+      }
+
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn sprites = archetype.column(SpriteComponent.class);
+      double[] positionX = transforms.values(TransformComponent.X);
+      double[] positionY = transforms.values(TransformComponent.Y);
+      double[] angle = transforms.values(TransformComponent.ROTATION);
+      double[] velocityX = null;
+      double[] velocityY = null;
+      if (archetype.has(VelocityComponent.class)) {
+        ComponentColumn velocities = archetype.column(VelocityComponent.class);
+        velocityX = velocities.values(VelocityComponent.VX);
+        velocityY = velocities.values(VelocityComponent.VY);
+      }
+
+      for (int row = 0; row < archetype.size(); row++) {
+        SpriteComponent sprite = (SpriteComponent) sprites.get(row);
+        if (sprite.getShape() == null) {
+          continue;
+        }
+        int i = count++;
+        handles[i] = archetype.getEntity(row).getId();
+        xs[i] = positionX[row];
+        ys[i] = positionY[row];
+        x[i] = NetProtocol.quantizePosition(positionX[row]);
+        y[i] = NetProtocol.quantizePosition(positionY[row]);
+        vx[i] = velocityX != null ? NetProtocol.quantizeVelocity(velocityX[row]) : 0;
+        vy[i] = velocityY != null ? NetProtocol.quantizeVelocity(velocityY[row]) : 0;
+        rotation[i] = NetProtocol.quantizeRotation(angle[row]);
+        shape[i] = sprite.getShape().ordinal();
+        width[i] = NetProtocol.quantizeSize(sprite.getWidth());
+        height[i] = NetProtocol.quantizeSize(sprite.getHeight());
+        color[i] = sprite.getColor();
+      }
+    }
+    grid.build(xs, ys, count, radius);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (handles.length >= capacity) {
+      return;
+    }
+    capacity = Math.max(capacity, handles.length * 2);
+    handles = Arrays.copyOf(handles, capacity);
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    vx = Arrays.copyOf(vx, capacity);
+    vy = Arrays.copyOf(vy, capacity);
+    rotation = Arrays.copyOf(rotation, capacity);
+    shape = Arrays.copyOf(shape, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    color = Arrays.copyOf(color, capacity);
+    xs = Arrays.copyOf(xs, capacity);
+    ys = Arrays.copyOf(ys, capacity);
+  }
+
+  /**
+   * Fills a snapshot with the entities a player at a position hears about, as of the last update.
+   * Only the entities are written, the header of the snapshot is left alone.
+   *
+   * @param x the x coordinate of the player
+   * @param y the y coordinate of the player
+   * @param out the snapshot to fill
+   */
+  public void collect(double x, double y, NetSnapshot out) {
+    centerX = x;
+    centerY = y;
+    nearestCount = 0;
+    grid.forEachNear(x, y, offer);
+
+    // Snapshots are sorted by handle index, reuse the heap slots as sort keys
+    for (int n = 0; n < nearestCount; n++) {
+      int i = (int) nearest[n];
+      nearest[n] = (long) EntityHandle.index(handles[i]) << 32 | i;
+    }
+    Arrays.sort(nearest, 0, nearestCount);
+
+    out.clear();
+    for (int n = 0; n < nearestCount; n++) {
+      int i = (int) nearest[n];
+      out.add(
+          handles[i],
+          this.x[i],
+          this.y[i],
+          vx[i],
+          vy[i],
+          rotation[i],
+          shape[i],
+          width[i],
+          height[i],
+          color[i]);
+    }
+  }
+
+  /** Keeps an entity if it is within the radius and among the nearest found so far. */
+  private void offer(int i) {
+    double dx = xs[i] - centerX;
+    double dy = ys[i] - centerY;
+    float distance = (float) (dx * dx + dy * dy);
+    if (distance > radius * radius) {
+      return;
+    }
+
+    // Non-negative floats sort like their bits, which makes the distance the high half of the key
+    long key = (long) Float.floatToIntBits(distance) << 32 | i;
+    if (nearestCount < limit) {
+      siftUp(nearestCount++, key);
+    } else if (key < nearest[0]) {
+      siftDown(key);
+    }
+  }
+
+  private void siftUp(int slot, long key) {
+    while (slot > 0) {
+      int parent = (slot - 1) >>> 1;
+      if (nearest[parent] >= key) {
+        break;
+      }
+      nearest[slot] = nearest[parent];
+      slot = parent;
+    }
+    nearest[slot] = key;
+  }
+
+  /** Replaces the furthest entity of the heap. */
+  private void siftDown(long key) {
+    int slot = 0;
+    while (true) {
+      int child = slot * 2 + 1;
+      if (child >= nearestCount) {
+        break;
+      }
+      if (child + 1 < nearestCount && nearest[child + 1] > nearest[child]) {
+        child++;
+      }
+      if (nearest[child] <= key) {
+        break;
+      }
+      nearest[slot] = nearest[child];
+      slot = child;
+    }
+    nearest[slot] = key;
+  }
+
+  /**
+   * Returns the number of entities gathered by the last update.
+   *
+   * @return the number of networked entities
+   */
+  public int getEntityCount() {
+    return count;
+  }
+}
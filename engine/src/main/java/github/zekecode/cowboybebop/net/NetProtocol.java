@@ -0,0 +1,101 @@
+package github.zekecode.cowboybebop.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and primitive encodings shared by the server and the clients.
+ *
+ * <p>Every datagram starts with its type byte. Snapshots carry positions in eighths of a unit,
+ * velocities in quarters of a unit per second, sprite sizes in quarters of a unit and rotations in
+ * 256ths of a turn, which keeps the rendered error well under a pixel. Integers are written as
+ * variable-length quantities, so the small deltas between two ticks take a single byte.
+ */
+final class NetProtocol {
+  // Datagram types
+  /** Client to server: asks to join, repeated until snapshots arrive */
+  static final byte HELLO = 1;
+
+  /** Server to client: the entities around the player, as a delta against a baseline */
+  static final byte SNAPSHOT = 2;
+
+  /** Client to server: the input of the client and the latest snapshot it received */
+  static final byte INPUT = 3;
+
+  /** Client to server: the client is leaving */
+  static final byte BYE = 4;
+
+  /** Size of the datagram buffers, a snapshot of {@link InterestManager} entities always fits */
+  static final int MAX_PACKET_SIZE = 16 * 1024;
+
+  // Quantization steps, as multipliers from world units
+  static final double POSITION_SCALE = 8;
+  static final double VELOCITY_SCALE = 4;
+  static final double SIZE_SCALE = 4;
+  static final int ROTATION_STEPS = 256;
+
+  private NetProtocol() {}
+
+  static int quantizePosition(double position) {
+    return (int) Math.round(position * POSITION_SCALE);
+  }
+
+  static double position(int quantized) {
+    return quantized / POSITION_SCALE;
+  }
+
+  static int quantizeVelocity(double velocity) {
+    return (int) Math.round(velocity * VELOCITY_SCALE);
+  }
+
+  static double velocity(int quantized) {
+    return quantized / VELOCITY_SCALE;
+  }
+
+  static int quantizeSize(double size) {
+    return (int) Math.round(size * SIZE_SCALE);
+  }
+
+  static double size(int quantized) {
+    return quantized / SIZE_SCALE;
+  }
+
+  /** Quantizes an angle in radians to a step of the circle, between 0 and 255. */
+  static int quantizeRotation(double rotation) {
+    return (int) Math.round(rotation * (ROTATION_STEPS / (2 * Math.PI))) & (ROTATION_STEPS - 1);
+  }
+
+  static double rotation(int quantized) {
+    return quantized * (2 * Math.PI / ROTATION_STEPS);
+  }
+
+  /** Writes a non-negative integer 7 bits at a time, low bits first. */
+  static void putVarInt(ByteBuffer out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  static int getVarInt(ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = in.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable-length integer");
+  }
+
+  /** Writes a signed integer so that small negative values are short too (zigzag encoding). */
+  static void putSignedVarInt(ByteBuffer out, int value) {
+    putVarInt(out, (value << 1) ^ (value >> 31));
+  }
+
+  static int getSignedVarInt(ByteBuffer in) {
+    int value = getVarInt(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
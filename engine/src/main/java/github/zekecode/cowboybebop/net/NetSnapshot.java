@@ -0,0 +1,263 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.core.EntityHandle;
+import java.util.Arrays;
+
+/**
+ * The entities a client knows about at one tick, quantized the way they travel on the wire, along
+ * with the state of the player it follows.
+ *
+ * <p>Entities are held as parallel arrays sorted by the index of their handle, so that two
+ * snapshots can be compared with a single merge walk and delta-encoded against each other. The
+ * arrays are kept between ticks and only grow, so refilling a snapshot does not allocate.
+ */
+public final class NetSnapshot {
+  private static final SpriteComponent.Shape[] SHAPES = SpriteComponent.Shape.values();
+
+  /** Server session the snapshot belongs to, which changes when a new game starts */
+  int session;
+
+  int tick = -1;
+  long player = EntityHandle.NONE;
+  int health;
+  int maxHealth;
+  int score;
+
+  int count;
+  long[] handles = new long[16];
+  int[] x = new int[16];
+  int[] y = new int[16];
+  int[] vx = new int[16];
+  int[] vy = new int[16];
+  int[] rotation = new int[16];
+
+  // Look of the sprites, only sent when an entity enters the view of a client
+  int[] shape = new int[16];
+  int[] width = new int[16];
+  int[] height = new int[16];
+  int[] color = new int[16];
+
+  /** Forgets every entity, keeping the arrays. */
+  void clear() {
+    count = 0;
+  }
+
+  /** Appends an entity, which must come after every entity already in the snapshot. */
+  void add(
+      long handle,
+      int x,
+      int y,
+      int vx,
+      int vy,
+      int rotation,
+      int shape,
+      int width,
+      int height,
+      int color) {
+    if (count == handles.length) {
+      grow(count * 2);
+    }
+    int i = count++;
+    this.handles[i] = handle;
+    this.x[i] = x;
+    this.y[i] = y;
+    this.vx[i] = vx;
+    this.vy[i] = vy;
+    this.rotation[i] = rotation;
+    this.shape[i] = shape;
+    this.width[i] = width;
+    this.height[i] = height;
+    this.color[i] = color;
+  }
+
+  /** Appends entity {@code i} of another snapshot. */
+  void add(NetSnapshot other, int i) {
+    add(
+        other.handles[i],
+        other.x[i],
+        other.y[i],
+        other.vx[i],
+        other.vy[i],
+        other.rotation[i],
+        other.shape[i],
+        other.width[i],
+        other.height[i],
+        other.color[i]);
+  }
+
+  /** Makes this snapshot a copy of another one. */
+  void copyFrom(NetSnapshot other) {
+    session = other.session;
+    tick = other.tick;
+    player = other.player;
+    health = other.health;
+    maxHealth = other.maxHealth;
+    score = other.score;
+    if (handles.length < other.count) {
+      grow(other.handles.length);
+    }
+    count = other.count;
+    System.arraycopy(other.handles, 0, handles, 0, count);
+    System.arraycopy(other.x, 0, x, 0, count);
+    System.arraycopy(other.y, 0, y, 0, count);
+    System.arraycopy(other.vx, 0, vx, 0, count);
+    System.arraycopy(other.vy, 0, vy, 0, count);
+    System.arraycopy(other.rotation, 0, rotation, 0, count);
+    System.arraycopy(other.shape, 0, shape, 0, count);
+    System.arraycopy(other.width, 0, width, 0, count);
+    System.arraycopy(other.height, 0, height, 0, count);
+    System.arraycopy(other.color, 0, color, 0, count);
+  }
+
+  /** Tells whether entity {@code i} looks the same as entity {@code j} of another snapshot. */
+  boolean sameLook(int i, NetSnapshot other, int j) {
+    return shape[i] == other.shape[j]
+        && width[i] == other.width[j]
+        && height[i] == other.height[j]
+        && color[i] == other.color[j];
+  }
+
+  private void grow(int capacity) {
+    handles = Arrays.copyOf(handles, capacity);
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    vx = Arrays.copyOf(vx, capacity);
+    vy = Arrays.copyOf(vy, capacity);
+    rotation = Arrays.copyOf(rotation, capacity);
+    shape = Arrays.copyOf(shape, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    color = Arrays.copyOf(color, capacity);
+  }
+
+  /**
+   * Finds an entity by its handle.
+   *
+   * @param handle the handle of the entity
+   * @return its position in the snapshot, or -1 if the snapshot doesn't hold it
+   */
+  public int indexOf(long handle) {
+    int index = EntityHandle.index(handle);
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int middleIndex = EntityHandle.index(handles[middle]);
+      if (middleIndex < index) {
+        low = middle + 1;
+      } else if (middleIndex > index) {
+        high = middle - 1;
+      } else {
+        return handles[middle] == handle ? middle : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Sets the tick the snapshot was taken at.
+   *
+   * @param session the game the tick belongs to, only its low 8 bits are kept
+   * @param tick the tick, numbered across games
+   */
+  public void setTick(int session, int tick) {
+    this.session = session & 0xFF;
+    this.tick = tick;
+  }
+
+  /**
+   * Sets the state of the player the snapshot is centered on.
+   *
+   * @param handle the handle of the player
+   * @param health its health
+   * @param maxHealth its maximum health
+   * @param score its score
+   */
+  public void setPlayer(long handle, int health, int maxHealth, int score) {
+    this.player = handle;
+    this.health = health;
+    this.maxHealth = maxHealth;
+    this.score = score;
+  }
+
+  public int getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns the handle of the player the snapshot is centered on.
+   *
+   * @return the handle, also used by the player's entry in the snapshot
+   */
+  public long getPlayer() {
+    return player;
+  }
+
+  public int getHealth() {
+    return health;
+  }
+
+  public int getMaxHealth() {
+    return maxHealth;
+  }
+
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the number of entities in the snapshot.
+   *
+   * @return the number of entities
+   */
+  public int size() {
+    return count;
+  }
+
+  public long getHandle(int i) {
+    return handles[i];
+  }
+
+  public double getX(int i) {
+    return NetProtocol.position(x[i]);
+  }
+
+  public double getY(int i) {
+    return NetProtocol.position(y[i]);
+  }
+
+  public double getVx(int i) {
+    return NetProtocol.velocity(vx[i]);
+  }
+
+  public double getVy(int i) {
+    return NetProtocol.velocity(vy[i]);
+  }
+
+  /**
+   * Returns the rotation of an entity.
+   *
+   * @param i the position of the entity in the snapshot
+   * @return the rotation in radians, between 0 and 2 PI
+   */
+  public double getRotation(int i) {
+    return NetProtocol.rotation(rotation[i]);
+  }
+
+  public SpriteComponent.Shape getShape(int i) {
+    return SHAPES[shape[i]];
+  }
+
+  public double getWidth(int i) {
+    return NetProtocol.size(width[i]);
+  }
+
+  public double getHeight(int i) {
+    return NetProtocol.size(height[i]);
+  }
+
+  public int getColor(int i) {
+    return color[i];
+  }
+}
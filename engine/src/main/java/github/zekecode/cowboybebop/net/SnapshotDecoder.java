@@ -0,0 +1,193 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.core.EntityHandle;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Rebuilds the snapshots written by a {@link SnapshotEncoder} on the client side.
+ *
+ * <p>The decoder keeps the last {@link SnapshotEncoder#HISTORY} snapshots it rebuilt, since any of
+ * them may be the baseline of the next one. Snapshots older than the latest one are dropped, and so
+ * are snapshots whose baseline is no longer known; the server falls back to full snapshots once the
+ * client stops acknowledging, so a lost packet never stalls the stream for long.
+ */
+public final class SnapshotDecoder {
+  private static final int SHAPE_COUNT = SpriteComponent.Shape.values().length;
+
+  private final NetSnapshot[] received = new NetSnapshot[SnapshotEncoder.HISTORY];
+  private int latest = -1;
+
+  /** Index of the entities removed by the snapshot being decoded */
+  private int[] removed = new int[16];
+
+  private int removedCount;
+  private int nextRemoved;
+
+  public SnapshotDecoder() {
+    for (int i = 0; i < received.length; i++) {
+      received[i] = new NetSnapshot();
+    }
+  }
+
+  /**
+   * Decodes a snapshot datagram.
+   *
+   * @param in the datagram, starting at its type byte
+   * @return the rebuilt snapshot, valid until {@link SnapshotEncoder#HISTORY} more snapshots are
+   *     decoded, or null if the snapshot is outdated or its baseline is unknown
+   * @throws IllegalArgumentException if the datagram is not a well-formed snapshot
+   */
+  public NetSnapshot decode(ByteBuffer in) {
+    if (in.get() != NetProtocol.SNAPSHOT) {
+      throw new IllegalArgumentException("Not a snapshot");
+    }
+    int session = in.get() & 0xFF;
+    int tick = in.getInt();
+    int baselineTick = in.getInt();
+    if (tick <= latest) {
+      return null;
+    }
+
+    NetSnapshot baseline = null;
+    if (baselineTick >= 0) {
+      baseline = received[baselineTick % received.length];
+      if (baseline.tick != baselineTick
+          || baseline.session != session
+          || tick - baselineTick >= received.length) {
+        return null;
+      }
+    }
+
+    NetSnapshot snapshot = received[tick % received.length];
+    snapshot.clear();
+    snapshot.session = session;
+    snapshot.tick = -1;
+    snapshot.player = in.getLong();
+    snapshot.health = NetProtocol.getSignedVarInt(in);
+    snapshot.maxHealth = NetProtocol.getVarInt(in);
+    snapshot.score = NetProtocol.getVarInt(in);
+
+    readRemoved(in);
+    readEntities(in, baseline, snapshot);
+    snapshot.tick = tick;
+    latest = tick;
+    return snapshot;
+  }
+
+  private void readRemoved(ByteBuffer in) {
+    removedCount = in.getShort() & 0xFFFF;
+    if (removed.length < removedCount) {
+      removed = Arrays.copyOf(removed, removedCount);
+    }
+    int index = -1;
+    for (int r = 0; r < removedCount; r++) {
+      index += NetProtocol.getVarInt(in) + 1;
+      removed[r] = index;
+    }
+    nextRemoved = 0;
+  }
+
+  private void readEntities(ByteBuffer in, NetSnapshot baseline, NetSnapshot snapshot) {
+    int count = in.getShort() & 0xFFFF;
+    int index = -1;
+    int j = 0;
+    for (int e = 0; e < count; e++) {
+      index += NetProtocol.getVarInt(in) + 1;
+      int flags = in.get() & 0xFF;
+
+      // Entities of the baseline before this one did not change
+      j = keepUnchanged(baseline, j, index, snapshot);
+      boolean known =
+          baseline != null
+              && j < baseline.count
+              && EntityHandle.index(baseline.handles[j]) == index;
+
+      if ((flags & SnapshotEncoder.ENTERED) != 0) {
+        int generation = NetProtocol.getVarInt(in);
+        int shape = in.get();
+        if (shape < 0 || shape >= SHAPE_COUNT) {
+          throw new IllegalArgumentException("Unknown sprite shape " + shape);
+        }
+        int width = NetProtocol.getVarInt(in);
+        int height = NetProtocol.getVarInt(in);
+        int color = in.getInt();
+        int x = NetProtocol.getSignedVarInt(in);
+        int y = NetProtocol.getSignedVarInt(in);
+        int vx = NetProtocol.getSignedVarInt(in);
+        int vy = NetProtocol.getSignedVarInt(in);
+        int rotation = in.get() & 0xFF;
+        snapshot.add(
+            EntityHandle.of(index, generation),
+            x,
+            y,
+            vx,
+            vy,
+            rotation,
+            shape,
+            width,
+            height,
+            color);
+      } else {
+        if (!known) {
+          throw new IllegalArgumentException("Snapshot updates an unknown entity " + index);
+        }
+        snapshot.add(baseline, j);
+        int i = snapshot.count - 1;
+        if ((flags & SnapshotEncoder.X_CHANGED) != 0) {
+          snapshot.x[i] += NetProtocol.getSignedVarInt(in);
+        }
+        if ((flags & SnapshotEncoder.Y_CHANGED) != 0) {
+          snapshot.y[i] += NetProtocol.getSignedVarInt(in);
+        }
+        if ((flags & SnapshotEncoder.VX_CHANGED) != 0) {
+          snapshot.vx[i] += NetProtocol.getSignedVarInt(in);
+        }
+        if ((flags & SnapshotEncoder.VY_CHANGED) != 0) {
+          snapshot.vy[i] += NetProtocol.getSignedVarInt(in);
+        }
+        if ((flags & SnapshotEncoder.ROTATION_CHANGED) != 0) {
+          snapshot.rotation[i] = in.get() & 0xFF;
+        }
+      }
+      if (known) {
+        j++;
+      }
+    }
+    keepUnchanged(baseline, j, Integer.MAX_VALUE, snapshot);
+  }
+
+  /**
+   * Copies the entities of the baseline from row {@code j} up to an index, skipping the removed
+   * ones, and returns the row of the first entity not copied.
+   */
+  private int keepUnchanged(NetSnapshot baseline, int j, int index, NetSnapshot snapshot) {
+    if (baseline == null) {
+      return j;
+    }
+    while (j < baseline.count) {
+      int baselineIndex = EntityHandle.index(baseline.handles[j]);
+      if (baselineIndex >= index) {
+        break;
+      }
+      while (nextRemoved < removedCount && removed[nextRemoved] < baselineIndex) {
+        nextRemoved++;
+      }
+      if (nextRemoved == removedCount || removed[nextRemoved] != baselineIndex) {
+        snapshot.add(baseline, j);
+      }
+      j++;
+    }
+    return j;
+  }
+
+  /**
+   * Returns the tick of the latest snapshot decoded, which the client acknowledges.
+   *
+   * @return the tick, or -1 if no snapshot was decoded yet
+   */
+  public int getLatestTick() {
+    return latest;
+  }
+}
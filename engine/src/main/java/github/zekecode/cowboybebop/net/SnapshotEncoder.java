@@ -0,0 +1,196 @@
+package github.zekecode.cowboybebop.net;
+
+import github.zekecode.cowboybebop.core.EntityHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes the snapshots of one client as deltas against the last snapshot the client acknowledged.
+ *
+ * <p>The encoder remembers the last {@link #HISTORY} snapshots it sent. When the client
+ * acknowledges one of them, the next snapshots only carry what changed since: the entities that
+ * left the view of the client, the ones that entered it with their look, and for the others only
+ * the fields that moved, as small differences from their baseline value. Entities that did not
+ * change are not written at all. When the client hasn't acknowledged any recent snapshot, for
+ * instance after losing several packets in a row, a full snapshot is sent instead.
+ *
+ * <p>A snapshot starts with its type, session, tick and baseline tick, the player's handle and
+ * stats. Then come the count and index gaps of the removed entities, and the count of written
+ * entities, each with the gap from the previous index, a flags byte and its fields.
+ */
+public final class SnapshotEncoder {
+  /** Snapshots kept as possible baselines, about half a second at 60 ticks per second */
+  public static final int HISTORY = 32;
+
+  // Bits of the flags byte of each entity
+  static final int X_CHANGED = 1;
+  static final int Y_CHANGED = 1 << 1;
+  static final int VX_CHANGED = 1 << 2;
+  static final int VY_CHANGED = 1 << 3;
+  static final int ROTATION_CHANGED = 1 << 4;
+  static final int ENTERED = 1 << 5;
+
+  private final NetSnapshot[] sent = new NetSnapshot[HISTORY];
+  private int acknowledged = -1;
+
+  public SnapshotEncoder() {
+    for (int i = 0; i < HISTORY; i++) {
+      sent[i] = new NetSnapshot();
+    }
+  }
+
+  /**
+   * Records that the client received a snapshot. Acknowledgements may arrive out of order, only the
+   * latest one counts.
+   *
+   * @param tick the tick of the received snapshot
+   */
+  public void acknowledge(int tick) {
+    acknowledged = Math.max(acknowledged, tick);
+  }
+
+  /** Forgets every acknowledgement, so that the next snapshot is a full one. */
+  public void reset() {
+    acknowledged = -1;
+  }
+
+  /**
+   * Returns the tick of the latest snapshot the client acknowledged.
+   *
+   * @return the tick, or -1 if there is none
+   */
+  public int getAcknowledged() {
+    return acknowledged;
+  }
+
+  /** Returns the snapshot to encode against, or null to send a full snapshot. */
+  private NetSnapshot baselineFor(NetSnapshot current) {
+    if (acknowledged < 0 || acknowledged >= current.tick) {
+      return null;
+    }
+    NetSnapshot baseline = sent[acknowledged % HISTORY];
+    if (baseline.tick != acknowledged
+        || baseline.session != current.session
+        || current.tick - acknowledged >= HISTORY) {
+      return null;
+    }
+    return baseline;
+  }
+
+  /**
+   * Writes a snapshot and remembers it as a possible baseline.
+   *
+   * @param current the entities the client should know about, with the tick and player's state
+   * @param out where to write the datagram, with room for a full snapshot
+   */
+  public void encode(NetSnapshot current, ByteBuffer out) {
+    NetSnapshot baseline = baselineFor(current);
+    out.put(NetProtocol.SNAPSHOT);
+    out.put((byte) current.session);
+    out.putInt(current.tick);
+    out.putInt(baseline != null ? baseline.tick : -1);
+    out.putLong(current.player);
+    NetProtocol.putSignedVarInt(out, current.health);
+    NetProtocol.putVarInt(out, current.maxHealth);
+    NetProtocol.putVarInt(out, current.score);
+
+    writeRemoved(current, baseline, out);
+    writeEntities(current, baseline, out);
+    sent[current.tick % HISTORY].copyFrom(current);
+  }
+
+  /** Writes the entities of the baseline that the client must forget. */
+  private static void writeRemoved(NetSnapshot current, NetSnapshot baseline, ByteBuffer out) {
+    int countPosition = out.position();
+    out.putShort((short) 0);
+    if (baseline == null) {
+      return;
+    }
+
+    int removed = 0;
+    int previous = -1;
+    int i = 0;
+    for (int j = 0; j < baseline.count; j++) {
+      int index = EntityHandle.index(baseline.handles[j]);
+      while (i < current.count && EntityHandle.index(current.handles[i]) < index) {
+        i++;
+      }
+      // An entity reusing the slot replaces the old one when it enters, it needs no removal
+      if (i < current.count && EntityHandle.index(current.handles[i]) == index) {
+        continue;
+      }
+      NetProtocol.putVarInt(out, index - previous - 1);
+      previous = index;
+      removed++;
+    }
+    out.putShort(countPosition, (short) removed);
+  }
+
+  /** Writes the entities that entered the view of the client or changed since the baseline. */
+  private static void writeEntities(NetSnapshot current, NetSnapshot baseline, ByteBuffer out) {
+    int countPosition = out.position();
+    out.putShort((short) 0);
+
+    int written = 0;
+    int previous = -1;
+    int j = 0;
+    for (int i = 0; i < current.count; i++) {
+      long handle = current.handles[i];
+      int index = EntityHandle.index(handle);
+      if (baseline != null) {
+        while (j < baseline.count && EntityHandle.index(baseline.handles[j]) < index) {
+          j++;
+        }
+      }
+
+      if (baseline != null
+          && j < baseline.count
+          && baseline.handles[j] == handle
+          && current.sameLook(i, baseline, j)) {
+        int flags = 0;
+        flags |= current.x[i] != baseline.x[j] ? X_CHANGED : 0;
+        flags |= current.y[i] != baseline.y[j] ? Y_CHANGED : 0;
+        flags |= current.vx[i] != baseline.vx[j] ? VX_CHANGED : 0;
+        flags |= current.vy[i] != baseline.vy[j] ? VY_CHANGED : 0;
+        flags |= current.rotation[i] != baseline.rotation[j] ? ROTATION_CHANGED : 0;
+        if (flags == 0) {
+          continue;
+        }
+
+        NetProtocol.putVarInt(out, index - previous - 1);
+        out.put((byte) flags);
+        if ((flags & X_CHANGED) != 0) {
+          NetProtocol.putSignedVarInt(out, current.x[i] - baseline.x[j]);
+        }
+        if ((flags & Y_CHANGED) != 0) {
+          NetProtocol.putSignedVarInt(out, current.y[i] - baseline.y[j]);
+        }
+        if ((flags & VX_CHANGED) != 0) {
+          NetProtocol.putSignedVarInt(out, current.vx[i] - baseline.vx[j]);
+        }
+        if ((flags & VY_CHANGED) != 0) {
+          NetProtocol.putSignedVarInt(out, current.vy[i] - baseline.vy[j]);
+        }
+        if ((flags & ROTATION_CHANGED) != 0) {
+          out.put((byte) current.rotation[i]);
+        }
+      } else {
+        // New to the client, or its look changed: send everything
+        NetProtocol.putVarInt(out, index - previous - 1);
+        out.put((byte) ENTERED);
+        NetProtocol.putVarInt(out, EntityHandle.generation(handle));
+        out.put((byte) current.shape[i]);
+        NetProtocol.putVarInt(out, current.width[i]);
+        NetProtocol.putVarInt(out, current.height[i]);
+        out.putInt(current.color[i]);
+        NetProtocol.putSignedVarInt(out, current.x[i]);
+        NetProtocol.putSignedVarInt(out, current.y[i]);
+        NetProtocol.putSignedVarInt(out, current.vx[i]);
+        NetProtocol.putSignedVarInt(out, current.vy[i]);
+        out.put((byte) current.rotation[i]);
+      }
+      previous = index;
+      written++;
+    }
+    out.putShort(countPosition, (short) written);
+  }
+}
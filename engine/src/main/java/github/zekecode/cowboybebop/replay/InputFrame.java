@@ -0,0 +1,130 @@
+package github.zekecode.cowboybebop.replay;
+
+import github.zekecode.cowboybebop.util.InputSource;
+import github.zekecode.cowboybebop.util.InputState;
+import github.zekecode.cowboybebop.util.KeyLayout;
+
+/**
+ * The input of one tick: which of the {@link #KEYS} are held, the mouse position and its button.
+ *
+ * <p>A simulation captures its live input into a frame at the start of every tick and runs the
+ * tick against the frame, so every system sees the same input during a tick and the frame is
+ * exactly what a {@link ReplayWriter} records. The mouse position is kept as a float, the precision
+ * it is recorded with, so a replayed tick sees bit for bit the input of the recorded one.
+ */
+public final class InputFrame implements InputSource {
+  /** Keys read by the simulation, in the order of their bits. Other keys always read as released */
+  public static final String[] KEYS = {"W", "A", "S", "D", "SPACE"};
+
+  // Bits of the keys, for systems to test them without going through the names
+  public static final int W = 0;
+  public static final int A = 1;
+  public static final int S = 2;
+  public static final int D = 3;
+  public static final int SPACE = 4;
+
+  private int keys;
+
+  /** Layout of the states captured last, and the index in it of each of the {@link #KEYS} */
+  private KeyLayout layout;
+
+  private final int[] indexes = new int[KEYS.length];
+  private boolean mousePressed;
+  private float mouseX;
+  private float mouseY;
+
+  /**
+   * Copies the current state of another input.
+   *
+   * @param input the input to sample
+   */
+  public void capture(InputSource input) {
+    if (input instanceof InputState) {
+      capture((InputState) input);
+      return;
+    }
+    int pressed = 0;
+    for (int i = 0; i < KEYS.length; i++) {
+      if (input.isKeyPressed(KEYS[i])) {
+        pressed |= 1 << i;
+      }
+    }
+    set(pressed, input.isMousePressed(), input.getMouseX(), input.getMouseY());
+  }
+
+  /** Copies the bits of a snapshot, having looked the keys up once for its layout. */
+  private void capture(InputState state) {
+    if (state.getLayout() != layout) {
+      layout = state.getLayout();
+      for (int i = 0; i < KEYS.length; i++) {
+        indexes[i] = layout.indexOf(KEYS[i]);
+      }
+    }
+    int pressed = 0;
+    for (int i = 0; i < KEYS.length; i++) {
+      if (indexes[i] >= 0 && state.isKeyPressed(indexes[i])) {
+        pressed |= 1 << i;
+      }
+    }
+    set(pressed, state.isMousePressed(), state.getMouseX(), state.getMouseY());
+  }
+
+  /**
+   * Sets the whole state of the frame.
+   *
+   * @param keys the held keys, bit {@code i} standing for {@code KEYS[i]}
+   * @param mousePressed whether the mouse button is held
+   * @param mouseX the x coordinate of the mouse
+   * @param mouseY the y coordinate of the mouse
+   */
+  public void set(int keys, boolean mousePressed, double mouseX, double mouseY) {
+    this.keys = keys;
+    this.mousePressed = mousePressed;
+    this.mouseX = (float) mouseX;
+    this.mouseY = (float) mouseY;
+  }
+
+  /**
+   * Returns the held keys as a bit set.
+   *
+   * @return the held keys, bit {@code i} standing for {@code KEYS[i]}
+   */
+  public int getKeys() {
+    return keys;
+  }
+
+  /**
+   * Tells whether a key is held, by bit.
+   *
+   * @param key the bit of the key, such as {@link #W}
+   * @return true if the key is pressed
+   */
+  public boolean isKeyPressed(int key) {
+    return (keys & (1 << key)) != 0;
+  }
+
+  @Override
+  public boolean isKeyPressed(String keyCode) {
+    for (int i = 0; i < KEYS.length; i++) {
+      if (KEYS[i].equals(keyCode)) {
+        return (keys & (1 << i)) != 0;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isMousePressed() {
+    return mousePressed;
+  }
+
+  @Override
+  public double getMouseX() {
+    return mouseX;
+  }
+
+  @Override
+  public double getMouseY() {
+    return mouseY;
+  }
+}
@@ -0,0 +1,127 @@
+package github.zekecode.cowboybebop.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads back, tick by tick, a replay written by a {@link ReplayWriter}.
+ *
+ * <p>A replay cut in the middle of a tick, as left by a session that crashed, simply ends with the
+ * last complete tick.
+ */
+public final class ReplayReader implements Closeable {
+  private final DataInputStream in;
+
+  private final long seed;
+  private final double width;
+  private final double height;
+  private final String kernel;
+
+  // State of the current tick, the log only holds what changed
+  private int keys;
+  private float mouseX;
+  private float mouseY;
+  private double step = Double.NaN;
+  private int checksum;
+
+  /**
+   * Opens a replay by reading its header.
+   *
+   * @param in the replay, closed with the reader
+   * @throws IOException if the header can't be read or the stream is not a replay
+   */
+  public ReplayReader(InputStream in) throws IOException {
+    this.in = new DataInputStream(new BufferedInputStream(in));
+    if (this.in.readInt() != ReplayWriter.MAGIC) {
+      throw new IOException("Not a replay");
+    }
+    int version = this.in.readUnsignedShort();
+    if (version != ReplayWriter.VERSION) {
+      throw new IOException("Unsupported replay version: " + version);
+    }
+    seed = this.in.readLong();
+    width = this.in.readDouble();
+    height = this.in.readDouble();
+    kernel = this.in.readUTF();
+  }
+
+  /**
+   * Reads the next tick.
+   *
+   * @param input filled with the input of the tick
+   * @return false once there are no more complete ticks
+   * @throws IOException if the replay can't be read
+   */
+  public boolean next(InputFrame input) throws IOException {
+    int flags = in.read();
+    if (flags < 0) {
+      return false;
+    }
+    try {
+      if ((flags & ReplayWriter.KEYS_CHANGED) != 0) {
+        keys = in.readUnsignedByte();
+      }
+      if ((flags & ReplayWriter.MOUSE_MOVED) != 0) {
+        mouseX = in.readFloat();
+        mouseY = in.readFloat();
+      }
+      if ((flags & ReplayWriter.STEP_CHANGED) != 0) {
+        step = in.readDouble();
+      }
+      checksum = in.readInt();
+    } catch (EOFException e) {
+      return false;
+    }
+    input.set(keys, (flags & ReplayWriter.MOUSE_PRESSED) != 0, mouseX, mouseY);
+    return true;
+  }
+
+  /**
+   * Returns the duration of the tick last read.
+   *
+   * @return the step in seconds
+   */
+  public double getStep() {
+    return step;
+  }
+
+  /**
+   * Returns the world checksum recorded after the tick last read.
+   *
+   * @return the checksum, folded to 32 bits
+   */
+  public int getChecksum() {
+    return checksum;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public double getWidth() {
+    return width;
+  }
+
+  public double getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the movement kernel of the recorded session. Kernels may round differently, so a
+   * session only replays exactly with the kernel it was recorded with.
+   *
+   * @return the name of the kernel
+   */
+  public String getKernel() {
+    return kernel;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
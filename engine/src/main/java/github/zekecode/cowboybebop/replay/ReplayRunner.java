@@ -0,0 +1,130 @@
+package github.zekecode.cowboybebop.replay;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.systems.MovementKernel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs a recorded session again, headless and as fast as possible, checking after every tick that
+ * the world matches the recording.
+ *
+ * <p>The replay stops at the first tick whose checksum differs from the recorded one, which is
+ * where the code or the machine made the session go another way. Replays are also realistic
+ * workloads: the tick rate of a replay is a benchmark of the game as it is actually played.
+ */
+public final class ReplayRunner {
+  private ReplayRunner() {}
+
+  /**
+   * Replays a recorded session from a file.
+   *
+   * @param file the replay
+   * @return what happened during the replay
+   * @throws IOException if the replay can't be read
+   */
+  public static Result run(Path file) throws IOException {
+    try (ReplayReader reader = new ReplayReader(Files.newInputStream(file))) {
+      return run(reader);
+    }
+  }
+
+  /**
+   * Replays a recorded session, up to its last tick or its first divergence.
+   *
+   * @param reader the replay, right after its header
+   * @return what happened during the replay
+   * @throws IOException if the replay can't be read
+   * @throws IllegalStateException if the session was recorded with a movement kernel this JVM
+   *     doesn't have
+   */
+  public static Result run(ReplayReader reader) throws IOException {
+    InputFrame input = new InputFrame();
+    Simulation simulation =
+        new Simulation(
+            reader.getWidth(),
+            reader.getHeight(),
+            input,
+            reader.getSeed(),
+            kernelNamed(reader.getKernel()));
+
+    long ticks = 0;
+    long start = System.nanoTime();
+    while (reader.next(input)) {
+      simulation.tick(reader.getStep());
+      ticks++;
+      if (ReplayWriter.fold(simulation.checksum()) != reader.getChecksum()) {
+        return new Result(ticks, ticks, System.nanoTime() - start);
+      }
+    }
+    return new Result(ticks, -1, System.nanoTime() - start);
+  }
+
+  private static MovementKernel kernelNamed(String name) {
+    MovementKernel best = MovementKernel.best();
+    if (best.getName().equals(name)) {
+      return best;
+    }
+    MovementKernel scalar = MovementKernel.scalar();
+    if (scalar.getName().equals(name)) {
+      return scalar;
+    }
+    throw new IllegalStateException(
+        "The replay was recorded with the " + name + " movement kernel, not available here");
+  }
+
+  /** The outcome of a replay. */
+  public static final class Result {
+    private final long ticks;
+    private final long divergedTick;
+    private final long nanos;
+
+    Result(long ticks, long divergedTick, long nanos) {
+      this.ticks = ticks;
+      this.divergedTick = divergedTick;
+      this.nanos = nanos;
+    }
+
+    /**
+     * Returns the number of ticks replayed, the diverging one included.
+     *
+     * @return the number of ticks
+     */
+    public long getTicks() {
+      return ticks;
+    }
+
+    public boolean isDiverged() {
+      return divergedTick >= 0;
+    }
+
+    /**
+     * Returns the first tick whose world didn't match the recording.
+     *
+     * @return the tick, counted from 1, or -1 if the whole replay matched
+     */
+    public long getDivergedTick() {
+      return divergedTick;
+    }
+
+    /**
+     * Returns the time spent replaying.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      double seconds = nanos / 1_000_000_000.0;
+      String outcome =
+          isDiverged() ? "diverged at tick " + divergedTick : "matched the recording";
+      return String.format(
+          "Replayed %d ticks in %.3f s (%.0f ticks/s), %s",
+          ticks, seconds, ticks / seconds, outcome);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package github.zekecode.cowboybebop.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the input of a session tick by tick, along with what it takes to run the session again:
+ * the seed of its random generator, the size of the arena and the movement kernel it ran with.
+ *
+ * <p>The log is a binary stream. After the header, every tick takes a flags byte and the 4 bytes
+ * of its world checksum, followed only by what changed since the previous tick: the held keys, the
+ * mouse position or the duration of the tick. A typical tick is 5 bytes, about 18 KB per minute
+ * at 60 ticks per second. The log is flushed every {@link #FLUSH_INTERVAL} ticks, so a session
+ * that crashes loses at most that many ticks.
+ */
+public final class ReplayWriter implements Closeable {
+  /** Leading bytes of every replay, "CBRP" */
+  static final int MAGIC = 0x43425250;
+
+  static final int VERSION = 1;
+
+  // Bits of the flags byte of each tick
+  static final int KEYS_CHANGED = 1;
+  static final int MOUSE_MOVED = 1 << 1;
+  static final int STEP_CHANGED = 1 << 2;
+  static final int MOUSE_PRESSED = 1 << 3;
+
+  /** Ticks between two flushes, a second of play */
+  public static final int FLUSH_INTERVAL = 60;
+
+  private final DataOutputStream out;
+  private long ticks;
+
+  // State of the previous tick, only changes are written
+  private int keys;
+  private float mouseX;
+  private float mouseY;
+  private double step = Double.NaN;
+
+  /**
+   * Starts a replay by writing its header.
+   *
+   * @param out where to write the replay, closed with the writer
+   * @param seed the seed of the session's random generator
+   * @param width the width of the arena
+   * @param height the height of the arena
+   * @param kernel the name of the movement kernel the session runs with
+   * @throws IOException if the header can't be written
+   */
+  public ReplayWriter(OutputStream out, long seed, double width, double height, String kernel)
+      throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    this.out.writeInt(MAGIC);
+    this.out.writeShort(VERSION);
+    this.out.writeLong(seed);
+    this.out.writeDouble(width);
+    this.out.writeDouble(height);
+    this.out.writeUTF(kernel);
+  }
+
+  /**
+   * Appends a tick.
+   *
+   * @param input the input the tick ran with
+   * @param step the duration of the tick in seconds
+   * @param checksum the checksum of the world after the tick
+   * @throws IOException if the tick can't be written
+   */
+  public void write(InputFrame input, double step, long checksum) throws IOException {
+    float x = (float) input.getMouseX();
+    float y = (float) input.getMouseY();
+
+    int flags = input.isMousePressed() ? MOUSE_PRESSED : 0;
+    if (input.getKeys() != keys) {
+      flags |= KEYS_CHANGED;
+    }
+    if (Float.compare(x, mouseX) != 0 || Float.compare(y, mouseY) != 0) {
+      flags |= MOUSE_MOVED;
+    }
+    if (Double.compare(step, this.step) != 0) {
+      flags |= STEP_CHANGED;
+    }
+
+    out.writeByte(flags);
+    if ((flags & KEYS_CHANGED) != 0) {
+      out.writeByte(input.getKeys());
+    }
+    if ((flags & MOUSE_MOVED) != 0) {
+      out.writeFloat(x);
+      out.writeFloat(y);
+    }
+    if ((flags & STEP_CHANGED) != 0) {
+      out.writeDouble(step);
+    }
+    out.writeInt(fold(checksum));
+
+    keys = input.getKeys();
+    mouseX = x;
+    mouseY = y;
+    this.step = step;
+    if (++ticks % FLUSH_INTERVAL == 0) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Returns the number of ticks written so far.
+   *
+   * @return the number of ticks
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /** Writes out the ticks not flushed yet and closes the stream. */
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  /** Folds a world checksum into the 32 bits kept in the log. */
+  static int fold(long checksum) {
+    return (int) (checksum ^ (checksum >>> 32));
+  }
+}
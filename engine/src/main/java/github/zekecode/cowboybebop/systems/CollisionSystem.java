@@ -0,0 +1,225 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.CommandBuffer;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EventQueue;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.events.CollisionEvent;
+import github.zekecode.cowboybebop.events.DamageEvent;
+import github.zekecode.cowboybebop.util.SpatialHashGrid;
+import java.util.Arrays;
+import java.util.List;
+
+public class CollisionSystem implements System {
+  /** Reacts to two overlapping entities whose layers were registered together. */
+  @FunctionalInterface
+  public interface CollisionResponse {
+    /**
+     * Called once per overlapping pair, with the entities in the order the response was registered
+     * for.
+     *
+     * @param first the entity on the first registered layer
+     * @param second the entity on the second registered layer
+     */
+    void respond(Entity first, Entity second);
+  }
+
+  private static final int LAYERS = CollisionLayers.MAX_LAYERS;
+
+  // Responses only run when the collision events are dispatched, between stages
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none()
+          .reads(TransformComponent.class, CollisionComponent.class)
+          .publishes(CollisionEvent.class);
+
+  private final CommandBuffer commands;
+  private final Query collidables;
+  private final EventQueue<CollisionEvent> collisions;
+  private final EventQueue<DamageEvent> damages;
+
+  // Layer-vs-layer matrix: bit b of masks[a] is set when layer a interacts with layer b
+  private final int[] masks = new int[LAYERS];
+
+  // Dispatch table indexed by layerA * LAYERS + layerB
+  private final CollisionResponse[] responses = new CollisionResponse[LAYERS * LAYERS];
+
+  // Broadphase grid, rebuilt every frame from the collider positions
+  private final SpatialHashGrid grid = new SpatialHashGrid();
+  private final SpatialHashGrid.PairVisitor narrowphase = this::testPair;
+
+  // Per-frame copy of the colliders, reused between frames
+  private Entity[] entities = new Entity[64];
+  private double[] xs = new double[64];
+  private double[] ys = new double[64];
+  private double[] radii = new double[64];
+  private int[] layers = new int[64];
+  private int count;
+
+  public CollisionSystem(World world) {
+    this.commands = world.getCommandBuffer();
+    this.collidables = world.query(TransformComponent.class, CollisionComponent.class);
+    this.collisions = world.getEvents().queue(CollisionEvent.class, CollisionEvent::new);
+    this.damages = world.getEvents().queue(DamageEvent.class, DamageEvent::new);
+    world.getEvents().subscribe(CollisionEvent.class, CollisionEvent::new, this::respond);
+
+    registerResponse(CollisionLayers.PROJECTILE, CollisionLayers.ENEMY, this::projectileHitsEnemy);
+    registerResponse(CollisionLayers.PLAYER, CollisionLayers.ENEMY, this::enemyHitsPlayer);
+  }
+
+  /**
+   * Registers the response to run when an entity of layerA overlaps one of layerB, and enables
+   * collisions between the two layers. Any previous response for the pair is replaced. Responses
+   * run when the {@link CollisionEvent}s are dispatched, after the system has found every pair.
+   */
+  public void registerResponse(int layerA, int layerB, CollisionResponse response) {
+    responses[layerA * LAYERS + layerB] = response;
+    if (layerA != layerB) {
+      responses[layerB * LAYERS + layerA] = (first, second) -> response.respond(second, first);
+    }
+    setCollides(layerA, layerB, true);
+  }
+
+  /**
+   * Enables or disables collision detection between two layers. Pairs of disabled layers are
+   * rejected before any distance test, and layers that collide with nothing are skipped entirely.
+   */
+  public void setCollides(int layerA, int layerB, boolean collides) {
+    if (collides) {
+      masks[layerA] |= 1 << layerB;
+      masks[layerB] |= 1 << layerA;
+    } else {
+      masks[layerA] &= ~(1 << layerB);
+      masks[layerB] &= ~(1 << layerA);
+    }
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    double maxRadius = gatherColliders();
+    if (count < 2 || maxRadius <= 0) {
+      clearColliders();
+      return;
+    }
+
+    // Two colliders can only touch if they are at most two max radii apart, i.e. in adjacent cells
+    grid.build(xs, ys, count, maxRadius * 2);
+    grid.forEachPair(narrowphase);
+    clearColliders();
+  }
+
+  /** Copies the position and radius of every collider into the flat arrays. */
+  private double gatherColliders() {
+    count = 0;
+    double maxRadius = 0;
+    List<Archetype> archetypes = collidables.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      int size = archetype.size();
+      if (size == 0) {
+        continue;
+      }
+      ensureCapacity(count + size);
+
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn collisions = archetype.column(CollisionComponent.class);
+      double[] archetypeXs = transforms.values(TransformComponent.X);
+      double[] archetypeYs = transforms.values(TransformComponent.Y);
+      double[] archetypeRadii = collisions.values(CollisionComponent.RADIUS);
+      double[] archetypeLayers = collisions.values(CollisionComponent.LAYER);
+      for (int row = 0; row < size; row++) {
+        // Colliders on layers that interact with nothing never make it into the grid
+        int layer = (int) archetypeLayers[row];
+        if (layer == CollisionLayers.NONE || masks[layer] == 0) {
+          continue;
+        }
+        entities[count] = archetype.getEntity(row);
+        xs[count] = archetypeXs[row];
+        ys[count] = archetypeYs[row];
+        radii[count] = archetypeRadii[row];
+        layers[count] = layer;
+        maxRadius = Math.max(maxRadius, archetypeRadii[row]);
+        count++;
+      }
+    }
+    return maxRadius;
+  }
+
+  /** Runs the layer filter and the exact circle test on a candidate pair from the broadphase. */
+  private void testPair(int a, int b) {
+    // Reject pairs of layers that don't interact before any distance test
+    if ((masks[layers[a]] & (1 << layers[b])) == 0) return;
+
+    // Simple circle collision check, on squared distances to avoid the square root
+    double dx = xs[a] - xs[b];
+    double dy = ys[a] - ys[b];
+    double minDistance = radii[a] + radii[b];
+
+    if (dx * dx + dy * dy < minDistance * minDistance) {
+      // Collision detected, the consequences are left to the event handlers
+      collisions.publish().set(entities[a], layers[a], entities[b], layers[b]);
+    }
+  }
+
+  /** Runs the registered response of a collision, when both entities are still around. */
+  private void respond(CollisionEvent collision) {
+    Entity first = collision.getFirst();
+    Entity second = collision.getSecond();
+
+    // Skip entities already destroyed by an earlier pair this frame
+    if (commands.isDestroyed(first) || commands.isDestroyed(second)) return;
+
+    CollisionResponse response =
+        responses[collision.getFirstLayer() * LAYERS + collision.getSecondLayer()];
+    if (response != null) {
+      response.respond(first, second);
+    }
+  }
+
+  private void projectileHitsEnemy(Entity projectile, Entity enemy) {
+    ProjectileComponent projectileComponent = projectile.getComponent(ProjectileComponent.class);
+
+    // Only player projectiles hit enemies
+    if (projectileComponent != null
+        && projectileComponent.getOwnerLayer() == CollisionLayers.PLAYER) {
+      damages.publish().set(enemy, projectile, projectileComponent.getDamage());
+      commands.destroy(projectile); // Remove the projectile
+    }
+  }
+
+  private void enemyHitsPlayer(Entity player, Entity enemy) {
+    EnemyComponent enemyComponent = enemy.getComponent(EnemyComponent.class);
+    if (enemyComponent != null) {
+      damages.publish().set(player, enemy, enemyComponent.getDamage());
+      commands.destroy(enemy); // Enemy is destroyed on impact
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= entities.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, entities.length * 2);
+    entities = Arrays.copyOf(entities, newCapacity);
+    xs = Arrays.copyOf(xs, newCapacity);
+    ys = Arrays.copyOf(ys, newCapacity);
+    radii = Arrays.copyOf(radii, newCapacity);
+    layers = Arrays.copyOf(layers, newCapacity);
+  }
+
+  /** Drops the entity references so nothing leaks into the next frame. */
+  private void clearColliders() {
+    Arrays.fill(entities, 0, count, null);
+    count = 0;
+  }
+}
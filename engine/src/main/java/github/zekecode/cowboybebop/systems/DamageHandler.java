@@ -0,0 +1,53 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.core.CommandBuffer;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EventBus;
+import github.zekecode.cowboybebop.core.EventQueue;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.events.DamageEvent;
+import github.zekecode.cowboybebop.events.EntityDiedEvent;
+
+/**
+ * Applies {@link DamageEvent}s to the health of their targets, and removes the entities that run
+ * out of it, publishing an {@link EntityDiedEvent} for each.
+ */
+public class DamageHandler implements EventBus.Handler<DamageEvent> {
+  private final CommandBuffer commands;
+  private final EventQueue<EntityDiedEvent> deaths;
+
+  public DamageHandler(World world) {
+    this.commands = world.getCommandBuffer();
+    this.deaths = world.getEvents().queue(EntityDiedEvent.class, EntityDiedEvent::new);
+  }
+
+  /**
+   * Creates a handler and subscribes it to the damage events of a world.
+   *
+   * @param world the world whose damage events are handled
+   * @return the subscribed handler
+   */
+  public static DamageHandler subscribe(World world) {
+    DamageHandler handler = new DamageHandler(world);
+    world.getEvents().subscribe(DamageEvent.class, DamageEvent::new, handler);
+    return handler;
+  }
+
+  @Override
+  public void handle(DamageEvent event) {
+    Entity target = event.getTarget();
+    HealthComponent health = target.getComponent(HealthComponent.class);
+
+    // Entities already on their way out take no more damage
+    if (health == null || commands.isDestroyed(target)) {
+      return;
+    }
+
+    health.damage(event.getAmount());
+    if (health.isDead()) {
+      deaths.publish().set(target, event.getSource());
+      commands.destroy(target);
+    }
+  }
+}
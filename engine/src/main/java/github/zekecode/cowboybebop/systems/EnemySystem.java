@@ -0,0 +1,197 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EnemyPrefab;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.util.FlowField;
+import java.util.List;
+import java.util.Random;
+
+public class EnemySystem implements System {
+  /** Side of the flow field cells, about the size of an enemy */
+  private static final double FLOW_CELL_SIZE = 25;
+
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none()
+          .reads(PlayerComponent.class, TransformComponent.class, EnemyComponent.class)
+          .writes(VelocityComponent.class)
+          .recordsCommands();
+
+  private final Query players;
+  private final Query enemies;
+  private final EntityFactory entityFactory;
+  private final double screenWidth;
+  private final double screenHeight;
+  private final Random random;
+
+  /** Directions towards the player shared by every enemy */
+  private final FlowField flowField;
+
+  private double spawnTimer;
+  private double spawnRate;
+  private int enemiesSpawned;
+  private int maxEnemies;
+
+  public EnemySystem(
+      World world, EntityFactory entityFactory, double screenWidth, double screenHeight) {
+    this(world, entityFactory, screenWidth, screenHeight, new Random());
+  }
+
+  /**
+   * Creates the system, placing and picking the spawned enemies with the given generator. Given
+   * generators seeded alike, here and in the factory, and the same input, two runs spawn the same
+   * enemies at the same places.
+   *
+   * @param world the world of the enemies
+   * @param entityFactory the factory spawning the enemies
+   * @param screenWidth the width of the arena
+   * @param screenHeight the height of the arena
+   * @param random the source of the spawn positions and enemy types
+   */
+  public EnemySystem(
+      World world,
+      EntityFactory entityFactory,
+      double screenWidth,
+      double screenHeight,
+      Random random) {
+    this.players = world.query(PlayerComponent.class, TransformComponent.class);
+    this.enemies =
+        world.query(EnemyComponent.class, TransformComponent.class, VelocityComponent.class);
+    // Spawned enemies go through the command buffer, so this system can run in parallel
+    this.entityFactory = entityFactory.deferred();
+    this.screenWidth = screenWidth;
+    this.screenHeight = screenHeight;
+    this.random = random;
+    this.flowField = new FlowField(screenWidth, screenHeight, FLOW_CELL_SIZE);
+    this.spawnTimer = 0;
+    this.spawnRate = 1.0; // One enemy per second initially
+    this.enemiesSpawned = 0;
+    this.maxEnemies = 100; // Limit total enemies spawned
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    // Update all existing enemies
+    updateEnemies(deltaTime);
+
+    // Handle enemy spawning
+    spawnTimer += deltaTime;
+    if (spawnTimer >= spawnRate && enemiesSpawned < maxEnemies) {
+      spawnEnemy();
+      spawnTimer = 0;
+
+      // Gradually increase spawn rate
+      spawnRate = Math.max(0.5, spawnRate * 0.99);
+      enemiesSpawned++;
+    }
+  }
+
+  private void updateEnemies(double deltaTime) {
+    // Find the player entity
+    Entity playerEntity = players.first();
+
+    // If no player is found, enemies don't need to move
+    if (playerEntity == null) return;
+
+    TransformComponent playerTransform = playerEntity.getComponent(TransformComponent.class);
+    double playerX = playerTransform.getX();
+    double playerY = playerTransform.getY();
+
+    // Only recomputed when the player changes cell
+    flowField.update(playerX, playerY);
+
+    // Update enemy movement to follow the flow field towards the player
+    List<Archetype> archetypes = enemies.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      if (archetype.size() == 0) {
+        continue;
+      }
+
+      ComponentColumn enemyColumn = archetype.column(EnemyComponent.class);
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn velocities = archetype.column(VelocityComponent.class);
+      double[] x = transforms.values(TransformComponent.X);
+      double[] y = transforms.values(TransformComponent.Y);
+      double[] vx = velocities.values(VelocityComponent.VX);
+      double[] vy = velocities.values(VelocityComponent.VY);
+      double[] maxSpeed = velocities.values(VelocityComponent.MAX_SPEED);
+
+      for (int i = 0; i < archetype.size(); i++) {
+        double speed = maxSpeed[i] * ((EnemyComponent) enemyColumn.get(i)).getSpeedFactor();
+        int cell = flowField.cellOf(x[i], y[i]);
+        int distance = flowField.getDistance(cell);
+
+        if (distance > 1 && distance != FlowField.UNREACHABLE) {
+          vx[i] = flowField.getDirectionX(cell) * speed;
+          vy[i] = flowField.getDirectionY(cell) * speed;
+          continue;
+        }
+
+        // Next to the player, or cut off from it, head straight for it
+        double dx = playerX - x[i];
+        double dy = playerY - y[i];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length > 0) {
+          vx[i] = (dx / length) * speed;
+          vy[i] = (dy / length) * speed;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the navigation grid enemies follow, where obstacles can be set.
+   *
+   * @return the flow field towards the player
+   */
+  public FlowField getFlowField() {
+    return flowField;
+  }
+
+  private void spawnEnemy() {
+    // Determine spawn position (from edges of the screen)
+    double x, y;
+    int side = random.nextInt(4); // 0-3 for top, right, bottom, left
+
+    switch (side) {
+      case 0: // Top
+        x = random.nextDouble() * screenWidth;
+        y = 0;
+        break;
+      case 1: // Right
+        x = screenWidth;
+        y = random.nextDouble() * screenHeight;
+        break;
+      case 2: // Bottom
+        x = random.nextDouble() * screenWidth;
+        y = screenHeight;
+        break;
+      default: // Left
+        x = 0;
+        y = random.nextDouble() * screenHeight;
+        break;
+    }
+
+    // Pick the enemy type by the weights of the prefabs
+    EnemyPrefab prefab = entityFactory.getPrefabs().pick(random.nextDouble());
+
+    // Use the factory to create the enemy
+    entityFactory.createEnemy(x, y, prefab);
+
+    // Note: enemiesSpawned counter is already incremented in the update method
+  }
+
+}
@@ -0,0 +1,73 @@
+package github.zekecode.cowboybebop.systems;
+
+/**
+ * The integration step of the {@link MovementSystem}, run on the position and velocity arrays of
+ * one archetype at a time.
+ *
+ * <p>For every entity, the kernel limits the velocity to the max speed, keeping its direction,
+ * moves the position by the velocity and clamps it to the screen, and turns the rotation towards
+ * the velocity when the entity moves. A SIMD kernel using the incubating Vector API is used when
+ * the {@code jdk.incubator.vector} module is available, see {@link #best()}; otherwise the scalar
+ * kernel runs.
+ */
+public interface MovementKernel {
+  /** Class of the SIMD kernel, which only loads when the Vector API module is present */
+  String VECTOR_KERNEL = "github.zekecode.cowboybebop.systems.vector.VectorMovementKernel";
+
+  /**
+   * Moves the first {@code count} entities of the arrays.
+   *
+   * @param x the x positions
+   * @param y the y positions
+   * @param rotation the rotations, in radians
+   * @param vx the horizontal speeds
+   * @param vy the vertical speeds
+   * @param maxSpeed the max speeds
+   * @param count the number of entities
+   * @param deltaTime the duration of the tick in seconds
+   * @param width the right bound of the positions
+   * @param height the bottom bound of the positions
+   */
+  void integrate(
+      double[] x,
+      double[] y,
+      double[] rotation,
+      double[] vx,
+      double[] vy,
+      double[] maxSpeed,
+      int count,
+      double deltaTime,
+      double width,
+      double height);
+
+  /**
+   * Returns a short name of the kernel, for logs and benchmarks.
+   *
+   * @return the name of the kernel
+   */
+  String getName();
+
+  /**
+   * Returns the scalar kernel, which runs anywhere.
+   *
+   * @return the scalar kernel
+   */
+  static MovementKernel scalar() {
+    return ScalarMovementKernel.INSTANCE;
+  }
+
+  /**
+   * Returns the fastest kernel this JVM can run: the SIMD one when the JVM was started with {@code
+   * --add-modules jdk.incubator.vector}, the scalar one otherwise.
+   *
+   * @return the kernel to use
+   */
+  static MovementKernel best() {
+    try {
+      return (MovementKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // The Vector API module is absent, or the kernel wasn't built
+      return scalar();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import java.util.List;
+
+public class MovementSystem implements System {
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none().writes(TransformComponent.class, VelocityComponent.class);
+
+  private final Query movables;
+  private final double screenWidth;
+  private final double screenHeight;
+  private final MovementKernel kernel;
+
+  public MovementSystem(World world, double screenWidth, double screenHeight) {
+    this(world, screenWidth, screenHeight, MovementKernel.best());
+  }
+
+  /**
+   * Creates the system with a given integration kernel.
+   *
+   * @param world the world of the moving entities
+   * @param screenWidth the right bound of the positions
+   * @param screenHeight the bottom bound of the positions
+   * @param kernel the kernel moving the entities of each archetype
+   */
+  public MovementSystem(
+      World world, double screenWidth, double screenHeight, MovementKernel kernel) {
+    this.movables = world.query(TransformComponent.class, VelocityComponent.class);
+    this.screenWidth = screenWidth;
+    this.screenHeight = screenHeight;
+    this.kernel = kernel;
+  }
+
+  public MovementKernel getKernel() {
+    return kernel;
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    List<Archetype> archetypes = movables.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      if (archetype.size() == 0) {
+        continue;
+      }
+
+      // Work straight on the archetype arrays instead of going through each component
+      ComponentColumn transforms = archetype.column(TransformComponent.class);
+      ComponentColumn velocities = archetype.column(VelocityComponent.class);
+      kernel.integrate(
+          transforms.values(TransformComponent.X),
+          transforms.values(TransformComponent.Y),
+          transforms.values(TransformComponent.ROTATION),
+          velocities.values(VelocityComponent.VX),
+          velocities.values(VelocityComponent.VY),
+          velocities.values(VelocityComponent.MAX_SPEED),
+          archetype.size(),
+          deltaTime,
+          screenWidth,
+          screenHeight);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentType;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.replay.InputFrame;
+
+public class PlayerControlSystem implements System {
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none()
+          .reads(TransformComponent.class)
+          .writes(VelocityComponent.class, PlayerComponent.class)
+          .recordsCommands();
+
+  private static final ComponentType<TransformComponent> TRANSFORM =
+      ComponentType.of(TransformComponent.class);
+  private static final ComponentType<VelocityComponent> VELOCITY =
+      ComponentType.of(VelocityComponent.class);
+  private static final ComponentType<PlayerComponent> PLAYER =
+      ComponentType.of(PlayerComponent.class);
+
+  private final EntityFactory projectiles;
+  private final InputFrame input;
+  private final Query players;
+
+  public PlayerControlSystem(World world, InputFrame input) {
+    this(world, input, new EntityFactory(world));
+  }
+
+  /**
+   * Creates the system, taking projectiles from the pools of the given factory.
+   *
+   * @param world the world of the players
+   * @param input the input of the tick, captured by the simulation
+   * @param entityFactory the factory whose projectile pool is used
+   */
+  public PlayerControlSystem(World world, InputFrame input, EntityFactory entityFactory) {
+    // Projectiles join the world once the player loop is over
+    this.projectiles = entityFactory.deferred();
+    this.input = input;
+    this.players = world.query(PlayerComponent.class);
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    for (Entity entity : players) {
+      // One lookup by type id each, instead of checking for the component and then fetching it
+      VelocityComponent velocity = entity.getComponent(VELOCITY);
+      if (velocity != null) {
+        handlePlayerMovement(velocity);
+      }
+
+      TransformComponent transform = entity.getComponent(TRANSFORM);
+      if (transform != null) {
+        handlePlayerShooting(entity.getComponent(PLAYER), transform, deltaTime);
+      }
+    }
+  }
+
+  private void handlePlayerMovement(VelocityComponent velocity) {
+    // Reset velocity
+    velocity.setVx(0);
+    velocity.setVy(0);
+
+    // Apply velocity based on input
+    if (input.isKeyPressed(InputFrame.W)) {
+      velocity.setVy(-velocity.getMaxSpeed());
+    }
+    if (input.isKeyPressed(InputFrame.S)) {
+      velocity.setVy(velocity.getMaxSpeed());
+    }
+    if (input.isKeyPressed(InputFrame.A)) {
+      velocity.setVx(-velocity.getMaxSpeed());
+    }
+    if (input.isKeyPressed(InputFrame.D)) {
+      velocity.setVx(velocity.getMaxSpeed());
+    }
+  }
+
+  private void handlePlayerShooting(
+      PlayerComponent playerComponent, TransformComponent transform, double deltaTime) {
+    // Update shooting cooldown
+    playerComponent.updateTimer(deltaTime);
+
+    // Check if player wants to shoot using the mouse
+    if (input.isMousePressed() && playerComponent.canShoot()) {
+      // Calculate direction from player to mouse
+      double dx = input.getMouseX() - transform.getX();
+      double dy = input.getMouseY() - transform.getY();
+
+      // Normalize the vector
+      double length = Math.sqrt(dx * dx + dy * dy);
+      if (length > 0) {
+        dx = dx / length;
+        dy = dy / length;
+      }
+
+      // Create projectile with the direction determined by mouse position
+      projectiles.createProjectile(
+          transform.getX(),
+          transform.getY(),
+          dx * playerComponent.getShootSpeed(),
+          dy * playerComponent.getShootSpeed());
+
+      // Reset shoot timer
+      playerComponent.resetShootTimer();
+    }
+  }
+
+}
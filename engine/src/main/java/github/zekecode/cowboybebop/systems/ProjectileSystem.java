@@ -0,0 +1,42 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.ProjectileComponent;
+import github.zekecode.cowboybebop.core.CommandBuffer;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+
+public class ProjectileSystem implements System {
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none().writes(ProjectileComponent.class).recordsCommands();
+
+  private final CommandBuffer commands;
+  private final Query projectiles;
+
+  public ProjectileSystem(World world) {
+    this.commands = world.getCommandBuffer();
+    this.projectiles = world.query(ProjectileComponent.class);
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    for (Entity entity : projectiles) {
+      ProjectileComponent projectile = entity.getComponent(ProjectileComponent.class);
+
+      // Update lifetime
+      projectile.addTimeAlive(deltaTime);
+
+      // Expired projectiles are removed once the system is done
+      if (projectile.shouldDespawn()) {
+        commands.destroy(entity);
+      }
+    }
+  }
+}
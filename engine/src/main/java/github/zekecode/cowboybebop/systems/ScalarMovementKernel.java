@@ -0,0 +1,63 @@
+package github.zekecode.cowboybebop.systems;
+
+/** Moves entities one at a time, the reference {@link MovementKernel}. */
+public final class ScalarMovementKernel implements MovementKernel {
+  static final ScalarMovementKernel INSTANCE = new ScalarMovementKernel();
+
+  private ScalarMovementKernel() {}
+
+  @Override
+  public void integrate(
+      double[] x,
+      double[] y,
+      double[] rotation,
+      double[] vx,
+      double[] vy,
+      double[] maxSpeed,
+      int count,
+      double deltaTime,
+      double width,
+      double height) {
+    integrate(x, y, rotation, vx, vy, maxSpeed, 0, count, deltaTime, width, height);
+  }
+
+  /**
+   * Moves the entities from start, included, to end, excluded. The SIMD kernel also uses it for the
+   * entities left over after the last full vector.
+   */
+  public static void integrate(
+      double[] x,
+      double[] y,
+      double[] rotation,
+      double[] vx,
+      double[] vy,
+      double[] maxSpeed,
+      int start,
+      int end,
+      double deltaTime,
+      double width,
+      double height) {
+    for (int i = start; i < end; i++) {
+      // Normalize velocity if needed
+      double magnitude = Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+      if (magnitude > maxSpeed[i]) {
+        vx[i] = (vx[i] / magnitude) * maxSpeed[i];
+        vy[i] = (vy[i] / magnitude) * maxSpeed[i];
+      }
+
+      // Update position based on velocity, keeping entities within screen bounds
+      x[i] = Math.max(0, Math.min(width, x[i] + vx[i] * deltaTime));
+      y[i] = Math.max(0, Math.min(height, y[i] + vy[i] * deltaTime));
+
+      // Update rotation based on movement direction (if moving)
+      if (vx[i] != 0 || vy[i] != 0) {
+        rotation[i] = Math.atan2(vy[i], vx[i]);
+      }
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "scalar";
+  }
+}
@@ -0,0 +1,44 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.EnemyComponent;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EventBus;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.events.EntityDiedEvent;
+
+/** Awards the points of every enemy that dies to the player. */
+public class ScoreHandler implements EventBus.Handler<EntityDiedEvent> {
+  private final Query players;
+
+  public ScoreHandler(World world) {
+    this.players = world.query(PlayerComponent.class);
+  }
+
+  /**
+   * Creates a handler and subscribes it to the death events of a world.
+   *
+   * @param world the world whose death events are handled
+   * @return the subscribed handler
+   */
+  public static ScoreHandler subscribe(World world) {
+    ScoreHandler handler = new ScoreHandler(world);
+    world.getEvents().subscribe(EntityDiedEvent.class, EntityDiedEvent::new, handler);
+    return handler;
+  }
+
+  @Override
+  public void handle(EntityDiedEvent event) {
+    EnemyComponent enemy = event.getEntity().getComponent(EnemyComponent.class);
+    if (enemy == null) {
+      return;
+    }
+
+    // Find player to award points
+    Entity player = players.first();
+    if (player != null) {
+      player.getComponent(PlayerComponent.class).addScore(enemy.getPoints());
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package github.zekecode.cowboybebop.systems;
+
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.World;
+import java.util.List;
+
+/**
+ * Copies every transform into its "previous" fields at the start of a simulation tick, so that
+ * rendering can interpolate between the last two ticks. Must be registered before any system that
+ * moves entities.
+ */
+public class TransformHistorySystem implements System {
+  private static final ComponentAccess ACCESS =
+      ComponentAccess.none().writes(TransformComponent.class);
+
+  private final Query transforms;
+
+  public TransformHistorySystem(World world) {
+    this.transforms = world.query(TransformComponent.class);
+  }
+
+  @Override
+  public ComponentAccess getComponentAccess() {
+    return ACCESS;
+  }
+
+  @Override
+  public void update(double deltaTime) {
+    List<Archetype> archetypes = transforms.getArchetypes();
+    for (int a = 0; a < archetypes.size(); a++) {
+      Archetype archetype = archetypes.get(a);
+      int size = archetype.size();
+      if (size == 0) {
+        continue;
+      }
+      ComponentColumn column = archetype.column(TransformComponent.class);
+      copy(column, TransformComponent.X, TransformComponent.PREVIOUS_X, size);
+      copy(column, TransformComponent.Y, TransformComponent.PREVIOUS_Y, size);
+      copy(column, TransformComponent.ROTATION, TransformComponent.PREVIOUS_ROTATION, size);
+    }
+  }
+
+  private static void copy(ComponentColumn column, int from, int to, int size) {
+    java.lang.System.arraycopy(column.values(from), 0, column.values(to), 0, size);
+  }
+}
@@ -0,0 +1,124 @@
+package github.zekecode.cowboybebop.systems.vector;
+
+import github.zekecode.cowboybebop.systems.MovementKernel;
+import github.zekecode.cowboybebop.systems.ScalarMovementKernel;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Moves as many entities at once as the CPU has double lanes, with the incubating Vector API.
+ *
+ * <p>Speed limiting, integration and clamping are done in lanes, without branches. The square root
+ * of the speed limiting and the arc tangent of the rotation are only computed for the vectors
+ * where at least one entity needs them, and only stored into the lanes of those entities, so idle
+ * or slow entities don't pay for them. Every lane operation used rounds the same way whether the
+ * code is interpreted or compiled, so a replayed session goes through the exact states of its
+ * recording. The entities left after the last full vector go through the scalar kernel.
+ *
+ * <p>This class needs the {@code jdk.incubator.vector} module; {@link MovementKernel#best()} only
+ * loads it when the module is present.
+ */
+public final class VectorMovementKernel implements MovementKernel {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  /** Coefficients (-1)^k / (2k + 1) of the arc tangent series, in powers of t^2 */
+  private static final double[] ATAN_SERIES = new double[12];
+
+  static {
+    for (int k = 0; k < ATAN_SERIES.length; k++) {
+      ATAN_SERIES[k] = (k % 2 == 0 ? 1.0 : -1.0) / (2 * k + 1);
+    }
+  }
+
+  @Override
+  public void integrate(
+      double[] x,
+      double[] y,
+      double[] rotation,
+      double[] vx,
+      double[] vy,
+      double[] maxSpeed,
+      int count,
+      double deltaTime,
+      double width,
+      double height) {
+    int bound = SPECIES.loopBound(count);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector velocityX = DoubleVector.fromArray(SPECIES, vx, i);
+      DoubleVector velocityY = DoubleVector.fromArray(SPECIES, vy, i);
+      DoubleVector limit = DoubleVector.fromArray(SPECIES, maxSpeed, i);
+
+      // Limit the speed, comparing squares so the root is only taken for the fast entities
+      DoubleVector squaredSpeed = velocityX.mul(velocityX).add(velocityY.mul(velocityY));
+      VectorMask<Double> tooFast = squaredSpeed.compare(VectorOperators.GT, limit.mul(limit));
+      if (tooFast.anyTrue()) {
+        DoubleVector scale = limit.div(squaredSpeed.sqrt());
+        velocityX = velocityX.blend(velocityX.mul(scale), tooFast);
+        velocityY = velocityY.blend(velocityY.mul(scale), tooFast);
+        velocityX.intoArray(vx, i);
+        velocityY.intoArray(vy, i);
+      }
+
+      // Move and keep within the screen
+      DoubleVector.fromArray(SPECIES, x, i)
+          .add(velocityX.mul(deltaTime))
+          .min(width)
+          .max(0)
+          .intoArray(x, i);
+      DoubleVector.fromArray(SPECIES, y, i)
+          .add(velocityY.mul(deltaTime))
+          .min(height)
+          .max(0)
+          .intoArray(y, i);
+
+      // Only moving entities turn
+      VectorMask<Double> moving =
+          velocityX.compare(VectorOperators.NE, 0).or(velocityY.compare(VectorOperators.NE, 0));
+      if (moving.anyTrue()) {
+        atan2(velocityY, velocityX).intoArray(rotation, i, moving);
+      }
+    }
+
+    ScalarMovementKernel.integrate(
+        x, y, rotation, vx, vy, maxSpeed, i, count, deltaTime, width, height);
+  }
+
+  /**
+   * Computes the arc tangent of y / x in lanes, to within a few ulps of {@link Math#atan2}, for
+   * lanes where x and y are not both zero.
+   *
+   * <p>The lane-wise {@code ATAN2} operator rounds differently once compiled than when interpreted,
+   * which would make replays diverge, so this only uses operations that IEEE 754 rounds exactly:
+   * the ratio of the smaller to the larger coordinate is halved twice in angle, down to at most
+   * tan(pi / 16), where a dozen terms of the arc tangent series are enough.
+   */
+  private static DoubleVector atan2(DoubleVector y, DoubleVector x) {
+    DoubleVector absX = x.abs();
+    DoubleVector absY = y.abs();
+    DoubleVector t = absX.min(absY).div(absX.max(absY));
+
+    // atan(t) = 2 atan(t / (1 + sqrt(1 + t^2)))
+    t = t.div(t.mul(t).add(1).sqrt().add(1));
+    t = t.div(t.mul(t).add(1).sqrt().add(1));
+
+    DoubleVector t2 = t.mul(t);
+    DoubleVector series = DoubleVector.broadcast(SPECIES, ATAN_SERIES[ATAN_SERIES.length - 1]);
+    for (int k = ATAN_SERIES.length - 2; k >= 0; k--) {
+      series = series.mul(t2).add(ATAN_SERIES[k]);
+    }
+    DoubleVector angle = series.mul(t).mul(4);
+
+    // Back from the first octant to the quadrant of (x, y)
+    angle = angle.blend(angle.neg().add(Math.PI / 2), absY.compare(VectorOperators.GT, absX));
+    angle = angle.blend(angle.neg().add(Math.PI), x.compare(VectorOperators.LT, 0));
+    return angle.blend(angle.neg(), y.compare(VectorOperators.LT, 0));
+  }
+
+  @Override
+  public String getName() {
+    return "vector" + SPECIES.length();
+  }
+}
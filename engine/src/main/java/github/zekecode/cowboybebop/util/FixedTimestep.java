@@ -0,0 +1,69 @@
+package github.zekecode.cowboybebop.util;
+
+/**
+ * Turns variable frame times into a whole number of fixed simulation steps.
+ *
+ * <p>Frame times are added to an accumulator, and every full step's worth of time in it becomes
+ * one simulation tick. The time left over is less than one step and is exposed as an
+ * interpolation factor, so that rendering can blend between the previous and current simulation
+ * states. After a long stall (a GC pause, a window drag) at most {@code maxStepsPerFrame} ticks are
+ * run and the rest of the backlog is dropped, so the simulation slows down instead of freezing
+ * while it tries to catch up.
+ */
+public final class FixedTimestep {
+  private final double step;
+  private final int maxStepsPerFrame;
+
+  /** Simulation time not consumed by ticks yet, always less than one step between frames */
+  private double accumulator;
+
+  /**
+   * Creates a timestep running the simulation at a fixed rate.
+   *
+   * @param step the duration of one simulation tick in seconds
+   * @param maxStepsPerFrame the maximum number of ticks to run for a single frame
+   */
+  public FixedTimestep(double step, int maxStepsPerFrame) {
+    if (step <= 0 || maxStepsPerFrame < 1) {
+      throw new IllegalArgumentException("Step and max steps per frame must be positive");
+    }
+    this.step = step;
+    this.maxStepsPerFrame = maxStepsPerFrame;
+  }
+
+  /**
+   * Accounts for the time elapsed since the previous frame.
+   *
+   * @param frameTime the elapsed time in seconds, negative values are ignored
+   * @return the number of simulation ticks to run for this frame
+   */
+  public int advance(double frameTime) {
+    accumulator += Math.max(0, frameTime);
+    int steps = (int) (accumulator / step);
+    accumulator -= steps * step;
+    return Math.min(steps, maxStepsPerFrame);
+  }
+
+  /**
+   * Returns how far the rendered frame is between the last two simulation ticks.
+   *
+   * @return the interpolation factor, between 0 (previous tick) and 1 (current tick)
+   */
+  public double getAlpha() {
+    return accumulator / step;
+  }
+
+  /**
+   * Returns the duration of one simulation tick.
+   *
+   * @return the step in seconds
+   */
+  public double getStep() {
+    return step;
+  }
+
+  /** Forgets any accumulated time, for instance when the game restarts. */
+  public void reset() {
+    accumulator = 0;
+  }
+}
@@ -0,0 +1,175 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keyboard and mouse state written by the thread receiving the window's events, and read by the
+ * simulation as one {@link InputState} per tick.
+ *
+ * <p>Keys are known by index, from 0 to the number of key names given at creation; the client uses
+ * the ordinal of the toolkit's key codes, so recording an event neither allocates nor hashes.
+ * Nothing is locked: held keys and keys pressed since the last snapshot are kept in atomic
+ * bitsets, and the mouse position in a single atomic word, so its coordinates are always read as a
+ * pair.
+ *
+ * <p>A key pressed then released between two snapshots would otherwise never be seen by the
+ * simulation. Every press is therefore also latched until the next snapshot, which reports the key
+ * as pressed for that one tick. The mouse button is latched the same way.
+ *
+ * <p>Snapshots are taken by a single thread, the one running the simulation. They are filled into
+ * two states used in turn, so nothing is allocated per event or per tick.
+ */
+public final class InputBuffer implements InputSource {
+  private static final int MOUSE_HELD = 1;
+  private static final int MOUSE_TAPPED = 2;
+
+  private final KeyLayout layout;
+
+  /** Keys currently down, bit {@code key % 64} of word {@code key / 64} */
+  private final AtomicLongArray held;
+
+  /** Keys pressed since the last snapshot, even if released since */
+  private final AtomicLongArray tapped;
+
+  /** {@link #MOUSE_HELD} and {@link #MOUSE_TAPPED} bits of the primary button */
+  private final AtomicInteger mouseButton = new AtomicInteger();
+
+  /** Mouse coordinates as two floats, x in the high half */
+  private final AtomicLong mousePosition = new AtomicLong();
+
+  /** The states snapshots are taken into, in turn */
+  private final InputState[] states;
+
+  /** Index of the state the next snapshot fills */
+  private int next;
+
+  /**
+   * Creates a buffer with every key released.
+   *
+   * @param keyNames the names of the keys, in the order of their indexes
+   */
+  public InputBuffer(String... keyNames) {
+    this.layout = new KeyLayout(keyNames);
+    int words = (keyNames.length + 63) >>> 6;
+    this.held = new AtomicLongArray(words);
+    this.tapped = new AtomicLongArray(words);
+    this.states = new InputState[] {new InputState(layout), new InputState(layout)};
+  }
+
+  /**
+   * Returns the names and indexes of the keys of this buffer.
+   *
+   * @return the key layout, shared by every snapshot
+   */
+  public KeyLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Records a key going down.
+   *
+   * @param key the index of the key
+   */
+  public void press(int key) {
+    long bit = 1L << key;
+    held.getAndAccumulate(key >>> 6, bit, (word, b) -> word | b);
+    tapped.getAndAccumulate(key >>> 6, bit, (word, b) -> word | b);
+  }
+
+  /**
+   * Records a key going up.
+   *
+   * @param key the index of the key
+   */
+  public void release(int key) {
+    held.getAndAccumulate(key >>> 6, ~(1L << key), (word, mask) -> word & mask);
+  }
+
+  /**
+   * Records the primary mouse button going down or up.
+   *
+   * @param pressed whether the button is now down
+   */
+  public void setMousePressed(boolean pressed) {
+    if (pressed) {
+      mouseButton.set(MOUSE_HELD | MOUSE_TAPPED);
+    } else {
+      mouseButton.getAndAccumulate(~MOUSE_HELD, (bits, mask) -> bits & mask);
+    }
+  }
+
+  /**
+   * Records the mouse moving.
+   *
+   * @param x the new x coordinate
+   * @param y the new y coordinate
+   */
+  public void moveMouse(double x, double y) {
+    mousePosition.set(
+        ((long) Float.floatToRawIntBits((float) x) << 32)
+            | (Float.floatToRawIntBits((float) y) & 0xFFFFFFFFL));
+  }
+
+  /**
+   * Takes the state of the input for a tick, and forgets the keys tapped so far: each press is seen
+   * by a single snapshot, even if it lasted less than a tick. Only the thread running the
+   * simulation may call this.
+   *
+   * @return the keys down or tapped since the previous snapshot, and the mouse, valid until the
+   *     second snapshot after this one
+   */
+  @Override
+  public InputState snapshot() {
+    InputState state = states[next];
+    next ^= 1;
+    long[] keys = state.keys();
+    for (int word = 0; word < keys.length; word++) {
+      // Held first: a key pressed in between is then still seen through its tap
+      keys[word] = held.get(word) | tapped.getAndSet(word, 0);
+    }
+    int button = mouseButton.getAndAccumulate(~MOUSE_TAPPED, (bits, mask) -> bits & mask);
+    long position = mousePosition.get();
+    state.set(
+        button != 0,
+        Float.intBitsToFloat((int) (position >>> 32)),
+        Float.intBitsToFloat((int) position));
+    return state;
+  }
+
+  /**
+   * Tells whether a key is down right now, by index. Taps already released don't count.
+   *
+   * @param key the index of the key
+   * @return true if the key is held
+   */
+  public boolean isKeyPressed(int key) {
+    return (held.get(key >>> 6) & (1L << key)) != 0;
+  }
+
+  /**
+   * Tells whether a key is down right now, meant for the thread handling the events. The
+   * simulation reads a {@link #snapshot()} instead.
+   */
+  @Override
+  public boolean isKeyPressed(String keyCode) {
+    int key = layout.indexOf(keyCode);
+    return key >= 0 && isKeyPressed(key);
+  }
+
+  @Override
+  public boolean isMousePressed() {
+    return (mouseButton.get() & MOUSE_HELD) != 0;
+  }
+
+  @Override
+  public double getMouseX() {
+    return Float.intBitsToFloat((int) (mousePosition.get() >>> 32));
+  }
+
+  @Override
+  public double getMouseY() {
+    return Float.intBitsToFloat((int) mousePosition.get());
+  }
+}
@@ -0,0 +1,58 @@
+package github.zekecode.cowboybebop.util;
+
+/**
+ * Player input as seen by the simulation. The client implements it on top of the window's events,
+ * through an {@link InputBuffer}, while headless runs use {@link #NONE} or a scripted source.
+ *
+ * <p>The simulation reads the input once per tick through {@link #snapshot()}, so that sources
+ * written by another thread are sampled as a whole, at a single instant.
+ */
+public interface InputSource {
+  /** Input of a player who never touches anything */
+  InputSource NONE =
+      new InputSource() {
+        @Override
+        public boolean isKeyPressed(String keyCode) {
+          return false;
+        }
+
+        @Override
+        public boolean isMousePressed() {
+          return false;
+        }
+
+        @Override
+        public double getMouseX() {
+          return 0;
+        }
+
+        @Override
+        public double getMouseY() {
+          return 0;
+        }
+      };
+
+  /**
+   * Tells whether a key is currently held down.
+   *
+   * @param keyCode the key name, such as "W" or "SPACE"
+   * @return true if the key is pressed
+   */
+  boolean isKeyPressed(String keyCode);
+
+  boolean isMousePressed();
+
+  /**
+   * Returns the input of this instant, which later events don't change. Sources only updated on
+   * the thread running the simulation can return themselves, the default.
+   *
+   * @return the current state of the input
+   */
+  default InputSource snapshot() {
+    return this;
+  }
+
+  double getMouseX();
+
+  double getMouseY();
+}
@@ -0,0 +1,75 @@
+package github.zekecode.cowboybebop.util;
+
+/**
+ * The input of a player at one instant, as taken by {@link InputBuffer#snapshot()}.
+ *
+ * <p>Keys are held as a bitset indexed like the buffer's {@link KeyLayout}. Keys tapped and
+ * released since the previous snapshot read as pressed, and so does the mouse button.
+ *
+ * <p>A buffer owns two states and fills them in turn, so taking snapshots doesn't allocate. A
+ * state therefore doesn't change while its tick runs, but only until the buffer takes the second
+ * snapshot after it: it must be read by the thread taking the snapshots, not kept.
+ */
+public final class InputState implements InputSource {
+  private final KeyLayout layout;
+  private final long[] keys;
+  private boolean mousePressed;
+  private float mouseX;
+  private float mouseY;
+
+  InputState(KeyLayout layout) {
+    this.layout = layout;
+    this.keys = new long[(layout.size() + 63) >>> 6];
+  }
+
+  /** Refills the state, the keys having been written into {@link #keys()}. */
+  void set(boolean mousePressed, float mouseX, float mouseY) {
+    this.mousePressed = mousePressed;
+    this.mouseX = mouseX;
+    this.mouseY = mouseY;
+  }
+
+  long[] keys() {
+    return keys;
+  }
+
+  /**
+   * Returns the names and indexes of the keys of this state.
+   *
+   * @return the layout of the buffer the state comes from
+   */
+  public KeyLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Tells whether a key was down, by index.
+   *
+   * @param key the index of the key in the {@link #getLayout() layout}
+   * @return true if the key was held, or tapped since the previous snapshot
+   */
+  public boolean isKeyPressed(int key) {
+    return (keys[key >>> 6] & (1L << key)) != 0;
+  }
+
+  @Override
+  public boolean isKeyPressed(String keyCode) {
+    int key = layout.indexOf(keyCode);
+    return key >= 0 && isKeyPressed(key);
+  }
+
+  @Override
+  public boolean isMousePressed() {
+    return mousePressed;
+  }
+
+  @Override
+  public double getMouseX() {
+    return mouseX;
+  }
+
+  @Override
+  public double getMouseY() {
+    return mouseY;
+  }
+}
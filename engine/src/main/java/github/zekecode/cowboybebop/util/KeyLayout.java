@@ -0,0 +1,43 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The keys an {@link InputBuffer} knows, each name mapped to the index of its bit. Readers of many
+ * states of the same buffer can look their keys up once per layout, then test bits by index.
+ */
+public final class KeyLayout {
+  private final Map<String, Integer> indexByName;
+  private final int size;
+
+  KeyLayout(String[] names) {
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int key = 0; key < names.length; key++) {
+      indexes.put(names[key], key);
+    }
+    this.indexByName = Collections.unmodifiableMap(indexes);
+    this.size = names.length;
+  }
+
+  /**
+   * Returns the index of a key.
+   *
+   * @param name the name of the key, such as "W" or "SPACE"
+   * @return the index of its bit, or -1 if the layout has no such key
+   */
+  public int indexOf(String name) {
+    Integer key = indexByName.get(name);
+    return key != null ? key : -1;
+  }
+
+  /**
+   * Returns the number of keys, one past the largest index.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,142 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache that keeps its most recently used values within a memory budget.
+ *
+ * <p>Every value has a weight, given by a weigher when the value is added, such as the number of
+ * bytes of an image. Whenever the total weight goes over the budget, the least recently used values
+ * are evicted until it fits again. A value heavier than the whole budget is still kept, alone,
+ * until the next insertion.
+ *
+ * <p>Lookups never allocate, so a caller can look values up with a mutable probe key and only copy
+ * the key when inserting. The cache is not thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class LruCache<K, V> {
+  /** Values in access order, the least recently used first */
+  private final LinkedHashMap<K, V> values = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final ToLongFunction<V> weigher;
+  private long budget;
+  private long weight;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param budget the maximum total weight of the values
+   * @param weigher gives the weight of a value, which must not change while it is cached
+   */
+  public LruCache(long budget, ToLongFunction<V> weigher) {
+    if (budget < 0) {
+      throw new IllegalArgumentException("Cache budget cannot be negative: " + budget);
+    }
+    this.budget = budget;
+    this.weigher = weigher;
+  }
+
+  /**
+   * Returns the value of a key and marks it as the most recently used.
+   *
+   * @param key the key to look up
+   * @return the value, or null if it isn't cached
+   */
+  public V get(K key) {
+    V value = values.get(key);
+    if (value != null) {
+      hits++;
+    } else {
+      misses++;
+    }
+    return value;
+  }
+
+  /**
+   * Adds or replaces a value, evicting the least recently used ones if the budget is exceeded.
+   *
+   * @param key the key, which must not be modified afterwards
+   * @param value the value
+   */
+  public void put(K key, V value) {
+    V previous = values.put(key, value);
+    if (previous != null) {
+      weight -= weigher.applyAsLong(previous);
+    }
+    weight += weigher.applyAsLong(value);
+    trim();
+  }
+
+  /** Forgets every value. */
+  public void clear() {
+    values.clear();
+    weight = 0;
+  }
+
+  private void trim() {
+    Iterator<Map.Entry<K, V>> eldest = values.entrySet().iterator();
+    while (weight > budget && values.size() > 1) {
+      weight -= weigher.applyAsLong(eldest.next().getValue());
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Returns the total weight of the cached values.
+   *
+   * @return the weight, in the unit of the weigher
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  public long getBudget() {
+    return budget;
+  }
+
+  /**
+   * Changes the budget, evicting values right away if it shrinks below the current weight.
+   *
+   * @param budget the new maximum total weight
+   */
+  public void setBudget(long budget) {
+    if (budget < 0) {
+      throw new IllegalArgumentException("Cache budget cannot be negative: " + budget);
+    }
+    this.budget = budget;
+    trim();
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d entries, weight %d/%d, %d hits, %d misses, %d evictions",
+        values.size(), weight, budget, hits, misses, evictions);
+  }
+}
@@ -0,0 +1,110 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the last few samples of a duration (frame times, system times) and answers percentile
+ * queries over them.
+ *
+ * <p>Samples go into a fixed ring buffer, so recording never allocates. Percentiles are computed
+ * on demand by sorting a copy of the window into a scratch array that is also allocated once, which
+ * is cheap enough for an overlay refreshed once per frame.
+ */
+public final class RollingHistogram {
+  private final long[] samples;
+  private final long[] sorted;
+
+  /** Index where the next sample goes */
+  private int next;
+
+  /** Number of samples in the window, up to its capacity */
+  private int size;
+
+  /** Set when samples were added since the window was last sorted */
+  private boolean dirty;
+
+  /**
+   * Creates an empty histogram.
+   *
+   * @param capacity the number of most recent samples to keep
+   */
+  public RollingHistogram(int capacity) {
+    samples = new long[capacity];
+    sorted = new long[capacity];
+  }
+
+  /**
+   * Adds a sample, evicting the oldest one if the window is full.
+   *
+   * @param value the sample, usually a duration in nanoseconds
+   */
+  public void record(long value) {
+    samples[next] = value;
+    next = next == samples.length - 1 ? 0 : next + 1;
+    size = Math.min(size + 1, samples.length);
+    dirty = true;
+  }
+
+  /** Forgets every sample. */
+  public void clear() {
+    next = 0;
+    size = 0;
+    dirty = false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return samples.length;
+  }
+
+  /**
+   * Returns a sample of the window by age.
+   *
+   * @param index 0 for the oldest sample, {@link #size()} - 1 for the latest one
+   * @return the sample
+   */
+  public long get(int index) {
+    int start = size < samples.length ? 0 : next;
+    return samples[(start + index) % samples.length];
+  }
+
+  /**
+   * Returns the latest sample.
+   *
+   * @return the latest sample, or 0 if there is none
+   */
+  public long latest() {
+    return size == 0 ? 0 : get(size - 1);
+  }
+
+  /**
+   * Returns the value below which the given fraction of the samples fall.
+   *
+   * @param fraction the percentile as a fraction, 0.5 for the median or 0.99 for p99
+   * @return the percentile, or 0 if there are no samples
+   */
+  public long percentile(double fraction) {
+    if (size == 0) {
+      return 0;
+    }
+    if (dirty) {
+      System.arraycopy(samples, 0, sorted, 0, size);
+      Arrays.sort(sorted, 0, size);
+      dirty = false;
+    }
+    int index = (int) Math.ceil(fraction * size) - 1;
+    return sorted[Math.max(0, Math.min(size - 1, index))];
+  }
+
+  /**
+   * Returns the largest sample of the window.
+   *
+   * @return the maximum, or 0 if there are no samples
+   */
+  public long max() {
+    return percentile(1.0);
+  }
+}
@@ -0,0 +1,160 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid broadphase backed by a spatial hash, used to find pairs of points that may be
+ * close to each other without testing every pair.
+ *
+ * <p>Each point is bucketed by the grid cell containing it. When the cell size is at least the
+ * largest possible interaction distance, two interacting points are always in the same cell or in
+ * adjacent cells, so only those need to be compared. Pairs are produced by visiting each point's
+ * own cell plus four "forward" neighbours (a half stencil), which yields every candidate pair
+ * exactly once.
+ *
+ * <p>The grid keeps all its buffers between frames and only grows them, so rebuilding it every
+ * frame does not allocate once it has reached the working size.
+ */
+public final class SpatialHashGrid {
+  /** Neighbour cell offsets visited from each cell, half of the 3x3 stencil minus the centre */
+  private static final int[] FORWARD_DX = {1, 1, 0, -1};
+
+  private static final int[] FORWARD_DY = {0, 1, 1, 1};
+
+  /** Receives the candidate pairs found by {@link #forEachPair}. */
+  @FunctionalInterface
+  public interface PairVisitor {
+    /**
+     * Called once for every candidate pair.
+     *
+     * @param a the index of the first point
+     * @param b the index of the second point
+     */
+    void visit(int a, int b);
+  }
+
+  /** Receives the candidate points found by {@link #forEachNear}. */
+  @FunctionalInterface
+  public interface PointVisitor {
+    /**
+     * Called once for every candidate point.
+     *
+     * @param index the index of the point
+     */
+    void visit(int index);
+  }
+
+  /** First point of each hash bucket, -1 for empty buckets */
+  private int[] bucketHeads = new int[0];
+
+  /** Next point in the same bucket, -1 at the end of the chain */
+  private int[] next = new int[0];
+
+  /** Cell coordinates of each point, used to tell apart cells sharing a bucket */
+  private int[] cellX = new int[0];
+
+  private int[] cellY = new int[0];
+
+  /** Number of points inserted by the last {@link #build} */
+  private int count;
+
+  /** Mask applied to cell hashes, the bucket count minus one */
+  private int mask;
+
+  private double inverseCellSize;
+
+  /**
+   * Rebuilds the grid from a set of points.
+   *
+   * @param xs the x coordinate of each point
+   * @param ys the y coordinate of each point
+   * @param count the number of points to read from the arrays
+   * @param cellSize the size of a grid cell, at least the largest interaction distance
+   */
+  public void build(double[] xs, double[] ys, int count, double cellSize) {
+    this.count = count;
+    if (next.length < count) {
+      int capacity = Math.max(16, Integer.highestOneBit(count - 1) << 1);
+      next = new int[capacity];
+      cellX = new int[capacity];
+      cellY = new int[capacity];
+    }
+
+    // Keep around two buckets per point to keep chains short
+    int buckets = Math.max(16, Integer.highestOneBit(Math.max(1, count * 2 - 1)) << 1);
+    if (bucketHeads.length < buckets) {
+      bucketHeads = new int[buckets];
+    }
+    mask = bucketHeads.length - 1;
+    Arrays.fill(bucketHeads, -1);
+
+    inverseCellSize = 1.0 / cellSize;
+    for (int i = 0; i < count; i++) {
+      int cx = (int) Math.floor(xs[i] * inverseCellSize);
+      int cy = (int) Math.floor(ys[i] * inverseCellSize);
+      cellX[i] = cx;
+      cellY[i] = cy;
+      int bucket = hash(cx, cy);
+      next[i] = bucketHeads[bucket];
+      bucketHeads[bucket] = i;
+    }
+  }
+
+  /**
+   * Visits every pair of points lying in the same or in adjacent cells, each pair exactly once.
+   *
+   * @param visitor the callback receiving the pairs
+   */
+  public void forEachPair(PairVisitor visitor) {
+    for (int i = 0; i < count; i++) {
+      int cx = cellX[i];
+      int cy = cellY[i];
+
+      // Points of the same cell that come after this one in the bucket chain
+      for (int j = next[i]; j != -1; j = next[j]) {
+        if (cellX[j] == cx && cellY[j] == cy) {
+          visitor.visit(i, j);
+        }
+      }
+
+      // Every point of the forward neighbour cells
+      for (int n = 0; n < FORWARD_DX.length; n++) {
+        int nx = cx + FORWARD_DX[n];
+        int ny = cy + FORWARD_DY[n];
+        for (int j = bucketHeads[hash(nx, ny)]; j != -1; j = next[j]) {
+          if (cellX[j] == nx && cellY[j] == ny) {
+            visitor.visit(i, j);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Visits every point lying in the cell of a position or in the cells around it, which includes
+   * every point closer to the position than the cell size. Points further away may be visited too,
+   * so the caller still has to check distances.
+   *
+   * @param x the x coordinate of the position
+   * @param y the y coordinate of the position
+   * @param visitor the callback receiving the points
+   */
+  public void forEachNear(double x, double y, PointVisitor visitor) {
+    int cx = (int) Math.floor(x * inverseCellSize);
+    int cy = (int) Math.floor(y * inverseCellSize);
+    for (int ny = cy - 1; ny <= cy + 1; ny++) {
+      for (int nx = cx - 1; nx <= cx + 1; nx++) {
+        for (int j = bucketHeads[hash(nx, ny)]; j != -1; j = next[j]) {
+          if (cellX[j] == nx && cellY[j] == ny) {
+            visitor.visit(j);
+          }
+        }
+      }
+    }
+  }
+
+  private int hash(int cx, int cy) {
+    int h = cx * 0x8DA6B343 ^ cy * 0xD8163841;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
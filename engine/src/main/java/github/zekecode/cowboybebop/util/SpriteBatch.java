@@ -0,0 +1,220 @@
+package github.zekecode.cowboybebop.util;
+
+import java.util.Arrays;
+
+/**
+ * Collects the sprites of a frame as plain quads and groups them by color, so that a renderer can
+ * draw each color with a single fill-state change.
+ *
+ * <p>Each added sprite is turned right away into the coordinates of its four rotated corners,
+ * which is all a renderer needs to fill it as a polygon without touching its transform. {@link
+ * #sort()} then orders the sprites by color, keeping the order in which they were added within a
+ * color, and splits them into batches. Sprites entirely outside the bounds set with {@link
+ * #setBounds} are dropped when added.
+ *
+ * <p>All the buffers are primitive arrays that only grow, so a batch reused from frame to frame
+ * stops allocating once it has seen its largest frame.
+ */
+public final class SpriteBatch {
+  private static final int INITIAL_CAPACITY = 256;
+
+  /** Number of sprites added since the last clear */
+  private int size;
+
+  /** Color of each sprite, in insertion order */
+  private int[] colors = new int[INITIAL_CAPACITY];
+
+  /** Corners of each sprite, in insertion order, 4 entries per sprite */
+  private double[] cornerX = new double[INITIAL_CAPACITY * 4];
+
+  private double[] cornerY = new double[INITIAL_CAPACITY * 4];
+
+  /** Sort keys, the unsigned color in the high half and the insertion index in the low half */
+  private long[] keys = new long[INITIAL_CAPACITY];
+
+  /** Corners of each sprite, in color order, 4 entries per sprite */
+  private double[] sortedX = new double[INITIAL_CAPACITY * 4];
+
+  private double[] sortedY = new double[INITIAL_CAPACITY * 4];
+
+  private int batchCount;
+  private int[] batchColors = new int[8];
+
+  /** Index in color order of the first sprite after each batch */
+  private int[] batchEnds = new int[8];
+
+  private double minX = Double.NEGATIVE_INFINITY;
+  private double minY = Double.NEGATIVE_INFINITY;
+  private double maxX = Double.POSITIVE_INFINITY;
+  private double maxY = Double.POSITIVE_INFINITY;
+
+  /**
+   * Sets the visible area. Sprites added afterwards that don't overlap it are dropped.
+   *
+   * @param minX the left edge of the visible area
+   * @param minY the top edge of the visible area
+   * @param maxX the right edge of the visible area
+   * @param maxY the bottom edge of the visible area
+   */
+  public void setBounds(double minX, double minY, double maxX, double maxY) {
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+  }
+
+  /** Forgets every sprite and batch, keeping the buffers for the next frame. */
+  public void clear() {
+    size = 0;
+    batchCount = 0;
+  }
+
+  /**
+   * Adds a rectangle sprite centered on the given position.
+   *
+   * @param x the x coordinate of the center
+   * @param y the y coordinate of the center
+   * @param rotation the rotation around the center, in radians
+   * @param width the width of the rectangle
+   * @param height the height of the rectangle
+   * @param color the color as 0xAARRGGBB
+   */
+  public void add(double x, double y, double rotation, double width, double height, int color) {
+    double halfWidth = width / 2;
+    double halfHeight = height / 2;
+
+    // Half the sum of the sides bounds the half diagonal, without a square root
+    double reach = halfWidth + halfHeight;
+    if ((color >>> 24) == 0
+        || x + reach < minX
+        || x - reach > maxX
+        || y + reach < minY
+        || y - reach > maxY) {
+      return;
+    }
+
+    if (size == colors.length) {
+      grow();
+    }
+    colors[size] = color;
+
+    double cos = 1;
+    double sin = 0;
+    if (rotation != 0) {
+      cos = Math.cos(rotation);
+      sin = Math.sin(rotation);
+    }
+    // Rotated half extents, the corners are the center plus or minus their combinations
+    double ax = halfWidth * cos;
+    double ay = halfWidth * sin;
+    double bx = -halfHeight * sin;
+    double by = halfHeight * cos;
+
+    int c = size * 4;
+    cornerX[c] = x - ax - bx;
+    cornerY[c] = y - ay - by;
+    cornerX[c + 1] = x + ax - bx;
+    cornerY[c + 1] = y + ay - by;
+    cornerX[c + 2] = x + ax + bx;
+    cornerY[c + 2] = y + ay + by;
+    cornerX[c + 3] = x - ax + bx;
+    cornerY[c + 3] = y - ay + by;
+    size++;
+  }
+
+  private void grow() {
+    int capacity = colors.length * 2;
+    colors = Arrays.copyOf(colors, capacity);
+    cornerX = Arrays.copyOf(cornerX, capacity * 4);
+    cornerY = Arrays.copyOf(cornerY, capacity * 4);
+    keys = new long[capacity];
+    sortedX = new double[capacity * 4];
+    sortedY = new double[capacity * 4];
+  }
+
+  /** Orders the sprites by color and splits them into one batch per color. */
+  public void sort() {
+    for (int i = 0; i < size; i++) {
+      keys[i] = (colors[i] & 0xFFFFFFFFL) << 32 | i;
+    }
+    Arrays.sort(keys, 0, size);
+
+    batchCount = 0;
+    for (int s = 0; s < size; s++) {
+      int index = (int) keys[s];
+      int color = colors[index];
+      if (batchCount == 0 || batchColors[batchCount - 1] != color) {
+        if (batchCount == batchColors.length) {
+          batchColors = Arrays.copyOf(batchColors, batchCount * 2);
+          batchEnds = Arrays.copyOf(batchEnds, batchCount * 2);
+        }
+        batchColors[batchCount++] = color;
+      }
+      batchEnds[batchCount - 1] = s + 1;
+      System.arraycopy(cornerX, index * 4, sortedX, s * 4, 4);
+      System.arraycopy(cornerY, index * 4, sortedY, s * 4, 4);
+    }
+  }
+
+  /**
+   * Returns the number of sprites added since the last clear.
+   *
+   * @return the number of sprites kept after culling
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of batches found by the last {@link #sort()}.
+   *
+   * @return the number of distinct colors
+   */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  public int getBatchColor(int batch) {
+    return batchColors[batch];
+  }
+
+  /**
+   * Returns the first sprite of a batch.
+   *
+   * @param batch the index of the batch
+   * @return the index of its first sprite, in color order
+   */
+  public int getBatchStart(int batch) {
+    return batch == 0 ? 0 : batchEnds[batch - 1];
+  }
+
+  /**
+   * Returns the end of a batch.
+   *
+   * @param batch the index of the batch
+   * @return the index of the sprite after its last one, in color order
+   */
+  public int getBatchEnd(int batch) {
+    return batchEnds[batch];
+  }
+
+  /**
+   * Returns the x coordinates of the corners of the sorted sprites. The corners of the sprite at
+   * index {@code s} in color order are at {@code 4 * s} to {@code 4 * s + 3}, going around the
+   * rectangle. The array is reused, so it is only valid until the next {@link #sort()}.
+   *
+   * @return the sorted corner x coordinates
+   */
+  public double[] getCornerX() {
+    return sortedX;
+  }
+
+  /**
+   * Returns the y coordinates of the corners of the sorted sprites, see {@link #getCornerX()}.
+   *
+   * @return the sorted corner y coordinates
+   */
+  public double[] getCornerY() {
+    return sortedY;
+  }
+}
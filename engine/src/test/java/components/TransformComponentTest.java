@@ -138,4 +138,38 @@ public class TransformComponentTest {
     assertEquals(smallY, transform.getY(), DELTA, "Should handle small Y position");
     assertEquals(smallRotation, transform.getRotation(), DELTA, "Should handle small rotation");
   }
+
+  @Test
+  @DisplayName("A new transform should have no movement to interpolate")
+  void newTransformHasPreviousStateEqualToCurrent() {
+    TransformComponent transform = new TransformComponent(TEST_X, TEST_Y, TEST_ROTATION);
+
+    assertEquals(TEST_X, transform.getInterpolatedX(0), DELTA, "Previous X should match");
+    assertEquals(TEST_Y, transform.getInterpolatedY(0), DELTA, "Previous Y should match");
+    assertEquals(TEST_ROTATION, transform.getInterpolatedRotation(0), DELTA);
+  }
+
+  @Test
+  @DisplayName("Interpolation should blend the previous and current state")
+  void interpolationBlendsStates() {
+    TransformComponent transform = new TransformComponent(0, 0);
+    transform.savePrevious();
+    transform.setX(10);
+    transform.setY(-20);
+
+    assertEquals(0, transform.getInterpolatedX(0), DELTA, "Alpha 0 should give the previous X");
+    assertEquals(5, transform.getInterpolatedX(0.5), DELTA, "Alpha 0.5 should be halfway");
+    assertEquals(-20, transform.getInterpolatedY(1), DELTA, "Alpha 1 should give the current Y");
+  }
+
+  @Test
+  @DisplayName("Rotation should be interpolated the short way around")
+  void rotationInterpolationTakesShortestPath() {
+    TransformComponent transform = new TransformComponent(0, 0, Math.PI - 0.1);
+    transform.savePrevious();
+    transform.setRotation(-Math.PI + 0.1);
+
+    double halfway = transform.getInterpolatedRotation(0.5);
+    assertEquals(Math.PI, halfway, DELTA, "Halfway should be at PI, not at 0");
+  }
 }
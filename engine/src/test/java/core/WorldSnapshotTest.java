@@ -0,0 +1,205 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.components.PlayerComponent;
+import github.zekecode.cowboybebop.components.SnapshotCodecs;
+import github.zekecode.cowboybebop.components.SpriteComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.ComponentCodecs;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.core.WorldSnapshot;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class WorldSnapshotTest {
+  private final ComponentCodecs codecs = SnapshotCodecs.create();
+  private Path file;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.createTempFile("world", ".snapshot");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /** Runs a session long enough to have enemies, projectiles and removed entities. */
+  private static Simulation playedSession() {
+    InputSource shooting =
+        new InputSource() {
+          @Override
+          public boolean isKeyPressed(String keyCode) {
+            return false;
+          }
+
+          @Override
+          public boolean isMousePressed() {
+            return true;
+          }
+
+          @Override
+          public double getMouseX() {
+            return 0;
+          }
+
+          @Override
+          public double getMouseY() {
+            return 0;
+          }
+        };
+    Simulation simulation = new Simulation(800, 600, shooting, 42);
+    for (int i = 0; i < 900; i++) {
+      simulation.tick(Simulation.TICK);
+    }
+    return simulation;
+  }
+
+  @Test
+  @DisplayName("A loaded snapshot should hold the same entities with the same components")
+  void roundTrip() throws IOException {
+    Simulation simulation = playedSession();
+    World world = simulation.getWorld();
+
+    WorldSnapshot.capture(world, codecs).writeTo(file);
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+
+    assertEquals(world.checksum(), loaded.checksum(), "Packed fields and handles should match");
+    assertEquals(
+        world.getEntities().size(), loaded.getEntities().size(), "Every entity should be loaded");
+
+    Entity player = loaded.getEntity(simulation.getPlayer().getId());
+    assertNotNull(player, "The player should keep its handle");
+    assertEquals(
+        simulation.getPlayer().getComponent(PlayerComponent.class).getScore(),
+        player.getComponent(PlayerComponent.class).getScore(),
+        "Plain components should be restored by their codecs");
+    assertEquals(
+        SpriteComponent.BLUE,
+        player.getComponent(SpriteComponent.class).getColor(),
+        "Sprites should be restored");
+  }
+
+  @Test
+  @DisplayName("Entities created after loading should get the handles of the saved world")
+  void slotsAreRestored() throws IOException {
+    World world = playedSession().getWorld();
+
+    WorldSnapshot.capture(world, codecs).writeTo(file);
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          world.createEntity().getId(),
+          loaded.createEntity().getId(),
+          "Slots should be recycled in the same order");
+    }
+  }
+
+  @Test
+  @DisplayName("A capture should not change when the world keeps running")
+  void captureIsACopy() throws Exception {
+    World world = new World();
+    Entity entity = world.createEntity();
+    entity.addComponent(new TransformComponent(10, 20));
+
+    WorldSnapshot snapshot = WorldSnapshot.capture(world, codecs);
+    entity.getComponent(TransformComponent.class).setX(500);
+    snapshot.writeAsync(file).get();
+
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+    Entity restored = loaded.getEntity(entity.getId());
+    assertEquals(
+        10,
+        restored.getComponent(TransformComponent.class).getX(),
+        "The snapshot should hold the values at capture time");
+    assertEquals(1, snapshot.getEntityCount());
+  }
+
+  @Test
+  @DisplayName("Plain components should be saved as they were at capture time")
+  void plainComponentsAreDetached() throws Exception {
+    World world = new World();
+    Entity player = world.createEntity();
+    player.addComponent(new PlayerComponent(0.25, 500));
+    player.getComponent(PlayerComponent.class).addScore(10);
+    player.addComponent(
+        SpriteComponent.readOnly(SpriteComponent.Shape.RECTANGLE, 4, 4, SpriteComponent.RED));
+
+    WorldSnapshot snapshot = WorldSnapshot.capture(world, codecs);
+    player.getComponent(PlayerComponent.class).addScore(90);
+    snapshot.writeAsync(file).get();
+
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+    Entity restored = loaded.getEntity(player.getId());
+    assertEquals(
+        10,
+        restored.getComponent(PlayerComponent.class).getScore(),
+        "Later changes should not reach the snapshot");
+    assertEquals(
+        SpriteComponent.RED,
+        restored.getComponent(SpriteComponent.class).getColor(),
+        "Shared components should be saved as well");
+  }
+
+  @Test
+  @DisplayName("A loaded snapshot should be replaceable by a new save of the same path")
+  void saveOverLoadedFile() throws IOException {
+    // More than a buffer's worth of doubles, so reads and writes go through several refills
+    World world = new World();
+    for (int i = 0; i < 20_000; i++) {
+      Entity entity = world.createEntity();
+      entity.addComponent(new TransformComponent(i, -i));
+      entity.addComponent(new VelocityComponent(i % 7));
+    }
+    WorldSnapshot.capture(world, codecs).writeTo(file);
+    World loaded = new World();
+    WorldSnapshot.load(file, loaded, codecs);
+
+    loaded.createEntity().addComponent(new TransformComponent(1, 2));
+    WorldSnapshot.capture(loaded, codecs).writeTo(file);
+    World reloaded = new World();
+    WorldSnapshot.load(file, reloaded, codecs);
+
+    assertEquals(
+        loaded.checksum(), reloaded.checksum(), "The second save should replace the first");
+    assertEquals(20_001, reloaded.getEntities().size());
+    assertFalse(
+        Files.exists(file.resolveSibling(file.getFileName() + ".tmp")),
+        "The temporary file should be moved over the snapshot");
+  }
+
+  @Test
+  @DisplayName("Snapshots should only load into worlds without entities")
+  void loadRequiresNewWorld() throws IOException {
+    World world = new World();
+    world.createEntity().addComponent(new TransformComponent(0, 0));
+    WorldSnapshot.capture(world, codecs).writeTo(file);
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> WorldSnapshot.load(file, world, codecs),
+        "Loading over live entities should be rejected");
+
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(
+        IOException.class,
+        () -> WorldSnapshot.load(file, new World(), codecs),
+        "Other files should be rejected");
+  }
+}
@@ -0,0 +1,1056 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.ProjectileComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Archetype;
+import github.zekecode.cowboybebop.core.CommandBuffer;
+import github.zekecode.cowboybebop.core.ComponentAccess;
+import github.zekecode.cowboybebop.core.ComponentColumn;
+import github.zekecode.cowboybebop.core.ComponentType;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.EntityHandle;
+import github.zekecode.cowboybebop.core.EntityPool;
+import github.zekecode.cowboybebop.core.EventQueue;
+import github.zekecode.cowboybebop.core.Prefab;
+import github.zekecode.cowboybebop.core.Query;
+import github.zekecode.cowboybebop.core.System;
+import github.zekecode.cowboybebop.core.TagComponent;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.core.WorldMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class WorldTest {
+
+  private World world;
+
+  @BeforeEach
+  void setUp() {
+    world = new World();
+  }
+
+  private Archetype archetypeOf(Entity entity) {
+    for (Archetype archetype : world.getArchetypes()) {
+      for (int row = 0; row < archetype.size(); row++) {
+        if (archetype.getEntity(row) == entity) {
+          return archetype;
+        }
+      }
+    }
+    return null;
+  }
+
+  private int rowOf(Entity entity) {
+    Archetype archetype = archetypeOf(entity);
+    for (int row = 0; row < archetype.size(); row++) {
+      if (archetype.getEntity(row) == entity) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  @Nested
+  @DisplayName("Archetype storage")
+  class ArchetypeStorage {
+
+    @Test
+    @DisplayName("Entities with the same components should share an archetype")
+    void sameSignatureSharesArchetype() {
+      Entity first = world.createEntity();
+      first.addComponent(new TransformComponent(1, 2));
+      first.addComponent(new VelocityComponent(10));
+
+      // Same components, added in a different order
+      Entity second = world.createEntity();
+      second.addComponent(new VelocityComponent(20));
+      second.addComponent(new TransformComponent(3, 4));
+
+      assertSame(archetypeOf(first), archetypeOf(second), "Both entities should share storage");
+      assertEquals(2, archetypeOf(first).size(), "Archetype should hold both entities");
+    }
+
+    @Test
+    @DisplayName("Packed components should read and write the archetype arrays")
+    void packedComponentsWriteThrough() {
+      Entity entity = world.createEntity();
+      TransformComponent transform = new TransformComponent(5, 6);
+      entity.addComponent(transform);
+
+      double[] xs =
+          archetypeOf(entity).column(TransformComponent.class).values(TransformComponent.X);
+      assertEquals(5, xs[rowOf(entity)], "Attached value should be stored in the column");
+
+      transform.setX(42);
+      assertEquals(42, xs[rowOf(entity)], "Setter should write into the column");
+
+      xs[rowOf(entity)] = 7;
+      assertEquals(7, transform.getX(), "Getter should read from the column");
+    }
+
+    @Test
+    @DisplayName("Adding a component should keep the values of the other components")
+    void addingComponentKeepsValues() {
+      Entity entity = world.createEntity();
+      TransformComponent transform = new TransformComponent(5, 6, 1.5);
+      entity.addComponent(transform);
+      Archetype before = archetypeOf(entity);
+
+      entity.addComponent(new HealthComponent(30));
+
+      assertNotSame(before, archetypeOf(entity), "Entity should move to a new archetype");
+      assertSame(transform, entity.getComponent(TransformComponent.class), "Same instance kept");
+      assertEquals(5, transform.getX(), "X should survive the move");
+      assertEquals(6, transform.getY(), "Y should survive the move");
+      assertEquals(1.5, transform.getRotation(), "Rotation should survive the move");
+      assertEquals(30, entity.getComponent(HealthComponent.class).getCurrentHealth());
+    }
+
+    @Test
+    @DisplayName("Removing an entity should not corrupt the entity moved into its row")
+    void removalKeepsOtherEntitiesIntact() {
+      Entity first = world.createEntity();
+      first.addComponent(new TransformComponent(1, 1));
+      Entity second = world.createEntity();
+      second.addComponent(new TransformComponent(2, 2));
+      Entity third = world.createEntity();
+      TransformComponent thirdTransform = new TransformComponent(3, 3);
+      third.addComponent(thirdTransform);
+
+      world.removeEntity(first);
+
+      assertFalse(world.getEntities().contains(first), "Removed entity should be gone");
+      assertEquals(3, thirdTransform.getX(), "Moved entity should keep its values");
+      thirdTransform.setX(30);
+      assertEquals(30, third.getComponent(TransformComponent.class).getX());
+      assertEquals(2, second.getComponent(TransformComponent.class).getX());
+    }
+
+    @Test
+    @DisplayName("Removed entities should keep their components readable")
+    void removedEntityKeepsComponents() {
+      Entity entity = world.createEntity();
+      HealthComponent health = new HealthComponent(50);
+      entity.addComponent(health);
+      entity.addComponent(new ProjectileComponent(10, 1.0, "player"));
+      health.damage(20);
+
+      world.removeEntity(entity);
+
+      assertTrue(entity.hasComponent(HealthComponent.class), "Component should still be present");
+      assertSame(health, entity.getComponent(HealthComponent.class), "Same instance kept");
+      assertEquals(30, health.getCurrentHealth(), "Value should be copied out of the world");
+    }
+
+    @Test
+    @DisplayName("Removing a component should move the entity back and drop the component")
+    void removeComponentMovesEntity() {
+      Entity entity = world.createEntity();
+      entity.addComponent(new TransformComponent(1, 2));
+      Archetype transformOnly = archetypeOf(entity);
+      entity.addComponent(new VelocityComponent(10));
+
+      entity.removeComponent(VelocityComponent.class);
+
+      assertSame(transformOnly, archetypeOf(entity), "Entity should be back in its old archetype");
+      assertFalse(entity.hasComponent(VelocityComponent.class), "Velocity should be removed");
+      assertEquals(2, entity.getComponent(TransformComponent.class).getY());
+    }
+
+    @Test
+    @DisplayName("Replacing a component should keep the entity in the same archetype")
+    void replacingComponent() {
+      Entity entity = world.createEntity();
+      entity.addComponent(new TransformComponent(1, 2));
+      Archetype archetype = archetypeOf(entity);
+      TransformComponent original = entity.getComponent(TransformComponent.class);
+
+      TransformComponent replacement = new TransformComponent(8, 9);
+      entity.addComponent(replacement);
+
+      assertSame(archetype, archetypeOf(entity), "Archetype should not change");
+      assertSame(replacement, entity.getComponent(TransformComponent.class));
+      assertEquals(8, replacement.getX(), "New values should be stored");
+      assertEquals(1, original.getX(), "Old component should keep its own values");
+    }
+  }
+
+  @Nested
+  @DisplayName("Component types")
+  class ComponentTypes {
+
+    private class Frozen implements TagComponent {}
+
+    @Test
+    @DisplayName("Every component class should get its own small id, once")
+    void typesHaveDenseIds() {
+      ComponentType<TransformComponent> transform = ComponentType.of(TransformComponent.class);
+      ComponentType<VelocityComponent> velocity = ComponentType.of(VelocityComponent.class);
+
+      assertSame(
+          transform, ComponentType.of(TransformComponent.class), "Types are registered once");
+      assertNotEquals(transform.getId(), velocity.getId(), "Classes should not share an id");
+      assertEquals(velocity.getId(), ComponentType.idOf(VelocityComponent.class));
+      assertTrue(transform.getId() >= 0 && transform.getId() < 1000, "Ids should be small");
+      assertFalse(transform.isTag(), "Components with state are not tags");
+      assertTrue(ComponentType.of(Frozen.class).isTag(), "Tag components should be recognized");
+    }
+
+    @Test
+    @DisplayName("Components should be reachable by type as well as by class")
+    void componentsAreFoundByType() {
+      Entity entity = world.createEntity();
+      TransformComponent transform = new TransformComponent(3, 4);
+      entity.addComponent(transform);
+
+      ComponentType<TransformComponent> type = ComponentType.of(TransformComponent.class);
+      assertTrue(entity.hasComponent(type));
+      assertSame(transform, entity.getComponent(type), "Same instance as the one added");
+      assertNull(
+          entity.getComponent(ComponentType.of(VelocityComponent.class)),
+          "Missing components should be null");
+      Archetype archetype = archetypeOf(entity);
+      assertSame(archetype.column(TransformComponent.class), archetype.column(type));
+
+      world.removeEntity(entity);
+      assertSame(transform, entity.getComponent(type), "Removed entities should keep components");
+    }
+
+    @Test
+    @DisplayName("Tags should be queried like any component but take no storage")
+    void tagsTakeNoStorage() {
+      Frozen frozen = new Frozen();
+      Entity tagged = world.createEntity();
+      tagged.addComponent(new TransformComponent(0, 0));
+      tagged.addComponent(frozen);
+      Entity other = world.createEntity();
+      other.addComponent(new TransformComponent(1, 1));
+      other.addComponent(new Frozen());
+
+      Query frozenOnes = world.query(Frozen.class);
+      Query thawed = world.query(TransformComponent.class).without(Frozen.class);
+      assertEquals(2, frozenOnes.size(), "Tagged entities should match");
+      assertEquals(0, thawed.size(), "Tagged entities should be excluded");
+      assertTrue(tagged.hasComponent(Frozen.class));
+
+      ComponentColumn column = archetypeOf(tagged).column(Frozen.class);
+      assertSame(column.get(0), column.get(1), "Every row should share a single tag instance");
+      assertSame(frozen, tagged.getComponent(Frozen.class), "The first tag added stands for all");
+
+      tagged.removeComponent(Frozen.class);
+      assertFalse(tagged.hasComponent(Frozen.class));
+      assertEquals(1, frozenOnes.size(), "Untagged entities should stop matching");
+      assertSame(tagged, thawed.first(), "Untagged entities should match the exclusion");
+      assertEquals(0, tagged.getComponent(TransformComponent.class).getX());
+    }
+  }
+
+  @Nested
+  @DisplayName("Queries")
+  class Queries {
+
+    @Test
+    @DisplayName("Queries with the same component types should be cached")
+    void queriesAreCached() {
+      Query first = world.query(TransformComponent.class, VelocityComponent.class);
+      Query second = world.query(VelocityComponent.class, TransformComponent.class);
+
+      assertSame(first, second, "Same component types should give the same query");
+      assertSame(
+          first.without(HealthComponent.class),
+          second.without(HealthComponent.class),
+          "Narrowed queries should be cached too");
+    }
+
+    @Test
+    @DisplayName("Queries should follow entities being created, changed and removed")
+    void queriesAreUpdatedIncrementally() {
+      Query movables = world.query(TransformComponent.class, VelocityComponent.class);
+      assertTrue(movables.isEmpty(), "Query should start empty");
+
+      Entity entity = world.createEntity();
+      entity.addComponent(new TransformComponent(0, 0));
+      assertEquals(0, movables.size(), "Entity without velocity should not match");
+
+      entity.addComponent(new VelocityComponent(10));
+      assertEquals(1, movables.size(), "Entity should match once it has both components");
+      assertSame(entity, movables.first(), "Matching entity should be returned");
+
+      entity.removeComponent(VelocityComponent.class);
+      assertEquals(0, movables.size(), "Entity should stop matching when velocity is removed");
+
+      entity.addComponent(new VelocityComponent(10));
+      world.removeEntity(entity);
+      assertEquals(0, movables.size(), "Removed entity should not match");
+    }
+
+    @Test
+    @DisplayName("Excluded component types should filter entities out")
+    void excludedTypesFilterEntities() {
+      Entity plain = world.createEntity();
+      plain.addComponent(new TransformComponent(0, 0));
+      Entity damaged = world.createEntity();
+      damaged.addComponent(new TransformComponent(0, 0));
+      damaged.addComponent(new HealthComponent(10));
+
+      Query withoutHealth = world.query(TransformComponent.class).without(HealthComponent.class);
+
+      assertEquals(1, withoutHealth.size(), "Only the entity without health should match");
+      assertSame(plain, withoutHealth.first());
+    }
+
+    @Test
+    @DisplayName("Iterating a query should visit every matching entity once")
+    void iterationVisitsEveryEntity() {
+      Set<Entity> expected = new HashSet<>();
+      for (int i = 0; i < 40; i++) {
+        Entity entity = world.createEntity();
+        entity.addComponent(new TransformComponent(i, i));
+        if (i % 2 == 0) {
+          entity.addComponent(new HealthComponent(10));
+        }
+        expected.add(entity);
+      }
+
+      Set<Entity> visited = new HashSet<>();
+      for (Entity entity : world.query(TransformComponent.class)) {
+        assertTrue(visited.add(entity), "Entity should be visited only once");
+      }
+
+      assertEquals(expected, visited, "Every matching entity should be visited");
+    }
+
+    @Test
+    @DisplayName("A loop left early should hand the shared iterator back on the next update")
+    void abandonedIteratorIsReclaimed() {
+      for (int i = 0; i < 3; i++) {
+        world.createEntity().addComponent(new TransformComponent(i, i));
+      }
+      Query query = world.query(TransformComponent.class);
+
+      Iterator<Entity> shared = query.iterator();
+      shared.next(); // Left before the end, like a loop ending with a break
+      assertNotSame(shared, query.iterator(), "A running loop should keep its iterator");
+
+      world.update(0.016);
+      int visited = 0;
+      for (Entity entity : query) {
+        visited++;
+      }
+      assertEquals(3, visited, "The reclaimed iterator should start over");
+      assertSame(shared, query.iterator(), "The next update should reuse the shared iterator");
+    }
+
+    @Test
+    @DisplayName("Structural changes while iterating should be detected")
+    void concurrentModificationIsDetected() {
+      for (int i = 0; i < 3; i++) {
+        world.createEntity().addComponent(new TransformComponent(i, i));
+      }
+
+      assertThrows(
+          ConcurrentModificationException.class,
+          () -> {
+            for (Entity entity : world.query(TransformComponent.class)) {
+              world.removeEntity(entity);
+            }
+          },
+          "Removing entities while iterating should fail fast");
+    }
+  }
+
+  @Nested
+  @DisplayName("Entity handles")
+  class EntityHandles {
+
+    @Test
+    @DisplayName("Handles should resolve to their entity")
+    void handlesResolveToEntity() {
+      Entity first = world.createEntity();
+      Entity second = world.createEntity();
+
+      assertNotEquals(first.getId(), second.getId(), "Handles should be unique");
+      assertSame(first, world.getEntity(first.getId()), "Handle should resolve to its entity");
+      assertSame(second, world.getEntity(second.getId()), "Handle should resolve to its entity");
+      assertTrue(first.isAlive(), "New entity should be alive");
+    }
+
+    @Test
+    @DisplayName("Handles of removed entities should become stale")
+    void removedHandlesAreStale() {
+      Entity entity = world.createEntity();
+      long handle = entity.getId();
+
+      world.removeEntity(entity);
+
+      assertFalse(entity.isAlive(), "Removed entity should not be alive");
+      assertFalse(world.isAlive(handle), "Handle should be stale");
+      assertNull(world.getEntity(handle), "Stale handle should not resolve");
+    }
+
+    @Test
+    @DisplayName("Recycled slots should not resolve stale handles to the new entity")
+    void recycledSlotsBumpGeneration() {
+      Entity dead = world.createEntity();
+      long staleHandle = dead.getId();
+      world.removeEntity(dead);
+
+      Entity reborn = world.createEntity();
+
+      assertEquals(
+          EntityHandle.index(staleHandle),
+          EntityHandle.index(reborn.getId()),
+          "Freed slot should be recycled");
+      assertNotEquals(staleHandle, reborn.getId(), "Recycled slot should get a new generation");
+      assertNull(world.getEntity(staleHandle), "Stale handle should not resolve to new entity");
+      assertNotEquals(dead, reborn, "Dead and recycled entities should not be equal");
+    }
+
+    @Test
+    @DisplayName("Invalid handles should not resolve")
+    void invalidHandlesDoNotResolve() {
+      world.createEntity();
+
+      assertNull(world.getEntity(EntityHandle.NONE), "NONE should never resolve");
+      assertNull(world.getEntity(EntityHandle.of(1000, 0)), "Unknown slot should not resolve");
+    }
+  }
+
+  @Nested
+  @DisplayName("Command buffer")
+  class CommandBuffers {
+
+    @Test
+    @DisplayName("Recorded commands should only apply on playback")
+    void commandsApplyOnPlayback() {
+      CommandBuffer commands = world.getCommandBuffer();
+      Entity existing = world.createEntity();
+      existing.addComponent(new TransformComponent(1, 1));
+
+      Entity spawned = commands.createEntity();
+      spawned.addComponent(new TransformComponent(2, 2));
+      commands.destroy(existing);
+
+      assertTrue(existing.isAlive(), "Destroyed entity should live until playback");
+      assertTrue(commands.isDestroyed(existing), "Pending removal should be visible");
+      assertFalse(spawned.isAlive(), "Created entity should not exist before playback");
+      assertEquals(1, world.query(TransformComponent.class).size());
+
+      commands.playback();
+
+      assertFalse(existing.isAlive(), "Destroyed entity should be removed");
+      assertTrue(spawned.isAlive(), "Created entity should be spawned");
+      assertSame(spawned, world.getEntity(spawned.getId()), "Spawned entity should get a handle");
+      assertEquals(2, spawned.getComponent(TransformComponent.class).getX());
+      assertSame(spawned, world.query(TransformComponent.class).first());
+      assertEquals(0, commands.size(), "Buffer should be empty after playback");
+    }
+
+    @Test
+    @DisplayName("Pending entities should be told apart before they get a handle")
+    void pendingEntitiesAreDistinct() {
+      CommandBuffer commands = world.getCommandBuffer();
+      Entity first = commands.createEntity();
+      Entity second = commands.createEntity();
+      assertEquals(first.getId(), second.getId(), "Neither should have a handle yet");
+
+      Set<Entity> pending = new HashSet<>();
+      pending.add(first);
+      pending.add(second);
+      assertNotEquals(first, second, "Distinct entities should never be equal");
+      assertEquals(2, pending.size(), "Both entities should fit in a set");
+
+      commands.playback();
+      assertTrue(pending.contains(first), "Getting a handle should not lose the entity");
+      assertTrue(pending.contains(second));
+    }
+
+    @Test
+    @DisplayName("Component commands should be applied in order")
+    void componentCommandsApplyInOrder() {
+      CommandBuffer commands = world.getCommandBuffer();
+      Entity entity = world.createEntity();
+
+      commands.addComponent(entity, new HealthComponent(10));
+      commands.addComponent(entity, new VelocityComponent(5));
+      commands.removeComponent(entity, HealthComponent.class);
+      assertFalse(entity.hasComponent(VelocityComponent.class), "Nothing applied yet");
+
+      commands.playback();
+
+      assertTrue(entity.hasComponent(VelocityComponent.class), "Velocity should be added");
+      assertFalse(entity.hasComponent(HealthComponent.class), "Health should be removed again");
+    }
+
+    @Test
+    @DisplayName("Systems should be able to destroy entities while iterating")
+    void destroyWhileIterating() {
+      for (int i = 0; i < 5; i++) {
+        world.createEntity().addComponent(new TransformComponent(i, i));
+      }
+      Query transforms = world.query(TransformComponent.class);
+      world.addSystem(
+          deltaTime -> {
+            for (Entity entity : transforms) {
+              world.getCommandBuffer().destroy(entity);
+            }
+          });
+
+      assertDoesNotThrow(() -> world.update(0.016), "Deferred removal should not break the loop");
+      assertTrue(transforms.isEmpty(), "Every entity should be removed after the update");
+    }
+  }
+
+  @Nested
+  @DisplayName("System scheduling")
+  class Scheduling {
+
+    /** Wraps an update callback into a system declaring the given access. */
+    private System system(ComponentAccess access, System body) {
+      return new System() {
+        @Override
+        public ComponentAccess getComponentAccess() {
+          return access;
+        }
+
+        @Override
+        public void update(double deltaTime) {
+          body.update(deltaTime);
+        }
+      };
+    }
+
+    @Test
+    @DisplayName("Systems with disjoint access should run at the same time")
+    void disjointSystemsRunInParallel() {
+      // Each system waits for the other one, which only works if both run concurrently
+      CyclicBarrier barrier = new CyclicBarrier(2);
+      System awaitBarrier =
+          deltaTime -> {
+            try {
+              barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+              throw new IllegalStateException("Systems did not run in parallel", e);
+            }
+          };
+      world.addSystem(
+          system(ComponentAccess.none().writes(TransformComponent.class), awaitBarrier));
+      world.addSystem(
+          system(ComponentAccess.none().writes(HealthComponent.class), awaitBarrier));
+
+      assertDoesNotThrow(() -> world.update(0.016), "Both systems should meet at the barrier");
+    }
+
+    @Test
+    @DisplayName("Conflicting systems should keep their registration order")
+    void conflictingSystemsKeepOrder() {
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(TransformComponent.class),
+              deltaTime -> order.add("writer")));
+      world.addSystem(
+          system(
+              ComponentAccess.none().reads(TransformComponent.class),
+              deltaTime -> order.add("reader")));
+      world.addSystem(deltaTime -> order.add("exclusive"));
+      world.addSystem(
+          system(
+              ComponentAccess.none().reads(VelocityComponent.class),
+              deltaTime -> order.add("after exclusive")));
+
+      for (int frame = 0; frame < 20; frame++) {
+        order.clear();
+        world.update(0.016);
+        assertEquals(List.of("writer", "reader", "exclusive", "after exclusive"), order);
+      }
+    }
+
+    /** Runs the body after giving a system running alongside the time to go first. */
+    private System late(String name, List<String> order) {
+      return deltaTime -> {
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        order.add(name);
+      };
+    }
+
+    @Test
+    @DisplayName("Systems recording commands should run one after the other")
+    void recordingSystemsKeepOrder() {
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(TransformComponent.class).recordsCommands(),
+              late("first", order)));
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(HealthComponent.class).recordsCommands(),
+              deltaTime -> order.add("second")));
+
+      for (int frame = 0; frame < 5; frame++) {
+        order.clear();
+        world.update(0.016);
+        assertEquals(List.of("first", "second"), order, "Commands should be recorded in order");
+      }
+    }
+
+    @Test
+    @DisplayName("Systems publishing the same events should run one after the other")
+    void publishingSystemsKeepOrder() {
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(TransformComponent.class).publishes(String.class),
+              late("first", order)));
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(HealthComponent.class).publishes(String.class),
+              deltaTime -> order.add("second")));
+
+      for (int frame = 0; frame < 5; frame++) {
+        order.clear();
+        world.update(0.016);
+        assertEquals(List.of("first", "second"), order, "Events should be published in order");
+      }
+    }
+
+    @Test
+    @DisplayName("Entities created by parallel systems should spawn after the stage")
+    void parallelSystemsCreateEntitiesThroughCommandBuffer() {
+      CommandBuffer commands = world.getCommandBuffer();
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(TransformComponent.class),
+              deltaTime -> {
+                Entity entity = commands.createEntity();
+                entity.addComponent(new TransformComponent(1, 1));
+                entity.addComponent(new HealthComponent(10));
+              }));
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(VelocityComponent.class),
+              deltaTime -> {
+                Entity entity = commands.createEntity();
+                entity.addComponent(new VelocityComponent(5));
+                entity.addComponent(new ProjectileComponent(10, 2.0, "player"));
+              }));
+
+      world.update(0.016);
+
+      assertEquals(1, world.query(TransformComponent.class, HealthComponent.class).size());
+      assertEquals(1, world.query(VelocityComponent.class, ProjectileComponent.class).size());
+      assertEquals(2, world.getEntities().size(), "Both pending entities should be spawned");
+    }
+
+    @Test
+    @DisplayName("Parallel systems should not change live entities directly")
+    void parallelSystemsRejectDirectStructuralChanges() {
+      world.addSystem(
+          system(ComponentAccess.none().writes(TransformComponent.class), deltaTime -> {}));
+      world.addSystem(
+          system(
+              ComponentAccess.none().writes(HealthComponent.class),
+              deltaTime -> world.createEntity()));
+
+      assertThrows(IllegalStateException.class, () -> world.update(0.016));
+      assertTrue(world.getEntities().isEmpty(), "No entity should have been created");
+    }
+  }
+
+  @Nested
+  @DisplayName("Metrics")
+  class Metrics {
+
+    @Test
+    @DisplayName("Nothing should be recorded while metrics are disabled")
+    void disabledMetricsRecordNothing() {
+      world.addSystem(deltaTime -> {});
+      world.update(0.016);
+
+      WorldMetrics metrics = world.getMetrics();
+      assertFalse(metrics.isEnabled(), "Metrics should be disabled by default");
+      assertEquals(0, metrics.getTickTimes().size(), "No tick should be timed");
+      assertEquals(0, metrics.getComponentTypeCount(), "No component should be counted");
+    }
+
+    @Test
+    @DisplayName("Enabled metrics should time every system and count components")
+    void enabledMetricsRecordTimesAndCounts() {
+      for (int i = 0; i < 3; i++) {
+        Entity entity = world.createEntity();
+        entity.addComponent(new TransformComponent(i, i));
+        if (i == 0) {
+          entity.addComponent(new HealthComponent(10));
+        }
+      }
+      world.addSystem(deltaTime -> {});
+      world.addSystem(deltaTime -> {});
+      WorldMetrics metrics = world.getMetrics();
+      metrics.setEnabled(true);
+
+      for (int tick = 0; tick < 5; tick++) {
+        world.update(0.016);
+      }
+
+      assertEquals(5, metrics.getTickTimes().size(), "Every tick should be timed");
+      assertEquals(2, metrics.getSystemCount(), "Every system should be tracked");
+      assertEquals(5, metrics.getSystemTimes(0).size(), "First system should be timed");
+      assertEquals(5, metrics.getSystemTimes(1).size(), "Second system should be timed");
+
+      int transforms = -1;
+      int healths = -1;
+      for (int i = 0; i < metrics.getComponentTypeCount(); i++) {
+        if (metrics.getComponentType(i) == TransformComponent.class) {
+          transforms = metrics.getComponentCount(i);
+        } else if (metrics.getComponentType(i) == HealthComponent.class) {
+          healths = metrics.getComponentCount(i);
+        }
+      }
+      assertEquals(3, transforms, "Every transform should be counted");
+      assertEquals(1, healths, "Every health component should be counted");
+    }
+  }
+
+  @Nested
+  @DisplayName("Entity pools")
+  class Pooling {
+
+    private EntityPool pool;
+
+    @BeforeEach
+    void setUp() {
+      pool =
+          new EntityPool(world, "test", 2, entity -> entity.addComponent(new HealthComponent(10)));
+    }
+
+    private Entity spawn() {
+      Entity entity = pool.acquire();
+      world.spawn(entity);
+      return entity;
+    }
+
+    @Test
+    @DisplayName("Removed entities should be reused with their components")
+    void removedEntitiesAreReused() {
+      Entity first = spawn();
+      HealthComponent health = first.getComponent(HealthComponent.class);
+      world.removeEntity(first);
+
+      assertEquals(1, pool.size(), "Removed entity should go back to its pool");
+
+      Entity second = spawn();
+
+      assertSame(first, second, "Pooled entity should be reused");
+      assertSame(health, second.getComponent(HealthComponent.class), "Components should be kept");
+      assertTrue(second.isAlive(), "Reused entity should be alive");
+      assertTrue(world.getEntities().contains(second), "Reused entity should be in the world");
+      assertEquals(1, pool.getHits(), "Reuse should count as a hit");
+      assertEquals(1, pool.getMisses(), "First acquisition should count as a miss");
+    }
+
+    @Test
+    @DisplayName("A pooled entity should stay in sets across respawns")
+    void reusedEntitiesKeepTheirIdentity() {
+      Entity entity = spawn();
+      Set<Entity> tracked = new HashSet<>();
+      tracked.add(entity);
+      long firstHandle = entity.getId();
+
+      world.removeEntity(entity);
+      assertSame(entity, spawn(), "The same entity should be reused");
+
+      assertNotEquals(firstHandle, entity.getId(), "The respawned entity should get a new handle");
+      assertTrue(tracked.contains(entity), "Its new handle should not lose it from the set");
+    }
+
+    @Test
+    @DisplayName("Handles of a pooled entity should become stale when it is reused")
+    void reusedEntitiesGetNewHandles() {
+      Entity entity = spawn();
+      long staleHandle = entity.getId();
+      world.removeEntity(entity);
+
+      spawn();
+
+      assertNotEquals(staleHandle, entity.getId(), "Reused entity should get a new handle");
+      assertNull(world.getEntity(staleHandle), "Old handle should not resolve");
+      assertSame(entity, world.getEntity(entity.getId()), "New handle should resolve");
+    }
+
+    @Test
+    @DisplayName("Prewarmed entities should be acquired without building new ones")
+    void prewarmedEntitiesAreHits() {
+      pool.prewarm(5);
+
+      assertEquals(2, pool.size(), "Prewarming should stop at the capacity");
+      assertFalse(pool.acquire().isAlive(), "Acquired entity should not be in the world yet");
+      assertEquals(1, pool.getHits(), "Prewarmed entity should count as a hit");
+      assertEquals(0, pool.getMisses(), "No entity should have been built on acquisition");
+    }
+
+    @Test
+    @DisplayName("Entities released into a full pool should be discarded")
+    void fullPoolDiscards() {
+      List<Entity> entities = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        entities.add(spawn());
+      }
+      for (Entity entity : entities) {
+        world.removeEntity(entity);
+      }
+
+      assertEquals(2, pool.size(), "Pool should not grow past its capacity");
+      assertEquals(1, pool.getDiscarded(), "Extra entity should be discarded");
+
+      pool.setCapacity(1);
+
+      assertEquals(1, pool.size(), "Shrinking should drop the extra entities");
+    }
+
+    @Test
+    @DisplayName("Pooled entities destroyed through the command buffer should be released")
+    void commandBufferReleasesPooledEntities() {
+      CommandBuffer commands = world.getCommandBuffer();
+      Entity entity = pool.acquire();
+      commands.spawn(entity);
+      commands.playback();
+
+      assertTrue(entity.isAlive(), "Spawned entity should join the world on playback");
+
+      commands.destroy(entity);
+      commands.playback();
+
+      assertFalse(entity.isAlive(), "Destroyed entity should leave the world");
+      assertEquals(1, pool.size(), "Destroyed entity should go back to its pool");
+    }
+  }
+
+  @Nested
+  @DisplayName("Batch spawning")
+  class Batches {
+
+    private final Prefab prefab =
+        Prefab.builder("test")
+            .with(() -> new TransformComponent(1, 2))
+            .with(() -> new HealthComponent(10))
+            .shared(new ProjectileComponent(5, 1, "player"))
+            .build();
+
+    private List<Entity> spawnBatch(int count) {
+      List<Entity> spawned = new ArrayList<>();
+      world.spawnBatch(
+          prefab,
+          count,
+          (entity, i) -> {
+            entity.getComponent(TransformComponent.class).setX(i);
+            spawned.add(entity);
+          });
+      return spawned;
+    }
+
+    @Test
+    @DisplayName("A batch should spawn entities with the prefab's components")
+    void spawnBatch() {
+      Query query = world.query(TransformComponent.class, HealthComponent.class);
+      List<Entity> spawned = spawnBatch(100);
+
+      assertEquals(100, spawned.size(), "Every entity should be initialized");
+      assertEquals(100, query.size(), "Queries should see the whole batch");
+      Set<Long> handles = new HashSet<>();
+      for (int i = 0; i < spawned.size(); i++) {
+        Entity entity = spawned.get(i);
+        assertTrue(entity.isAlive(), "Spawned entities should be in the world");
+        assertTrue(handles.add(entity.getId()), "Handles should be unique");
+        TransformComponent transform = entity.getComponent(TransformComponent.class);
+        assertEquals(i, transform.getX(), "The initializer should get the index in the batch");
+        assertEquals(2, transform.getY(), "Packed values should come from the prefab");
+        assertEquals(10, entity.getComponent(HealthComponent.class).getCurrentHealth());
+      }
+      assertSame(
+          spawned.get(0).getComponent(ProjectileComponent.class),
+          spawned.get(99).getComponent(ProjectileComponent.class),
+          "Shared components should be the same instance");
+      assertNotSame(
+          spawned.get(0).getComponent(HealthComponent.class),
+          spawned.get(99).getComponent(HealthComponent.class),
+          "Per-instance components should not be shared");
+    }
+
+    @Test
+    @DisplayName("Destroying a query should remove its entities and pool them for the next batch")
+    void destroyAllAndRespawn() {
+      Entity other = world.createEntity().addComponent(new TransformComponent(0, 0));
+      List<Entity> first = spawnBatch(10);
+      first.get(3).getComponent(HealthComponent.class).damage(7);
+      long stale = first.get(3).getId();
+
+      int destroyed = world.destroyAll(world.query(HealthComponent.class));
+
+      assertEquals(10, destroyed);
+      assertTrue(world.query(HealthComponent.class).isEmpty(), "The query should be empty");
+      assertTrue(other.isAlive(), "Entities outside the query should stay");
+      assertNull(world.getEntity(stale), "Handles of destroyed entities should be stale");
+      assertNotNull(
+          first.get(3).getComponent(HealthComponent.class), "Components should be kept");
+      EntityPool pool = world.getPool(prefab);
+      assertEquals(10, pool.size(), "Destroyed entities should go back to the prefab's pool");
+
+      List<Entity> second = spawnBatch(12);
+      assertTrue(second.containsAll(first), "Pooled entities should be reused");
+      assertEquals(10, pool.getHits());
+      for (Entity entity : second) {
+        assertEquals(
+            10,
+            entity.getComponent(HealthComponent.class).getCurrentHealth(),
+            "Reused entities should get the prefab's values back");
+      }
+      assertEquals(13, world.getEntities().size());
+    }
+
+    @Test
+    @DisplayName("Batches recorded in the command buffer should spawn on playback")
+    void deferredBatches() {
+      CommandBuffer commands = world.getCommandBuffer();
+      Query query = world.query(HealthComponent.class);
+      commands.spawnBatch(prefab, 5, null);
+
+      assertTrue(query.isEmpty(), "The batch should wait for playback");
+      commands.playback();
+      assertEquals(5, query.size(), "The batch should spawn on playback");
+
+      commands.destroyAll(query);
+      assertEquals(5, query.size(), "The removal should wait for playback");
+      commands.playback();
+      assertTrue(query.isEmpty(), "Every entity should be removed on playback");
+    }
+
+    @Test
+    @DisplayName("Packed components should not be shared")
+    void packedComponentsNotShared() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> Prefab.builder("bad").shared(new HealthComponent(1)));
+    }
+  }
+
+  @Nested
+  @DisplayName("Event bus")
+  class Events {
+
+    /** Minimal event carrying a number */
+    private class Ping {
+      int value;
+    }
+
+    private EventQueue<Ping> pings;
+
+    @BeforeEach
+    void setUp() {
+      pings = world.getEvents().queue(Ping.class, Ping::new);
+    }
+
+    @Test
+    @DisplayName("Events should be handled at the end of the stage, before playback")
+    void eventsDispatchedBeforePlayback() {
+      Entity entity = world.createEntity();
+      List<Boolean> aliveWhenHandled = new ArrayList<>();
+      world
+          .getEvents()
+          .subscribe(Ping.class, Ping::new, ping -> aliveWhenHandled.add(entity.isAlive()));
+      world.addSystem(
+          deltaTime -> {
+            pings.publish().value = 1;
+            world.getCommandBuffer().destroy(entity);
+            assertTrue(aliveWhenHandled.isEmpty(), "Events should not be handled right away");
+          });
+
+      world.update(0.016);
+
+      assertEquals(List.of(true), aliveWhenHandled, "Event should see the entity still alive");
+      assertFalse(entity.isAlive(), "Command buffer should be played back after the events");
+      assertEquals(0, pings.size(), "Dispatched events should leave the queue");
+    }
+
+    @Test
+    @DisplayName("Events published by handlers should be dispatched in the same pass")
+    void chainedEventsDispatched() {
+      EventQueue<String> echoes = world.getEvents().queue(String.class, String::new);
+      List<Integer> values = new ArrayList<>();
+      List<String> echoed = new ArrayList<>();
+      world
+          .getEvents()
+          .subscribe(
+              Ping.class,
+              Ping::new,
+              ping -> {
+                values.add(ping.value);
+                if (ping.value < 3) {
+                  pings.publish().value = ping.value + 1;
+                }
+                echoes.publish();
+              });
+      world.getEvents().subscribe(String.class, String::new, echoed::add);
+      world.addSystem(deltaTime -> pings.publish().value = 1);
+
+      world.update(0.016);
+
+      assertEquals(List.of(1, 2, 3), values, "Chained events should be handled in order");
+      assertEquals(3, echoed.size(), "Events on other queues should be dispatched too");
+    }
+
+    @Test
+    @DisplayName("Queues should grow without losing or reordering events")
+    void queuesGrowInOrder() {
+      List<Integer> values = new ArrayList<>();
+      world.getEvents().subscribe(Ping.class, Ping::new, ping -> values.add(ping.value));
+      world.addSystem(
+          deltaTime -> {
+            for (int i = 0; i < 200; i++) {
+              pings.publish().value = i;
+            }
+          });
+
+      for (int tick = 0; tick < 2; tick++) {
+        world.update(0.016);
+      }
+
+      assertEquals(400, values.size(), "Every event should be handled");
+      for (int i = 0; i < 400; i++) {
+        assertEquals(i % 200, (int) values.get(i), "Events should be handled in publication order");
+      }
+    }
+
+    @Test
+    @DisplayName("Event objects should be reused once dispatched")
+    void eventsReused() {
+      Set<Ping> seen = Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+      world.getEvents().subscribe(Ping.class, Ping::new, seen::add);
+      world.addSystem(deltaTime -> pings.publish());
+
+      for (int tick = 0; tick < 500; tick++) {
+        world.update(0.016);
+      }
+
+      assertTrue(seen.size() <= 64, "Dispatched slots should be recycled: " + seen.size());
+    }
+  }
+}
@@ -0,0 +1,467 @@
+package factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EnemyPrefab;
+import github.zekecode.cowboybebop.factory.EnemyPrefabs;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EntityFactoryTest {
+
+  private World world;
+  private EntityFactory entityFactory;
+
+  @BeforeEach
+  void setUp() {
+    world = new World();
+    entityFactory = new EntityFactory(world);
+  }
+
+  @Test
+  @DisplayName("createPlayer should create entity with all required components")
+  void createPlayerAddsAllComponents() {
+    double x = 100;
+    double y = 200;
+
+    Entity player = entityFactory.createPlayer(x, y);
+
+    // Verify all expected components are present
+    assertNotNull(
+        player.getComponent(TransformComponent.class), "Player should have TransformComponent");
+    assertNotNull(
+        player.getComponent(VelocityComponent.class), "Player should have VelocityComponent");
+    assertNotNull(player.getComponent(SpriteComponent.class), "Player should have SpriteComponent");
+    assertNotNull(
+        player.getComponent(CollisionComponent.class), "Player should have CollisionComponent");
+    assertNotNull(player.getComponent(HealthComponent.class), "Player should have HealthComponent");
+    assertNotNull(player.getComponent(PlayerComponent.class), "Player should have PlayerComponent");
+
+    // Verify component properties
+    assertEquals(
+        x,
+        player.getComponent(TransformComponent.class).getX(),
+        "Player X position should match input");
+    assertEquals(
+        y,
+        player.getComponent(TransformComponent.class).getY(),
+        "Player Y position should match input");
+    assertEquals(
+        200,
+        player.getComponent(VelocityComponent.class).getMaxSpeed(),
+        "Player max speed should be 200");
+    assertEquals(
+        15,
+        player.getComponent(CollisionComponent.class).getRadius(),
+        "Player collision radius should be 15");
+    assertEquals(
+        "player",
+        player.getComponent(CollisionComponent.class).getCollisionGroup(),
+        "Player collision group should be 'player'");
+    assertEquals(
+        100,
+        player.getComponent(HealthComponent.class).getMaxHealth(),
+        "Player max health should be 100");
+    assertEquals(
+        0.25,
+        player.getComponent(PlayerComponent.class).getShootCooldown(),
+        "Player shoot cooldown should be 0.25");
+    assertEquals(
+        400,
+        player.getComponent(PlayerComponent.class).getShootSpeed(),
+        "Player shoot speed should be 400");
+
+    // Verify sprite properties
+    SpriteComponent sprite = player.getComponent(SpriteComponent.class);
+    assertEquals(
+        SpriteComponent.Shape.RECTANGLE, sprite.getShape(), "Player sprite should be a rectangle");
+    assertEquals(SpriteComponent.BLUE, sprite.getColor(), "Player color should be BLUE");
+  }
+
+  @Test
+  @DisplayName("createEnemy(x,y) should create an enemy of the default type")
+  void createDefaultEnemy() {
+    double x = 150;
+    double y = 250;
+
+    Entity enemy = entityFactory.createEnemy(x, y);
+
+    // Verify all expected components are present
+    assertNotNull(
+        enemy.getComponent(TransformComponent.class), "Enemy should have TransformComponent");
+    assertNotNull(
+        enemy.getComponent(VelocityComponent.class), "Enemy should have VelocityComponent");
+    assertNotNull(enemy.getComponent(SpriteComponent.class), "Enemy should have SpriteComponent");
+    assertNotNull(
+        enemy.getComponent(CollisionComponent.class), "Enemy should have CollisionComponent");
+    assertNotNull(enemy.getComponent(HealthComponent.class), "Enemy should have HealthComponent");
+    assertNotNull(enemy.getComponent(EnemyComponent.class), "Enemy should have EnemyComponent");
+
+    // Verify component properties that are fixed
+    assertEquals(
+        x,
+        enemy.getComponent(TransformComponent.class).getX(),
+        "Enemy X position should match input");
+    assertEquals(
+        y,
+        enemy.getComponent(TransformComponent.class).getY(),
+        "Enemy Y position should match input");
+    assertEquals(
+        100,
+        enemy.getComponent(VelocityComponent.class).getMaxSpeed(),
+        "Enemy max speed should be 100");
+    assertEquals(
+        10,
+        enemy.getComponent(CollisionComponent.class).getRadius(),
+        "Enemy collision radius should be 10");
+    assertEquals(
+        "enemy",
+        enemy.getComponent(CollisionComponent.class).getCollisionGroup(),
+        "Enemy collision group should be 'enemy'");
+    assertEquals(
+        20,
+        enemy.getComponent(HealthComponent.class).getMaxHealth(),
+        "Enemy max health should be 20");
+
+    // The stats and the look are those of the default type
+    EnemyComponent enemyComp = enemy.getComponent(EnemyComponent.class);
+    assertSame(
+        entityFactory.getPrefabs().getDefault().getStats(),
+        enemyComp,
+        "Enemy should share the default type's stats");
+    assertEquals(0.8, enemyComp.getSpeedFactor(), "Enemy speed factor should be 0.8");
+    assertEquals(10, enemyComp.getDamage(), "Enemy damage should be 10");
+    assertEquals(50, enemyComp.getPoints(), "Enemy points should be 50");
+
+    // Verify sprite properties
+    SpriteComponent sprite = enemy.getComponent(SpriteComponent.class);
+    assertEquals(
+        SpriteComponent.Shape.RECTANGLE, sprite.getShape(), "Enemy sprite should be a rectangle");
+    assertEquals(SpriteComponent.RED, sprite.getColor(), "Enemy color should be RED");
+  }
+
+  @Test
+  @DisplayName("createEnemy(x,y,type) should create 'basic' enemy")
+  void createBasicEnemy() {
+    double x = 200;
+    double y = 300;
+
+    Entity enemy = entityFactory.createEnemy(x, y, "basic");
+
+    // Verify all expected components are present
+    assertNotNull(
+        enemy.getComponent(TransformComponent.class), "Basic enemy should have TransformComponent");
+
+    // Verify type-specific properties
+    assertEquals(
+        0.8,
+        enemy.getComponent(EnemyComponent.class).getSpeedFactor(),
+        "Basic enemy speed factor should be 0.8");
+    assertEquals(
+        10,
+        enemy.getComponent(EnemyComponent.class).getDamage(),
+        "Basic enemy damage should be 10");
+    assertEquals(
+        20,
+        enemy.getComponent(HealthComponent.class).getMaxHealth(),
+        "Basic enemy max health should be 20");
+    assertEquals(
+        10,
+        enemy.getComponent(CollisionComponent.class).getRadius(),
+        "Basic enemy collision radius should be 10");
+
+    // Verify sprite properties
+    SpriteComponent sprite = enemy.getComponent(SpriteComponent.class);
+    assertEquals(SpriteComponent.RED, sprite.getColor(), "Basic enemy color should be RED");
+  }
+
+  @Test
+  @DisplayName("createEnemy(x,y,type) should create 'speedy' enemy")
+  void createSpeedyEnemy() {
+    double x = 200;
+    double y = 300;
+
+    Entity enemy = entityFactory.createEnemy(x, y, "speedy");
+
+    // Verify type-specific properties
+    assertEquals(
+        1.2,
+        enemy.getComponent(EnemyComponent.class).getSpeedFactor(),
+        "Speedy enemy speed factor should be 1.2");
+    assertEquals(
+        5, enemy.getComponent(EnemyComponent.class).getDamage(), "Speedy enemy damage should be 5");
+    assertEquals(
+        15,
+        enemy.getComponent(HealthComponent.class).getMaxHealth(),
+        "Speedy enemy max health should be 15");
+    assertEquals(
+        7.5,
+        enemy.getComponent(CollisionComponent.class).getRadius(),
+        "Speedy enemy collision radius should be 7.5");
+
+    // Verify sprite properties
+    SpriteComponent sprite = enemy.getComponent(SpriteComponent.class);
+    assertEquals(SpriteComponent.ORANGE, sprite.getColor(), "Speedy enemy color should be ORANGE");
+  }
+
+  @Test
+  @DisplayName("createEnemy(x,y,type) should create 'tank' enemy")
+  void createTankEnemy() {
+    double x = 200;
+    double y = 300;
+
+    Entity enemy = entityFactory.createEnemy(x, y, "tank");
+
+    // Verify type-specific properties
+    assertEquals(
+        0.6,
+        enemy.getComponent(EnemyComponent.class).getSpeedFactor(),
+        "Tank enemy speed factor should be 0.6");
+    assertEquals(
+        15, enemy.getComponent(EnemyComponent.class).getDamage(), "Tank enemy damage should be 15");
+    assertEquals(
+        40,
+        enemy.getComponent(HealthComponent.class).getMaxHealth(),
+        "Tank enemy max health should be 40");
+    assertEquals(
+        12.5,
+        enemy.getComponent(CollisionComponent.class).getRadius(),
+        "Tank enemy collision radius should be 12.5");
+
+    // Verify sprite properties
+    SpriteComponent sprite = enemy.getComponent(SpriteComponent.class);
+    assertEquals(SpriteComponent.DARK_RED, sprite.getColor(), "Tank enemy color should be DARKRED");
+  }
+
+  @Test
+  @DisplayName("createEnemy(x,y,type) with invalid type should create basic enemy")
+  void createEnemyWithInvalidType() {
+    double x = 200;
+    double y = 300;
+
+    Entity enemy = entityFactory.createEnemy(x, y, "nonexistent");
+
+    // Should default to basic enemy properties
+    assertEquals(
+        0.8,
+        enemy.getComponent(EnemyComponent.class).getSpeedFactor(),
+        "Invalid enemy type should default to speed factor 0.8");
+    assertEquals(
+        10,
+        enemy.getComponent(EnemyComponent.class).getDamage(),
+        "Invalid enemy type should default to damage 10");
+    assertEquals(
+        20,
+        enemy.getComponent(HealthComponent.class).getMaxHealth(),
+        "Invalid enemy type should default to health 20");
+
+    // Verify sprite properties
+    SpriteComponent sprite = enemy.getComponent(SpriteComponent.class);
+    assertEquals(
+        SpriteComponent.RED, sprite.getColor(), "Invalid enemy type should default to RED color");
+  }
+
+  @Test
+  @DisplayName("Created entities should be added to the world")
+  void createdEntitiesAddedToWorld() {
+    Entity player = entityFactory.createPlayer(100, 100);
+    Entity basicEnemy = entityFactory.createEnemy(200, 200, "basic");
+    Entity defaultEnemy = entityFactory.createEnemy(300, 300);
+
+    assertTrue(world.getEntities().contains(player), "Player should be added to the world");
+    assertTrue(
+        world.getEntities().contains(basicEnemy), "Basic enemy should be added to the world");
+    assertTrue(
+        world.getEntities().contains(defaultEnemy), "Default enemy should be added to the world");
+  }
+
+  @Test
+  @DisplayName("Killed enemies should be reused with fresh state")
+  void enemiesAreReused() {
+    Entity enemy = entityFactory.createEnemy(100, 100, "tank");
+    enemy.getComponent(HealthComponent.class).damage(30);
+    enemy.getComponent(VelocityComponent.class).setVx(50);
+    world.removeEntity(enemy);
+
+    Entity reused = entityFactory.createEnemy(200, 300, "tank");
+
+    assertSame(enemy, reused, "Removed enemy should be taken from the pool");
+    assertTrue(reused.isAlive(), "Reused enemy should be in the world");
+    TransformComponent transform = reused.getComponent(TransformComponent.class);
+    assertEquals(200, transform.getX(), "Reused enemy should be moved to the new x");
+    assertEquals(300, transform.getY(), "Reused enemy should be moved to the new y");
+    assertEquals(200, transform.getPreviousX(), "Reused enemy should not be interpolated");
+    assertEquals(
+        0, reused.getComponent(VelocityComponent.class).getVx(), "Velocity should be reset");
+    assertEquals(
+        40,
+        reused.getComponent(HealthComponent.class).getCurrentHealth(),
+        "Health should be restored");
+    assertEquals(1, entityFactory.getPool("tank").getHits(), "Reuse should count as a hit");
+  }
+
+  @Test
+  @DisplayName("Projectiles should come from their pool")
+  void projectilesArePooled() {
+    Entity projectile = entityFactory.createProjectile(10, 20, 300, -400);
+    projectile.getComponent(ProjectileComponent.class).addTimeAlive(1.5);
+    world.removeEntity(projectile);
+
+    Entity reused = entityFactory.createProjectile(30, 40, -100, 0);
+
+    assertSame(projectile, reused, "Removed projectile should be taken from the pool");
+    VelocityComponent velocity = reused.getComponent(VelocityComponent.class);
+    assertEquals(-100, velocity.getVx(), "Projectile should get its new velocity");
+    assertEquals(0, velocity.getVy(), "Projectile should get its new velocity");
+    assertEquals(
+        0,
+        reused.getComponent(ProjectileComponent.class).getTimeAlive(),
+        "Projectile lifetime should restart");
+  }
+
+  @Test
+  @DisplayName("Deferred factories should share the pools and spawn on playback")
+  void deferredFactoriesSharePools() {
+    Entity enemy = entityFactory.deferred().createEnemy(0, 0, "basic");
+
+    assertFalse(enemy.isAlive(), "Deferred enemy should wait for playback");
+    assertEquals(
+        1, entityFactory.getPool("basic").getMisses(), "Deferred factory should use shared pool");
+
+    world.getCommandBuffer().playback();
+
+    assertTrue(enemy.isAlive(), "Deferred enemy should join the world on playback");
+  }
+
+  @Test
+  @DisplayName("Changing the shared stats or look of an enemy should fail, not change the others")
+  void sharedComponentsAreReadOnly() {
+    Entity first = entityFactory.createEnemy(0, 0, "basic");
+    Entity second = entityFactory.createEnemy(10, 10, "basic");
+    EnemyComponent stats = first.getComponent(EnemyComponent.class);
+    SpriteComponent sprite = first.getComponent(SpriteComponent.class);
+
+    assertThrows(UnsupportedOperationException.class, () -> stats.setDamage(99));
+    assertThrows(UnsupportedOperationException.class, () -> stats.setPoints(0));
+    assertThrows(UnsupportedOperationException.class, () -> stats.setSpeedFactor(2));
+    assertThrows(UnsupportedOperationException.class, () -> sprite.setColor(0));
+    assertThrows(UnsupportedOperationException.class, () -> sprite.setSize(1, 1));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> sprite.setShape(SpriteComponent.Shape.RECTANGLE));
+
+    EnemyComponent other = second.getComponent(EnemyComponent.class);
+    assertEquals(10, other.getDamage(), "Other enemies should keep their damage");
+    assertEquals(50, other.getPoints(), "Other enemies should keep their points");
+    assertEquals(
+        SpriteComponent.RED,
+        second.getComponent(SpriteComponent.class).getColor(),
+        "Other enemies should keep their color");
+    assertEquals(
+        10,
+        entityFactory.createEnemy(20, 20, "basic").getComponent(EnemyComponent.class).getDamage(),
+        "New enemies should get the type's damage");
+  }
+
+  @Test
+  @DisplayName("Enemies of a type should share their sprite and stats")
+  void enemiesShareFlyweights() {
+    Entity first = entityFactory.createEnemy(0, 0, "speedy");
+    Entity second = entityFactory.createEnemy(10, 10, "speedy");
+    Entity tank = entityFactory.createEnemy(20, 20, "tank");
+
+    assertSame(
+        first.getComponent(SpriteComponent.class),
+        second.getComponent(SpriteComponent.class),
+        "Enemies of a type should share one sprite");
+    assertSame(
+        first.getComponent(EnemyComponent.class),
+        second.getComponent(EnemyComponent.class),
+        "Enemies of a type should share one set of stats");
+    assertNotSame(
+        first.getComponent(EnemyComponent.class),
+        tank.getComponent(EnemyComponent.class),
+        "Each type should have its own stats");
+    assertNotSame(
+        first.getComponent(TransformComponent.class),
+        second.getComponent(TransformComponent.class),
+        "Positions should stay per enemy");
+    assertEquals(10, second.getComponent(TransformComponent.class).getX());
+  }
+
+  @Test
+  @DisplayName("Enemy types should be read from data, and new types spawned without code")
+  void enemyTypesFromData() throws IOException {
+    EnemyPrefabs defaults = EnemyPrefabs.defaults();
+    assertSame(defaults, EnemyPrefabs.defaults(), "The data file should be read once");
+    assertEquals("basic", defaults.getDefault().getName(), "The first type is the default");
+    assertEquals("basic", defaults.pick(0.69).getName(), "Basic enemies are 70% of spawns");
+    assertEquals("speedy", defaults.pick(0.7).getName(), "Speedy enemies are 20% of spawns");
+    assertEquals("tank", defaults.pick(0.95).getName(), "Tanks are 10% of spawns");
+
+    String data =
+        "types = brute\n"
+            + "brute.weight = 1\n"
+            + "brute.maxSpeed = 60\n"
+            + "brute.speedFactor = 0.5\n"
+            + "brute.damage = 30\n"
+            + "brute.points = 200\n"
+            + "brute.health = 80\n"
+            + "brute.size = 40\n"
+            + "brute.color = 0xFF00FF00\n";
+    EnemyPrefabs prefabs =
+        EnemyPrefabs.load(new ByteArrayInputStream(data.getBytes(StandardCharsets.ISO_8859_1)));
+    EntityFactory factory = new EntityFactory(world, prefabs);
+
+    Entity brute = factory.createEnemy(5, 5, "brute");
+    assertEquals(200, brute.getComponent(EnemyComponent.class).getPoints());
+    assertEquals(80, brute.getComponent(HealthComponent.class).getMaxHealth());
+    assertEquals(60, brute.getComponent(VelocityComponent.class).getMaxSpeed());
+    assertEquals(20, brute.getComponent(CollisionComponent.class).getRadius());
+    assertEquals(0xFF00FF00, brute.getComponent(SpriteComponent.class).getColor());
+    assertSame(brute.getComponent(EnemyComponent.class), prefabs.get("brute").getStats());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> EnemyPrefabs.load(new ByteArrayInputStream("types = ghost".getBytes())),
+        "A type without stats should be rejected");
+  }
+
+  @Test
+  @DisplayName("Groups of enemies should be spawned from their type's pool")
+  void enemiesSpawnedInGroups() {
+    EnemyPrefab tank = entityFactory.getPrefabs().get("tank");
+    Entity pooled = entityFactory.createEnemy(0, 0, tank);
+    world.removeEntity(pooled);
+
+    List<Entity> group = new ArrayList<>();
+    entityFactory.createEnemies(
+        tank,
+        4,
+        (enemy, i) -> {
+          EntityFactory.place(enemy, i * 10, 50);
+          group.add(enemy);
+        });
+
+    assertEquals(4, group.size(), "Every enemy should be placed");
+    assertTrue(group.contains(pooled), "The pooled tank should be reused");
+    for (int i = 0; i < group.size(); i++) {
+      Entity enemy = group.get(i);
+      assertTrue(enemy.isAlive(), "Enemies should join the world");
+      assertEquals(i * 10, enemy.getComponent(TransformComponent.class).getX());
+      assertEquals(40, enemy.getComponent(HealthComponent.class).getCurrentHealth());
+      assertSame(tank.getStats(), enemy.getComponent(EnemyComponent.class));
+    }
+    assertEquals(1, entityFactory.getPool("tank").getHits(), "Reuse should count as a hit");
+  }
+}
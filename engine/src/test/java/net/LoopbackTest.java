@@ -0,0 +1,140 @@
+package net;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.HealthComponent;
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.net.GameClient;
+import github.zekecode.cowboybebop.net.GameServer;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoopbackTest {
+  private static final double TICK = 1.0 / 60;
+
+  private GameServer server;
+  private GameClient client;
+
+  /** A player holding a single key. */
+  private static InputSource holding(String key) {
+    return new InputSource() {
+      @Override
+      public boolean isKeyPressed(String keyCode) {
+        return keyCode.equals(key);
+      }
+
+      @Override
+      public boolean isMousePressed() {
+        return false;
+      }
+
+      @Override
+      public double getMouseX() {
+        return 0;
+      }
+
+      @Override
+      public double getMouseY() {
+        return 0;
+      }
+    };
+  }
+
+  @BeforeEach
+  void setUp() throws IOException {
+    InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    server = new GameServer(loopback, 800, 600, 42);
+    client = new GameClient(server.getAddress());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  /** Runs server and client in lockstep; datagrams on the loopback arrive right away. */
+  private void run(int ticks, InputSource input) throws IOException {
+    for (int i = 0; i < ticks; i++) {
+      client.update(TICK, input);
+      server.tick();
+    }
+  }
+
+  @Test
+  @DisplayName("The client should mirror the player simulated by the server")
+  void mirrorsThePlayer() throws IOException {
+    run(30, InputSource.NONE);
+
+    assertEquals(1, server.getClientCount(), "The client should have joined");
+    Entity player = client.getPlayer();
+    assertNotNull(player, "The player should be mirrored");
+    TransformComponent transform = player.getComponent(TransformComponent.class);
+    Entity simulated = server.getSimulation().getPlayer();
+    TransformComponent expected = simulated.getComponent(TransformComponent.class);
+    assertEquals(expected.getX(), transform.getX(), 0.1, "The player should be where it is");
+    assertEquals(expected.getY(), transform.getY(), 0.1, "The player should be where it is");
+    assertEquals(
+        simulated.getComponent(HealthComponent.class).getCurrentHealth(),
+        player.getComponent(HealthComponent.class).getCurrentHealth(),
+        "The HUD should see the player's health");
+    assertTrue(
+        client.getShownTick() <= server.getTick() - GameClient.PLAYOUT_DELAY,
+        "Snapshots should be shown behind the server");
+  }
+
+  @Test
+  @DisplayName("The input of the client should move the player on the server")
+  void inputReachesServer() throws IOException {
+    run(10, InputSource.NONE);
+    TransformComponent transform =
+        server.getSimulation().getPlayer().getComponent(TransformComponent.class);
+    double start = transform.getX();
+
+    run(60, holding("D"));
+    assertTrue(transform.getX() > start + 50, "The player should have moved right");
+
+    // The mirror follows, a few ticks behind
+    run(10, InputSource.NONE);
+    assertEquals(
+        transform.getX(),
+        client.getPlayer().getComponent(TransformComponent.class).getX(),
+        0.1,
+        "The mirror should catch up once the player stops");
+  }
+
+  @Test
+  @DisplayName("Entities should move smoothly between snapshots")
+  void interpolatesBetweenSnapshots() throws IOException {
+    run(30, holding("D"));
+    TransformComponent transform = client.getPlayer().getComponent(TransformComponent.class);
+    double previous = transform.getPreviousX();
+    double current = transform.getX();
+    assertTrue(current > previous, "The last two snapshots should differ while moving");
+
+    // Half a tick later, the frame is drawn halfway between them
+    client.update(TICK / 2, holding("D"));
+    double alpha = client.getAlpha();
+    assertEquals(0.5, alpha, 0.01);
+    assertEquals((previous + current) / 2, transform.getInterpolatedX(alpha), 1e-9);
+  }
+
+  @Test
+  @DisplayName("A client leaving should be dropped by the server")
+  void clientLeaves() throws IOException {
+    run(5, InputSource.NONE);
+    assertEquals(1, server.getClientCount());
+
+    client.close();
+    server.tick();
+    assertEquals(0, server.getClientCount(), "The client said goodbye");
+    client = new GameClient(server.getAddress());
+  }
+}
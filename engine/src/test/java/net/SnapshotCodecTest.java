@@ -0,0 +1,228 @@
+package net;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.factory.EntityFactory;
+import github.zekecode.cowboybebop.net.InterestManager;
+import github.zekecode.cowboybebop.net.NetSnapshot;
+import github.zekecode.cowboybebop.net.SnapshotDecoder;
+import github.zekecode.cowboybebop.net.SnapshotEncoder;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotCodecTest {
+  private static final double RADIUS = 600;
+  private static final int LIMIT = 128;
+
+  /** Largest error of a quantized position, half a step of 1/8 */
+  private static final double POSITION_ERROR = 1.0 / 16;
+
+  private final ByteBuffer packet = ByteBuffer.allocate(16 * 1024);
+
+  /** Fills a world with enemies scattered over an arena. */
+  private static List<Entity> populate(World world, int count, double width, double height) {
+    EntityFactory factory = new EntityFactory(world);
+    Random random = new Random(7);
+    List<Entity> entities = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      entities.add(
+          factory.createEnemy(random.nextDouble() * width, random.nextDouble() * height, "basic"));
+    }
+    return entities;
+  }
+
+  /** Moves every entity by a small step, as one tick of the game would. */
+  private static void step(List<Entity> entities, int tick) {
+    for (int i = 0; i < entities.size(); i++) {
+      TransformComponent transform = entities.get(i).getComponent(TransformComponent.class);
+      transform.setX(transform.getX() + ((i + tick) % 5 - 2) * 1.5);
+      transform.setY(transform.getY() + ((i * 3 + tick) % 5 - 2) * 1.5);
+    }
+  }
+
+  private static NetSnapshot view(InterestManager interest, int tick) {
+    NetSnapshot view = new NetSnapshot();
+    view.setTick(1, tick);
+    view.setPlayer(-1, 10, 10, tick);
+    interest.update();
+    interest.collect(400, 300, view);
+    return view;
+  }
+
+  private int encode(SnapshotEncoder encoder, NetSnapshot view) {
+    packet.clear();
+    encoder.encode(view, packet);
+    packet.flip();
+    return packet.remaining();
+  }
+
+  private static void assertSameEntities(NetSnapshot expected, NetSnapshot actual) {
+    assertNotNull(actual, "The snapshot should be decoded");
+    assertEquals(expected.getTick(), actual.getTick());
+    assertEquals(expected.getScore(), actual.getScore(), "The player's state should be sent");
+    assertEquals(expected.size(), actual.size(), "Every entity should be decoded");
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getHandle(i), actual.getHandle(i), "Handles should match");
+      assertEquals(expected.getX(i), actual.getX(i), "Positions should be rebuilt exactly");
+      assertEquals(expected.getY(i), actual.getY(i), "Positions should be rebuilt exactly");
+      assertEquals(expected.getVx(i), actual.getVx(i), "Velocities should be rebuilt exactly");
+      assertEquals(expected.getRotation(i), actual.getRotation(i));
+      assertEquals(expected.getColor(i), actual.getColor(i), "Looks should be rebuilt");
+      assertEquals(expected.getWidth(i), actual.getWidth(i), "Looks should be rebuilt");
+    }
+  }
+
+  @Test
+  @DisplayName("A full snapshot should hold the quantized entities of the world")
+  void fullSnapshot() {
+    World world = new World();
+    List<Entity> entities = populate(world, 50, 800, 600);
+    InterestManager interest = new InterestManager(world, RADIUS, LIMIT);
+
+    NetSnapshot view = view(interest, 1);
+    encode(new SnapshotEncoder(), view);
+    NetSnapshot decoded = new SnapshotDecoder().decode(packet);
+
+    assertSameEntities(view, decoded);
+    for (Entity entity : entities) {
+      int i = decoded.indexOf(entity.getId());
+      assertTrue(i >= 0, "Every nearby entity should be sent");
+      TransformComponent transform = entity.getComponent(TransformComponent.class);
+      assertEquals(transform.getX(), decoded.getX(i), POSITION_ERROR, "Quantization error");
+      assertEquals(transform.getY(), decoded.getY(i), POSITION_ERROR, "Quantization error");
+    }
+  }
+
+  @Test
+  @DisplayName("Snapshots should only carry what changed since the acknowledged baseline")
+  void deltaAgainstBaseline() {
+    World world = new World();
+    List<Entity> entities = populate(world, 100, 800, 600);
+    InterestManager interest = new InterestManager(world, RADIUS, LIMIT);
+    SnapshotEncoder encoder = new SnapshotEncoder();
+    SnapshotDecoder decoder = new SnapshotDecoder();
+
+    int fullSize = encode(encoder, view(interest, 1));
+    encoder.acknowledge(decoder.decode(packet).getTick());
+
+    step(entities, 2);
+    NetSnapshot moved = view(interest, 2);
+    int deltaSize = encode(encoder, moved);
+    assertSameEntities(moved, decoder.decode(packet));
+    assertTrue(
+        deltaSize * 3 < fullSize,
+        "Deltas should be much smaller than a full snapshot: " + deltaSize + " vs " + fullSize);
+
+    // Nothing moved since the baseline: only the header is sent
+    encoder.acknowledge(2);
+    NetSnapshot idle = view(interest, 3);
+    int idleSize = encode(encoder, idle);
+    assertSameEntities(idle, decoder.decode(packet));
+    assertTrue(idleSize < 32, "Unchanged entities should not be sent: " + idleSize);
+  }
+
+  @Test
+  @DisplayName("A lost snapshot should not prevent decoding the next ones")
+  void lostSnapshot() {
+    World world = new World();
+    List<Entity> entities = populate(world, 20, 800, 600);
+    InterestManager interest = new InterestManager(world, RADIUS, LIMIT);
+    SnapshotEncoder encoder = new SnapshotEncoder();
+    SnapshotDecoder decoder = new SnapshotDecoder();
+
+    encode(encoder, view(interest, 1));
+    encoder.acknowledge(decoder.decode(packet).getTick());
+
+    // Tick 2 never arrives, tick 3 is still encoded against tick 1
+    step(entities, 2);
+    encode(encoder, view(interest, 2));
+    step(entities, 3);
+    NetSnapshot third = view(interest, 3);
+    encode(encoder, third);
+    assertSameEntities(third, decoder.decode(packet));
+
+    // A snapshot against a baseline the client never got can't be decoded
+    SnapshotEncoder other = new SnapshotEncoder();
+    encode(other, view(interest, 4));
+    other.acknowledge(4);
+    encode(other, view(interest, 5));
+    assertNull(new SnapshotDecoder().decode(packet), "The baseline is unknown");
+  }
+
+  @Test
+  @DisplayName("Removed entities should be forgotten and reused slots sent as new entities")
+  void removedAndReused() {
+    World world = new World();
+    List<Entity> entities = populate(world, 10, 800, 600);
+    InterestManager interest = new InterestManager(world, RADIUS, LIMIT);
+    SnapshotEncoder encoder = new SnapshotEncoder();
+    SnapshotDecoder decoder = new SnapshotDecoder();
+
+    encode(encoder, view(interest, 1));
+    encoder.acknowledge(decoder.decode(packet).getTick());
+
+    Entity removed = entities.get(3);
+    Entity gone = entities.get(7);
+    world.removeEntity(removed);
+    world.removeEntity(gone);
+    Entity reusing = new EntityFactory(world).createEnemy(100, 100, "tank");
+    NetSnapshot view = view(interest, 2);
+    encode(encoder, view);
+    NetSnapshot decoded = decoder.decode(packet);
+
+    assertSameEntities(view, decoded);
+    assertEquals(-1, decoded.indexOf(removed.getId()), "Removed entities should be forgotten");
+    assertEquals(-1, decoded.indexOf(gone.getId()), "Removed entities should be forgotten");
+    assertTrue(decoded.indexOf(reusing.getId()) >= 0, "New entities should be sent");
+  }
+
+  @Test
+  @DisplayName("Clients should only hear about the nearest entities within the radius")
+  void areaOfInterest() {
+    World world = new World();
+    EntityFactory factory = new EntityFactory(world);
+    Entity near = factory.createEnemy(410, 300, "basic");
+    Entity far = factory.createEnemy(400 + 2 * RADIUS, 300, "basic");
+
+    InterestManager interest = new InterestManager(world, RADIUS, 2);
+    NetSnapshot view = view(interest, 1);
+    assertTrue(view.indexOf(near.getId()) >= 0, "Near entities should be sent");
+    assertEquals(-1, view.indexOf(far.getId()), "Entities out of the radius should not be sent");
+
+    Entity nearer = factory.createEnemy(400, 305, "basic");
+    Entity nearest = factory.createEnemy(400, 301, "basic");
+    view = view(interest, 2);
+    assertEquals(2, view.size(), "The limit should be respected");
+    assertTrue(view.indexOf(nearest.getId()) >= 0, "The nearest entities should be kept");
+    assertTrue(view.indexOf(nearer.getId()) >= 0, "The nearest entities should be kept");
+  }
+
+  @Test
+  @DisplayName("Snapshot sizes should not grow with the number of entities in the world")
+  void bandwidthIsFlat() {
+    int[] sizes = new int[2];
+    int[] counts = {1_000, 10_000};
+    for (int c = 0; c < counts.length; c++) {
+      World world = new World();
+      List<Entity> entities = populate(world, counts[c], 800, 600);
+      InterestManager interest = new InterestManager(world, RADIUS, LIMIT);
+      SnapshotEncoder encoder = new SnapshotEncoder();
+      SnapshotDecoder decoder = new SnapshotDecoder();
+      for (int tick = 1; tick <= 10; tick++) {
+        step(entities, tick);
+        sizes[c] = encode(encoder, view(interest, tick));
+        encoder.acknowledge(decoder.decode(packet).getTick());
+      }
+    }
+    assertTrue(
+        sizes[1] <= sizes[0] * 1.1 && sizes[1] < 2048,
+        "Snapshots should stay bounded: " + sizes[0] + " then " + sizes[1] + " bytes");
+  }
+}
@@ -0,0 +1,204 @@
+package replay;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.Simulation;
+import github.zekecode.cowboybebop.replay.InputFrame;
+import github.zekecode.cowboybebop.replay.ReplayReader;
+import github.zekecode.cowboybebop.replay.ReplayRunner;
+import github.zekecode.cowboybebop.replay.ReplayWriter;
+import github.zekecode.cowboybebop.util.InputBuffer;
+import github.zekecode.cowboybebop.util.InputSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ReplayTest {
+  private static final int TICKS = 3600;
+
+  /** A player who strafes and shoots around, changing course every second. */
+  private static final class ScriptedInput implements InputSource {
+    private int tick;
+
+    @Override
+    public boolean isKeyPressed(String keyCode) {
+      int second = tick / 60;
+      switch (keyCode) {
+        case "A":
+          return second % 4 == 0;
+        case "D":
+          return second % 4 == 2;
+        case "W":
+          return second % 3 == 0;
+        case "S":
+          return second % 3 == 1;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    public boolean isMousePressed() {
+      return tick % 120 < 90;
+    }
+
+    @Override
+    public double getMouseX() {
+      return (tick / 60 * 137) % 800;
+    }
+
+    @Override
+    public double getMouseY() {
+      return (tick / 60 * 71) % 600;
+    }
+  }
+
+  /** Runs a session, returning the checksum of every tick. */
+  private static long[] play(Simulation simulation, ScriptedInput input) {
+    long[] checksums = new long[TICKS];
+    for (int i = 0; i < TICKS; i++) {
+      input.tick = i;
+      simulation.tick(Simulation.TICK);
+      checksums[i] = simulation.checksum();
+    }
+    return checksums;
+  }
+
+  private static byte[] record(long seed) throws IOException {
+    ScriptedInput input = new ScriptedInput();
+    Simulation simulation = new Simulation(800, 600, input, seed);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ReplayWriter writer = simulation.record(out)) {
+      play(simulation, input);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  @DisplayName("Sessions with the same seed and input should go through the same states")
+  void sameSeedIsDeterministic() {
+    ScriptedInput firstInput = new ScriptedInput();
+    Simulation first = new Simulation(800, 600, firstInput, 42);
+    ScriptedInput secondInput = new ScriptedInput();
+    Simulation second = new Simulation(800, 600, secondInput, 42);
+
+    long[] expected = play(first, firstInput);
+    long[] actual = play(second, secondInput);
+
+    assertArrayEquals(expected, actual, "Every tick should have the same checksum");
+    assertTrue(
+        first.getWorld().getEntities().size() > 10, "The session should have spawned enemies");
+  }
+
+  @Test
+  @DisplayName("Sessions with different seeds should diverge")
+  void differentSeedsDiverge() {
+    ScriptedInput firstInput = new ScriptedInput();
+    ScriptedInput secondInput = new ScriptedInput();
+
+    long[] first = play(new Simulation(800, 600, firstInput, 1), firstInput);
+    long[] second = play(new Simulation(800, 600, secondInput, 2), secondInput);
+
+    assertFalse(Arrays.equals(first, second), "Different seeds should spawn different enemies");
+  }
+
+  @Test
+  @DisplayName("A recorded session should replay without diverging")
+  void recordingReplays() throws IOException {
+    byte[] recording = record(42);
+
+    ReplayRunner.Result result =
+        ReplayRunner.run(new ReplayReader(new ByteArrayInputStream(recording)));
+
+    assertFalse(result.isDiverged(), "Replay should match the recording: " + result);
+    assertEquals(TICKS, result.getTicks(), "Every recorded tick should be replayed");
+    assertTrue(recording.length < TICKS * 6, "Ticks should mostly take 5 bytes");
+  }
+
+  @Test
+  @DisplayName("A replay should report the first tick that doesn't match the recording")
+  void divergenceIsDetected() throws IOException {
+    byte[] recording = record(42);
+
+    // Change the seed in the header, right after the magic number and the version
+    recording[13] ^= 1;
+    ReplayRunner.Result result =
+        ReplayRunner.run(new ReplayReader(new ByteArrayInputStream(recording)));
+
+    assertTrue(result.isDiverged(), "Replay with another seed should diverge");
+    assertEquals(
+        result.getDivergedTick(), result.getTicks(), "Replay should stop at the divergence");
+    assertTrue(
+        result.getDivergedTick() > 1 && result.getDivergedTick() <= 61,
+        "Replay should diverge when the first enemy spawns, not " + result.getDivergedTick());
+  }
+
+  @Test
+  @DisplayName("A replay cut in the middle of a tick should end with the last complete tick")
+  void truncatedReplayEnds() throws IOException {
+    byte[] recording = record(42);
+    byte[] truncated = Arrays.copyOf(recording, recording.length - 2);
+
+    ReplayReader reader = new ReplayReader(new ByteArrayInputStream(truncated));
+    InputFrame frame = new InputFrame();
+    int ticks = 0;
+    while (reader.next(frame)) {
+      ticks++;
+    }
+
+    assertEquals(TICKS - 1, ticks, "Only the cut tick should be lost");
+    assertEquals(42, reader.getSeed(), "Header should keep the seed");
+    assertEquals(Simulation.TICK, reader.getStep(), "Ticks should keep their duration");
+  }
+
+  @Test
+  @DisplayName("Input frames should only see the recorded keys")
+  void inputFrameCapturesKeys() {
+    ScriptedInput input = new ScriptedInput();
+    input.tick = 0;
+    InputFrame frame = new InputFrame();
+
+    frame.capture(input);
+
+    assertTrue(frame.isKeyPressed("A"), "Held key should be captured");
+    assertTrue(frame.isKeyPressed("W"), "Held key should be captured");
+    assertFalse(frame.isKeyPressed("D"), "Released key should be captured");
+    assertFalse(frame.isKeyPressed("F3"), "Keys outside the recorded ones should read released");
+    assertTrue(frame.isMousePressed(), "Mouse button should be captured");
+  }
+
+  @Test
+  @DisplayName("Input frames should copy the keys of a snapshot, whatever its layout")
+  void inputFrameCapturesSnapshots() {
+    // Keys in another order than the frame's bits, past the first word of the snapshot
+    String[] names = new String[100];
+    for (int key = 0; key < names.length; key++) {
+      names[key] = "K" + key;
+    }
+    names[90] = "W";
+    names[3] = "SPACE";
+    names[70] = "D";
+    InputBuffer buffer = new InputBuffer(names);
+    InputFrame frame = new InputFrame();
+
+    buffer.press(90);
+    buffer.press(3);
+    buffer.release(3);
+    buffer.press(5);
+    frame.capture(buffer.snapshot());
+
+    assertTrue(frame.isKeyPressed(InputFrame.W), "Held key should be captured");
+    assertTrue(frame.isKeyPressed(InputFrame.SPACE), "Tapped key should be captured");
+    assertFalse(frame.isKeyPressed(InputFrame.D), "Released key should be captured");
+    assertEquals(
+        (1 << InputFrame.W) | (1 << InputFrame.SPACE),
+        frame.getKeys(),
+        "Other keys should be ignored");
+
+    frame.capture(buffer.snapshot());
+    assertEquals(1 << InputFrame.W, frame.getKeys(), "The tap should only last one tick");
+  }
+}
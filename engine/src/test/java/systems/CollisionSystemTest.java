@@ -0,0 +1,195 @@
+package systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.*;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.systems.CollisionSystem;
+import github.zekecode.cowboybebop.systems.DamageHandler;
+import github.zekecode.cowboybebop.systems.ScoreHandler;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CollisionSystemTest {
+
+  private World world;
+  private CollisionSystem collisionSystem;
+
+  @BeforeEach
+  void setUp() {
+    world = new World();
+    collisionSystem = new CollisionSystem(world);
+    world.addSystem(collisionSystem);
+    DamageHandler.subscribe(world);
+    ScoreHandler.subscribe(world);
+  }
+
+  private Entity createPlayer(double x, double y) {
+    Entity player = world.createEntity();
+    player.addComponent(new TransformComponent(x, y));
+    player.addComponent(new CollisionComponent(15, true, "player"));
+    player.addComponent(new HealthComponent(100));
+    player.addComponent(new PlayerComponent(0.25, 400));
+    return player;
+  }
+
+  private Entity createEnemy(double x, double y, int health) {
+    Entity enemy = world.createEntity();
+    enemy.addComponent(new TransformComponent(x, y));
+    enemy.addComponent(new CollisionComponent(10, true, "enemy"));
+    enemy.addComponent(new HealthComponent(health));
+    enemy.addComponent(new EnemyComponent(1.0, 10, 50));
+    return enemy;
+  }
+
+  private Entity createProjectile(double x, double y) {
+    Entity projectile = world.createEntity();
+    projectile.addComponent(new TransformComponent(x, y));
+    projectile.addComponent(new CollisionComponent(5, false, "projectile"));
+    projectile.addComponent(new ProjectileComponent(10, 2.0, "player"));
+    return projectile;
+  }
+
+  @Test
+  @DisplayName("Player projectiles should damage enemies and be removed")
+  void projectileDamagesEnemy() {
+    Entity enemy = createEnemy(100, 100, 20);
+    Entity projectile = createProjectile(105, 100);
+
+    world.update(0.016);
+
+    assertEquals(
+        10,
+        enemy.getComponent(HealthComponent.class).getCurrentHealth(),
+        "Enemy should take the projectile damage");
+    assertTrue(enemy.isAlive(), "Damaged enemy should still be alive");
+    assertFalse(projectile.isAlive(), "Projectile should be removed on hit");
+  }
+
+  @Test
+  @DisplayName("Killing an enemy should remove it and award its points to the player")
+  void killingEnemyAwardsPoints() {
+    Entity player = createPlayer(400, 400);
+    Entity enemy = createEnemy(100, 100, 10);
+    createProjectile(100, 100);
+
+    world.update(0.016);
+
+    assertFalse(enemy.isAlive(), "Dead enemy should be removed");
+    assertEquals(
+        50, player.getComponent(PlayerComponent.class).getScore(), "Player should get the points");
+  }
+
+  @Test
+  @DisplayName("Enemies touching the player should damage it and be destroyed")
+  void enemyDamagesPlayer() {
+    Entity player = createPlayer(100, 100);
+    Entity enemy = createEnemy(110, 100, 20);
+
+    world.update(0.016);
+
+    assertEquals(
+        90,
+        player.getComponent(HealthComponent.class).getCurrentHealth(),
+        "Player should take the enemy damage");
+    assertFalse(enemy.isAlive(), "Enemy should be destroyed on impact");
+  }
+
+  @Test
+  @DisplayName("A projectile should only hit one enemy")
+  void projectileHitsOnlyOnce() {
+    Entity first = createEnemy(100, 100, 20);
+    Entity second = createEnemy(102, 100, 20);
+    createProjectile(101, 100);
+
+    world.update(0.016);
+
+    int totalHealth =
+        first.getComponent(HealthComponent.class).getCurrentHealth()
+            + second.getComponent(HealthComponent.class).getCurrentHealth();
+    assertEquals(30, totalHealth, "Only one of the enemies should be damaged");
+  }
+
+  @Test
+  @DisplayName("Entities that don't overlap should not interact")
+  void distantEntitiesDoNotCollide() {
+    Entity enemy = createEnemy(100, 100, 20);
+    Entity projectile = createProjectile(200, 200);
+
+    world.update(0.016);
+
+    assertEquals(20, enemy.getComponent(HealthComponent.class).getCurrentHealth());
+    assertTrue(projectile.isAlive(), "Projectile should still be alive");
+  }
+
+  @Test
+  @DisplayName("Layers without a registered response should not interact")
+  void unregisteredLayersIgnored() {
+    Entity first = createEnemy(100, 100, 20);
+    Entity second = createEnemy(101, 100, 20);
+    Entity firstProjectile = createProjectile(300, 300);
+    Entity secondProjectile = createProjectile(301, 300);
+
+    world.update(0.016);
+
+    assertTrue(first.isAlive() && second.isAlive(), "Overlapping enemies should be untouched");
+    assertEquals(20, first.getComponent(HealthComponent.class).getCurrentHealth());
+    assertTrue(
+        firstProjectile.isAlive() && secondProjectile.isAlive(),
+        "Overlapping projectiles should be untouched");
+  }
+
+  @Test
+  @DisplayName("Registered responses should receive entities in registration order")
+  void customResponseReceivesOrderedEntities() {
+    int probeLayer = CollisionLayers.layerOf("probe");
+    Entity enemy = createEnemy(100, 100, 20);
+    Entity probe = world.createEntity();
+    probe.addComponent(new TransformComponent(100, 100));
+    probe.addComponent(new CollisionComponent(5, false, "probe"));
+
+    List<Entity> firsts = new ArrayList<>();
+    List<Entity> seconds = new ArrayList<>();
+    collisionSystem.registerResponse(
+        probeLayer,
+        CollisionLayers.ENEMY,
+        (first, second) -> {
+          firsts.add(first);
+          seconds.add(second);
+        });
+    world.update(0.016);
+
+    assertEquals(List.of(probe), firsts, "Probe should be passed first");
+    assertEquals(List.of(enemy), seconds, "Enemy should be passed second");
+  }
+
+  @Test
+  @DisplayName("Disabling a pair of layers should stop their collisions")
+  void disabledLayersDoNotCollide() {
+    Entity enemy = createEnemy(100, 100, 20);
+    Entity projectile = createProjectile(100, 100);
+
+    collisionSystem.setCollides(CollisionLayers.PROJECTILE, CollisionLayers.ENEMY, false);
+    world.update(0.016);
+
+    assertEquals(20, enemy.getComponent(HealthComponent.class).getCurrentHealth());
+    assertTrue(projectile.isAlive(), "Projectile should pass through the enemy");
+  }
+
+  @Test
+  @DisplayName("Enemy projectiles should not damage enemies")
+  void enemyProjectilesIgnored() {
+    Entity enemy = createEnemy(100, 100, 20);
+    Entity projectile = createProjectile(100, 100);
+    projectile.getComponent(ProjectileComponent.class).setOwner("enemy");
+
+    world.update(0.016);
+
+    assertEquals(20, enemy.getComponent(HealthComponent.class).getCurrentHealth());
+    assertTrue(projectile.isAlive(), "Enemy projectile should not be consumed");
+  }
+}
@@ -0,0 +1,104 @@
+package systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.components.TransformComponent;
+import github.zekecode.cowboybebop.components.VelocityComponent;
+import github.zekecode.cowboybebop.core.Entity;
+import github.zekecode.cowboybebop.core.World;
+import github.zekecode.cowboybebop.systems.MovementKernel;
+import github.zekecode.cowboybebop.systems.MovementSystem;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MovementSystemTest {
+
+  private static Entity createMover(World world, double x, double y, double vx, double vy) {
+    Entity entity = world.createEntity();
+    entity.addComponent(new TransformComponent(x, y));
+    VelocityComponent velocity = new VelocityComponent(100);
+    velocity.setVx(vx);
+    velocity.setVy(vy);
+    entity.addComponent(velocity);
+    return entity;
+  }
+
+  /** Runs a kernel on x, y, rotation, vx, vy and max speed arrays, for a tenth of a second. */
+  private static void integrate(MovementKernel kernel, double[][] fields, int count) {
+    kernel.integrate(
+        fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], count, 0.1, 800, 600);
+  }
+
+  @Test
+  @DisplayName("Entities should move by their velocity, limited to their max speed")
+  void entitiesMoveWithinMaxSpeed() {
+    World world = new World();
+    world.addSystem(new MovementSystem(world, 800, 600));
+    Entity slow = createMover(world, 100, 100, 50, 0);
+    Entity fast = createMover(world, 100, 100, 300, 400);
+    Entity idle = createMover(world, 100, 100, 0, 0);
+    idle.getComponent(TransformComponent.class).setRotation(1.0);
+
+    world.update(0.5);
+
+    TransformComponent slowTransform = slow.getComponent(TransformComponent.class);
+    assertEquals(125, slowTransform.getX(), 1e-9, "Slow entity should move by its velocity");
+    assertEquals(0, slowTransform.getRotation(), 1e-9, "Rotation should follow the velocity");
+
+    VelocityComponent fastVelocity = fast.getComponent(VelocityComponent.class);
+    assertEquals(60, fastVelocity.getVx(), 1e-9, "Fast entity should be slowed to max speed");
+    assertEquals(80, fastVelocity.getVy(), 1e-9, "Speed limit should keep the direction");
+    assertEquals(130, fast.getComponent(TransformComponent.class).getX(), 1e-9);
+
+    assertEquals(
+        1.0,
+        idle.getComponent(TransformComponent.class).getRotation(),
+        "Idle entity should keep its rotation");
+  }
+
+  @Test
+  @DisplayName("Entities should stay within the screen")
+  void entitiesClampedToScreen() {
+    World world = new World();
+    world.addSystem(new MovementSystem(world, 800, 600));
+    Entity left = createMover(world, 10, 300, -100, 0);
+    Entity bottom = createMover(world, 400, 590, 0, 100);
+
+    world.update(1.0);
+
+    assertEquals(0, left.getComponent(TransformComponent.class).getX(), 1e-9);
+    assertEquals(600, bottom.getComponent(TransformComponent.class).getY(), 1e-9);
+  }
+
+  @Test
+  @DisplayName("The best available kernel should match the scalar kernel")
+  void bestKernelMatchesScalar() {
+    // An odd count leaves entities after the last full vector of any SIMD kernel
+    int count = 1003;
+    Random random = new Random(42);
+    double[][] expected = new double[6][count];
+    for (int i = 0; i < count; i++) {
+      expected[0][i] = random.nextDouble() * 800;
+      expected[1][i] = random.nextDouble() * 600;
+      expected[3][i] = i % 5 == 0 ? 0 : random.nextGaussian() * 150;
+      expected[4][i] = i % 5 == 0 ? 0 : random.nextGaussian() * 150;
+      expected[5][i] = 50 + random.nextDouble() * 100;
+    }
+    double[][] actual = new double[6][];
+    for (int field = 0; field < 6; field++) {
+      actual[field] = expected[field].clone();
+    }
+
+    integrate(MovementKernel.scalar(), expected, count);
+    integrate(MovementKernel.best(), actual, count);
+
+    for (int field = 0; field < 6; field++) {
+      assertArrayEquals(
+          expected[field],
+          actual[field],
+          1e-9,
+          MovementKernel.best().getName() + " kernel should match the scalar one");
+    }
+  }
+}
@@ -20,6 +20,7 @@ public class ProjectileSystemTest {
   void setUp() {
     world = new World();
     projectileSystem = new ProjectileSystem(world);
+    world.addSystem(projectileSystem);
   }
 
   @Test
@@ -36,14 +37,14 @@ public class ProjectileSystemTest {
 
     // Update with deltaTime
     double deltaTime = 0.5;
-    projectileSystem.update(deltaTime);
+    world.update(deltaTime);
 
     // Time alive should increase by deltaTime
     assertEquals(
         deltaTime, projectileComponent.getTimeAlive(), "Time alive should increase by deltaTime");
 
     // Update again
-    projectileSystem.update(deltaTime);
+    world.update(deltaTime);
 
     // Time alive should accumulate
     assertEquals(
@@ -66,7 +67,7 @@ public class ProjectileSystemTest {
         world.getEntities().contains(projectile), "Projectile should be in the world initially");
 
     // Update with time less than lifetime
-    projectileSystem.update(0.5);
+    world.update(0.5);
 
     // Projectile should still be in the world
     assertTrue(
@@ -74,7 +75,7 @@ public class ProjectileSystemTest {
         "Projectile should remain in the world when time alive < lifetime");
 
     // Update to exactly reach lifetime
-    projectileSystem.update(0.5);
+    world.update(0.5);
 
     // Projectile should be removed
     assertFalse(
@@ -92,7 +93,7 @@ public class ProjectileSystemTest {
     projectile.addComponent(new TransformComponent(100, 100));
 
     // Update with time greater than lifetime
-    projectileSystem.update(1.5);
+    world.update(1.5);
 
     // Projectile should be removed
     assertFalse(
@@ -116,7 +117,7 @@ public class ProjectileSystemTest {
     projectile2.addComponent(new TransformComponent(200, 200));
 
     // Update with time enough to expire second projectile but not first
-    projectileSystem.update(2.0);
+    world.update(2.0);
 
     // First projectile should still be in the world
     assertTrue(
@@ -148,7 +149,7 @@ public class ProjectileSystemTest {
         "Zero-lifetime projectile should be in world before update");
 
     // Update with any time
-    projectileSystem.update(0.001);
+    world.update(0.001);
 
     // Projectile should be removed
     assertFalse(
@@ -165,7 +166,7 @@ public class ProjectileSystemTest {
     projectile.addComponent(new TransformComponent(100, 100));
 
     // Update with any time
-    projectileSystem.update(0.001);
+    world.update(0.001);
 
     // Projectile should be removed
     assertFalse(
@@ -182,7 +183,7 @@ public class ProjectileSystemTest {
 
     // Update should not throw exceptions
     assertDoesNotThrow(
-        () -> projectileSystem.update(1.0),
+        () -> world.update(1.0),
         "Update should not throw exception for entities without ProjectileComponent");
 
     // Entity should still be in the world
@@ -197,7 +198,7 @@ public class ProjectileSystemTest {
 
     // Update should not throw exceptions
     assertDoesNotThrow(
-        () -> projectileSystem.update(1.0), "Update should not throw exception for empty world");
+        () -> world.update(1.0), "Update should not throw exception for empty world");
   }
 
   @Test
@@ -210,10 +211,10 @@ public class ProjectileSystemTest {
     projectile.addComponent(new TransformComponent(100, 100));
 
     // Series of updates with different delta times
-    projectileSystem.update(0.5); // 0.5
-    projectileSystem.update(0.7); // 1.2
-    projectileSystem.update(0.3); // 1.5
-    projectileSystem.update(0.8); // 2.3
+    world.update(0.5); // 0.5
+    world.update(0.7); // 1.2
+    world.update(0.3); // 1.5
+    world.update(0.8); // 2.3
 
     // Time alive should be sum of all updates
     assertEquals(
@@ -228,7 +229,7 @@ public class ProjectileSystemTest {
         "Projectile should remain in the world when time alive < lifetime");
 
     // Final update to exceed lifetime
-    projectileSystem.update(1.0); // 3.3
+    world.update(1.0); // 3.3
 
     // Projectile should be removed
     assertFalse(
@@ -0,0 +1,65 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.FixedTimestep;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FixedTimestepTest {
+
+  private static final double DELTA = 0.0001;
+  private static final double STEP = 1.0 / 60;
+
+  private FixedTimestep timestep;
+
+  @BeforeEach
+  void setUp() {
+    timestep = new FixedTimestep(STEP, 5);
+  }
+
+  @Test
+  @DisplayName("Frames shorter than a step should accumulate until a tick is due")
+  void shortFramesAccumulate() {
+    // A 240 Hz display runs one tick every four frames
+    double frame = 1.0 / 240;
+    assertEquals(0, timestep.advance(frame));
+    assertEquals(0, timestep.advance(frame));
+    assertEquals(0, timestep.advance(frame));
+    assertEquals(0.75, timestep.getAlpha(), DELTA, "Three quarters of a step should be left");
+    assertEquals(1, timestep.advance(frame * 1.01), "The fourth frame should complete a tick");
+  }
+
+  @Test
+  @DisplayName("Long frames should run several ticks and keep the remainder")
+  void longFramesRunSeveralTicks() {
+    assertEquals(2, timestep.advance(STEP * 2.5));
+    assertEquals(0.5, timestep.getAlpha(), DELTA, "Half a step should be left for interpolation");
+  }
+
+  @Test
+  @DisplayName("Stalls should be clamped to the maximum number of ticks")
+  void stallsAreClamped() {
+    assertEquals(5, timestep.advance(2.0), "A two second stall should only run five ticks");
+    assertTrue(timestep.getAlpha() < 1, "The dropped backlog should not carry over");
+    assertEquals(0, timestep.advance(0), "No tick should be due right after a stall");
+  }
+
+  @Test
+  @DisplayName("Reset should drop accumulated time")
+  void resetDropsAccumulatedTime() {
+    timestep.advance(STEP * 0.9);
+    timestep.reset();
+
+    assertEquals(0, timestep.getAlpha(), DELTA);
+    assertEquals(0, timestep.advance(STEP * 0.5));
+  }
+
+  @Test
+  @DisplayName("Invalid parameters should be rejected")
+  void invalidParametersRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(0, 5));
+    assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(STEP, 0));
+  }
+}
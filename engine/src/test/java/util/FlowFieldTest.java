@@ -0,0 +1,91 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.FlowField;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlowFieldTest {
+
+  /** Follows the field from a point until the target cell, returning the number of steps. */
+  private static int walk(FlowField field, double x, double y) {
+    double cellSize = field.getCellSize();
+    for (int steps = 0; steps < 1000; steps++) {
+      int cell = field.cellOf(x, y);
+      if (cell == field.getTargetCell()) {
+        return steps;
+      }
+      assertFalse(
+          field.isBlocked(cell % field.getColumns(), cell / field.getColumns()),
+          "Path should never enter a blocked cell");
+      x += Math.signum(field.getDirectionX(cell)) * cellSize;
+      y += Math.signum(field.getDirectionY(cell)) * cellSize;
+    }
+    return fail("Field should lead to the target");
+  }
+
+  @Test
+  @DisplayName("Directions should point towards the target in an open field")
+  void openFieldPointsAtTarget() {
+    FlowField field = new FlowField(100, 100, 10);
+    field.update(55, 55);
+
+    int right = field.cellOf(95, 55);
+    assertEquals(-1, field.getDirectionX(right), 1e-9, "Cell on the right should go left");
+    assertEquals(0, field.getDirectionY(right), 1e-9);
+
+    int corner = field.cellOf(5, 5);
+    assertEquals(Math.sqrt(0.5), field.getDirectionX(corner), 1e-9, "Corner should go diagonal");
+    assertEquals(Math.sqrt(0.5), field.getDirectionY(corner), 1e-9);
+
+    int target = field.cellOf(55, 55);
+    assertEquals(0, field.getDistance(target), "Target cell should be at distance 0");
+    assertEquals(0, field.getDirectionX(target), "Target cell should have no direction");
+    assertEquals(10, field.getDistance(corner), "Distance should count side steps");
+  }
+
+  @Test
+  @DisplayName("Directions should lead around obstacles")
+  void directionsAvoidObstacles() {
+    FlowField field = new FlowField(100, 100, 10);
+    // Vertical wall in column 5, open at the bottom row
+    for (int row = 0; row < 9; row++) {
+      field.setBlocked(5, row, true);
+    }
+    field.update(85, 15);
+
+    int behindWall = field.cellOf(45, 15);
+    assertEquals(0, field.getDirectionX(behindWall), 1e-9, "Cell behind wall should not go right");
+    assertEquals(1, field.getDirectionY(behindWall), 1e-9, "Cell behind wall should go down");
+    assertEquals(20, field.getDistance(behindWall), "Distance should go through the gap");
+    assertTrue(walk(field, 35, 15) <= 21, "Following the field should not take a longer way");
+  }
+
+  @Test
+  @DisplayName("Walled off cells should be unreachable")
+  void walledOffCellsUnreachable() {
+    FlowField field = new FlowField(100, 100, 10);
+    for (int row = 0; row < 10; row++) {
+      field.setBlocked(5, row, true);
+    }
+    field.update(85, 15);
+
+    int cutOff = field.cellOf(15, 15);
+    assertEquals(FlowField.UNREACHABLE, field.getDistance(cutOff));
+    assertEquals(0, field.getDirectionX(cutOff), "Unreachable cell should have no direction");
+  }
+
+  @Test
+  @DisplayName("The field should only be recomputed when needed")
+  void recomputedOnlyOnChange() {
+    FlowField field = new FlowField(100, 100, 10);
+
+    assertTrue(field.update(55, 55), "First update should compute the field");
+    assertFalse(field.update(58, 52), "Target in the same cell should not recompute");
+    assertTrue(field.update(65, 55), "Target in another cell should recompute");
+
+    field.setBlocked(0, 0, true);
+    assertTrue(field.update(65, 55), "Changed obstacles should recompute");
+  }
+}
@@ -0,0 +1,118 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.InputBuffer;
+import github.zekecode.cowboybebop.util.InputState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class InputBufferTest {
+
+  private static final int W = 0;
+  private static final int SPACE = 1;
+
+  /** Beyond the first word of the bitsets */
+  private static final int F3 = 70;
+
+  private InputBuffer buffer;
+
+  @BeforeEach
+  void setUp() {
+    String[] names = new String[F3 + 1];
+    for (int key = 0; key < names.length; key++) {
+      names[key] = "K" + key;
+    }
+    names[W] = "W";
+    names[SPACE] = "SPACE";
+    names[F3] = "F3";
+    buffer = new InputBuffer(names);
+  }
+
+  @Test
+  @DisplayName("Held keys should be seen by every snapshot until released")
+  void heldKeys() {
+    buffer.press(W);
+    buffer.press(F3);
+
+    assertTrue(buffer.snapshot().isKeyPressed("W"));
+    InputState state = buffer.snapshot();
+    assertTrue(state.isKeyPressed("W"), "Held keys should stay pressed");
+    assertTrue(state.isKeyPressed(F3), "Keys past the first 64 should be tracked");
+    assertFalse(state.isKeyPressed("SPACE"));
+    assertFalse(state.isKeyPressed("UNKNOWN"), "Unknown keys should read as released");
+
+    buffer.release(W);
+    assertFalse(buffer.snapshot().isKeyPressed("W"), "Released keys should stop being pressed");
+    assertTrue(state.isKeyPressed("W"), "Snapshots should not change during the next tick");
+  }
+
+  @Test
+  @DisplayName("A key tapped between two snapshots should be seen by exactly one")
+  void tapsAreNotLost() {
+    buffer.press(SPACE);
+    buffer.release(SPACE);
+    assertFalse(buffer.isKeyPressed(SPACE), "The live state should not see the tap anymore");
+
+    assertTrue(buffer.snapshot().isKeyPressed("SPACE"), "The next tick should see the tap");
+    assertFalse(buffer.snapshot().isKeyPressed("SPACE"), "Only one tick should see the tap");
+  }
+
+  @Test
+  @DisplayName("Mouse clicks between two snapshots should be seen by exactly one")
+  void mouseClicksAreNotLost() {
+    buffer.setMousePressed(true);
+    buffer.setMousePressed(false);
+    buffer.moveMouse(12.5, 300);
+
+    InputState state = buffer.snapshot();
+    assertTrue(state.isMousePressed(), "The click should be seen");
+    assertEquals(12.5, state.getMouseX());
+    assertEquals(300, state.getMouseY());
+    assertFalse(buffer.snapshot().isMousePressed(), "Only one tick should see the click");
+
+    buffer.setMousePressed(true);
+    assertTrue(buffer.snapshot().isMousePressed());
+    assertTrue(buffer.snapshot().isMousePressed(), "A held button should stay pressed");
+  }
+
+  @Test
+  @DisplayName("Snapshots should be taken into two states in turn")
+  void snapshotsAreDoubleBuffered() {
+    InputState first = buffer.snapshot();
+    InputState second = buffer.snapshot();
+
+    assertNotSame(first, second, "The previous snapshot should stay readable");
+    assertSame(first, buffer.snapshot(), "States should be reused instead of allocated");
+    assertSame(second, buffer.snapshot());
+    assertSame(buffer.getLayout(), first.getLayout(), "States should share the buffer's layout");
+  }
+
+  @Test
+  @DisplayName("Snapshots taken while another thread writes should see every press")
+  void concurrentWrites() throws InterruptedException {
+    int presses = 10_000;
+    Thread events =
+        new Thread(
+            () -> {
+              for (int i = 0; i < presses; i++) {
+                buffer.press(SPACE);
+                buffer.release(SPACE);
+                buffer.moveMouse(i, i);
+              }
+            });
+    events.start();
+    int seen = 0;
+    while (events.isAlive()) {
+      InputState state = buffer.snapshot();
+      seen += state.isKeyPressed(SPACE) ? 1 : 0;
+      assertEquals(state.getMouseX(), state.getMouseY(), "Coordinates should be read as a pair");
+    }
+    events.join();
+    seen += buffer.snapshot().isKeyPressed(SPACE) ? 1 : 0;
+
+    assertTrue(seen > 0, "Presses should be seen");
+    assertFalse(buffer.snapshot().isKeyPressed(SPACE), "The last press should be consumed");
+  }
+}
@@ -0,0 +1,83 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.LruCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+  private static LruCache<String, String> cacheOf(long budget) {
+    // Values weigh their length
+    return new LruCache<>(budget, String::length);
+  }
+
+  @Test
+  @DisplayName("Least recently used values should be evicted past the budget")
+  void leastRecentlyUsedEvicted() {
+    LruCache<String, String> cache = cacheOf(10);
+    cache.put("a", "aaaa");
+    cache.put("b", "bbbb");
+    cache.get("a");
+
+    cache.put("c", "cccc");
+
+    assertEquals(8, cache.getWeight(), "Weight should stay within the budget");
+    assertNull(cache.get("b"), "Least recently used value should be evicted");
+    assertEquals("aaaa", cache.get("a"), "Recently read value should be kept");
+    assertEquals("cccc", cache.get("c"), "New value should be kept");
+    assertEquals(1, cache.getEvictions(), "Eviction should be counted");
+  }
+
+  @Test
+  @DisplayName("Lookups should count hits and misses")
+  void lookupsCounted() {
+    LruCache<String, String> cache = cacheOf(10);
+    cache.put("a", "a");
+
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+
+    assertEquals(2, cache.getHits(), "Found values should count as hits");
+    assertEquals(1, cache.getMisses(), "Missing values should count as misses");
+  }
+
+  @Test
+  @DisplayName("Replacing a value should update the weight")
+  void replacingUpdatesWeight() {
+    LruCache<String, String> cache = cacheOf(10);
+    cache.put("a", "aaaa");
+    cache.put("a", "aa");
+
+    assertEquals(1, cache.size(), "Replacing should not add an entry");
+    assertEquals(2, cache.getWeight(), "Weight should be the new value's");
+  }
+
+  @Test
+  @DisplayName("Shrinking the budget should evict right away")
+  void shrinkingBudgetEvicts() {
+    LruCache<String, String> cache = cacheOf(10);
+    cache.put("a", "aaa");
+    cache.put("b", "bbb");
+    cache.put("c", "ccc");
+
+    cache.setBudget(4);
+
+    assertEquals(1, cache.size(), "Only the latest value should fit");
+    assertEquals("ccc", cache.get("c"));
+  }
+
+  @Test
+  @DisplayName("A value heavier than the budget should be kept alone")
+  void oversizedValueKeptAlone() {
+    LruCache<String, String> cache = cacheOf(4);
+    cache.put("a", "aa");
+
+    cache.put("b", "bbbbbb");
+
+    assertEquals(1, cache.size(), "Other values should be evicted");
+    assertEquals("bbbbbb", cache.get("b"), "Oversized value should be kept");
+  }
+}
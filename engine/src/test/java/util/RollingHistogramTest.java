@@ -0,0 +1,51 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.RollingHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RollingHistogramTest {
+
+  @Test
+  @DisplayName("Percentiles should be computed over the recorded samples")
+  void percentilesOverSamples() {
+    RollingHistogram histogram = new RollingHistogram(100);
+    for (int value = 100; value >= 1; value--) {
+      histogram.record(value);
+    }
+
+    assertEquals(50, histogram.percentile(0.5), "Median of 1..100 should be 50");
+    assertEquals(99, histogram.percentile(0.99), "p99 of 1..100 should be 99");
+    assertEquals(100, histogram.max(), "Max should be the largest sample");
+    assertEquals(1, histogram.latest(), "Latest should be the last recorded sample");
+  }
+
+  @Test
+  @DisplayName("Old samples should be evicted once the window is full")
+  void oldSamplesEvicted() {
+    RollingHistogram histogram = new RollingHistogram(4);
+    for (int value = 1; value <= 6; value++) {
+      histogram.record(value * 10);
+    }
+
+    assertEquals(4, histogram.size(), "Size should be capped at the capacity");
+    assertEquals(30, histogram.get(0), "Oldest kept sample should come first");
+    assertEquals(60, histogram.get(3), "Latest sample should come last");
+    assertEquals(60, histogram.max());
+  }
+
+  @Test
+  @DisplayName("An empty histogram should report zeros")
+  void emptyHistogramReportsZeros() {
+    RollingHistogram histogram = new RollingHistogram(8);
+    histogram.record(5);
+    histogram.clear();
+
+    assertEquals(0, histogram.size());
+    assertEquals(0, histogram.percentile(0.5));
+    assertEquals(0, histogram.max());
+    assertEquals(0, histogram.latest());
+  }
+}
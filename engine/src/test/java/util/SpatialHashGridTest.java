@@ -0,0 +1,106 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.SpatialHashGrid;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SpatialHashGridTest {
+
+  private static final double CELL_SIZE = 20.0;
+
+  private static long pairKey(int a, int b) {
+    return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+  }
+
+  @Test
+  @DisplayName("Every close pair should be reported exactly once")
+  void closePairsReportedExactlyOnce() {
+    Random random = new Random(42);
+    int count = 500;
+    double[] xs = new double[count];
+    double[] ys = new double[count];
+    for (int i = 0; i < count; i++) {
+      xs[i] = random.nextDouble() * 400 - 50; // Include negative coordinates too
+      ys[i] = random.nextDouble() * 300 - 50;
+    }
+
+    SpatialHashGrid grid = new SpatialHashGrid();
+    grid.build(xs, ys, count, CELL_SIZE);
+
+    Set<Long> reported = new HashSet<>();
+    grid.forEachPair(
+        (a, b) -> {
+          assertNotEquals(a, b, "A point should never be paired with itself");
+          assertTrue(reported.add(pairKey(a, b)), "Pair should be reported only once");
+        });
+
+    // Brute force: every pair closer than the cell size must have been reported
+    for (int a = 0; a < count; a++) {
+      for (int b = a + 1; b < count; b++) {
+        double dx = xs[a] - xs[b];
+        double dy = ys[a] - ys[b];
+        if (dx * dx + dy * dy < CELL_SIZE * CELL_SIZE) {
+          assertTrue(reported.contains(pairKey(a, b)), "Close pair should be a candidate");
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Far away points should not be paired")
+  void farPointsNotPaired() {
+    double[] xs = {0, 100, 200};
+    double[] ys = {0, 100, 200};
+
+    SpatialHashGrid grid = new SpatialHashGrid();
+    grid.build(xs, ys, xs.length, CELL_SIZE);
+
+    grid.forEachPair((a, b) -> fail("No pair should be reported for distant points"));
+  }
+
+  @Test
+  @DisplayName("Rebuilding the grid should forget the previous points")
+  void rebuildForgetsPreviousPoints() {
+    SpatialHashGrid grid = new SpatialHashGrid();
+    grid.build(new double[] {0, 1}, new double[] {0, 1}, 2, CELL_SIZE);
+    grid.build(new double[] {0, 500}, new double[] {0, 500}, 2, CELL_SIZE);
+
+    grid.forEachPair((a, b) -> fail("Only the points of the last build should be considered"));
+  }
+
+  @Test
+  @DisplayName("Every point close to a position should be visited exactly once")
+  void nearPointsVisitedExactlyOnce() {
+    Random random = new Random(7);
+    int count = 500;
+    double[] xs = new double[count];
+    double[] ys = new double[count];
+    for (int i = 0; i < count; i++) {
+      xs[i] = random.nextDouble() * 400 - 50;
+      ys[i] = random.nextDouble() * 300 - 50;
+    }
+
+    SpatialHashGrid grid = new SpatialHashGrid();
+    grid.build(xs, ys, count, CELL_SIZE);
+
+    Set<Integer> visited = new HashSet<>();
+    grid.forEachNear(
+        120, 80, index -> assertTrue(visited.add(index), "Point should be visited only once"));
+
+    for (int i = 0; i < count; i++) {
+      double dx = xs[i] - 120;
+      double dy = ys[i] - 80;
+      if (dx * dx + dy * dy < CELL_SIZE * CELL_SIZE) {
+        assertTrue(visited.contains(i), "Close point should be a candidate");
+      }
+      assertTrue(
+          !visited.contains(i) || Math.abs(dx) < CELL_SIZE * 2 && Math.abs(dy) < CELL_SIZE * 2,
+          "Only points of the neighbouring cells should be visited");
+    }
+  }
+}
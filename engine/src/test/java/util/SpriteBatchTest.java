@@ -0,0 +1,97 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import github.zekecode.cowboybebop.util.SpriteBatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SpriteBatchTest {
+  private static final int RED = 0xFFFF0000;
+  private static final int BLUE = 0xFF0000FF;
+
+  @Test
+  @DisplayName("Sprites should be grouped by color, keeping their order within a color")
+  void spritesGroupedByColor() {
+    SpriteBatch batch = new SpriteBatch();
+    batch.add(0, 0, 0, 2, 2, RED);
+    batch.add(10, 0, 0, 2, 2, BLUE);
+    batch.add(20, 0, 0, 2, 2, RED);
+
+    batch.sort();
+
+    assertEquals(3, batch.size(), "Every sprite should be kept");
+    assertEquals(2, batch.getBatchCount(), "There should be one batch per color");
+    assertEquals(BLUE, batch.getBatchColor(0), "Batches should be ordered by color");
+    assertEquals(0, batch.getBatchStart(0));
+    assertEquals(1, batch.getBatchEnd(0), "Blue batch should hold one sprite");
+    assertEquals(RED, batch.getBatchColor(1));
+    assertEquals(1, batch.getBatchStart(1));
+    assertEquals(3, batch.getBatchEnd(1), "Red batch should hold two sprites");
+
+    double[] cornerX = batch.getCornerX();
+    assertEquals(9, cornerX[0], 1e-9, "Blue sprite should come first");
+    assertEquals(-1, cornerX[4], 1e-9, "First red sprite should keep its place");
+    assertEquals(19, cornerX[8], 1e-9, "Second red sprite should come last");
+  }
+
+  @Test
+  @DisplayName("Corners should be rotated around the sprite center")
+  void cornersAreRotated() {
+    SpriteBatch batch = new SpriteBatch();
+    batch.add(100, 50, Math.PI / 2, 4, 2, RED);
+    batch.sort();
+
+    double[] cornerX = batch.getCornerX();
+    double[] cornerY = batch.getCornerY();
+    // A quarter turn swaps the extents: 2 wide and 4 high
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int c = 0; c < 4; c++) {
+      minX = Math.min(minX, cornerX[c]);
+      maxX = Math.max(maxX, cornerX[c]);
+      minY = Math.min(minY, cornerY[c]);
+      maxY = Math.max(maxY, cornerY[c]);
+    }
+    assertEquals(99, minX, 1e-9);
+    assertEquals(101, maxX, 1e-9);
+    assertEquals(48, minY, 1e-9);
+    assertEquals(52, maxY, 1e-9);
+  }
+
+  @Test
+  @DisplayName("Invisible sprites should be dropped")
+  void invisibleSpritesCulled() {
+    SpriteBatch batch = new SpriteBatch();
+    batch.setBounds(0, 0, 100, 100);
+
+    batch.add(50, 50, 0, 10, 10, RED);
+    batch.add(-4, 50, 0, 10, 10, RED);
+    batch.add(200, 50, 0, 10, 10, RED);
+    batch.add(50, 50, 0, 10, 10, 0x00FF0000);
+
+    assertEquals(2, batch.size(), "Only sprites overlapping the bounds should be kept");
+  }
+
+  @Test
+  @DisplayName("The batch should grow and be reusable after a clear")
+  void growsAndClears() {
+    SpriteBatch batch = new SpriteBatch();
+    for (int i = 0; i < 1000; i++) {
+      batch.add(i, i, 0, 1, 1, i % 3 == 0 ? RED : BLUE);
+    }
+    batch.sort();
+
+    assertEquals(1000, batch.size(), "Batch should grow past its initial capacity");
+    assertEquals(2, batch.getBatchCount());
+    assertEquals(666, batch.getBatchEnd(0), "Blue sprites should be counted");
+
+    batch.clear();
+    batch.sort();
+
+    assertEquals(0, batch.size(), "Clear should drop every sprite");
+    assertEquals(0, batch.getBatchCount(), "Clear should drop every batch");
+  }
+}
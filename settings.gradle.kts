@@ -1,2 +1,3 @@
 rootProject.name = "pss23-24-cowboy_bebop-Spina"
 
+include("engine", "client")